@@ -1,43 +1,107 @@
 package com.appunture.backend.config;
 
+import com.appunture.backend.service.cache.CacheEntryWeigher;
+import com.appunture.backend.service.cache.CacheRefresher;
+import com.appunture.backend.service.cache.NegativeAwareExpiry;
+import com.github.benmanes.caffeine.cache.Cache;
 import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
 import org.springframework.cache.CacheManager;
 import org.springframework.cache.annotation.EnableCaching;
 import org.springframework.cache.caffeine.CaffeineCacheManager;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 
-import java.util.concurrent.TimeUnit;
+import java.time.Duration;
+import java.util.List;
 
+/**
+ * Caches Caffeine limitados por memória estimada: cada cache recebe uma parcela de um teto
+ * global de heap e as entradas pesam o que ocupam, em vez de contar uma lista com o catálogo
+ * inteiro como uma entrada igual às outras.
+ *
+ * <p>Acertos, falhas, cargas e remoções chegam ao Prometheus pelo registro de métricas de cache
+ * do actuator, que associa todos os caches criados aqui na inicialização.</p>
+ *
+ * <p>Com {@code app.cache.refresh-after} as entradas são recarregadas em segundo plano pelo
+ * {@link CacheRefresher} antes do {@code time-to-live}, que passa a ser apenas o limite para
+ * servir um valor antigo quando o Firestore não responde. Resultados vazios expiram em
+ * {@code negative-time-to-live}.</p>
+ */
 @Configuration
 @EnableCaching
+@Slf4j
 public class CacheConfig {
 
     public static final String CACHE_POINTS = "points";
     public static final String CACHE_POINTS_BY_MERIDIAN = "pointsByMeridian";
     public static final String CACHE_POINT_BY_CODE = "pointByCode";
-    public static final String CACHE_POPULAR_POINTS = "popularPoints";
     public static final String CACHE_POINTS_COUNT = "pointsCount";
 
+    public static final List<String> POINT_CACHES = List.of(
+            CACHE_POINTS,
+            CACHE_POINTS_BY_MERIDIAN,
+            CACHE_POINT_BY_CODE,
+            CACHE_POINTS_COUNT
+    );
+
     @Bean
-    public CacheManager cacheManager() {
+    public CacheManager cacheManager(CacheProperties cacheProperties,
+                                     CacheRefresher cacheRefresher,
+                                     MeterRegistry meterRegistry) {
         CaffeineCacheManager cacheManager = new CaffeineCacheManager();
         
-        // Default cache settings
+        // Caches sem parcela do orçamento
         cacheManager.setCaffeine(Caffeine.newBuilder()
-                .expireAfterWrite(30, TimeUnit.MINUTES)
+                .expireAfterWrite(cacheProperties.getTimeToLive())
                 .maximumSize(1000)
                 .recordStats());
         
         // Register specific caches
-        cacheManager.setCacheNames(java.util.List.of(
-                CACHE_POINTS,
-                CACHE_POINTS_BY_MERIDIAN,
-                CACHE_POINT_BY_CODE,
-                CACHE_POPULAR_POINTS,
-                CACHE_POINTS_COUNT
-        ));
+        cacheManager.setCacheNames(POINT_CACHES);
+
+        long budget = cacheProperties.heapBudgetBytes();
+        CacheEntryWeigher weigher = new CacheEntryWeigher();
+        NegativeAwareExpiry expiry = new NegativeAwareExpiry(
+                cacheProperties.getTimeToLive(), cacheProperties.getNegativeTimeToLive());
+        for (String name : POINT_CACHES) {
+            long maximumWeight = (long) (budget * cacheProperties.shareOf(name));
+            if (maximumWeight <= 0) {
+                continue;
+            }
+            Caffeine<Object, Object> builder = Caffeine.newBuilder()
+                    .expireAfter(expiry)
+                    .maximumWeight(maximumWeight)
+                    .weigher(weigher)
+                    .recordStats();
+            Duration refreshAfter = cacheProperties.getRefreshAfter();
+            Cache<Object, Object> cache = refreshAfter != null && !refreshAfter.isZero()
+                    && refreshAfter.compareTo(cacheProperties.getTimeToLive()) < 0
+                    ? builder.refreshAfterWrite(refreshAfter).build(cacheRefresher.loaderFor(name))
+                    : builder.build();
+            cacheManager.registerCustomCache(name, cache);
+
+            Gauge.builder("app_cache_weight_bytes", cache, CacheConfig::weightedSize)
+                    .description("Memória estimada ocupada pelas entradas do cache")
+                    .baseUnit("bytes")
+                    .tag("cache", name)
+                    .register(meterRegistry);
+            Gauge.builder("app_cache_weight_limit_bytes", () -> maximumWeight)
+                    .description("Parcela do orçamento de heap reservada ao cache")
+                    .baseUnit("bytes")
+                    .tag("cache", name)
+                    .register(meterRegistry);
+        }
+        log.info("Orçamento de memória dos caches: {} KiB", budget / 1024);
         
         return cacheManager;
     }
+
+    public static long weightedSize(Cache<?, ?> cache) {
+        return cache.policy().eviction()
+                .map(eviction -> eviction.weightedSize().orElse(0))
+                .orElse(0L);
+    }
 }
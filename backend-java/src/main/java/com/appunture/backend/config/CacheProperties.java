@@ -0,0 +1,65 @@
+package com.appunture.backend.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "app.cache")
+public class CacheProperties {
+
+    // Validade máxima das entradas; também é quanto tempo o último valor bom sobrevive a falhas
+    private Duration timeToLive = Duration.ofHours(2);
+
+    // Validade de "não encontrado" (código inexistente, meridiano sem pontos)
+    private Duration negativeTimeToLive = Duration.ofMinutes(1);
+
+    // Idade a partir da qual uma leitura devolve o valor em cache e agenda a recarga; vazio desliga
+    private Duration refreshAfter = Duration.ofMinutes(10);
+
+    // Threads e fila do pool de recarga; com a fila cheia a recarga fica para a leitura seguinte
+    private int refreshThreads = 2;
+    private int refreshQueueCapacity = 32;
+
+    // Teto de memória somando todos os caches; vazio = heapBudgetRatio do heap máximo
+    private DataSize heapBudget;
+
+    // Fração do heap máximo usada como teto quando heapBudget não é informado
+    private double heapBudgetRatio = 0.10;
+
+    // Parcela do teto reservada a cada cache; a entrada "points" guarda o catálogo inteiro
+    private Map<String, Double> budgetShares = new LinkedHashMap<>(Map.of(
+            "points", 0.35,
+            "pointsByMeridian", 0.25,
+            "pointByCode", 0.35,
+            "pointsCount", 0.05));
+
+    // Propaga as invalidações de cache para as demais instâncias pela coleção _cache_events
+    private boolean busEnabled = true;
+
+    // Eventos mais antigos que isso já foram entregues a todas as instâncias ativas
+    private Duration eventRetention = Duration.ofHours(1);
+
+    // Intervalo da limpeza de eventos expirados
+    private Duration eventPruneInterval = Duration.ofMinutes(10);
+
+    // Intervalo antes de reabrir o listener de eventos que falhou
+    private Duration resubscribeDelay = Duration.ofSeconds(5);
+
+    public long heapBudgetBytes() {
+        if (heapBudget != null) {
+            return heapBudget.toBytes();
+        }
+        return (long) (Runtime.getRuntime().maxMemory() * heapBudgetRatio);
+    }
+
+    public double shareOf(String cacheName) {
+        return budgetShares.getOrDefault(cacheName, 0.0);
+    }
+}
@@ -0,0 +1,19 @@
+package com.appunture.backend.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "app.catalog")
+public class CatalogProperties {
+
+    // Mantém pontos e sintomas em memória, sincronizados por snapshot listeners do Firestore
+    private boolean enabled = true;
+
+    // Intervalo antes de reabrir um listener que falhou
+    private Duration resubscribeDelay = Duration.ofSeconds(5);
+}
@@ -0,0 +1,34 @@
+package com.appunture.backend.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "app.counters")
+public class CounterProperties {
+
+    // Janela em que incrementos locais são acumulados antes de virar uma única escrita no Firestore
+    private Duration flushInterval = Duration.ofSeconds(2);
+
+    // Shards de favoritos por ponto; 0 grava direto no campo favoriteCount de pointStats/{id}
+    private int favoriteShards = 0;
+
+    // Validade dos totais gravados em pointStats/symptomStats (e shards) mantidos em memória
+    private Duration totalsTtl = Duration.ofSeconds(30);
+
+    // Sketches de visitantes únicos mantidos em memória (4 KB cada)
+    private int viewerSketches = 1000;
+
+    // Depois disso o sketch é relido do Firestore para incluir visitantes de outras instâncias
+    private Duration viewerSketchTtl = Duration.ofMinutes(5);
+
+    // Maior limite servido pelo ranking de pontos populares em memória
+    private int popularMaxLimit = 100;
+
+    // Intervalo da reconciliação do ranking com o catálogo e os shards
+    private Duration rankingReconcileInterval = Duration.ofMinutes(1);
+}
@@ -118,6 +118,7 @@ public class SecurityConfig {
                         // Endpoints de leitura públicos (modo visitante)
                         .requestMatchers(org.springframework.http.HttpMethod.GET, "/points/**").permitAll()
                         .requestMatchers(org.springframework.http.HttpMethod.GET, "/symptoms/**").permitAll()
+                        .requestMatchers(org.springframework.http.HttpMethod.GET, "/sync/**").permitAll()
                         // Swagger/OpenAPI
                         .requestMatchers("/v3/api-docs/**", "/swagger-ui.html", "/swagger-ui/**").permitAll()
                         // Endpoints protegidos
@@ -0,0 +1,26 @@
+package com.appunture.backend.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "app.sync")
+public class SyncProperties {
+
+    // Tempo que as exclusões ficam registradas; tokens mais antigos exigem sincronização completa
+    private Duration tombstoneRetention = Duration.ofDays(90);
+
+    // Intervalo da limpeza de tombstones expirados
+    private Duration tombstonePruneInterval = Duration.ofHours(6);
+
+    // Alterações mais novas que isso ficam para a próxima chamada, cobrindo escritas ainda em voo
+    // e pequenas diferenças de relógio entre instâncias
+    private Duration settleWindow = Duration.ofSeconds(2);
+
+    // Intervalo entre verificações do pacote offline; só reconstrói quando o catálogo mudou
+    private Duration packCheckInterval = Duration.ofSeconds(30);
+}
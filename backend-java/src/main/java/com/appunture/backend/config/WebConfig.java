@@ -0,0 +1,43 @@
+package com.appunture.backend.config;
+
+import com.appunture.backend.controller.CatalogETagInterceptor;
+import com.appunture.backend.controller.CatalogSnapshotInterceptor;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+@Configuration
+@RequiredArgsConstructor
+public class WebConfig implements WebMvcConfigurer {
+
+    private final CatalogETagInterceptor catalogETagInterceptor;
+    private final CatalogSnapshotInterceptor catalogSnapshotInterceptor;
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        // Ordem importa: o 304 do ETag vem antes de escrever o snapshot
+        registry.addInterceptor(catalogETagInterceptor);
+        registry.addInterceptor(catalogSnapshotInterceptor);
+    }
+
+    /**
+     * CBOR e Smile partem do mesmo builder do JSON (módulos, formato de datas), então os três
+     * formatos expõem exatamente os mesmos campos de {@code FirestorePoint}/{@code FirestoreSymptom}.
+     */
+    @Bean
+    public MappingJackson2CborHttpMessageConverter cborHttpMessageConverter(Jackson2ObjectMapperBuilder builder) {
+        return new MappingJackson2CborHttpMessageConverter(builder.factory(new CBORFactory()).build());
+    }
+
+    @Bean
+    public MappingJackson2SmileHttpMessageConverter smileHttpMessageConverter(Jackson2ObjectMapperBuilder builder) {
+        return new MappingJackson2SmileHttpMessageConverter(builder.factory(new SmileFactory()).build());
+    }
+}
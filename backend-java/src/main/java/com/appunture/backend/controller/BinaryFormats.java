@@ -0,0 +1,45 @@
+package com.appunture.backend.controller;
+
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.InvalidMediaTypeException;
+import org.springframework.http.MediaType;
+
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Representações binárias das APIs de catálogo. JSON continua o padrão; CBOR ou Smile só são
+ * usados quando o cliente os pede explicitamente no {@code Accept}.
+ */
+final class BinaryFormats {
+
+    static final MediaType APPLICATION_SMILE = new MediaType("application", "x-jackson-smile");
+
+    private static final List<MediaType> BINARY = List.of(MediaType.APPLICATION_CBOR, APPLICATION_SMILE);
+
+    private BinaryFormats() {
+    }
+
+    static Optional<MediaType> requested(HttpServletRequest request) {
+        String accept = request.getHeader(HttpHeaders.ACCEPT);
+        if (accept == null || accept.isBlank()) {
+            return Optional.empty();
+        }
+        try {
+            for (MediaType type : MediaType.parseMediaTypes(accept)) {
+                if (type.getQualityValue() <= 0) {
+                    continue;
+                }
+                for (MediaType binary : BINARY) {
+                    if (binary.equalsTypeAndSubtype(type)) {
+                        return Optional.of(binary);
+                    }
+                }
+            }
+        } catch (InvalidMediaTypeException e) {
+            return Optional.empty();
+        }
+        return Optional.empty();
+    }
+}
@@ -0,0 +1,21 @@
+package com.appunture.backend.controller;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Marca leituras cujo corpo depende apenas do catálogo de pontos e sintomas. O
+ * {@link CatalogETagInterceptor} responde {@code 304} antes de o handler executar quando o
+ * cliente já tem a versão atual.
+ *
+ * <p>Não usar em endpoints com efeitos colaterais (ex.: registro de visualização) ou com
+ * contadores ao vivo.</p>
+ */
+@Documented
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface CatalogETag {
+}
@@ -0,0 +1,76 @@
+package com.appunture.backend.controller;
+
+import com.appunture.backend.service.CatalogVersion;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.stereotype.Component;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerInterceptor;
+
+import java.util.Enumeration;
+import java.util.Optional;
+
+/**
+ * Emite o ETag do catálogo nos handlers marcados com {@link CatalogETag} e resolve
+ * {@code If-None-Match} antes de qualquer acesso ao repositório ou serialização.
+ */
+@Component
+@RequiredArgsConstructor
+public class CatalogETagInterceptor implements HandlerInterceptor {
+
+    private final CatalogVersion catalogVersion;
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        if (!(handler instanceof HandlerMethod method) || !method.hasMethodAnnotation(CatalogETag.class)) {
+            return true;
+        }
+        if (!HttpMethod.GET.matches(request.getMethod()) && !HttpMethod.HEAD.matches(request.getMethod())) {
+            return true;
+        }
+        Optional<String> etag = catalogVersion.etag();
+        if (etag.isEmpty()) {
+            return true;
+        }
+        // Lida antes do handler: no pior caso o corpo é mais novo que o ETag, nunca mais antigo
+        String tag = representationTag(etag.get(), request);
+        response.setHeader(HttpHeaders.ETAG, tag);
+        response.addHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT);
+        if (matches(request.getHeaders(HttpHeaders.IF_NONE_MATCH), tag)) {
+            response.setStatus(HttpServletResponse.SC_NOT_MODIFIED);
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * ETag forte vale para uma representação específica, então CBOR/Smile recebem sufixo próprio.
+     */
+    private static String representationTag(String etag, HttpServletRequest request) {
+        return BinaryFormats.requested(request)
+                .map(type -> etag.substring(0, etag.length() - 1) + "-" + type.getSubtype() + "\"")
+                .orElse(etag);
+    }
+
+    static boolean matches(Enumeration<String> headers, String etag) {
+        if (headers == null) {
+            return false;
+        }
+        while (headers.hasMoreElements()) {
+            for (String candidate : headers.nextElement().split(",")) {
+                String tag = candidate.trim();
+                if (tag.startsWith("W/")) {
+                    // If-None-Match usa comparação fraca
+                    tag = tag.substring(2);
+                }
+                if (tag.equals("*") || tag.equals(etag)) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+}
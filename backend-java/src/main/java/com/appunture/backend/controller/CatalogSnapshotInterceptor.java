@@ -0,0 +1,88 @@
+package com.appunture.backend.controller;
+
+import com.appunture.backend.service.CatalogSnapshots;
+import com.appunture.backend.service.CatalogSnapshots.Snapshot;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerInterceptor;
+
+import java.io.IOException;
+import java.util.Enumeration;
+import java.util.Optional;
+
+/**
+ * Escreve o snapshot pré-serializado nos handlers marcados com {@link SnapshotBody}, escolhendo
+ * a variante gzip quando o cliente aceita. Roda depois do {@link CatalogETagInterceptor}, então
+ * um {@code If-None-Match} válido ainda termina em 304 sem corpo.
+ */
+@Component
+@RequiredArgsConstructor
+public class CatalogSnapshotInterceptor implements HandlerInterceptor {
+
+    private final CatalogSnapshots catalogSnapshots;
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) throws IOException {
+        if (!(handler instanceof HandlerMethod method)) {
+            return true;
+        }
+        SnapshotBody body = method.getMethodAnnotation(SnapshotBody.class);
+        if (body == null || !HttpMethod.GET.matches(request.getMethod()) && !HttpMethod.HEAD.matches(request.getMethod())) {
+            return true;
+        }
+        if (BinaryFormats.requested(request).isPresent()) {
+            // O snapshot é JSON; CBOR/Smile seguem pelos conversores de mensagem
+            return true;
+        }
+        Optional<Snapshot> snapshot = catalogSnapshots.current(body.value());
+        if (snapshot.isEmpty()) {
+            return true;
+        }
+
+        boolean gzip = acceptsGzip(request.getHeaders(HttpHeaders.ACCEPT_ENCODING));
+        byte[] bytes = gzip ? snapshot.get().gzip() : snapshot.get().json();
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        response.addHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        if (gzip) {
+            // Com Content-Encoding definido, a compressão do servidor não comprime de novo
+            response.setHeader(HttpHeaders.CONTENT_ENCODING, "gzip");
+        }
+        response.setContentLength(bytes.length);
+        if (HttpMethod.GET.matches(request.getMethod())) {
+            response.getOutputStream().write(bytes);
+        }
+        return false;
+    }
+
+    static boolean acceptsGzip(Enumeration<String> headers) {
+        if (headers == null) {
+            return false;
+        }
+        while (headers.hasMoreElements()) {
+            for (String candidate : headers.nextElement().split(",")) {
+                String[] parts = candidate.trim().split(";");
+                String coding = parts[0].trim();
+                if (!coding.equalsIgnoreCase("gzip") && !coding.equals("*")) {
+                    continue;
+                }
+                boolean refused = false;
+                for (int i = 1; i < parts.length; i++) {
+                    String parameter = parts[i].trim().replace(" ", "");
+                    if (parameter.matches("q=0(\\.0{0,3})?")) {
+                        refused = true;
+                    }
+                }
+                if (!refused) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+}
@@ -1,11 +1,13 @@
 package com.appunture.backend.controller;
 
+import com.appunture.backend.dto.cache.CacheReport;
 import com.appunture.backend.model.firestore.FirestoreUser;
 import com.appunture.backend.service.FirebaseAuthService;
 import com.appunture.backend.service.FirestorePointService;
 import com.appunture.backend.service.FirestoreSymptomService;
 import com.appunture.backend.service.FirestoreUserService;
 import com.appunture.backend.service.SeedDataService;
+import com.appunture.backend.service.cache.CacheInspector;
 import com.google.firebase.auth.FirebaseToken;
 import com.google.firebase.auth.UserRecord;
 import io.swagger.v3.oas.annotations.Operation;
@@ -35,69 +37,52 @@ public class FirestoreAdminController {
     private final FirestoreSymptomService symptomService;
     private final FirebaseAuthService firebaseAuthService;
     private final SeedDataService seedDataService;
+    private final CacheInspector cacheInspector;
 
     @GetMapping("/dashboard")
     @Operation(summary = "Get admin dashboard", description = "Returns general statistics for admin dashboard")
     @SecurityRequirement(name = "firebase")
     public ResponseEntity<Map<String, Object>> getDashboard() {
-        try {
-            log.debug("Obtendo dados do dashboard administrativo");
-            
-            long totalUsers = userService.count();
-            long totalPoints = pointService.count();
-            long totalSymptoms = symptomService.count();
-            
-            List<FirestoreUser> recentUsers = userService.findAll().stream()
-                .sorted((u1, u2) -> u2.getCreatedAt().compareTo(u1.getCreatedAt()))
-                .limit(5)
-                .toList();
-            
-            Map<String, Object> dashboard = Map.of(
-                "statistics", Map.of(
-                    "totalUsers", totalUsers,
-                    "totalPoints", totalPoints,
-                    "totalSymptoms", totalSymptoms
-                ),
-                "recentUsers", recentUsers.stream()
-                    .map(userService::toProfileResponse)
-                    .toList(),
-                "popularPoints", pointService.findPopularPoints(5),
-                "popularSymptoms", symptomService.findTopUsed(5)
-            );
-            
-            return ResponseEntity.ok(dashboard);
-        } catch (Exception e) {
-            log.error("Erro ao obter dashboard: {}", e.getMessage(), e);
-            return ResponseEntity.internalServerError().build();
-        }
+        log.debug("Obtendo dados do dashboard administrativo");
+        
+        long totalUsers = userService.count();
+        long totalPoints = pointService.count();
+        long totalSymptoms = symptomService.count();
+        
+        List<FirestoreUser> recentUsers = userService.findMostRecent(5);
+        
+        Map<String, Object> dashboard = Map.of(
+            "statistics", Map.of(
+                "totalUsers", totalUsers,
+                "totalPoints", totalPoints,
+                "totalSymptoms", totalSymptoms
+            ),
+            "recentUsers", recentUsers.stream()
+                .map(userService::toProfileResponse)
+                .toList(),
+            "popularPoints", pointService.findPopularPoints(5),
+            "popularSymptoms", symptomService.findTopUsed(5)
+        );
+        
+        return ResponseEntity.ok(dashboard);
     }
 
     @GetMapping("/users")
     @Operation(summary = "List all users", description = "Returns all users for admin management")
     @SecurityRequirement(name = "firebase")
     public ResponseEntity<List<FirestoreUser>> getAllUsers() {
-        try {
-            List<FirestoreUser> users = userService.findAll();
-            log.debug("Retornando {} usuários para administração", users.size());
-            return ResponseEntity.ok(users);
-        } catch (Exception e) {
-            log.error("Erro ao listar usuários: {}", e.getMessage(), e);
-            return ResponseEntity.internalServerError().build();
-        }
+        List<FirestoreUser> users = userService.findAll();
+        log.debug("Retornando {} usuários para administração", users.size());
+        return ResponseEntity.ok(users);
     }
 
     @GetMapping("/users/{userId}")
     @Operation(summary = "Get user details", description = "Returns detailed user information")
     @SecurityRequirement(name = "firebase")
     public ResponseEntity<FirestoreUser> getUserDetails(@PathVariable String userId) {
-        try {
-            Optional<FirestoreUser> user = userService.findById(userId);
-            return user.map(ResponseEntity::ok)
-                      .orElse(ResponseEntity.notFound().build());
-        } catch (Exception e) {
-            log.error("Erro ao obter detalhes do usuário {}: {}", userId, e.getMessage(), e);
-            return ResponseEntity.internalServerError().build();
-        }
+        Optional<FirestoreUser> user = userService.findById(userId);
+        return user.map(ResponseEntity::ok)
+                  .orElse(ResponseEntity.notFound().build());
     }
 
     @PutMapping("/users/{userId}/role")
@@ -223,47 +208,42 @@ public class FirestoreAdminController {
     @Operation(summary = "Get detailed statistics", description = "Returns comprehensive system statistics")
     @SecurityRequirement(name = "firebase")
     public ResponseEntity<Map<String, Object>> getDetailedStats() {
-        try {
-            log.debug("Obtendo estatísticas detalhadas");
-            
-            // Estatísticas gerais
-            long totalUsers = userService.count();
-            long totalPoints = pointService.count();
-            long totalSymptoms = symptomService.count();
-            
-            // Estatísticas de usuários
-            List<FirestoreUser> adminUsers = userService.findByRole("ADMIN");
-            List<FirestoreUser> regularUsers = userService.findByRole("USER");
-            
-            // Estatísticas de sintomas
-            List<String> categories = symptomService.findUniqueCategories();
-            List<String> tags = symptomService.findUniqueTags();
-            
-            Map<String, Object> stats = Map.of(
-                "users", Map.of(
-                    "total", totalUsers,
-                    "admins", adminUsers.size(),
-                    "regular", regularUsers.size()
-                ),
-                "points", Map.of(
-                    "total", totalPoints,
-                    "popular", pointService.findPopularPoints(10)
-                ),
-                "symptoms", Map.of(
-                    "total", totalSymptoms,
-                    "categories", categories.size(),
-                    "tags", tags.size(),
-                    "popular", symptomService.findTopUsed(10)
-                ),
-                "categories", categories,
-                "tags", tags
-            );
-            
-            return ResponseEntity.ok(stats);
-        } catch (Exception e) {
-            log.error("Erro ao obter estatísticas detalhadas: {}", e.getMessage(), e);
-            return ResponseEntity.internalServerError().build();
-        }
+        log.debug("Obtendo estatísticas detalhadas");
+        
+        // Estatísticas gerais
+        long totalUsers = userService.count();
+        long totalPoints = pointService.count();
+        long totalSymptoms = symptomService.count();
+        
+        // Estatísticas de usuários
+        long adminUsers = userService.countByRole("ADMIN");
+        long regularUsers = userService.countByRole("USER");
+        
+        // Estatísticas de sintomas
+        List<String> categories = symptomService.findUniqueCategories();
+        List<String> tags = symptomService.findUniqueTags();
+        
+        Map<String, Object> stats = Map.of(
+            "users", Map.of(
+                "total", totalUsers,
+                "admins", adminUsers,
+                "regular", regularUsers
+            ),
+            "points", Map.of(
+                "total", totalPoints,
+                "popular", pointService.findPopularPoints(10)
+            ),
+            "symptoms", Map.of(
+                "total", totalSymptoms,
+                "categories", categories.size(),
+                "tags", tags.size(),
+                "popular", symptomService.findTopUsed(10)
+            ),
+            "categories", categories,
+            "tags", tags
+        );
+        
+        return ResponseEntity.ok(stats);
     }
 
     @PostMapping("/data/seed")
@@ -328,4 +308,11 @@ public class FirestoreAdminController {
             return ResponseEntity.internalServerError().build();
         }
     }
+
+    @GetMapping("/caches")
+    @Operation(summary = "Inspect caches", description = "Returns per-cache statistics, estimated heap weight and the largest entries")
+    @SecurityRequirement(name = "firebase")
+    public ResponseEntity<List<CacheReport>> getCaches(@RequestParam(defaultValue = "20") int entries) {
+        return ResponseEntity.ok(cacheInspector.report(entries));
+    }
 }
\ No newline at end of file
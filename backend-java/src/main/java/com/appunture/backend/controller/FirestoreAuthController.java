@@ -44,21 +44,15 @@ public class FirestoreAuthController {
     @Operation(summary = "Get user profile", description = "Returns current authenticated user profile from Firestore")
     @SecurityRequirement(name = "firebase")
     public ResponseEntity<UserProfileResponse> getProfile(@AuthenticationPrincipal FirebaseToken token) {
-        try {
-            log.debug("Obtendo perfil do usuário: {}", token.getUid());
-            
-            Optional<FirestoreUser> userOpt = userService.findByFirebaseUid(token.getUid());
-            if (userOpt.isEmpty()) {
-                return ResponseEntity.notFound().build();
-            }
-
-            UserProfileResponse profile = userService.toProfileResponse(userOpt.get());
-            return ResponseEntity.ok(profile);
-
-        } catch (Exception e) {
-            log.error("Erro ao obter perfil do usuário: {}", e.getMessage(), e);
-            return ResponseEntity.internalServerError().build();
+        log.debug("Obtendo perfil do usuário: {}", token.getUid());
+        
+        Optional<FirestoreUser> userOpt = userService.findByFirebaseUid(token.getUid());
+        if (userOpt.isEmpty()) {
+            return ResponseEntity.notFound().build();
         }
+
+        UserProfileResponse profile = userService.toProfileResponse(userOpt.get());
+        return ResponseEntity.ok(profile);
     }
 
     @PutMapping("/profile")
@@ -141,32 +135,26 @@ public class FirestoreAuthController {
     @Operation(summary = "Get current user info", description = "Returns Firebase token info and Firestore profile")
     @SecurityRequirement(name = "firebase")
     public ResponseEntity<Map<String, Object>> getCurrentUser(@AuthenticationPrincipal FirebaseToken token) {
-        try {
-            log.debug("Obtendo informações do usuário atual: {}", token.getUid());
-            
-            // Informações do Firebase Token
-            Map<String, Object> firebaseInfo = Map.of(
-                "uid", token.getUid(),
-                "email", token.getEmail() != null ? token.getEmail() : "",
-                "name", token.getName() != null ? token.getName() : "",
-                "emailVerified", token.isEmailVerified(),
-                "issuer", token.getIssuer()
-            );
-
-            // Buscar perfil no Firestore
-            Optional<FirestoreUser> userOpt = userService.findByFirebaseUid(token.getUid());
-            
-            Map<String, Object> response = Map.of(
-                "firebase", firebaseInfo,
-                "profile", userOpt.map(userService::toProfileResponse).orElse(null)
-            );
-
-            return ResponseEntity.ok(response);
-
-        } catch (Exception e) {
-            log.error("Erro ao obter informações do usuário atual: {}", e.getMessage(), e);
-            return ResponseEntity.internalServerError().build();
-        }
+        log.debug("Obtendo informações do usuário atual: {}", token.getUid());
+        
+        // Informações do Firebase Token
+        Map<String, Object> firebaseInfo = Map.of(
+            "uid", token.getUid(),
+            "email", token.getEmail() != null ? token.getEmail() : "",
+            "name", token.getName() != null ? token.getName() : "",
+            "emailVerified", token.isEmailVerified(),
+            "issuer", token.getIssuer()
+        );
+
+        // Buscar perfil no Firestore
+        Optional<FirestoreUser> userOpt = userService.findByFirebaseUid(token.getUid());
+        
+        Map<String, Object> response = Map.of(
+            "firebase", firebaseInfo,
+            "profile", userOpt.map(userService::toProfileResponse).orElse(null)
+        );
+
+        return ResponseEntity.ok(response);
     }
 
     @PostMapping("/favorites/{pointId}")
@@ -257,44 +245,38 @@ public class FirestoreAuthController {
             @AuthenticationPrincipal FirebaseToken token,
             @RequestParam(defaultValue = "0") int page,
             @RequestParam(defaultValue = "10") int limit) {
-        try {
-            log.debug("Obtendo favoritos do usuário: {}, page={}, limit={}", token.getUid(), page, limit);
-            
-            Optional<FirestoreUser> userOpt = userService.findByFirebaseUid(token.getUid());
-            if (userOpt.isEmpty()) {
-                return ResponseEntity.notFound().build();
-            }
-
-            List<String> favoriteIds = userOpt.get().getFavoritePointIds();
-            if (favoriteIds == null) {
-                favoriteIds = Collections.emptyList();
-            }
-
-            int total = favoriteIds.size();
-            int start = page * limit;
-            int end = Math.min(start + limit, total);
+        log.debug("Obtendo favoritos do usuário: {}, page={}, limit={}", token.getUid(), page, limit);
+        
+        Optional<FirestoreUser> userOpt = userService.findByFirebaseUid(token.getUid());
+        if (userOpt.isEmpty()) {
+            return ResponseEntity.notFound().build();
+        }
 
-            List<FirestorePoint> points;
-            if (start >= total) {
-                points = Collections.emptyList();
-            } else {
-                List<String> pageIds = favoriteIds.subList(start, end);
-                points = pointService.findAllByIds(pageIds);
-            }
+        List<String> favoriteIds = userOpt.get().getFavoritePointIds();
+        if (favoriteIds == null) {
+            favoriteIds = Collections.emptyList();
+        }
 
-            Map<String, Object> response = Map.of(
-                "points", points,
-                "total", total,
-                "page", page,
-                "limit", limit,
-                "hasMore", end < total
-            );
-            
-            return ResponseEntity.ok(response);
+        int total = favoriteIds.size();
+        int start = page * limit;
+        int end = Math.min(start + limit, total);
 
-        } catch (Exception e) {
-            log.error("Erro ao obter favoritos do usuário: {}", e.getMessage(), e);
-            return ResponseEntity.internalServerError().build();
+        List<FirestorePoint> points;
+        if (start >= total) {
+            points = Collections.emptyList();
+        } else {
+            List<String> pageIds = favoriteIds.subList(start, end);
+            points = pointService.findAllByIds(pageIds);
         }
+
+        Map<String, Object> response = Map.of(
+            "points", points,
+            "total", total,
+            "page", page,
+            "limit", limit,
+            "hasMore", end < total
+        );
+        
+        return ResponseEntity.ok(response);
     }
 }
\ No newline at end of file
@@ -1,9 +1,18 @@
 package com.appunture.backend.controller;
 
+import com.appunture.backend.dto.common.CursorPage;
 import com.appunture.backend.dto.point.PointImageRemovalRequest;
+import com.appunture.backend.dto.point.PointCoverageResponse;
 import com.appunture.backend.dto.point.PointImageRequest;
+import com.appunture.backend.dto.point.PointReachResponse;
+import com.appunture.backend.dto.point.PointSuggestion;
+import com.appunture.backend.dto.point.RankBySymptomsRequest;
 import com.appunture.backend.model.firestore.FirestorePoint;
+import com.appunture.backend.repository.firestore.FieldProjection;
+import com.appunture.backend.service.CatalogSnapshots;
 import com.appunture.backend.service.FirestorePointService;
+import com.appunture.backend.service.counter.ViewTracker;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import com.google.firebase.auth.FirebaseToken;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.media.ArraySchema;
@@ -17,10 +26,12 @@ import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.util.List;
 import java.util.Map;
@@ -34,8 +45,12 @@ import java.util.Optional;
 public class FirestorePointController {
 
     private final FirestorePointService pointService;
+    private final ViewTracker viewTracker;
+    private final ObjectMapper objectMapper;
 
     @GetMapping
+    @CatalogETag
+    @SnapshotBody(CatalogSnapshots.Kind.POINTS)
     @Operation(summary = "List all points", description = "List all acupuncture points from Firestore")
     @SecurityRequirement(name = "firebase")
     @ApiResponses({
@@ -44,13 +59,67 @@ public class FirestorePointController {
         @ApiResponse(responseCode = "500", description = "Erro inesperado")
     })
     public ResponseEntity<List<FirestorePoint>> getAllPoints() {
+        List<FirestorePoint> points = pointService.findAll();
+        log.debug("Retornando {} pontos", points.size());
+        return ResponseEntity.ok(points);
+    }
+
+    @GetMapping(params = {"fields", "!limit"})
+    @CatalogETag
+    @Operation(summary = "List points (projected)", description = "Sparse fieldset: comma-separated field names or 'summary'")
+    @SecurityRequirement(name = "firebase")
+    public ResponseEntity<List<Map<String, Object>>> getAllPointsProjected(@RequestParam String fields) {
         try {
-            List<FirestorePoint> points = pointService.findAll();
-            log.debug("Retornando {} pontos", points.size());
-            return ResponseEntity.ok(points);
-        } catch (Exception e) {
-            log.error("Erro ao listar pontos: {}", e.getMessage(), e);
-            return ResponseEntity.internalServerError().build();
+            FieldProjection projection = FieldProjection.parse(fields, FirestorePoint.class, FirestorePointService.SUMMARY_FIELDS);
+            List<FirestorePoint> documents = pointService.findAll(projection);
+            return ResponseEntity.ok(ProjectedResponses.project(objectMapper, documents, projection));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
+    @GetMapping(produces = MediaType.APPLICATION_NDJSON_VALUE)
+    @Operation(summary = "Stream all points", description = "Streams every point as one JSON document per line (Accept: application/x-ndjson)")
+    @SecurityRequirement(name = "firebase")
+    public ResponseEntity<StreamingResponseBody> streamPoints() {
+        log.debug("Transmitindo pontos em NDJSON");
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(NdjsonStreams.of(objectMapper, pointService::forEachBatch));
+    }
+
+    @GetMapping(params = {"limit", "!fields"})
+    @CatalogETag
+    @Operation(summary = "List points page",
+            description = "Cursor pagination ordered by document ID. Pass the returned nextCursor (with limit) to fetch the next page; nextCursor is null on the last page")
+    @SecurityRequirement(name = "firebase")
+    public ResponseEntity<CursorPage<FirestorePoint>> getPointsPage(
+            @RequestParam int limit,
+            @RequestParam(required = false) String cursor) {
+        try {
+            CursorPage<FirestorePoint> page = pointService.findPage(cursor, limit);
+            log.debug("Retornando página com {} pontos", page.getItems().size());
+            return ResponseEntity.ok(page);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
+    @GetMapping(params = {"limit", "fields"})
+    @CatalogETag
+    @Operation(summary = "List points page (projected)",
+            description = "Cursor pagination ordered by document ID with a sparse fieldset: comma-separated field names or 'summary'")
+    @SecurityRequirement(name = "firebase")
+    public ResponseEntity<CursorPage<Map<String, Object>>> getPointsPageProjected(
+            @RequestParam int limit,
+            @RequestParam(required = false) String cursor,
+            @RequestParam String fields) {
+        try {
+            FieldProjection projection = FieldProjection.parse(fields, FirestorePoint.class, FirestorePointService.SUMMARY_FIELDS);
+            CursorPage<FirestorePoint> page = pointService.findPage(cursor, limit, projection);
+            return ResponseEntity.ok(ProjectedResponses.project(objectMapper, page, projection));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
         }
     }
 
@@ -58,84 +127,124 @@ public class FirestorePointController {
     @Operation(summary = "Get point by ID", description = "Returns a specific point by Firestore document ID")
     @SecurityRequirement(name = "firebase")
     public ResponseEntity<FirestorePoint> getPointById(@PathVariable String id) {
-        try {
-            Optional<FirestorePoint> point = pointService.findById(id);
-            return point.map(ResponseEntity::ok)
-                       .orElse(ResponseEntity.notFound().build());
-        } catch (Exception e) {
-            log.error("Erro ao buscar ponto {}: {}", id, e.getMessage(), e);
-            return ResponseEntity.internalServerError().build();
-        }
+        Optional<FirestorePoint> point = pointService.findById(id);
+        point.ifPresent(found -> viewTracker.recordView(found.getId()));
+        return point.map(ResponseEntity::ok)
+                   .orElse(ResponseEntity.notFound().build());
+    }
+
+    @GetMapping("/{id}/reach")
+    @Operation(summary = "Get point reach", description = "Returns total views and the estimated number of distinct viewers of a point")
+    @SecurityRequirement(name = "firebase")
+    public ResponseEntity<PointReachResponse> getPointReach(@PathVariable String id) {
+        Optional<FirestorePoint> point = pointService.findById(id);
+        return point.map(found -> ResponseEntity.ok(PointReachResponse.builder()
+                        .pointId(found.getId())
+                        .viewCount(viewTracker.viewCount(found))
+                        .uniqueViewers(viewTracker.uniqueViewers(found.getId()))
+                        .build()))
+                   .orElse(ResponseEntity.notFound().build());
     }
 
     @GetMapping("/code/{code}")
     @Operation(summary = "Get point by code", description = "Returns a point by its code (e.g., VG20)")
     @SecurityRequirement(name = "firebase")
     public ResponseEntity<FirestorePoint> getPointByCode(@PathVariable String code) {
-        try {
-            Optional<FirestorePoint> point = pointService.findByCode(code);
-            return point.map(ResponseEntity::ok)
-                       .orElse(ResponseEntity.notFound().build());
-        } catch (Exception e) {
-            log.error("Erro ao buscar ponto por código {}: {}", code, e.getMessage(), e);
-            return ResponseEntity.internalServerError().build();
-        }
+        Optional<FirestorePoint> point = pointService.findByCode(code);
+        point.ifPresent(found -> viewTracker.recordView(found.getId()));
+        return point.map(ResponseEntity::ok)
+                   .orElse(ResponseEntity.notFound().build());
     }
 
     @GetMapping("/meridian/{meridian}")
+    @CatalogETag
     @Operation(summary = "List points by meridian", description = "Returns all points of a specific meridian")
     @SecurityRequirement(name = "firebase")
     public ResponseEntity<List<FirestorePoint>> getPointsByMeridian(@PathVariable String meridian) {
+        List<FirestorePoint> points = pointService.findByMeridian(meridian);
+        log.debug("Retornando {} pontos do meridiano {}", points.size(), meridian);
+        return ResponseEntity.ok(points);
+    }
+
+    @GetMapping(value = "/meridian/{meridian}", params = "fields")
+    @CatalogETag
+    @Operation(summary = "List points by meridian (projected)", description = "Sparse fieldset: comma-separated field names or 'summary'")
+    @SecurityRequirement(name = "firebase")
+    public ResponseEntity<List<Map<String, Object>>> getPointsByMeridianProjected(@PathVariable String meridian, @RequestParam String fields) {
         try {
-            List<FirestorePoint> points = pointService.findByMeridian(meridian);
-            log.debug("Retornando {} pontos do meridiano {}", points.size(), meridian);
-            return ResponseEntity.ok(points);
-        } catch (Exception e) {
-            log.error("Erro ao buscar pontos por meridiano {}: {}", meridian, e.getMessage(), e);
-            return ResponseEntity.internalServerError().build();
+            FieldProjection projection = FieldProjection.parse(fields, FirestorePoint.class, FirestorePointService.SUMMARY_FIELDS);
+            List<FirestorePoint> documents = pointService.findByMeridian(meridian, projection);
+            return ResponseEntity.ok(ProjectedResponses.project(objectMapper, documents, projection));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
         }
     }
 
     @GetMapping("/symptom/{symptomId}")
+    @CatalogETag
     @Operation(summary = "List points by symptom", description = "Returns all points associated with a symptom")
     @SecurityRequirement(name = "firebase")
     public ResponseEntity<List<FirestorePoint>> getPointsBySymptom(@PathVariable String symptomId) {
+        List<FirestorePoint> points = pointService.findBySymptomId(symptomId);
+        log.debug("Retornando {} pontos para sintoma {}", points.size(), symptomId);
+        return ResponseEntity.ok(points);
+    }
+
+    @GetMapping(value = "/symptom/{symptomId}", params = "fields")
+    @CatalogETag
+    @Operation(summary = "List points by symptom (projected)", description = "Sparse fieldset: comma-separated field names or 'summary'")
+    @SecurityRequirement(name = "firebase")
+    public ResponseEntity<List<Map<String, Object>>> getPointsBySymptomProjected(@PathVariable String symptomId, @RequestParam String fields) {
         try {
-            List<FirestorePoint> points = pointService.findBySymptomId(symptomId);
-            log.debug("Retornando {} pontos para sintoma {}", points.size(), symptomId);
-            return ResponseEntity.ok(points);
-        } catch (Exception e) {
-            log.error("Erro ao buscar pontos por sintoma {}: {}", symptomId, e.getMessage(), e);
-            return ResponseEntity.internalServerError().build();
+            FieldProjection projection = FieldProjection.parse(fields, FirestorePoint.class, FirestorePointService.SUMMARY_FIELDS);
+            List<FirestorePoint> documents = pointService.findBySymptomId(symptomId, projection);
+            return ResponseEntity.ok(ProjectedResponses.project(objectMapper, documents, projection));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
         }
     }
 
     @GetMapping("/search")
-    @Operation(summary = "Search points by name", description = "Search points by partial name match")
+    @CatalogETag
+    @Operation(summary = "Search points", description = "Accent-insensitive full-text search over code, name, tags, indication, location and description, ranked by relevance")
     @SecurityRequirement(name = "firebase")
     public ResponseEntity<List<FirestorePoint>> searchPointsByName(@RequestParam String name) {
-        try {
-            List<FirestorePoint> points = pointService.findByNameContaining(name);
-            log.debug("Busca por '{}' retornou {} pontos", name, points.size());
-            return ResponseEntity.ok(points);
-        } catch (Exception e) {
-            log.error("Erro ao buscar pontos por nome {}: {}", name, e.getMessage(), e);
-            return ResponseEntity.internalServerError().build();
-        }
+        List<FirestorePoint> points = pointService.findByNameContaining(name);
+        log.debug("Busca por '{}' retornou {} pontos", name, points.size());
+        return ResponseEntity.ok(points);
+    }
+
+    @GetMapping("/autocomplete")
+    @Operation(summary = "Autocomplete points", description = "Prefix completions over code, name and tags, ranked by favorites")
+    @SecurityRequirement(name = "firebase")
+    public ResponseEntity<List<PointSuggestion>> autocompletePoints(@RequestParam String q,
+                                                                    @RequestParam(defaultValue = "10") int limit) {
+        return ResponseEntity.ok(pointService.autocomplete(q, limit));
+    }
+
+    @PostMapping("/rank-by-symptoms")
+    @Operation(summary = "Rank points by symptoms", description = "Returns the points covering most of the given symptoms, weighted by symptom severity/priority and favorites")
+    @SecurityRequirement(name = "firebase")
+    @ApiResponses({
+        @ApiResponse(responseCode = "200", description = "Pontos ordenados por cobertura",
+            content = @Content(array = @ArraySchema(schema = @Schema(implementation = PointCoverageResponse.class)))),
+        @ApiResponse(responseCode = "400", description = "Payload inválido"),
+        @ApiResponse(responseCode = "500", description = "Erro inesperado")
+    })
+    public ResponseEntity<List<PointCoverageResponse>> rankPointsBySymptoms(@Valid @RequestBody RankBySymptomsRequest request) {
+        int limit = request.getLimit() != null ? request.getLimit() : 20;
+        List<PointCoverageResponse> ranking = pointService.rankBySymptoms(request.getSymptomIds(), limit);
+        log.debug("Ranking para {} sintomas retornou {} pontos", request.getSymptomIds().size(), ranking.size());
+        return ResponseEntity.ok(ranking);
     }
 
     @GetMapping("/popular")
     @Operation(summary = "Get popular points", description = "Returns most favorited points")
     @SecurityRequirement(name = "firebase")
     public ResponseEntity<List<FirestorePoint>> getPopularPoints(@RequestParam(defaultValue = "10") int limit) {
-        try {
-            List<FirestorePoint> points = pointService.findPopularPoints(limit);
-            log.debug("Retornando {} pontos populares", points.size());
-            return ResponseEntity.ok(points);
-        } catch (Exception e) {
-            log.error("Erro ao buscar pontos populares: {}", e.getMessage(), e);
-            return ResponseEntity.internalServerError().build();
-        }
+        List<FirestorePoint> points = pointService.findPopularPoints(limit);
+        log.debug("Retornando {} pontos populares", points.size());
+        return ResponseEntity.ok(points);
     }
 
     @PostMapping
@@ -356,19 +465,14 @@ public class FirestorePointController {
     @Operation(summary = "Get points statistics", description = "Returns general statistics about points")
     @SecurityRequirement(name = "firebase")
     public ResponseEntity<Map<String, Object>> getPointsStats() {
-        try {
-            long totalPoints = pointService.count();
-            List<FirestorePoint> popularPoints = pointService.findPopularPoints(5);
-            
-            Map<String, Object> stats = Map.of(
-                "totalPoints", totalPoints,
-                "popularPoints", popularPoints
-            );
-            
-            return ResponseEntity.ok(stats);
-        } catch (Exception e) {
-            log.error("Erro ao obter estatísticas dos pontos: {}", e.getMessage(), e);
-            return ResponseEntity.internalServerError().build();
-        }
+        long totalPoints = pointService.count();
+        List<FirestorePoint> popularPoints = pointService.findPopularPoints(5);
+        
+        Map<String, Object> stats = Map.of(
+            "totalPoints", totalPoints,
+            "popularPoints", popularPoints
+        );
+        
+        return ResponseEntity.ok(stats);
     }
 }
\ No newline at end of file
@@ -1,7 +1,11 @@
 package com.appunture.backend.controller;
 
+import com.appunture.backend.dto.common.CursorPage;
 import com.appunture.backend.model.firestore.FirestoreSymptom;
+import com.appunture.backend.repository.firestore.FieldProjection;
+import com.appunture.backend.service.CatalogSnapshots;
 import com.appunture.backend.service.FirestoreSymptomService;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import com.google.firebase.auth.FirebaseToken;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.security.SecurityRequirement;
@@ -9,10 +13,12 @@ import io.swagger.v3.oas.annotations.tags.Tag;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.util.List;
 import java.util.Map;
@@ -26,133 +32,185 @@ import java.util.Optional;
 public class FirestoreSymptomController {
 
     private final FirestoreSymptomService symptomService;
+    private final ObjectMapper objectMapper;
 
     @GetMapping
+    @CatalogETag
+    @SnapshotBody(CatalogSnapshots.Kind.SYMPTOMS)
     @Operation(summary = "List all symptoms", description = "List all symptoms from Firestore")
     @SecurityRequirement(name = "firebase")
     public ResponseEntity<List<FirestoreSymptom>> getAllSymptoms() {
+        List<FirestoreSymptom> symptoms = symptomService.findAll();
+        log.debug("Retornando {} sintomas", symptoms.size());
+        return ResponseEntity.ok(symptoms);
+    }
+
+    @GetMapping(params = {"fields", "!limit"})
+    @CatalogETag
+    @Operation(summary = "List symptoms (projected)", description = "Sparse fieldset: comma-separated field names or 'summary'")
+    @SecurityRequirement(name = "firebase")
+    public ResponseEntity<List<Map<String, Object>>> getAllSymptomsProjected(@RequestParam String fields) {
         try {
-            List<FirestoreSymptom> symptoms = symptomService.findAll();
-            log.debug("Retornando {} sintomas", symptoms.size());
-            return ResponseEntity.ok(symptoms);
-        } catch (Exception e) {
-            log.error("Erro ao listar sintomas: {}", e.getMessage(), e);
-            return ResponseEntity.internalServerError().build();
+            FieldProjection projection = FieldProjection.parse(fields, FirestoreSymptom.class, FirestoreSymptomService.SUMMARY_FIELDS);
+            List<FirestoreSymptom> documents = symptomService.findAll(projection);
+            return ResponseEntity.ok(ProjectedResponses.project(objectMapper, documents, projection));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
+    @GetMapping(produces = MediaType.APPLICATION_NDJSON_VALUE)
+    @Operation(summary = "Stream all symptoms", description = "Streams every symptom as one JSON document per line (Accept: application/x-ndjson)")
+    @SecurityRequirement(name = "firebase")
+    public ResponseEntity<StreamingResponseBody> streamSymptoms() {
+        log.debug("Transmitindo sintomas em NDJSON");
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(NdjsonStreams.of(objectMapper, symptomService::forEachBatch));
+    }
+
+    @GetMapping(params = {"limit", "!fields"})
+    @CatalogETag
+    @Operation(summary = "List symptoms page",
+            description = "Cursor pagination ordered by document ID. Pass the returned nextCursor (with limit) to fetch the next page; nextCursor is null on the last page")
+    @SecurityRequirement(name = "firebase")
+    public ResponseEntity<CursorPage<FirestoreSymptom>> getSymptomsPage(
+            @RequestParam int limit,
+            @RequestParam(required = false) String cursor) {
+        try {
+            CursorPage<FirestoreSymptom> page = symptomService.findPage(cursor, limit);
+            log.debug("Retornando página com {} sintomas", page.getItems().size());
+            return ResponseEntity.ok(page);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
+    @GetMapping(params = {"limit", "fields"})
+    @CatalogETag
+    @Operation(summary = "List symptoms page (projected)",
+            description = "Cursor pagination ordered by document ID with a sparse fieldset: comma-separated field names or 'summary'")
+    @SecurityRequirement(name = "firebase")
+    public ResponseEntity<CursorPage<Map<String, Object>>> getSymptomsPageProjected(
+            @RequestParam int limit,
+            @RequestParam(required = false) String cursor,
+            @RequestParam String fields) {
+        try {
+            FieldProjection projection = FieldProjection.parse(fields, FirestoreSymptom.class, FirestoreSymptomService.SUMMARY_FIELDS);
+            CursorPage<FirestoreSymptom> page = symptomService.findPage(cursor, limit, projection);
+            return ResponseEntity.ok(ProjectedResponses.project(objectMapper, page, projection));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
         }
     }
 
     @GetMapping("/{id}")
+    @CatalogETag
     @Operation(summary = "Get symptom by ID", description = "Returns a specific symptom by Firestore document ID")
     @SecurityRequirement(name = "firebase")
     public ResponseEntity<FirestoreSymptom> getSymptomById(@PathVariable String id) {
-        try {
-            Optional<FirestoreSymptom> symptom = symptomService.findById(id);
-            return symptom.map(ResponseEntity::ok)
-                         .orElse(ResponseEntity.notFound().build());
-        } catch (Exception e) {
-            log.error("Erro ao buscar sintoma {}: {}", id, e.getMessage(), e);
-            return ResponseEntity.internalServerError().build();
-        }
+        Optional<FirestoreSymptom> symptom = symptomService.findById(id);
+        return symptom.map(ResponseEntity::ok)
+                     .orElse(ResponseEntity.notFound().build());
     }
 
     @GetMapping("/name/{name}")
+    @CatalogETag
     @Operation(summary = "Get symptom by name", description = "Returns a symptom by its exact name")
     @SecurityRequirement(name = "firebase")
     public ResponseEntity<FirestoreSymptom> getSymptomByName(@PathVariable String name) {
-        try {
-            Optional<FirestoreSymptom> symptom = symptomService.findByName(name);
-            return symptom.map(ResponseEntity::ok)
-                         .orElse(ResponseEntity.notFound().build());
-        } catch (Exception e) {
-            log.error("Erro ao buscar sintoma por nome {}: {}", name, e.getMessage(), e);
-            return ResponseEntity.internalServerError().build();
-        }
+        Optional<FirestoreSymptom> symptom = symptomService.findByName(name);
+        return symptom.map(ResponseEntity::ok)
+                     .orElse(ResponseEntity.notFound().build());
     }
 
     @GetMapping("/category/{category}")
+    @CatalogETag
     @Operation(summary = "List symptoms by category", description = "Returns all symptoms of a specific category")
     @SecurityRequirement(name = "firebase")
     public ResponseEntity<List<FirestoreSymptom>> getSymptomsByCategory(@PathVariable String category) {
+        List<FirestoreSymptom> symptoms = symptomService.findByCategory(category);
+        log.debug("Retornando {} sintomas da categoria {}", symptoms.size(), category);
+        return ResponseEntity.ok(symptoms);
+    }
+
+    @GetMapping(value = "/category/{category}", params = "fields")
+    @CatalogETag
+    @Operation(summary = "List symptoms by category (projected)", description = "Sparse fieldset: comma-separated field names or 'summary'")
+    @SecurityRequirement(name = "firebase")
+    public ResponseEntity<List<Map<String, Object>>> getSymptomsByCategoryProjected(@PathVariable String category, @RequestParam String fields) {
         try {
-            List<FirestoreSymptom> symptoms = symptomService.findByCategory(category);
-            log.debug("Retornando {} sintomas da categoria {}", symptoms.size(), category);
-            return ResponseEntity.ok(symptoms);
-        } catch (Exception e) {
-            log.error("Erro ao buscar sintomas por categoria {}: {}", category, e.getMessage(), e);
-            return ResponseEntity.internalServerError().build();
+            FieldProjection projection = FieldProjection.parse(fields, FirestoreSymptom.class, FirestoreSymptomService.SUMMARY_FIELDS);
+            List<FirestoreSymptom> documents = symptomService.findByCategory(category, projection);
+            return ResponseEntity.ok(ProjectedResponses.project(objectMapper, documents, projection));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
         }
     }
 
     @GetMapping("/point/{pointId}")
+    @CatalogETag
     @Operation(summary = "List symptoms by point", description = "Returns all symptoms associated with a point")
     @SecurityRequirement(name = "firebase")
     public ResponseEntity<List<FirestoreSymptom>> getSymptomsByPoint(@PathVariable String pointId) {
+        List<FirestoreSymptom> symptoms = symptomService.findByPointId(pointId);
+        log.debug("Retornando {} sintomas para ponto {}", symptoms.size(), pointId);
+        return ResponseEntity.ok(symptoms);
+    }
+
+    @GetMapping(value = "/point/{pointId}", params = "fields")
+    @CatalogETag
+    @Operation(summary = "List symptoms by point (projected)", description = "Sparse fieldset: comma-separated field names or 'summary'")
+    @SecurityRequirement(name = "firebase")
+    public ResponseEntity<List<Map<String, Object>>> getSymptomsByPointProjected(@PathVariable String pointId, @RequestParam String fields) {
         try {
-            List<FirestoreSymptom> symptoms = symptomService.findByPointId(pointId);
-            log.debug("Retornando {} sintomas para ponto {}", symptoms.size(), pointId);
-            return ResponseEntity.ok(symptoms);
-        } catch (Exception e) {
-            log.error("Erro ao buscar sintomas por ponto {}: {}", pointId, e.getMessage(), e);
-            return ResponseEntity.internalServerError().build();
+            FieldProjection projection = FieldProjection.parse(fields, FirestoreSymptom.class, FirestoreSymptomService.SUMMARY_FIELDS);
+            List<FirestoreSymptom> documents = symptomService.findByPointId(pointId, projection);
+            return ResponseEntity.ok(ProjectedResponses.project(objectMapper, documents, projection));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
         }
     }
 
     @GetMapping("/search")
-    @Operation(summary = "Search symptoms by name", description = "Search symptoms by partial name match")
+    @CatalogETag
+    @Operation(summary = "Search symptoms by name", description = "Typo-tolerant search over symptom names and tags (accents ignored, small misspellings accepted)")
     @SecurityRequirement(name = "firebase")
     public ResponseEntity<List<FirestoreSymptom>> searchSymptomsByName(@RequestParam String name) {
-        try {
-            List<FirestoreSymptom> symptoms = symptomService.findByNameContaining(name);
-            log.debug("Busca por '{}' retornou {} sintomas", name, symptoms.size());
-            return ResponseEntity.ok(symptoms);
-        } catch (Exception e) {
-            log.error("Erro ao buscar sintomas por nome {}: {}", name, e.getMessage(), e);
-            return ResponseEntity.internalServerError().build();
-        }
+        List<FirestoreSymptom> symptoms = symptomService.findByNameContaining(name);
+        log.debug("Busca por '{}' retornou {} sintomas", name, symptoms.size());
+        return ResponseEntity.ok(symptoms);
     }
 
     @GetMapping("/tag/{tag}")
+    @CatalogETag
     @Operation(summary = "List symptoms by tag", description = "Returns all symptoms with a specific tag")
     @SecurityRequirement(name = "firebase")
     public ResponseEntity<List<FirestoreSymptom>> getSymptomsByTag(@PathVariable String tag) {
-        try {
-            List<FirestoreSymptom> symptoms = symptomService.findByTag(tag);
-            log.debug("Retornando {} sintomas com tag {}", symptoms.size(), tag);
-            return ResponseEntity.ok(symptoms);
-        } catch (Exception e) {
-            log.error("Erro ao buscar sintomas por tag {}: {}", tag, e.getMessage(), e);
-            return ResponseEntity.internalServerError().build();
-        }
+        List<FirestoreSymptom> symptoms = symptomService.findByTag(tag);
+        log.debug("Retornando {} sintomas com tag {}", symptoms.size(), tag);
+        return ResponseEntity.ok(symptoms);
     }
 
     @GetMapping("/severity")
+    @CatalogETag
     @Operation(summary = "List symptoms by severity", description = "Returns symptoms filtered by severity range")
     @SecurityRequirement(name = "firebase")
     public ResponseEntity<List<FirestoreSymptom>> getSymptomsBySeverity(
             @RequestParam(defaultValue = "1") int minSeverity,
             @RequestParam(defaultValue = "10") int maxSeverity) {
-        try {
-            List<FirestoreSymptom> symptoms = symptomService.findBySeverity(minSeverity, maxSeverity);
-            log.debug("Retornando {} sintomas com severidade {}-{}", symptoms.size(), minSeverity, maxSeverity);
-            return ResponseEntity.ok(symptoms);
-        } catch (Exception e) {
-            log.error("Erro ao buscar sintomas por severidade: {}", e.getMessage(), e);
-            return ResponseEntity.internalServerError().build();
-        }
+        List<FirestoreSymptom> symptoms = symptomService.findBySeverity(minSeverity, maxSeverity);
+        log.debug("Retornando {} sintomas com severidade {}-{}", symptoms.size(), minSeverity, maxSeverity);
+        return ResponseEntity.ok(symptoms);
     }
 
     @GetMapping("/popular")
     @Operation(summary = "Get most used symptoms", description = "Returns most frequently used symptoms")
     @SecurityRequirement(name = "firebase")
     public ResponseEntity<List<FirestoreSymptom>> getPopularSymptoms(@RequestParam(defaultValue = "10") int limit) {
-        try {
-            List<FirestoreSymptom> symptoms = symptomService.findTopUsed(limit);
-            log.debug("Retornando {} sintomas mais usados", symptoms.size());
-            return ResponseEntity.ok(symptoms);
-        } catch (Exception e) {
-            log.error("Erro ao buscar sintomas populares: {}", e.getMessage(), e);
-            return ResponseEntity.internalServerError().build();
-        }
+        List<FirestoreSymptom> symptoms = symptomService.findTopUsed(limit);
+        log.debug("Retornando {} sintomas mais usados", symptoms.size());
+        return ResponseEntity.ok(symptoms);
     }
 
     @PostMapping
@@ -294,53 +352,40 @@ public class FirestoreSymptomController {
     }
 
     @GetMapping("/categories")
+    @CatalogETag
     @Operation(summary = "Get all categories", description = "Returns list of unique symptom categories")
     @SecurityRequirement(name = "firebase")
     public ResponseEntity<List<String>> getCategories() {
-        try {
-            List<String> categories = symptomService.findUniqueCategories();
-            log.debug("Retornando {} categorias únicas", categories.size());
-            return ResponseEntity.ok(categories);
-        } catch (Exception e) {
-            log.error("Erro ao obter categorias: {}", e.getMessage(), e);
-            return ResponseEntity.internalServerError().build();
-        }
+        List<String> categories = symptomService.findUniqueCategories();
+        log.debug("Retornando {} categorias únicas", categories.size());
+        return ResponseEntity.ok(categories);
     }
 
     @GetMapping("/tags")
+    @CatalogETag
     @Operation(summary = "Get all tags", description = "Returns list of unique symptom tags")
     @SecurityRequirement(name = "firebase")
     public ResponseEntity<List<String>> getTags() {
-        try {
-            List<String> tags = symptomService.findUniqueTags();
-            log.debug("Retornando {} tags únicas", tags.size());
-            return ResponseEntity.ok(tags);
-        } catch (Exception e) {
-            log.error("Erro ao obter tags: {}", e.getMessage(), e);
-            return ResponseEntity.internalServerError().build();
-        }
+        List<String> tags = symptomService.findUniqueTags();
+        log.debug("Retornando {} tags únicas", tags.size());
+        return ResponseEntity.ok(tags);
     }
 
     @GetMapping("/stats")
     @Operation(summary = "Get symptoms statistics", description = "Returns general statistics about symptoms")
     @SecurityRequirement(name = "firebase")
     public ResponseEntity<Map<String, Object>> getSymptomsStats() {
-        try {
-            long totalSymptoms = symptomService.count();
-            List<FirestoreSymptom> popularSymptoms = symptomService.findTopUsed(5);
-            List<String> categories = symptomService.findUniqueCategories();
-            
-            Map<String, Object> stats = Map.of(
-                "totalSymptoms", totalSymptoms,
-                "popularSymptoms", popularSymptoms,
-                "totalCategories", categories.size(),
-                "categories", categories
-            );
-            
-            return ResponseEntity.ok(stats);
-        } catch (Exception e) {
-            log.error("Erro ao obter estatísticas dos sintomas: {}", e.getMessage(), e);
-            return ResponseEntity.internalServerError().build();
-        }
+        long totalSymptoms = symptomService.count();
+        List<FirestoreSymptom> popularSymptoms = symptomService.findTopUsed(5);
+        List<String> categories = symptomService.findUniqueCategories();
+        
+        Map<String, Object> stats = Map.of(
+            "totalSymptoms", totalSymptoms,
+            "popularSymptoms", popularSymptoms,
+            "totalCategories", categories.size(),
+            "categories", categories
+        );
+        
+        return ResponseEntity.ok(stats);
     }
 }
\ No newline at end of file
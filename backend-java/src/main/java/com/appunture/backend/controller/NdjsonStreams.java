@@ -0,0 +1,40 @@
+package com.appunture.backend.controller;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Corpo {@code application/x-ndjson}: um documento JSON por linha, escrito e enviado lote a lote.
+ */
+final class NdjsonStreams {
+
+    private static final byte NEWLINE = '\n';
+
+    private NdjsonStreams() {
+    }
+
+    static <T> StreamingResponseBody of(ObjectMapper objectMapper, Consumer<Consumer<List<T>>> source) {
+        return output -> {
+            try {
+                source.accept(batch -> {
+                    try {
+                        for (T item : batch) {
+                            output.write(objectMapper.writeValueAsBytes(item));
+                            output.write(NEWLINE);
+                        }
+                        output.flush();
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+            } catch (UncheckedIOException e) {
+                throw e.getCause();
+            }
+        };
+    }
+}
@@ -195,28 +195,20 @@ public class NotificationController {
     public ResponseEntity<Map<String, Object>> getSettings(
             @AuthenticationPrincipal String firebaseUid) {
 
-        try {
-            var user = userService.findByFirebaseUid(firebaseUid);
-            if (user.isEmpty()) {
-                return ResponseEntity.badRequest().body(Map.of(
-                    "success", false,
-                    "error", "User not found"
-                ));
-            }
-
-            var userData = user.get();
-            return ResponseEntity.ok(Map.of(
-                "success", true,
-                "hasToken", userData.getFcmToken() != null && !userData.getFcmToken().isBlank(),
-                "topics", userData.getNotificationTopics() != null ? userData.getNotificationTopics() : List.of()
-            ));
-        } catch (Exception e) {
-            log.error("Failed to get notification settings", e);
-            return ResponseEntity.internalServerError().body(Map.of(
+        var user = userService.findByFirebaseUid(firebaseUid);
+        if (user.isEmpty()) {
+            return ResponseEntity.badRequest().body(Map.of(
                 "success", false,
-                "error", "Failed to get settings"
+                "error", "User not found"
             ));
         }
+
+        var userData = user.get();
+        return ResponseEntity.ok(Map.of(
+            "success", true,
+            "hasToken", userData.getFcmToken() != null && !userData.getFcmToken().isBlank(),
+            "topics", userData.getNotificationTopics() != null ? userData.getNotificationTopics() : List.of()
+        ));
     }
 
     private String sanitizeTopic(String topic) {
@@ -0,0 +1,34 @@
+package com.appunture.backend.controller;
+
+import com.appunture.backend.dto.common.CursorPage;
+import com.appunture.backend.repository.firestore.FieldProjection;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Converte documentos lidos com uma {@link FieldProjection} em objetos JSON só com os campos pedidos.
+ */
+final class ProjectedResponses {
+
+    private static final TypeReference<Map<String, Object>> JSON_OBJECT = new TypeReference<>() {
+    };
+
+    private ProjectedResponses() {
+    }
+
+    static List<Map<String, Object>> project(ObjectMapper objectMapper, List<?> documents, FieldProjection projection) {
+        return documents.stream()
+                .map(document -> projection.retain(objectMapper.convertValue(document, JSON_OBJECT)))
+                .toList();
+    }
+
+    static CursorPage<Map<String, Object>> project(ObjectMapper objectMapper, CursorPage<?> page, FieldProjection projection) {
+        return CursorPage.<Map<String, Object>>builder()
+                .items(project(objectMapper, page.getItems(), projection))
+                .nextCursor(page.getNextCursor())
+                .build();
+    }
+}
@@ -0,0 +1,22 @@
+package com.appunture.backend.controller;
+
+import com.appunture.backend.service.CatalogSnapshots;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * O corpo JSON do handler é exatamente a lista completa do catálogo indicada; com o catálogo
+ * carregado, o {@link CatalogSnapshotInterceptor} responde com os bytes pré-gerados e o handler
+ * só executa como fallback.
+ */
+@Documented
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface SnapshotBody {
+
+    CatalogSnapshots.Kind value();
+}
@@ -0,0 +1,78 @@
+package com.appunture.backend.controller;
+
+import com.appunture.backend.dto.sync.SyncChangesResponse;
+import com.appunture.backend.service.SyncService;
+import com.appunture.backend.service.offline.OfflinePack;
+import com.appunture.backend.service.offline.OfflinePackService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.security.SecurityRequirement;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
+
+import java.util.Optional;
+
+@RestController
+@RequestMapping("/sync")
+@Tag(name = "Sync", description = "Incremental catalog sync for offline clients")
+@RequiredArgsConstructor
+@Slf4j
+public class SyncController {
+
+    private final SyncService syncService;
+    private final OfflinePackService offlinePackService;
+
+    @GetMapping("/changes")
+    @Operation(summary = "Catalog changes since token",
+            description = "Points and symptoms created or updated and documents deleted since the token. Omit since for a full sync; repeat with nextToken while hasMore is true. Returns 503 while the catalog is still loading")
+    @SecurityRequirement(name = "firebase")
+    public ResponseEntity<SyncChangesResponse> getChanges(
+            @RequestParam(required = false) String since,
+            @RequestParam(defaultValue = "200") int limit) {
+        try {
+            return ResponseEntity.ok(syncService.changesSince(since, limit));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
+    @GetMapping("/pack")
+    @Operation(summary = "Offline catalog pack",
+            description = "Gzip-compressed SQLite file with the full point and symptom catalog (FTS5 search tables included). pack_meta.sync_token resumes /sync/changes from the pack")
+    @SecurityRequirement(name = "firebase")
+    public ResponseEntity<Resource> getOfflinePack(WebRequest request) {
+        try {
+            Optional<OfflinePack> pack = offlinePackService.current();
+            if (pack.isEmpty()) {
+                return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).build();
+            }
+            String etag = "\"" + pack.get().sha256() + "\"";
+            if (request.checkNotModified(etag)) {
+                return null;
+            }
+            return ResponseEntity.ok()
+                    .eTag(etag)
+                    .contentType(MediaType.parseMediaType("application/gzip"))
+                    .contentLength(pack.get().size())
+                    .header(HttpHeaders.CONTENT_DISPOSITION,
+                            ContentDisposition.attachment().filename("appunture-catalog.sqlite.gz").build().toString())
+                    .header("X-Sync-Token", pack.get().syncToken())
+                    .body(new FileSystemResource(pack.get().file()));
+        } catch (Exception e) {
+            log.error("Erro ao servir pacote offline: {}", e.getMessage(), e);
+            return ResponseEntity.internalServerError().build();
+        }
+    }
+}
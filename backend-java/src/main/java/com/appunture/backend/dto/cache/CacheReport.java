@@ -0,0 +1,37 @@
+package com.appunture.backend.dto.cache;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class CacheReport {
+    private String name;
+    private long entries;
+    private long weightBytes;
+    private Long weightLimitBytes; // null quando o cache é limitado por quantidade
+    private long hits;
+    private long misses;
+    private double hitRate;
+    private long loads;
+    private long loadFailures;
+    private double averageLoadMillis;
+    private long evictions;
+    private List<Entry> largestEntries;
+
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Entry {
+        private String key;
+        private String type; // Ex.: "FirestorePoint", "List[361]", "null"
+        private long weightBytes;
+    }
+}
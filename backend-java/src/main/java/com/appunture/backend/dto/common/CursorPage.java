@@ -0,0 +1,48 @@
+package com.appunture.backend.dto.common;
+
+import lombok.Builder;
+import lombok.Value;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.List;
+
+/**
+ * Página de uma listagem paginada por cursor. {@code nextCursor} é opaco para o cliente e nulo
+ * na última página.
+ */
+@Value
+@Builder
+public class CursorPage<T> {
+
+    private static final String CURSOR_PREFIX = "id:";
+
+    List<T> items;
+    String nextCursor;
+
+    public static String encodeCursor(String lastId) {
+        byte[] raw = (CURSOR_PREFIX + lastId).getBytes(StandardCharsets.UTF_8);
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw);
+    }
+
+    /**
+     * Chave de ordenação codificada no cursor; {@code null} para a primeira página.
+     *
+     * @throws IllegalArgumentException se o cursor não foi gerado por {@link #encodeCursor}
+     */
+    public static String decodeCursor(String cursor) {
+        if (cursor == null || cursor.isBlank()) {
+            return null;
+        }
+        String decoded;
+        try {
+            decoded = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Cursor inválido");
+        }
+        if (!decoded.startsWith(CURSOR_PREFIX) || decoded.length() == CURSOR_PREFIX.length()) {
+            throw new IllegalArgumentException("Cursor inválido");
+        }
+        return decoded.substring(CURSOR_PREFIX.length());
+    }
+}
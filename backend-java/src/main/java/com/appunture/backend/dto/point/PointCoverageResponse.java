@@ -0,0 +1,16 @@
+package com.appunture.backend.dto.point;
+
+import com.appunture.backend.model.firestore.FirestorePoint;
+import lombok.Builder;
+import lombok.Value;
+
+import java.util.List;
+
+@Value
+@Builder
+public class PointCoverageResponse {
+    FirestorePoint point;
+    int matchedSymptoms;
+    List<String> matchedSymptomIds;
+    int symptomWeight;
+}
@@ -0,0 +1,12 @@
+package com.appunture.backend.dto.point;
+
+import lombok.Builder;
+import lombok.Value;
+
+@Value
+@Builder
+public class PointReachResponse {
+    String pointId;
+    long viewCount;
+    long uniqueViewers;
+}
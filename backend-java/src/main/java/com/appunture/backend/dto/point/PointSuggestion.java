@@ -0,0 +1,14 @@
+package com.appunture.backend.dto.point;
+
+import lombok.Builder;
+import lombok.Value;
+
+@Value
+@Builder
+public class PointSuggestion {
+    String id;
+    String code;
+    String name;
+    String meridian;
+    int favoriteCount;
+}
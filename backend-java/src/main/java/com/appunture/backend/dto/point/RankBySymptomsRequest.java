@@ -0,0 +1,27 @@
+package com.appunture.backend.dto.point;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.util.List;
+
+@Getter
+@Setter
+@Schema(name = "RankBySymptomsRequest", description = "Sintomas selecionados para ranquear os pontos por cobertura")
+public class RankBySymptomsRequest {
+
+    @NotEmpty(message = "At least one symptom ID is required")
+    @Size(max = 50, message = "At most 50 symptoms can be ranked at once")
+    @Schema(description = "IDs dos sintomas selecionados", example = "[\"insonia\", \"ansiedade\"]")
+    private List<String> symptomIds;
+
+    @Min(value = 1, message = "Limit must be at least 1")
+    @Max(value = 100, message = "Limit must be at most 100")
+    @Schema(description = "Quantidade máxima de pontos retornados", example = "20")
+    private Integer limit;
+}
@@ -0,0 +1,26 @@
+package com.appunture.backend.dto.sync;
+
+import com.appunture.backend.model.firestore.FirestorePoint;
+import com.appunture.backend.model.firestore.FirestoreSymptom;
+import com.appunture.backend.model.firestore.FirestoreTombstone;
+import lombok.Builder;
+import lombok.Value;
+
+import java.util.List;
+
+/**
+ * Alterações desde o token enviado. O cliente aplica {@code points}/{@code symptoms} como upsert
+ * e remove os IDs de {@code deleted}; enquanto {@code hasMore} for verdadeiro, repete a chamada
+ * com {@code nextToken}. Com {@code resetRequired}, o token expirou e é preciso recomeçar sem token.
+ */
+@Value
+@Builder
+public class SyncChangesResponse {
+
+    List<FirestorePoint> points;
+    List<FirestoreSymptom> symptoms;
+    List<FirestoreTombstone> deleted;
+    String nextToken;
+    boolean hasMore;
+    boolean resetRequired;
+}
@@ -0,0 +1,95 @@
+package com.appunture.backend.dto.sync;
+
+import lombok.Value;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+/**
+ * Posição de retomada da sincronização incremental: a última alteração entregue de cada fonte
+ * (pontos, sintomas e exclusões) e o instante até o qual o cliente ficou completo.
+ *
+ * <p>Codificado como texto opaco em base64url. IDs de documento do Firestore não podem conter
+ * {@code /}, então a barra separa os campos.</p>
+ */
+@Value
+public class SyncToken {
+
+    private static final String TOKEN_PREFIX = "sync:";
+    private static final int FIELDS = 7;
+
+    public static final SyncToken START = new SyncToken(Position.START, Position.START, Position.START, null);
+
+    Position points;
+    Position symptoms;
+    Position tombstones;
+    LocalDateTime syncedAt; // nulo até a primeira sincronização completa
+
+    public String encode() {
+        String raw = TOKEN_PREFIX + String.join("/",
+                format(points.getUpdatedAt()), orEmpty(points.getId()),
+                format(symptoms.getUpdatedAt()), orEmpty(symptoms.getId()),
+                format(tombstones.getUpdatedAt()), orEmpty(tombstones.getId()),
+                format(syncedAt));
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Token recebido do cliente; {@link #START} se ausente.
+     *
+     * @throws IllegalArgumentException se o token não foi gerado por {@link #encode()}
+     */
+    public static SyncToken decode(String token) {
+        if (token == null || token.isBlank()) {
+            return START;
+        }
+        try {
+            String decoded = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            if (!decoded.startsWith(TOKEN_PREFIX)) {
+                throw new IllegalArgumentException("Token de sincronização inválido");
+            }
+            String[] fields = decoded.substring(TOKEN_PREFIX.length()).split("/", -1);
+            if (fields.length != FIELDS) {
+                throw new IllegalArgumentException("Token de sincronização inválido");
+            }
+            return new SyncToken(
+                    position(fields[0], fields[1]),
+                    position(fields[2], fields[3]),
+                    position(fields[4], fields[5]),
+                    parse(fields[6]));
+        } catch (DateTimeParseException e) {
+            throw new IllegalArgumentException("Token de sincronização inválido");
+        }
+    }
+
+    private static Position position(String updatedAt, String id) {
+        return id.isEmpty() ? Position.START : new Position(parse(updatedAt), id);
+    }
+
+    private static String format(LocalDateTime value) {
+        return value == null ? "" : value.toString();
+    }
+
+    private static LocalDateTime parse(String value) {
+        return value.isEmpty() ? null : LocalDateTime.parse(value);
+    }
+
+    private static String orEmpty(String value) {
+        return value == null ? "" : value;
+    }
+
+    /**
+     * Último documento entregue de uma fonte. {@code id} nulo indica o início da fonte;
+     * {@code updatedAt} pode ser nulo para documentos antigos sem data de atualização.
+     */
+    @Value
+    public static class Position {
+
+        public static final Position START = new Position(null, null);
+
+        LocalDateTime updatedAt;
+        String id;
+    }
+}
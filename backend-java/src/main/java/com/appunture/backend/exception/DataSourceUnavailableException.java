@@ -0,0 +1,17 @@
+package com.appunture.backend.exception;
+
+/**
+ * Leitura ou escrita que não pôde ser concluída no Firestore. Diferente de um resultado vazio, não
+ * deve ser guardada em cache nem tratada como "não encontrado"; as rotas de leitura a deixam chegar ao
+ * {@link GlobalExceptionHandler}, que responde 503.
+ */
+public class DataSourceUnavailableException extends RuntimeException {
+
+    public DataSourceUnavailableException(String message) {
+        super(message);
+    }
+
+    public DataSourceUnavailableException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
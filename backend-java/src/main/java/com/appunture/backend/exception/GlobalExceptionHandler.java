@@ -149,10 +149,19 @@ public class GlobalExceptionHandler {
         return build(HttpStatus.TOO_MANY_REQUESTS, "RATE_LIMIT_EXCEEDED", ex.getMessage(), request);
     }
 
+    @ExceptionHandler(DataSourceUnavailableException.class)
+    public ResponseEntity<ErrorResponse> handleDataSourceUnavailable(
+            DataSourceUnavailableException ex,
+            HttpServletRequest request) {
+        log.error("Data source unavailable for {}: {}", request.getRequestURI(), ex.getMessage());
+        return build(HttpStatus.SERVICE_UNAVAILABLE, "SERVICE_UNAVAILABLE", "Data source temporarily unavailable", request);
+    }
+
     @ExceptionHandler(Exception.class)
     public ResponseEntity<ErrorResponse> handleGeneric(
             Exception ex,
             HttpServletRequest request) {
+        log.error("Unexpected error for {}: {}", request.getRequestURI(), ex.getMessage(), ex);
         return build(HttpStatus.INTERNAL_SERVER_ERROR, "INTERNAL_ERROR", "Unexpected error", request);
     }
 
@@ -0,0 +1,125 @@
+package com.appunture.backend.filter;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.WriteListener;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.servlet.http.HttpServletResponseWrapper;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * Mede o tamanho dos corpos das APIs de catálogo por formato (JSON, CBOR, Smile) e codificação,
+ * para comparar as representações em produção. Conta os bytes escritos pela aplicação, antes da
+ * compressão do servidor.
+ */
+@Component
+@RequiredArgsConstructor
+public class PayloadSizeMetricsFilter extends OncePerRequestFilter {
+
+    private static final List<String> MEASURED_PREFIXES = List.of("/points", "/symptoms", "/sync");
+
+    private final MeterRegistry meterRegistry;
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        String path = request.getRequestURI().substring(request.getContextPath().length());
+        return !"GET".equals(request.getMethod()) || MEASURED_PREFIXES.stream().noneMatch(path::startsWith);
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request,
+                                    HttpServletResponse response,
+                                    FilterChain filterChain) throws ServletException, IOException {
+        CountingResponse counting = new CountingResponse(response);
+        filterChain.doFilter(request, counting);
+
+        if (counting.getStatus() != HttpServletResponse.SC_OK || counting.bytes == 0) {
+            return;
+        }
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        String encoding = counting.getHeader(HttpHeaders.CONTENT_ENCODING);
+        DistributionSummary.builder("app_response_payload_bytes")
+                .description("Tamanho do corpo das respostas de catálogo")
+                .baseUnit("bytes")
+                .tag("uri", pattern != null ? pattern.toString() : "UNKNOWN")
+                .tag("format", format(counting.getContentType()))
+                .tag("encoding", encoding != null ? encoding : "identity")
+                .register(meterRegistry)
+                .record(counting.bytes);
+    }
+
+    private static String format(String contentType) {
+        if (contentType == null) {
+            return "unknown";
+        }
+        try {
+            MediaType type = MediaType.parseMediaType(contentType);
+            return type.getSubtype().replace("x-jackson-", "");
+        } catch (RuntimeException e) {
+            return "unknown";
+        }
+    }
+
+    private static final class CountingResponse extends HttpServletResponseWrapper {
+
+        private long bytes;
+        private ServletOutputStream stream;
+
+        CountingResponse(HttpServletResponse response) {
+            super(response);
+        }
+
+        @Override
+        public ServletOutputStream getOutputStream() throws IOException {
+            if (stream == null) {
+                ServletOutputStream delegate = super.getOutputStream();
+                stream = new ServletOutputStream() {
+                    @Override
+                    public void write(int b) throws IOException {
+                        delegate.write(b);
+                        bytes++;
+                    }
+
+                    @Override
+                    public void write(byte[] b, int off, int len) throws IOException {
+                        delegate.write(b, off, len);
+                        bytes += len;
+                    }
+
+                    @Override
+                    public void flush() throws IOException {
+                        delegate.flush();
+                    }
+
+                    @Override
+                    public void close() throws IOException {
+                        delegate.close();
+                    }
+
+                    @Override
+                    public boolean isReady() {
+                        return delegate.isReady();
+                    }
+
+                    @Override
+                    public void setWriteListener(WriteListener listener) {
+                        delegate.setWriteListener(listener);
+                    }
+                };
+            }
+            return stream;
+        }
+    }
+}
@@ -0,0 +1,55 @@
+package com.appunture.backend.model.firestore;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.google.cloud.Timestamp;
+import com.google.cloud.firestore.annotation.DocumentId;
+import com.google.cloud.firestore.annotation.Exclude;
+import com.google.cloud.firestore.annotation.PropertyName;
+import com.google.cloud.firestore.annotation.ServerTimestamp;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.LocalDateTime;
+
+/**
+ * Invalidação de cache publicada em {@code _cache_events} para as demais instâncias.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class FirestoreCacheEvent {
+
+    @DocumentId
+    private String id;
+
+    private String origin; // Instância que fez a escrita
+    private Long sequence; // Ordem da escrita na instância de origem
+    private String type; // CREATED, UPDATED ou DELETED
+    private String pointId;
+    private String code;
+    private String meridian;
+    private String previousCode;
+    private String previousMeridian;
+    @Getter(onMethod_ = @Exclude)
+    @Setter(onMethod_ = @Exclude)
+    private LocalDateTime version; // updatedAt do ponto salvo
+    @ServerTimestamp
+    private Timestamp publishedAt; // Preenchido pelo servidor quando nulo na gravação
+
+    @PropertyName("version")
+    @JsonIgnore
+    public Timestamp getVersionTimestamp() {
+        return FirestoreTimestamps.toTimestamp(version);
+    }
+
+    @PropertyName("version")
+    @JsonIgnore
+    public void setVersionTimestamp(Timestamp version) {
+        this.version = FirestoreTimestamps.toLocalDateTime(version);
+    }
+}
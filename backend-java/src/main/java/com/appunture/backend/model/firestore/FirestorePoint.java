@@ -1,8 +1,14 @@
 package com.appunture.backend.model.firestore;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.google.cloud.Timestamp;
 import com.google.cloud.firestore.annotation.DocumentId;
+import com.google.cloud.firestore.annotation.Exclude;
+import com.google.cloud.firestore.annotation.PropertyName;
 import io.swagger.v3.oas.annotations.media.Schema;
 import lombok.Data;
+import lombok.Getter;
+import lombok.Setter;
 import lombok.NoArgsConstructor;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
@@ -54,8 +60,12 @@ public class FirestorePoint {
     private List<String> symptomIds;
     
     // Metadados
+    @Getter(onMethod_ = @Exclude)
+    @Setter(onMethod_ = @Exclude)
     @Schema(description = "Data de criação", example = "2025-02-10T15:43:00")
     private LocalDateTime createdAt;
+    @Getter(onMethod_ = @Exclude)
+    @Setter(onMethod_ = @Exclude)
     @Schema(description = "Última atualização", example = "2025-03-01T09:12:11")
     private LocalDateTime updatedAt;
     @Schema(description = "UID Firebase do criador", example = "qwerty123456")
@@ -86,6 +96,32 @@ public class FirestorePoint {
             symptomIds.remove(symptomId);
         }
     }
+
+    // Gravados como Timestamp do Firestore para que orderBy/startAfter ordenem por instante
+    @PropertyName("createdAt")
+    @JsonIgnore
+    public Timestamp getCreatedAtTimestamp() {
+        return FirestoreTimestamps.toTimestamp(createdAt);
+    }
+
+    @PropertyName("createdAt")
+    @JsonIgnore
+    public void setCreatedAtTimestamp(Timestamp createdAt) {
+        this.createdAt = FirestoreTimestamps.toLocalDateTime(createdAt);
+    }
+
+    @PropertyName("updatedAt")
+    @JsonIgnore
+    public Timestamp getUpdatedAtTimestamp() {
+        return FirestoreTimestamps.toTimestamp(updatedAt);
+    }
+
+    @PropertyName("updatedAt")
+    @JsonIgnore
+    public void setUpdatedAtTimestamp(Timestamp updatedAt) {
+        this.updatedAt = FirestoreTimestamps.toLocalDateTime(updatedAt);
+    }
+
     @Data
     @NoArgsConstructor
     @AllArgsConstructor
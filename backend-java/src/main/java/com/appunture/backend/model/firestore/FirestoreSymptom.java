@@ -1,7 +1,13 @@
 package com.appunture.backend.model.firestore;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.google.cloud.Timestamp;
 import com.google.cloud.firestore.annotation.DocumentId;
+import com.google.cloud.firestore.annotation.Exclude;
+import com.google.cloud.firestore.annotation.PropertyName;
 import lombok.Data;
+import lombok.Getter;
+import lombok.Setter;
 import lombok.NoArgsConstructor;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
@@ -27,7 +33,11 @@ public class FirestoreSymptom {
     private List<String> pointIds;
     
     // Metadados
+    @Getter(onMethod_ = @Exclude)
+    @Setter(onMethod_ = @Exclude)
     private LocalDateTime createdAt;
+    @Getter(onMethod_ = @Exclude)
+    @Setter(onMethod_ = @Exclude)
     private LocalDateTime updatedAt;
     private String createdBy; // ID do usuário que criou
     
@@ -61,4 +71,29 @@ public class FirestoreSymptom {
             useCount++;
         }
     }
-}
\ No newline at end of file
+
+    // Gravados como Timestamp do Firestore para que orderBy/startAfter ordenem por instante
+    @PropertyName("createdAt")
+    @JsonIgnore
+    public Timestamp getCreatedAtTimestamp() {
+        return FirestoreTimestamps.toTimestamp(createdAt);
+    }
+
+    @PropertyName("createdAt")
+    @JsonIgnore
+    public void setCreatedAtTimestamp(Timestamp createdAt) {
+        this.createdAt = FirestoreTimestamps.toLocalDateTime(createdAt);
+    }
+
+    @PropertyName("updatedAt")
+    @JsonIgnore
+    public Timestamp getUpdatedAtTimestamp() {
+        return FirestoreTimestamps.toTimestamp(updatedAt);
+    }
+
+    @PropertyName("updatedAt")
+    @JsonIgnore
+    public void setUpdatedAtTimestamp(Timestamp updatedAt) {
+        this.updatedAt = FirestoreTimestamps.toLocalDateTime(updatedAt);
+    }
+}
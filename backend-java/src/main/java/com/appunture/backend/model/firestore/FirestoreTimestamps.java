@@ -0,0 +1,33 @@
+package com.appunture.backend.model.firestore;
+
+import com.google.cloud.Timestamp;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+
+/**
+ * Conversão entre os {@link LocalDateTime} do modelo e o {@link Timestamp} nativo do Firestore.
+ *
+ * <p>O SDK não tem codec para {@code java.time}: sem a conversão as datas seriam gravadas como
+ * mapas e {@code orderBy}/{@code startAfter} não ordenariam por instante. Os valores locais são
+ * tratados como UTC, então a ida e volta é exata e a ordem é preservada.</p>
+ */
+public final class FirestoreTimestamps {
+
+    private FirestoreTimestamps() {
+    }
+
+    public static Timestamp toTimestamp(LocalDateTime value) {
+        if (value == null) {
+            return null;
+        }
+        return Timestamp.ofTimeSecondsAndNanos(value.toEpochSecond(ZoneOffset.UTC), value.getNano());
+    }
+
+    public static LocalDateTime toLocalDateTime(Timestamp value) {
+        if (value == null) {
+            return null;
+        }
+        return LocalDateTime.ofEpochSecond(value.getSeconds(), value.getNanos(), ZoneOffset.UTC);
+    }
+}
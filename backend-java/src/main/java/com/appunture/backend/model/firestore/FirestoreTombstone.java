@@ -0,0 +1,47 @@
+package com.appunture.backend.model.firestore;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.google.cloud.Timestamp;
+import com.google.cloud.firestore.annotation.DocumentId;
+import com.google.cloud.firestore.annotation.Exclude;
+import com.google.cloud.firestore.annotation.PropertyName;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.LocalDateTime;
+
+/**
+ * Registro de exclusão de um ponto ou sintoma, para que a sincronização incremental avise os
+ * clientes offline.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class FirestoreTombstone {
+
+    @DocumentId
+    private String id; // "<coleção>_<ID do documento>"
+
+    private String collection; // "points" ou "symptoms"
+    private String documentId; // ID do documento excluído
+    @Getter(onMethod_ = @Exclude)
+    @Setter(onMethod_ = @Exclude)
+    private LocalDateTime deletedAt;
+
+    @PropertyName("deletedAt")
+    @JsonIgnore
+    public Timestamp getDeletedAtTimestamp() {
+        return FirestoreTimestamps.toTimestamp(deletedAt);
+    }
+
+    @PropertyName("deletedAt")
+    @JsonIgnore
+    public void setDeletedAtTimestamp(Timestamp deletedAt) {
+        this.deletedAt = FirestoreTimestamps.toLocalDateTime(deletedAt);
+    }
+}
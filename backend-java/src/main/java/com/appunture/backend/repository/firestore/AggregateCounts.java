@@ -0,0 +1,29 @@
+package com.appunture.backend.repository.firestore;
+
+import com.appunture.backend.exception.DataSourceUnavailableException;
+import com.google.cloud.firestore.Query;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.concurrent.ExecutionException;
+
+/**
+ * Contagem por consulta de agregação {@code count()}, que não baixa os documentos.
+ */
+@Slf4j
+final class AggregateCounts {
+
+    private AggregateCounts() {
+    }
+
+    static long count(Query query, String description) {
+        try {
+            return query.count().get().get().getCount();
+        } catch (InterruptedException | ExecutionException e) {
+            log.error("Erro ao contar {}: {}", description, e.getMessage());
+            if (e instanceof InterruptedException) {
+                Thread.currentThread().interrupt();
+            }
+            throw new DataSourceUnavailableException("Erro ao contar " + description, e);
+        }
+    }
+}
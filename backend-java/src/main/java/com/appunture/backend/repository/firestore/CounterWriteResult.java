@@ -0,0 +1,12 @@
+package com.appunture.backend.repository.firestore;
+
+import java.util.Map;
+
+/**
+ * Resultado de um flush de contadores: deltas a regravar e incrementos descartados porque o
+ * documento não existe mais.
+ */
+public record CounterWriteResult(Map<String, Long> failed, long dropped) {
+
+    public static final CounterWriteResult EMPTY = new CounterWriteResult(Map.of(), 0);
+}
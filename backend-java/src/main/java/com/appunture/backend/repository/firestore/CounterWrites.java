@@ -0,0 +1,107 @@
+package com.appunture.backend.repository.firestore;
+
+import com.appunture.backend.exception.DataSourceUnavailableException;
+import com.google.cloud.firestore.CollectionReference;
+import com.google.cloud.firestore.DocumentReference;
+import com.google.cloud.firestore.DocumentSnapshot;
+import com.google.cloud.firestore.FieldMask;
+import com.google.cloud.firestore.Firestore;
+import com.google.cloud.firestore.WriteBatch;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.function.Function;
+
+/**
+ * Gravação em lote de deltas de contadores acumulados em memória.
+ *
+ * <p>As escritas usam {@code set} com merge, que nunca falha por documento ausente e recriaria
+ * as estatísticas de um documento já removido. Por isso, antes de cada lote, os IDs cujo
+ * documento principal não existe mais são descartados e contados como {@code dropped}. Cada lote
+ * tem até {@value #MAX_BATCH_WRITES} escritas sem transação; se falha, seus deltas voltam para
+ * nova tentativa.</p>
+ */
+@Slf4j
+final class CounterWrites {
+
+    static final int MAX_BATCH_WRITES = 500;
+
+    private CounterWrites() {
+    }
+
+    @FunctionalInterface
+    interface DeltaWrite {
+        void add(WriteBatch batch, DocumentReference document, long delta);
+    }
+
+    static CounterWriteResult apply(Firestore firestore, CollectionReference collection, Map<String, Long> deltas,
+                                    Function<Collection<String>, Set<String>> existing, DeltaWrite write) {
+        Map<String, Long> failed = new HashMap<>();
+        long dropped = 0;
+        List<Map.Entry<String, Long>> entries = new ArrayList<>(deltas.entrySet());
+        for (int from = 0; from < entries.size(); from += MAX_BATCH_WRITES) {
+            List<Map.Entry<String, Long>> chunk = entries.subList(from, Math.min(entries.size(), from + MAX_BATCH_WRITES));
+            Set<String> live;
+            try {
+                live = existing.apply(chunk.stream().map(Map.Entry::getKey).toList());
+            } catch (DataSourceUnavailableException e) {
+                chunk.forEach(entry -> failed.put(entry.getKey(), entry.getValue()));
+                continue;
+            }
+            WriteBatch batch = firestore.batch();
+            List<Map.Entry<String, Long>> staged = new ArrayList<>(chunk.size());
+            for (Map.Entry<String, Long> entry : chunk) {
+                if (live.contains(entry.getKey())) {
+                    write.add(batch, collection.document(entry.getKey()), entry.getValue());
+                    staged.add(entry);
+                } else {
+                    log.debug("Descartando delta do documento removido {}/{}", collection.getId(), entry.getKey());
+                    dropped += Math.abs(entry.getValue());
+                }
+            }
+            if (staged.isEmpty()) {
+                continue;
+            }
+            try {
+                batch.commit().get();
+            } catch (InterruptedException | ExecutionException e) {
+                log.warn("Lote de {} contadores em {} falhou: {}", staged.size(), collection.getId(), e.getMessage());
+                if (e instanceof InterruptedException) {
+                    Thread.currentThread().interrupt();
+                }
+                staged.forEach(entry -> failed.put(entry.getKey(), entry.getValue()));
+            }
+        }
+        return new CounterWriteResult(failed, dropped);
+    }
+
+    /**
+     * IDs de {@code ids} com documento em {@code collection}, em uma leitura {@code getAll} sem
+     * campos (só metadados).
+     */
+    static Set<String> existingIds(Firestore firestore, CollectionReference collection, Collection<String> ids) {
+        DocumentReference[] refs = ids.stream().map(collection::document).toArray(DocumentReference[]::new);
+        try {
+            Set<String> existing = new HashSet<>();
+            for (DocumentSnapshot snapshot : firestore.getAll(refs, FieldMask.of()).get()) {
+                if (snapshot.exists()) {
+                    existing.add(snapshot.getId());
+                }
+            }
+            return existing;
+        } catch (InterruptedException | ExecutionException e) {
+            log.error("Erro ao verificar {} documentos de {}: {}", ids.size(), collection.getId(), e.getMessage());
+            if (e instanceof InterruptedException) {
+                Thread.currentThread().interrupt();
+            }
+            throw new DataSourceUnavailableException("Erro ao verificar documentos de " + collection.getId(), e);
+        }
+    }
+}
@@ -0,0 +1,110 @@
+package com.appunture.backend.repository.firestore;
+
+import com.google.cloud.firestore.Query;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+/**
+ * Conjunto de campos pedidos por uma listagem ({@code fields=code,name} ou a visão {@code summary}).
+ *
+ * <p>Nas consultas ao Firestore a projeção vira {@code Query.select(...)}, então os demais campos
+ * nem são transferidos; o {@code id} vem do próprio documento e está sempre incluído.</p>
+ */
+public final class FieldProjection {
+
+    public static final String SUMMARY_VIEW = "summary";
+    public static final FieldProjection ALL = new FieldProjection(null);
+
+    private static final String ID_FIELD = "id";
+    private static final Map<Class<?>, Set<String>> FIELDS_BY_TYPE = new ConcurrentHashMap<>();
+
+    private final Set<String> fields;
+
+    private FieldProjection(Set<String> fields) {
+        this.fields = fields;
+    }
+
+    /**
+     * Interpreta o parâmetro {@code fields}: vazio devolve {@link #ALL}, {@value #SUMMARY_VIEW} usa
+     * {@code summary} e os demais valores são nomes de campo de {@code type} separados por vírgula.
+     *
+     * @throws IllegalArgumentException para campos que não existem em {@code type}
+     */
+    public static FieldProjection parse(String spec, Class<?> type, Collection<String> summary) {
+        if (spec == null || spec.isBlank()) {
+            return ALL;
+        }
+        Set<String> requested = SUMMARY_VIEW.equals(spec.trim())
+                ? new LinkedHashSet<>(summary)
+                : Arrays.stream(spec.split(","))
+                        .map(String::trim)
+                        .filter(field -> !field.isEmpty())
+                        .collect(Collectors.toCollection(LinkedHashSet::new));
+        Set<String> known = FIELDS_BY_TYPE.computeIfAbsent(type, FieldProjection::declaredFields);
+        for (String field : requested) {
+            if (!known.contains(field)) {
+                throw new IllegalArgumentException("Campo desconhecido: " + field);
+            }
+        }
+        Set<String> projected = new LinkedHashSet<>();
+        projected.add(ID_FIELD);
+        projected.addAll(requested);
+        return new FieldProjection(Collections.unmodifiableSet(projected));
+    }
+
+    public boolean isAll() {
+        return fields == null;
+    }
+
+    /**
+     * Campos incluídos, sempre com {@code id}; nulo para {@link #ALL}.
+     */
+    public Set<String> fields() {
+        return fields;
+    }
+
+    @Override
+    public boolean equals(Object other) {
+        return other instanceof FieldProjection projection && Objects.equals(fields, projection.fields);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hashCode(fields);
+    }
+
+    Query applyTo(Query query) {
+        if (isAll()) {
+            return query;
+        }
+        String[] stored = fields.stream().filter(field -> !ID_FIELD.equals(field)).toArray(String[]::new);
+        return query.select(stored);
+    }
+
+    /**
+     * Remove de uma representação já serializada os campos fora da projeção.
+     */
+    public Map<String, Object> retain(Map<String, Object> values) {
+        if (!isAll()) {
+            values.keySet().retainAll(fields);
+        }
+        return values;
+    }
+
+    private static Set<String> declaredFields(Class<?> type) {
+        return Arrays.stream(type.getDeclaredFields())
+                .filter(field -> !Modifier.isStatic(field.getModifiers()))
+                .map(Field::getName)
+                .collect(Collectors.toUnmodifiableSet());
+    }
+}
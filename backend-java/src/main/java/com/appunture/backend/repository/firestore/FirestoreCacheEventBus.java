@@ -0,0 +1,244 @@
+package com.appunture.backend.repository.firestore;
+
+import com.appunture.backend.config.CacheProperties;
+import com.appunture.backend.model.firestore.FirestoreCacheEvent;
+import com.appunture.backend.service.cache.CacheInvalidation;
+import com.appunture.backend.service.cache.CacheInvalidationBus;
+import com.google.cloud.Timestamp;
+import com.google.cloud.firestore.DocumentChange;
+import com.google.cloud.firestore.FieldValue;
+import com.google.cloud.firestore.Firestore;
+import com.google.cloud.firestore.ListenerRegistration;
+import com.google.cloud.firestore.QueryDocumentSnapshot;
+import com.google.cloud.firestore.WriteBatch;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * Barramento de invalidação sobre a coleção {@code _cache_events}.
+ *
+ * <p>Cada escrita vira um documento; todas as instâncias escutam os documentos publicados
+ * depois que o listener foi aberto. O {@code publishedAt} é carimbado pelo servidor e os limites
+ * do listener e da limpeza vêm do mesmo relógio, lido em {@code _cache_clock}: nenhuma comparação
+ * depende do relógio de uma instância. Se o listener cai, os eventos do intervalo são dados como
+ * perdidos: na reconexão os assinantes recebem um {@link CacheInvalidation.Type#RESET}.</p>
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class FirestoreCacheEventBus implements CacheInvalidationBus {
+
+    static final String COLLECTION_NAME = "_cache_events";
+    private static final String PUBLISHED_AT_FIELD = "publishedAt";
+    private static final String CLOCK_COLLECTION = "_cache_clock";
+    private static final String CLOCK_DOCUMENT = "now";
+    private static final String CLOCK_FIELD = "at";
+    private static final int MAX_BATCH_WRITES = 500;
+
+    private final Firestore firestore;
+    private final CacheProperties cacheProperties;
+
+    private final List<Consumer<CacheInvalidation>> subscribers = new CopyOnWriteArrayList<>();
+
+    private volatile boolean stopped;
+    private volatile boolean gap;
+    private ListenerRegistration registration;
+    private ScheduledExecutorService resubscribeExecutor;
+
+    @PostConstruct
+    void start() {
+        if (!isEnabled()) {
+            log.info("Barramento de invalidação de cache desabilitado - caches apenas locais");
+            return;
+        }
+        resubscribeExecutor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "cache-events-resubscribe");
+            thread.setDaemon(true);
+            return thread;
+        });
+        listen();
+    }
+
+    @PreDestroy
+    void stop() {
+        stopped = true;
+        if (registration != null) {
+            registration.remove();
+        }
+        if (resubscribeExecutor != null) {
+            resubscribeExecutor.shutdownNow();
+        }
+    }
+
+    @Override
+    public void publish(CacheInvalidation invalidation) {
+        if (!isEnabled()) {
+            return;
+        }
+        FirestoreCacheEvent event = FirestoreCacheEvent.builder()
+                .origin(invalidation.origin())
+                .sequence(invalidation.sequence())
+                .type(invalidation.type().name())
+                .pointId(invalidation.pointId())
+                .code(invalidation.code())
+                .meridian(invalidation.meridian())
+                .previousCode(invalidation.previousCode())
+                .previousMeridian(invalidation.previousMeridian())
+                .version(invalidation.version())
+                .build();
+        try {
+            firestore.collection(COLLECTION_NAME).add(event).get();
+        } catch (InterruptedException | ExecutionException e) {
+            // A escrita já foi salva; as outras instâncias convergem pelo expireAfterWrite
+            log.error("Erro ao publicar invalidação do ponto {}: {}", invalidation.pointId(), e.getMessage());
+            if (e instanceof InterruptedException) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    @Override
+    public void subscribe(Consumer<CacheInvalidation> subscriber) {
+        subscribers.add(subscriber);
+    }
+
+    /**
+     * Remove os eventos mais antigos que a retenção configurada.
+     */
+    @Scheduled(fixedDelayString = "${app.cache.event-prune-interval:PT10M}")
+    public void pruneEvents() {
+        if (!isEnabled()) {
+            return;
+        }
+        try {
+            Timestamp now = serverNow();
+            Timestamp cutoff = Timestamp.ofTimeSecondsAndNanos(
+                    now.getSeconds() - cacheProperties.getEventRetention().toSeconds(), now.getNanos());
+            int deleted = 0;
+            List<QueryDocumentSnapshot> expired;
+            do {
+                expired = firestore.collection(COLLECTION_NAME)
+                        .whereLessThan(PUBLISHED_AT_FIELD, cutoff)
+                        .limit(MAX_BATCH_WRITES)
+                        .get().get().getDocuments();
+                if (expired.isEmpty()) {
+                    break;
+                }
+                WriteBatch batch = firestore.batch();
+                expired.forEach(doc -> batch.delete(doc.getReference()));
+                batch.commit().get();
+                deleted += expired.size();
+            } while (expired.size() == MAX_BATCH_WRITES);
+            if (deleted > 0) {
+                log.debug("Eventos de cache expirados removidos: {}", deleted);
+            }
+        } catch (InterruptedException | ExecutionException e) {
+            log.error("Erro ao remover eventos de cache antigos: {}", e.getMessage());
+            if (e instanceof InterruptedException) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    private boolean isEnabled() {
+        return cacheProperties.isBusEnabled() && firestore != null;
+    }
+
+    /**
+     * Horário do servidor do Firestore: o commit de um {@code serverTimestamp} em
+     * {@code _cache_clock/now}, o mesmo relógio que carimba o {@code publishedAt} dos eventos.
+     */
+    private Timestamp serverNow() throws InterruptedException, ExecutionException {
+        return firestore.collection(CLOCK_COLLECTION).document(CLOCK_DOCUMENT)
+                .set(Map.of(CLOCK_FIELD, FieldValue.serverTimestamp()))
+                .get().getUpdateTime();
+    }
+
+    private void listen() {
+        Timestamp openedAt;
+        try {
+            openedAt = serverNow();
+        } catch (InterruptedException | ExecutionException e) {
+            log.error("Erro ao ler o horário do Firestore para o listener de eventos: {}", e.getMessage());
+            if (e instanceof InterruptedException) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+            resubscribeLater();
+            return;
+        }
+        registration = firestore.collection(COLLECTION_NAME)
+                .whereGreaterThan(PUBLISHED_AT_FIELD, openedAt)
+                .addSnapshotListener((snapshot, error) -> {
+                    if (error != null) {
+                        log.error("Listener de eventos de cache falhou: {}", error.getMessage());
+                        gap = true;
+                        resubscribeLater();
+                        return;
+                    }
+                    if (snapshot == null) {
+                        return;
+                    }
+                    if (gap) {
+                        gap = false;
+                        dispatch(CacheInvalidation.reset());
+                    }
+                    for (DocumentChange change : snapshot.getDocumentChanges()) {
+                        if (change.getType() == DocumentChange.Type.ADDED) {
+                            toInvalidation(change.getDocument()).ifPresent(this::dispatch);
+                        }
+                    }
+                });
+    }
+
+    private void resubscribeLater() {
+        if (!stopped) {
+            long delayMillis = cacheProperties.getResubscribeDelay().toMillis();
+            resubscribeExecutor.schedule(this::listen, delayMillis, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    private Optional<CacheInvalidation> toInvalidation(QueryDocumentSnapshot document) {
+        try {
+            FirestoreCacheEvent event = document.toObject(FirestoreCacheEvent.class);
+            return Optional.of(new CacheInvalidation(
+                    event.getOrigin(),
+                    event.getSequence() == null ? 0 : event.getSequence(),
+                    CacheInvalidation.Type.valueOf(event.getType()),
+                    event.getPointId(),
+                    event.getCode(),
+                    event.getMeridian(),
+                    event.getPreviousCode(),
+                    event.getPreviousMeridian(),
+                    event.getVersion()));
+        } catch (RuntimeException e) {
+            log.warn("Ignorando evento de cache {}: {}", document.getId(), e.getMessage());
+            return Optional.empty();
+        }
+    }
+
+    private void dispatch(CacheInvalidation invalidation) {
+        for (Consumer<CacheInvalidation> subscriber : subscribers) {
+            try {
+                subscriber.accept(invalidation);
+            } catch (RuntimeException e) {
+                log.warn("Assinante de invalidação falhou para o ponto {}: {}",
+                        invalidation.pointId(), e.getMessage());
+            }
+        }
+    }
+}
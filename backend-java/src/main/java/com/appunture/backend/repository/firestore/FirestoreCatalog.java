@@ -0,0 +1,593 @@
+package com.appunture.backend.repository.firestore;
+
+import com.appunture.backend.config.CatalogProperties;
+import com.appunture.backend.model.firestore.FirestorePoint;
+import com.appunture.backend.model.firestore.FirestoreSymptom;
+import com.google.cloud.firestore.DocumentChange;
+import com.google.cloud.firestore.Firestore;
+import com.google.cloud.firestore.ListenerRegistration;
+import com.google.cloud.firestore.QueryDocumentSnapshot;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.function.UnaryOperator;
+
+/**
+ * Catálogo em memória de pontos e sintomas.
+ *
+ * <p>Carrega as duas coleções uma única vez e as mantém atualizadas por snapshot listeners
+ * do Firestore. Cada alteração publica uma nova visão imutável com os índices de leitura,
+ * de forma que as consultas dos repositórios não fazem round trip ao Firestore enquanto o
+ * catálogo estiver pronto. Todas as leituras públicas retornam cópias em listas imutáveis,
+ * pois os serviços alteram o objeto antes de salvá-lo; os documentos da visão nunca saem do
+ * pacote.</p>
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class FirestoreCatalog {
+
+    static final String POINTS_COLLECTION = "points";
+    static final String SYMPTOMS_COLLECTION = "symptoms";
+    private static final Comparator<LocalDateTime> UPDATED_AT_ORDER = Comparator.nullsFirst(Comparator.naturalOrder());
+
+    private final Firestore firestore;
+    private final CatalogProperties catalogProperties;
+    private final MeterRegistry meterRegistry;
+
+    private final Object pointsLock = new Object();
+    private final Object symptomsLock = new Object();
+    private final Map<String, FirestorePoint> pointDocuments = new HashMap<>();
+    private final Map<String, FirestoreSymptom> symptomDocuments = new HashMap<>();
+
+    private final List<PointListener> pointListeners = new CopyOnWriteArrayList<>();
+
+    private volatile PointView pointView = PointView.EMPTY;
+    private volatile SymptomView symptomView = SymptomView.EMPTY;
+    private volatile boolean pointsReady;
+    private volatile boolean symptomsReady;
+    private volatile boolean stopped;
+    private volatile long pointsVersion;
+    private volatile long symptomsVersion;
+
+    private ListenerRegistration pointsRegistration;
+    private ListenerRegistration symptomsRegistration;
+    private ScheduledExecutorService resubscribeExecutor;
+
+    @PostConstruct
+    void start() {
+        Gauge.builder("app_catalog_documents", this, catalog -> catalog.pointView.all.size())
+                .description("Documentos mantidos no catálogo em memória")
+                .tag("collection", POINTS_COLLECTION)
+                .register(meterRegistry);
+        Gauge.builder("app_catalog_documents", this, catalog -> catalog.symptomView.all.size())
+                .description("Documentos mantidos no catálogo em memória")
+                .tag("collection", SYMPTOMS_COLLECTION)
+                .register(meterRegistry);
+
+        if (!catalogProperties.isEnabled() || firestore == null) {
+            log.info("Catálogo em memória desabilitado - leituras irão direto ao Firestore");
+            return;
+        }
+
+        resubscribeExecutor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "catalog-resubscribe");
+            thread.setDaemon(true);
+            return thread;
+        });
+        subscribePoints();
+        subscribeSymptoms();
+    }
+
+    @PreDestroy
+    void stop() {
+        stopped = true;
+        if (pointsRegistration != null) {
+            pointsRegistration.remove();
+        }
+        if (symptomsRegistration != null) {
+            symptomsRegistration.remove();
+        }
+        if (resubscribeExecutor != null) {
+            resubscribeExecutor.shutdownNow();
+        }
+    }
+
+    private void subscribePoints() {
+        pointsRegistration = firestore.collection(POINTS_COLLECTION)
+                .addSnapshotListener((snapshot, error) -> {
+                    if (error != null) {
+                        log.error("Listener do catálogo de pontos falhou: {}", error.getMessage());
+                        pointsReady = false;
+                        scheduleResubscribe(this::subscribePoints);
+                        return;
+                    }
+                    if (snapshot == null) {
+                        return;
+                    }
+                    synchronized (pointsLock) {
+                        if (!pointsReady) {
+                            // Primeiro snapshot (ou reconexão): substitui todo o conteúdo
+                            Map<String, FirestorePoint> previous = new HashMap<>(pointDocuments);
+                            pointDocuments.clear();
+                            snapshot.getDocuments().forEach(this::putPointDocument);
+                            previous.keySet().stream()
+                                    .filter(id -> !pointDocuments.containsKey(id))
+                                    .forEach(id -> firePointChanged(id, null));
+                        } else {
+                            for (DocumentChange change : snapshot.getDocumentChanges()) {
+                                if (change.getType() == DocumentChange.Type.REMOVED) {
+                                    pointDocuments.remove(change.getDocument().getId());
+                                    firePointChanged(change.getDocument().getId(), null);
+                                } else {
+                                    putPointDocument(change.getDocument());
+                                }
+                            }
+                        }
+                        publishPoints();
+                        if (!pointsReady) {
+                            pointsReady = true;
+                            log.info("Catálogo de pontos carregado: {} documentos", pointDocuments.size());
+                        }
+                    }
+                });
+    }
+
+    private void subscribeSymptoms() {
+        symptomsRegistration = firestore.collection(SYMPTOMS_COLLECTION)
+                .addSnapshotListener((snapshot, error) -> {
+                    if (error != null) {
+                        log.error("Listener do catálogo de sintomas falhou: {}", error.getMessage());
+                        symptomsReady = false;
+                        scheduleResubscribe(this::subscribeSymptoms);
+                        return;
+                    }
+                    if (snapshot == null) {
+                        return;
+                    }
+                    synchronized (symptomsLock) {
+                        if (!symptomsReady) {
+                            symptomDocuments.clear();
+                            snapshot.getDocuments().forEach(this::putSymptomDocument);
+                        } else {
+                            for (DocumentChange change : snapshot.getDocumentChanges()) {
+                                if (change.getType() == DocumentChange.Type.REMOVED) {
+                                    symptomDocuments.remove(change.getDocument().getId());
+                                } else {
+                                    putSymptomDocument(change.getDocument());
+                                }
+                            }
+                        }
+                        publishSymptoms();
+                        if (!symptomsReady) {
+                            symptomsReady = true;
+                            log.info("Catálogo de sintomas carregado: {} documentos", symptomDocuments.size());
+                        }
+                    }
+                });
+    }
+
+    private void scheduleResubscribe(Runnable subscription) {
+        if (stopped || resubscribeExecutor == null) {
+            return;
+        }
+        long delayMillis = catalogProperties.getResubscribeDelay().toMillis();
+        resubscribeExecutor.schedule(subscription, delayMillis, TimeUnit.MILLISECONDS);
+    }
+
+    private void putPointDocument(QueryDocumentSnapshot document) {
+        try {
+            FirestorePoint point = document.toObject(FirestorePoint.class);
+            point.setId(document.getId());
+            pointDocuments.put(point.getId(), point);
+            firePointChanged(point.getId(), point);
+        } catch (RuntimeException e) {
+            log.warn("Ignorando ponto {} no catálogo: {}", document.getId(), e.getMessage());
+        }
+    }
+
+    private void putSymptomDocument(QueryDocumentSnapshot document) {
+        try {
+            FirestoreSymptom symptom = document.toObject(FirestoreSymptom.class);
+            symptom.setId(document.getId());
+            symptomDocuments.put(symptom.getId(), symptom);
+        } catch (RuntimeException e) {
+            log.warn("Ignorando sintoma {} no catálogo: {}", document.getId(), e.getMessage());
+        }
+    }
+
+    /**
+     * Registra um observador de alterações de pontos, chamado sob o lock do catálogo para cada
+     * documento incluído, alterado ou removido. O ponto recebido é o objeto interno do catálogo
+     * e não deve ser alterado.
+     */
+    public void addPointListener(PointListener listener) {
+        pointListeners.add(listener);
+    }
+
+    private void firePointChanged(String id, FirestorePoint point) {
+        for (PointListener listener : pointListeners) {
+            try {
+                listener.pointChanged(id, point);
+            } catch (RuntimeException e) {
+                log.warn("Observador do catálogo falhou para o ponto {}: {}", id, e.getMessage());
+            }
+        }
+    }
+
+    private void publishPoints() {
+        pointView = new PointView(pointDocuments.values());
+        pointsVersion++;
+    }
+
+    private void publishSymptoms() {
+        symptomView = new SymptomView(symptomDocuments.values());
+        symptomsVersion++;
+    }
+
+    // Write-through: aplica escritas locais sem esperar o evento do listener
+
+    public void upsertPoint(FirestorePoint point) {
+        if (!pointsReady || point.getId() == null) {
+            return;
+        }
+        synchronized (pointsLock) {
+            FirestorePoint copy = copyOf(point);
+            pointDocuments.put(copy.getId(), copy);
+            firePointChanged(copy.getId(), copy);
+            publishPoints();
+        }
+    }
+
+    public void removePoint(String id) {
+        if (!pointsReady) {
+            return;
+        }
+        synchronized (pointsLock) {
+            if (pointDocuments.remove(id) != null) {
+                firePointChanged(id, null);
+                publishPoints();
+            }
+        }
+    }
+
+    public void upsertSymptom(FirestoreSymptom symptom) {
+        if (!symptomsReady || symptom.getId() == null) {
+            return;
+        }
+        synchronized (symptomsLock) {
+            symptomDocuments.put(symptom.getId(), copyOf(symptom));
+            publishSymptoms();
+        }
+    }
+
+    public void removeSymptom(String id) {
+        if (!symptomsReady) {
+            return;
+        }
+        synchronized (symptomsLock) {
+            if (symptomDocuments.remove(id) != null) {
+                publishSymptoms();
+            }
+        }
+    }
+
+    // Leituras de pontos
+
+    public boolean isPointsReady() {
+        return pointsReady;
+    }
+
+    /**
+     * Incrementado a cada visão publicada; índices derivados usam para saber quando reconstruir.
+     */
+    public long pointsVersion() {
+        return pointsVersion;
+    }
+
+    public Optional<FirestorePoint> findPointById(String id) {
+        return Optional.ofNullable(pointView.byId.get(id)).map(FirestoreCatalog::copyOf);
+    }
+
+    public boolean containsPoint(String id) {
+        return pointView.byId.containsKey(id);
+    }
+
+    public Optional<FirestorePoint> findPointByCode(String code) {
+        return Optional.ofNullable(pointView.byCode.get(code)).map(FirestoreCatalog::copyOf);
+    }
+
+    public List<FirestorePoint> allPoints() {
+        return copyOfPoints(pointView.all);
+    }
+
+    /**
+     * Documentos internos da visão atual, sem cópia, para índices derivados deste pacote. Não
+     * devem ser alterados nem entregues para fora do repositório.
+     */
+    List<FirestorePoint> residentPoints() {
+        return pointView.all;
+    }
+
+    /**
+     * Até {@code limit} pontos com ID maior que {@code afterId} (ou do início, se nulo), na
+     * mesma ordem de ID de documento usada pelo Firestore.
+     */
+    public List<FirestorePoint> pointsAfter(String afterId, int limit) {
+        return copyOfPoints(slice(pointView.all, FirestorePoint::getId, afterId, limit));
+    }
+
+    /**
+     * Até {@code limit} pontos com ({@code updatedAt}, ID) maior que a posição informada, nessa
+     * ordem. Sem {@code afterId}, começa do início; documentos sem {@code updatedAt} vêm primeiro.
+     */
+    public List<FirestorePoint> pointsChangedAfter(LocalDateTime updatedAt, String afterId, int limit) {
+        return copyOfPoints(changedAfter(pointView.all, FirestorePoint::getUpdatedAt, FirestorePoint::getId, updatedAt, afterId, limit));
+    }
+
+    public int pointCount() {
+        return pointView.all.size();
+    }
+
+    public List<FirestorePoint> pointsByMeridian(String meridian) {
+        return copyOfPoints(pointView.byMeridian.getOrDefault(meridian, List.of()));
+    }
+
+    // Leituras de sintomas
+
+    public boolean isSymptomsReady() {
+        return symptomsReady;
+    }
+
+    public long symptomsVersion() {
+        return symptomsVersion;
+    }
+
+    public Optional<FirestoreSymptom> findSymptomById(String id) {
+        return Optional.ofNullable(symptomView.byId.get(id)).map(FirestoreCatalog::copyOf);
+    }
+
+    public boolean containsSymptom(String id) {
+        return symptomView.byId.containsKey(id);
+    }
+
+    public Optional<FirestoreSymptom> findSymptomByName(String name) {
+        return Optional.ofNullable(symptomView.byName.get(name)).map(FirestoreCatalog::copyOf);
+    }
+
+    public List<FirestoreSymptom> symptomsAfter(String afterId, int limit) {
+        return copyOfSymptoms(slice(symptomView.all, FirestoreSymptom::getId, afterId, limit));
+    }
+
+    public List<FirestoreSymptom> symptomsChangedAfter(LocalDateTime updatedAt, String afterId, int limit) {
+        return copyOfSymptoms(changedAfter(symptomView.all, FirestoreSymptom::getUpdatedAt, FirestoreSymptom::getId, updatedAt, afterId, limit));
+    }
+
+    public List<FirestoreSymptom> allSymptoms() {
+        return copyOfSymptoms(symptomView.all);
+    }
+
+    List<FirestoreSymptom> residentSymptoms() {
+        return symptomView.all;
+    }
+
+    public int symptomCount() {
+        return symptomView.all.size();
+    }
+
+    public List<FirestoreSymptom> symptomsByCategory(String category) {
+        return copyOfSymptoms(symptomView.byCategory.getOrDefault(category, List.of()));
+    }
+
+    public List<FirestoreSymptom> symptomsByTag(String tag) {
+        return copyOfSymptoms(symptomView.byTag.getOrDefault(tag, List.of()));
+    }
+
+    public static FirestorePoint copyOf(FirestorePoint point) {
+        return FirestorePoint.builder()
+                .id(point.getId())
+                .code(point.getCode())
+                .name(point.getName())
+                .description(point.getDescription())
+                .meridian(point.getMeridian())
+                .location(point.getLocation())
+                .indication(point.getIndication())
+                .coordinates(point.getCoordinates() != null ? new HashMap<>(point.getCoordinates()) : null)
+                .imageUrls(point.getImageUrls() != null ? new ArrayList<>(point.getImageUrls()) : null)
+                .imageThumbnailMap(point.getImageThumbnailMap() != null ? new HashMap<>(point.getImageThumbnailMap()) : null)
+                .imageAudit(point.getImageAudit() != null ? new ArrayList<>(point.getImageAudit()) : null)
+                .symptomIds(point.getSymptomIds() != null ? new ArrayList<>(point.getSymptomIds()) : null)
+                .createdAt(point.getCreatedAt())
+                .updatedAt(point.getUpdatedAt())
+                .createdBy(point.getCreatedBy())
+                .favoriteCount(point.getFavoriteCount())
+                .viewCount(point.getViewCount())
+                .tags(point.getTags() != null ? new ArrayList<>(point.getTags()) : null)
+                .category(point.getCategory())
+                .build();
+    }
+
+    public static FirestoreSymptom copyOf(FirestoreSymptom symptom) {
+        return FirestoreSymptom.builder()
+                .id(symptom.getId())
+                .name(symptom.getName())
+                .description(symptom.getDescription())
+                .category(symptom.getCategory())
+                .tags(symptom.getTags() != null ? new ArrayList<>(symptom.getTags()) : null)
+                .pointIds(symptom.getPointIds() != null ? new ArrayList<>(symptom.getPointIds()) : null)
+                .createdAt(symptom.getCreatedAt())
+                .updatedAt(symptom.getUpdatedAt())
+                .createdBy(symptom.getCreatedBy())
+                .useCount(symptom.getUseCount())
+                .associatedPointsCount(symptom.getAssociatedPointsCount())
+                .severity(symptom.getSeverity())
+                .priority(symptom.getPriority())
+                .build();
+    }
+
+    public static List<FirestorePoint> copyOfPoints(List<FirestorePoint> points) {
+        return copyAll(points, FirestoreCatalog::copyOf);
+    }
+
+    public static List<FirestoreSymptom> copyOfSymptoms(List<FirestoreSymptom> symptoms) {
+        return copyAll(symptoms, FirestoreCatalog::copyOf);
+    }
+
+    private static <T> List<T> copyAll(List<T> documents, UnaryOperator<T> copy) {
+        List<T> copies = new ArrayList<>(documents.size());
+        for (T document : documents) {
+            copies.add(copy.apply(document));
+        }
+        return Collections.unmodifiableList(copies);
+    }
+
+    @FunctionalInterface
+    public interface PointListener {
+
+        /**
+         * @param point versão atual do ponto, ou {@code null} quando foi removido
+         */
+        void pointChanged(String id, FirestorePoint point);
+    }
+
+    private static <T> List<T> slice(List<T> sortedById, Function<T, String> id, String afterId, int limit) {
+        int from = 0;
+        if (afterId != null) {
+            // Busca binária pelo primeiro ID estritamente maior que o cursor
+            int low = 0;
+            int high = sortedById.size();
+            while (low < high) {
+                int mid = (low + high) >>> 1;
+                if (id.apply(sortedById.get(mid)).compareTo(afterId) <= 0) {
+                    low = mid + 1;
+                } else {
+                    high = mid;
+                }
+            }
+            from = low;
+        }
+        return sortedById.subList(from, Math.min(sortedById.size(), from + Math.max(0, limit)));
+    }
+
+    private static <T> List<T> changedAfter(List<T> documents,
+                                            Function<T, LocalDateTime> updatedAt,
+                                            Function<T, String> id,
+                                            LocalDateTime afterUpdatedAt,
+                                            String afterId,
+                                            int limit) {
+        Comparator<T> order = Comparator.comparing(updatedAt, UPDATED_AT_ORDER).thenComparing(id);
+        return documents.stream()
+                .filter(document -> afterId == null || isAfter(updatedAt.apply(document), id.apply(document), afterUpdatedAt, afterId))
+                .sorted(order)
+                .limit(Math.max(0, limit))
+                .toList();
+    }
+
+    private static boolean isAfter(LocalDateTime updatedAt, String id, LocalDateTime afterUpdatedAt, String afterId) {
+        int byTime = UPDATED_AT_ORDER.compare(updatedAt, afterUpdatedAt);
+        return byTime > 0 || (byTime == 0 && id.compareTo(afterId) > 0);
+    }
+
+    private static <T> Map<String, List<T>> freeze(Map<String, List<T>> index) {
+        Map<String, List<T>> frozen = new HashMap<>(index.size() * 2);
+        index.forEach((key, values) -> frozen.put(key, List.copyOf(values)));
+        return frozen;
+    }
+
+    /**
+     * Visão imutável dos pontos, ordenada por ID de documento como o Firestore retorna.
+     */
+    private static final class PointView {
+        static final PointView EMPTY = new PointView(List.of());
+
+        final List<FirestorePoint> all;
+        final Map<String, FirestorePoint> byId;
+        final Map<String, FirestorePoint> byCode;
+        final Map<String, List<FirestorePoint>> byMeridian;
+
+        PointView(Collection<FirestorePoint> points) {
+            List<FirestorePoint> sorted = new ArrayList<>(points);
+            sorted.sort(Comparator.comparing(FirestorePoint::getId));
+
+            Map<String, FirestorePoint> ids = new HashMap<>(sorted.size() * 2);
+            Map<String, FirestorePoint> codes = new HashMap<>(sorted.size() * 2);
+            Map<String, List<FirestorePoint>> meridians = new LinkedHashMap<>();
+            for (FirestorePoint point : sorted) {
+                ids.put(point.getId(), point);
+                if (point.getCode() != null) {
+                    codes.putIfAbsent(point.getCode(), point);
+                }
+                if (point.getMeridian() != null) {
+                    meridians.computeIfAbsent(point.getMeridian(), key -> new ArrayList<>()).add(point);
+                }
+            }
+
+            this.all = List.copyOf(sorted);
+            this.byId = ids;
+            this.byCode = codes;
+            this.byMeridian = freeze(meridians);
+        }
+    }
+
+    /**
+     * Visão imutável dos sintomas, com índices por id, nome, categoria e tag.
+     */
+    private static final class SymptomView {
+        static final SymptomView EMPTY = new SymptomView(List.of());
+
+        final List<FirestoreSymptom> all;
+        final Map<String, FirestoreSymptom> byId;
+        final Map<String, FirestoreSymptom> byName;
+        final Map<String, List<FirestoreSymptom>> byCategory;
+        final Map<String, List<FirestoreSymptom>> byTag;
+
+        SymptomView(Collection<FirestoreSymptom> symptoms) {
+            List<FirestoreSymptom> sorted = new ArrayList<>(symptoms);
+            sorted.sort(Comparator.comparing(FirestoreSymptom::getId));
+
+            Map<String, FirestoreSymptom> ids = new HashMap<>(sorted.size() * 2);
+            Map<String, FirestoreSymptom> names = new HashMap<>(sorted.size() * 2);
+            Map<String, List<FirestoreSymptom>> categories = new HashMap<>();
+            Map<String, List<FirestoreSymptom>> tags = new HashMap<>();
+            for (FirestoreSymptom symptom : sorted) {
+                ids.put(symptom.getId(), symptom);
+                if (symptom.getName() != null) {
+                    names.putIfAbsent(symptom.getName(), symptom);
+                }
+                if (symptom.getCategory() != null) {
+                    categories.computeIfAbsent(symptom.getCategory(), key -> new ArrayList<>()).add(symptom);
+                }
+                if (symptom.getTags() != null) {
+                    symptom.getTags().stream().distinct().forEach(tag ->
+                            tags.computeIfAbsent(tag, key -> new ArrayList<>()).add(symptom));
+                }
+            }
+
+            this.all = List.copyOf(sorted);
+            this.byId = ids;
+            this.byName = names;
+            this.byCategory = freeze(categories);
+            this.byTag = freeze(tags);
+        }
+    }
+}
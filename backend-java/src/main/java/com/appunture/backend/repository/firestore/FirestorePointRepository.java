@@ -1,6 +1,9 @@
 package com.appunture.backend.repository.firestore;
 
+import com.appunture.backend.exception.DataSourceUnavailableException;
 import com.appunture.backend.model.firestore.FirestorePoint;
+import com.appunture.backend.model.firestore.FirestoreTimestamps;
+import com.appunture.backend.service.cache.SingleFlight;
 import com.google.api.core.ApiFuture;
 import com.google.cloud.firestore.*;
 import lombok.RequiredArgsConstructor;
@@ -8,9 +11,17 @@ import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.BinaryOperator;
 import java.util.stream.Collectors;
 
 @Repository
@@ -19,9 +30,25 @@ import java.util.stream.Collectors;
 public class FirestorePointRepository {
 
     private final Firestore firestore;
+    private final FirestoreCatalog catalog;
+    private final SymptomPointGraph symptomPointGraph;
+    private final FirestoreTombstoneRepository tombstoneRepository;
+    private final SingleFlight singleFlight;
     private static final String COLLECTION_NAME = "points";
+    // Contadores quentes ficam fora do documento do ponto para não movimentar o catálogo
+    private static final String STATS_COLLECTION = "pointStats";
+    private static final String FAVORITE_COUNT_FIELD = "favoriteCount";
+    private static final String VIEW_COUNT_FIELD = "viewCount";
+    private static final String FAVORITE_SHARDS_COLLECTION = "favoriteShards";
+    private static final String SHARD_COUNT_FIELD = "count";
+    private static final String VIEWERS_COLLECTION = "pointViewers";
+    private static final String VIEWER_REGISTERS_FIELD = "registers";
 
     public Optional<FirestorePoint> findById(String id) {
+        if (catalog.isPointsReady()) {
+            return catalog.findPointById(id);
+        }
+
         if (firestore == null) {
             log.warn("Firestore não inicializado");
             return Optional.empty();
@@ -43,12 +70,18 @@ public class FirestorePointRepository {
             
         } catch (InterruptedException | ExecutionException e) {
             log.error("Erro ao buscar ponto por ID {}: {}", id, e.getMessage());
-            Thread.currentThread().interrupt();
-            return Optional.empty();
+            if (e instanceof InterruptedException) {
+                Thread.currentThread().interrupt();
+            }
+            throw new DataSourceUnavailableException("Erro ao buscar ponto por ID " + id, e);
         }
     }
 
     public Optional<FirestorePoint> findByCode(String code) {
+        if (catalog.isPointsReady()) {
+            return catalog.findPointByCode(code);
+        }
+
         if (firestore == null) {
             log.warn("Firestore não inicializado");
             return Optional.empty();
@@ -69,8 +102,10 @@ public class FirestorePointRepository {
             
         } catch (InterruptedException | ExecutionException e) {
             log.error("Erro ao buscar ponto por código {}: {}", code, e.getMessage());
-            Thread.currentThread().interrupt();
-            return Optional.empty();
+            if (e instanceof InterruptedException) {
+                Thread.currentThread().interrupt();
+            }
+            throw new DataSourceUnavailableException("Erro ao buscar ponto por código " + code, e);
         }
     }
 
@@ -92,14 +127,17 @@ public class FirestorePointRepository {
             ApiFuture<WriteResult> future = firestore.collection(COLLECTION_NAME)
                     .document(point.getId()).set(point);
             future.get();
+            catalog.upsertPoint(point);
             
             log.debug("Ponto salvo com sucesso: {}", point.getId());
             return point;
             
         } catch (InterruptedException | ExecutionException e) {
             log.error("Erro ao salvar ponto: {}", e.getMessage());
-            Thread.currentThread().interrupt();
-            throw new RuntimeException("Falha ao salvar ponto", e);
+            if (e instanceof InterruptedException) {
+                Thread.currentThread().interrupt();
+            }
+            throw new DataSourceUnavailableException("Erro ao salvar ponto", e);
         }
     }
 
@@ -110,27 +148,51 @@ public class FirestorePointRepository {
         }
         
         try {
-            ApiFuture<WriteResult> future = firestore.collection(COLLECTION_NAME)
-                    .document(id).delete();
-            future.get();
+            WriteBatch batch = firestore.batch();
+            DocumentReference pointRef = firestore.collection(COLLECTION_NAME).document(id);
+            DocumentReference statsRef = firestore.collection(STATS_COLLECTION).document(id);
+            // Shards de favoritos (atuais e os antigos sob points) não somem com o documento pai
+            pointRef.collection(FAVORITE_SHARDS_COLLECTION).listDocuments().forEach(batch::delete);
+            statsRef.collection(FAVORITE_SHARDS_COLLECTION).listDocuments().forEach(batch::delete);
+            batch.delete(pointRef);
+            batch.delete(statsRef);
+            tombstoneRepository.stage(batch, COLLECTION_NAME, id);
+            batch.commit().get();
+            catalog.removePoint(id);
             
             log.debug("Ponto deletado com sucesso: {}", id);
             
         } catch (InterruptedException | ExecutionException e) {
             log.error("Erro ao deletar ponto {}: {}", id, e.getMessage());
-            Thread.currentThread().interrupt();
-            throw new RuntimeException("Falha ao deletar ponto", e);
+            if (e instanceof InterruptedException) {
+                Thread.currentThread().interrupt();
+            }
+            throw new DataSourceUnavailableException("Erro ao deletar ponto " + id, e);
         }
     }
 
     public List<FirestorePoint> findAll() {
+        return findAll(FieldProjection.ALL);
+    }
+
+    public List<FirestorePoint> findAll(FieldProjection projection) {
+        if (catalog.isPointsReady()) {
+            return catalog.allPoints();
+        }
+
+        // A lista do líder é compartilhada com as chamadas agrupadas; cada uma recebe sua cópia
+        return FirestoreCatalog.copyOfPoints(
+                singleFlight.execute("points.findAll", () -> queryAll(projection), projection));
+    }
+
+    private List<FirestorePoint> queryAll(FieldProjection projection) {
         if (firestore == null) {
             log.warn("Firestore não inicializado");
             return List.of();
         }
         
         try {
-            ApiFuture<QuerySnapshot> future = firestore.collection(COLLECTION_NAME).get();
+            ApiFuture<QuerySnapshot> future = projection.applyTo(firestore.collection(COLLECTION_NAME)).get();
             List<QueryDocumentSnapshot> documents = future.get().getDocuments();
             
             return documents.stream()
@@ -143,12 +205,109 @@ public class FirestorePointRepository {
                     
         } catch (InterruptedException | ExecutionException e) {
             log.error("Erro ao listar pontos: {}", e.getMessage());
-            Thread.currentThread().interrupt();
+            if (e instanceof InterruptedException) {
+                Thread.currentThread().interrupt();
+            }
+            throw new DataSourceUnavailableException("Erro ao listar pontos", e);
+        }
+    }
+
+    public List<FirestorePoint> findPage(String afterId, int limit) {
+        return findPage(afterId, limit, FieldProjection.ALL);
+    }
+
+    /**
+     * Página ordenada por ID de documento, começando logo após {@code afterId} ({@code startAfter}).
+     * Fora do catálogo, a projeção vira um {@code select} na consulta.
+     */
+    public List<FirestorePoint> findPage(String afterId, int limit, FieldProjection projection) {
+        if (catalog.isPointsReady()) {
+            return catalog.pointsAfter(afterId, limit);
+        }
+
+        if (firestore == null) {
+            log.warn("Firestore não inicializado");
             return List.of();
         }
+
+        try {
+            Query query = projection.applyTo(firestore.collection(COLLECTION_NAME))
+                    .orderBy(FieldPath.documentId())
+                    .limit(limit);
+            if (afterId != null) {
+                query = query.startAfter(afterId);
+            }
+            return query.get().get().getDocuments().stream()
+                    .map(doc -> {
+                        FirestorePoint point = doc.toObject(FirestorePoint.class);
+                        point.setId(doc.getId());
+                        return point;
+                    })
+                    .collect(Collectors.toList());
+
+        } catch (InterruptedException | ExecutionException e) {
+            log.error("Erro ao paginar pontos: {}", e.getMessage());
+            if (e instanceof InterruptedException) {
+                Thread.currentThread().interrupt();
+            }
+            throw new DataSourceUnavailableException("Erro ao paginar pontos", e);
+        }
+    }
+
+    /**
+     * Documentos alterados depois da posição ({@code updatedAt}, ID), em ordem de
+     * {@code updatedAt} e ID; sem {@code afterId}, começa do início.
+     */
+    public List<FirestorePoint> findChangedAfter(LocalDateTime updatedAt, String afterId, int limit) {
+        if (catalog.isPointsReady()) {
+            return catalog.pointsChangedAfter(updatedAt, afterId, limit);
+        }
+
+        if (firestore == null) {
+            log.warn("Firestore não inicializado");
+            return List.of();
+        }
+
+        try {
+            // Sem o catálogo, documentos sem updatedAt ficam fora da ordenação do Firestore
+            Query query = firestore.collection(COLLECTION_NAME)
+                    .orderBy("updatedAt")
+                    .orderBy(FieldPath.documentId())
+                    .limit(limit);
+            if (afterId != null) {
+                query = query.startAfter(FirestoreTimestamps.toTimestamp(updatedAt), afterId);
+            }
+            return query.get().get().getDocuments().stream()
+                    .map(doc -> {
+                        FirestorePoint point = doc.toObject(FirestorePoint.class);
+                        point.setId(doc.getId());
+                        return point;
+                    })
+                    .collect(Collectors.toList());
+
+        } catch (InterruptedException | ExecutionException e) {
+            log.error("Erro ao listar pontos alterados: {}", e.getMessage());
+            if (e instanceof InterruptedException) {
+                Thread.currentThread().interrupt();
+            }
+            throw new DataSourceUnavailableException("Erro ao listar pontos alterados", e);
+        }
     }
 
     public List<FirestorePoint> findByMeridian(String meridian) {
+        return findByMeridian(meridian, FieldProjection.ALL);
+    }
+
+    public List<FirestorePoint> findByMeridian(String meridian, FieldProjection projection) {
+        if (catalog.isPointsReady()) {
+            return catalog.pointsByMeridian(meridian);
+        }
+
+        return FirestoreCatalog.copyOfPoints(
+                singleFlight.execute("points.findByMeridian", () -> queryByMeridian(meridian, projection), meridian, projection));
+    }
+
+    private List<FirestorePoint> queryByMeridian(String meridian, FieldProjection projection) {
         if (firestore == null) {
             log.warn("Firestore não inicializado");
             return List.of();
@@ -156,7 +315,7 @@ public class FirestorePointRepository {
         
         try {
             CollectionReference points = firestore.collection(COLLECTION_NAME);
-            Query query = points.whereEqualTo("meridian", meridian);
+            Query query = projection.applyTo(points.whereEqualTo("meridian", meridian));
             ApiFuture<QuerySnapshot> querySnapshot = query.get();
             
             List<QueryDocumentSnapshot> documents = querySnapshot.get().getDocuments();
@@ -170,12 +329,27 @@ public class FirestorePointRepository {
                     
         } catch (InterruptedException | ExecutionException e) {
             log.error("Erro ao buscar pontos por meridiano {}: {}", meridian, e.getMessage());
-            Thread.currentThread().interrupt();
-            return List.of();
+            if (e instanceof InterruptedException) {
+                Thread.currentThread().interrupt();
+            }
+            throw new DataSourceUnavailableException("Erro ao buscar pontos por meridiano " + meridian, e);
         }
     }
 
     public List<FirestorePoint> findBySymptomId(String symptomId) {
+        return findBySymptomId(symptomId, FieldProjection.ALL);
+    }
+
+    public List<FirestorePoint> findBySymptomId(String symptomId, FieldProjection projection) {
+        if (catalog.isPointsReady()) {
+            return symptomPointGraph.pointsBySymptomId(symptomId);
+        }
+
+        return FirestoreCatalog.copyOfPoints(
+                singleFlight.execute("points.findBySymptomId", () -> queryBySymptomId(symptomId, projection), symptomId, projection));
+    }
+
+    private List<FirestorePoint> queryBySymptomId(String symptomId, FieldProjection projection) {
         if (firestore == null) {
             log.warn("Firestore não inicializado");
             return List.of();
@@ -183,7 +357,7 @@ public class FirestorePointRepository {
         
         try {
             CollectionReference points = firestore.collection(COLLECTION_NAME);
-            Query query = points.whereArrayContains("symptomIds", symptomId);
+            Query query = projection.applyTo(points.whereArrayContains("symptomIds", symptomId));
             ApiFuture<QuerySnapshot> querySnapshot = query.get();
             
             List<QueryDocumentSnapshot> documents = querySnapshot.get().getDocuments();
@@ -197,8 +371,10 @@ public class FirestorePointRepository {
                     
         } catch (InterruptedException | ExecutionException e) {
             log.error("Erro ao buscar pontos por sintoma {}: {}", symptomId, e.getMessage());
-            Thread.currentThread().interrupt();
-            return List.of();
+            if (e instanceof InterruptedException) {
+                Thread.currentThread().interrupt();
+            }
+            throw new DataSourceUnavailableException("Erro ao buscar pontos por sintoma " + symptomId, e);
         }
     }
 
@@ -208,77 +384,248 @@ public class FirestorePointRepository {
             return List.of();
         }
         
-        try {
-            // Firestore não suporta LIKE, então fazemos busca client-side
-            // Para produção, considere usar Algolia ou Elasticsearch
-            List<FirestorePoint> allPoints = findAll();
-            return allPoints.stream()
-                    .filter(point -> point.getName().toLowerCase().contains(name.toLowerCase()))
-                    .collect(Collectors.toList());
-                    
-        } catch (Exception e) {
-            log.error("Erro ao buscar pontos por nome {}: {}", name, e.getMessage());
+        // Firestore não suporta LIKE, então fazemos busca client-side
+        // Para produção, considere usar Algolia ou Elasticsearch
+        List<FirestorePoint> allPoints = findAll();
+        return allPoints.stream()
+                .filter(point -> point.getName().toLowerCase().contains(name.toLowerCase()))
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * IDs de {@code ids} cujo ponto existe. O catálogo responde pelos que conhece; os demais (ainda
+     * não entregues pelo listener ou sem catálogo carregado) são conferidos no Firestore.
+     */
+    public Set<String> existingIds(Collection<String> ids) {
+        if (firestore == null) {
+            log.warn("Firestore não inicializado");
+            return Set.of();
+        }
+        Set<String> existing = new HashSet<>();
+        List<String> unknown = new ArrayList<>();
+        for (String id : ids) {
+            if (catalog.isPointsReady() && catalog.containsPoint(id)) {
+                existing.add(id);
+            } else {
+                unknown.add(id);
+            }
+        }
+        if (!unknown.isEmpty()) {
+            existing.addAll(CounterWrites.existingIds(firestore, firestore.collection(COLLECTION_NAME), unknown));
+        }
+        return existing;
+    }
+
+    /**
+     * Pontos com os IDs informados que existem: do catálogo quando carregado; senão em uma única
+     * leitura {@code getAll}.
+     */
+    public List<FirestorePoint> findAllById(Collection<String> ids) {
+        if (catalog.isPointsReady()) {
+            return ids.stream().map(catalog::findPointById).flatMap(Optional::stream).collect(Collectors.toList());
+        }
+        if (firestore == null || ids.isEmpty()) {
             return List.of();
         }
+
+        try {
+            DocumentReference[] refs = ids.stream().map(firestore.collection(COLLECTION_NAME)::document)
+                    .toArray(DocumentReference[]::new);
+            List<FirestorePoint> points = new ArrayList<>();
+            for (DocumentSnapshot document : firestore.getAll(refs).get()) {
+                FirestorePoint point = document.exists() ? document.toObject(FirestorePoint.class) : null;
+                if (point != null) {
+                    point.setId(document.getId());
+                    points.add(point);
+                }
+            }
+            return points;
+        } catch (InterruptedException | ExecutionException e) {
+            log.error("Erro ao buscar {} pontos por ID: {}", ids.size(), e.getMessage());
+            if (e instanceof InterruptedException) {
+                Thread.currentThread().interrupt();
+            }
+            throw new DataSourceUnavailableException("Erro ao buscar pontos por ID", e);
+        }
     }
 
-    public void incrementFavoriteCount(String pointId) {
+    /**
+     * Grava deltas de favoritos já acumulados, em lotes e sem transação, em pointStats/{id}: com
+     * {@code shards > 0} em um shard aleatório de pointStats/{id}/favoriteShards; senão, no campo
+     * favoriteCount. O documento do ponto não é alterado; deltas de pontos removidos são
+     * descartados.
+     */
+    public CounterWriteResult applyFavoriteDeltas(Map<String, Long> deltas, int shards) {
         if (firestore == null) {
             log.warn("Firestore não inicializado");
-            return;
+            return CounterWriteResult.EMPTY;
         }
-        
+        return CounterWrites.apply(firestore, firestore.collection(STATS_COLLECTION), deltas, this::existingIds, (batch, statsRef, delta) -> {
+            if (shards > 0) {
+                DocumentReference shardRef = statsRef.collection(FAVORITE_SHARDS_COLLECTION)
+                        .document(String.valueOf(ThreadLocalRandom.current().nextInt(shards)));
+                batch.set(shardRef, Map.of(SHARD_COUNT_FIELD, FieldValue.increment(delta)), SetOptions.merge());
+            } else {
+                batch.set(statsRef, Map.of(FAVORITE_COUNT_FIELD, FieldValue.increment(delta)), SetOptions.merge());
+            }
+        });
+    }
+
+    /**
+     * Grava deltas acumulados de visualizações no campo viewCount de pointStats/{id}.
+     */
+    public CounterWriteResult applyViewDeltas(Map<String, Long> deltas) {
+        if (firestore == null) {
+            log.warn("Firestore não inicializado");
+            return CounterWriteResult.EMPTY;
+        }
+        return CounterWrites.apply(firestore, firestore.collection(STATS_COLLECTION), deltas, this::existingIds, (batch, statsRef, delta) ->
+                batch.set(statsRef, Map.of(VIEW_COUNT_FIELD, FieldValue.increment(delta)), SetOptions.merge()));
+    }
+
+    /**
+     * Favoritos gravados por ponto: campo favoriteCount de pointStats e, com {@code includeShards},
+     * a soma dos shards em uma única consulta collection group (inclui shards antigos sob points).
+     */
+    public Map<String, Long> sumFavoriteCounts(boolean includeShards) {
+        if (firestore == null) {
+            log.warn("Firestore não inicializado");
+            return Map.of();
+        }
+
         try {
-            DocumentReference docRef = firestore.collection(COLLECTION_NAME).document(pointId);
-            ApiFuture<Void> future = firestore.runTransaction(transaction -> {
-                DocumentSnapshot snapshot = transaction.get(docRef).get();
-                if (snapshot.exists()) {
-                    FirestorePoint point = snapshot.toObject(FirestorePoint.class);
-                    Integer currentCount = point.getFavoriteCount();
-                    int newCount = (currentCount != null ? currentCount : 0) + 1;
-                    transaction.update(docRef, "favoriteCount", newCount);
+            Map<String, Long> totals = sumStatsField(FAVORITE_COUNT_FIELD);
+            if (includeShards) {
+                for (QueryDocumentSnapshot shard : firestore.collectionGroup(FAVORITE_SHARDS_COLLECTION).get().get().getDocuments()) {
+                    DocumentReference owner = shard.getReference().getParent().getParent();
+                    Long count = shard.getLong(SHARD_COUNT_FIELD);
+                    if (owner != null && count != null) {
+                        totals.merge(owner.getId(), count, Long::sum);
+                    }
                 }
-                return null;
-            });
-            future.get();
-            
+            }
+            return totals;
         } catch (InterruptedException | ExecutionException e) {
-            log.error("Erro ao incrementar contador de favoritos para ponto {}: {}", pointId, e.getMessage());
-            Thread.currentThread().interrupt();
+            log.error("Erro ao somar favoritos gravados: {}", e.getMessage());
+            if (e instanceof InterruptedException) {
+                Thread.currentThread().interrupt();
+            }
+            throw new DataSourceUnavailableException("Erro ao somar favoritos gravados", e);
         }
     }
 
-    public void decrementFavoriteCount(String pointId) {
+    /**
+     * Visualizações gravadas por ponto no campo viewCount de pointStats.
+     */
+    public Map<String, Long> sumViewCounts() {
         if (firestore == null) {
             log.warn("Firestore não inicializado");
-            return;
+            return Map.of();
         }
-        
+
         try {
-            DocumentReference docRef = firestore.collection(COLLECTION_NAME).document(pointId);
-            ApiFuture<Void> future = firestore.runTransaction(transaction -> {
-                DocumentSnapshot snapshot = transaction.get(docRef).get();
-                if (snapshot.exists()) {
-                    FirestorePoint point = snapshot.toObject(FirestorePoint.class);
-                    Integer currentCount = point.getFavoriteCount();
-                    int newCount = Math.max(0, (currentCount != null ? currentCount : 0) - 1);
-                    transaction.update(docRef, "favoriteCount", newCount);
-                }
-                return null;
-            });
-            future.get();
-            
+            return sumStatsField(VIEW_COUNT_FIELD);
+        } catch (InterruptedException | ExecutionException e) {
+            log.error("Erro ao somar visualizações gravadas: {}", e.getMessage());
+            if (e instanceof InterruptedException) {
+                Thread.currentThread().interrupt();
+            }
+            throw new DataSourceUnavailableException("Erro ao somar visualizações gravadas", e);
+        }
+    }
+
+    private Map<String, Long> sumStatsField(String field) throws InterruptedException, ExecutionException {
+        Map<String, Long> totals = new HashMap<>();
+        for (QueryDocumentSnapshot stats : firestore.collection(STATS_COLLECTION).select(field).get().get().getDocuments()) {
+            Long count = stats.getLong(field);
+            if (count != null) {
+                totals.put(stats.getId(), count);
+            }
+        }
+        return totals;
+    }
+
+    /**
+     * Registradores HyperLogLog de visitantes únicos persistidos para o ponto, ou {@code null}.
+     */
+    public byte[] findViewerRegisters(String pointId) {
+        if (firestore == null) {
+            log.warn("Firestore não inicializado");
+            return null;
+        }
+
+        try {
+            DocumentSnapshot snapshot = firestore.collection(VIEWERS_COLLECTION).document(pointId).get().get();
+            Blob registers = snapshot.exists() ? snapshot.getBlob(VIEWER_REGISTERS_FIELD) : null;
+            return registers != null ? registers.toBytes() : null;
         } catch (InterruptedException | ExecutionException e) {
-            log.error("Erro ao decrementar contador de favoritos para ponto {}: {}", pointId, e.getMessage());
-            Thread.currentThread().interrupt();
+            log.error("Erro ao buscar visitantes do ponto {}: {}", pointId, e.getMessage());
+            if (e instanceof InterruptedException) {
+                Thread.currentThread().interrupt();
+            }
+            throw new DataSourceUnavailableException("Erro ao buscar visitantes do ponto " + pointId, e);
         }
     }
 
+    /**
+     * Combina os registradores locais de vários pontos com os persistidos (máximo por
+     * registrador, operação idempotente) e devolve o resultado gravado por ponto. Cada lote de
+     * até {@value CounterWrites#MAX_BATCH_WRITES} pontos é uma única transação com {@code getAll}.
+     */
+    public Map<String, byte[]> mergeViewerRegisters(Map<String, byte[]> registersByPoint, BinaryOperator<byte[]> merge) {
+        if (firestore == null) {
+            log.warn("Firestore não inicializado");
+            return registersByPoint;
+        }
+
+        Map<String, byte[]> mergedByPoint = new HashMap<>();
+        List<String> pointIds = List.copyOf(registersByPoint.keySet());
+        for (int from = 0; from < pointIds.size(); from += CounterWrites.MAX_BATCH_WRITES) {
+            List<String> chunk = pointIds.subList(from, Math.min(pointIds.size(), from + CounterWrites.MAX_BATCH_WRITES));
+            DocumentReference[] refs = chunk.stream()
+                    .map(pointId -> firestore.collection(VIEWERS_COLLECTION).document(pointId))
+                    .toArray(DocumentReference[]::new);
+            try {
+                mergedByPoint.putAll(firestore.runTransaction(transaction -> {
+                    Map<String, byte[]> merged = new HashMap<>();
+                    for (DocumentSnapshot snapshot : transaction.getAll(refs).get()) {
+                        Blob stored = snapshot.exists() ? snapshot.getBlob(VIEWER_REGISTERS_FIELD) : null;
+                        byte[] registers = merge.apply(stored != null ? stored.toBytes() : null,
+                                registersByPoint.get(snapshot.getId()));
+                        transaction.set(snapshot.getReference(), Map.of(
+                                VIEWER_REGISTERS_FIELD, Blob.fromBytes(registers),
+                                "updatedAt", FieldValue.serverTimestamp()));
+                        merged.put(snapshot.getId(), registers);
+                    }
+                    return merged;
+                }).get());
+            } catch (InterruptedException | ExecutionException e) {
+                log.error("Erro ao gravar visitantes de {} pontos: {}", chunk.size(), e.getMessage());
+                if (e instanceof InterruptedException) {
+                    Thread.currentThread().interrupt();
+                }
+                throw new DataSourceUnavailableException("Erro ao gravar visitantes únicos", e);
+            }
+        }
+        return mergedByPoint;
+    }
+
     public boolean existsByCode(String code) {
         return findByCode(code).isPresent();
     }
 
+    /**
+     * Total de documentos: tamanho do catálogo em memória quando carregado; senão uma consulta de
+     * agregação {@code count()}, que não baixa os documentos.
+     */
     public long count() {
-        return findAll().size();
+        if (catalog.isPointsReady()) {
+            return catalog.pointCount();
+        }
+        if (firestore == null) {
+            log.warn("Firestore não inicializado");
+            return 0;
+        }
+        return AggregateCounts.count(firestore.collection(COLLECTION_NAME), "pontos");
     }
 }
\ No newline at end of file
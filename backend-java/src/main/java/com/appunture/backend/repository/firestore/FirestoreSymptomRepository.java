@@ -1,6 +1,9 @@
 package com.appunture.backend.repository.firestore;
 
+import com.appunture.backend.exception.DataSourceUnavailableException;
 import com.appunture.backend.model.firestore.FirestoreSymptom;
+import com.appunture.backend.model.firestore.FirestoreTimestamps;
+import com.appunture.backend.service.cache.SingleFlight;
 import com.google.api.core.ApiFuture;
 import com.google.cloud.firestore.*;
 import lombok.RequiredArgsConstructor;
@@ -8,8 +11,14 @@ import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 import java.util.concurrent.ExecutionException;
 import java.util.stream.Collectors;
 
@@ -19,9 +28,20 @@ import java.util.stream.Collectors;
 public class FirestoreSymptomRepository {
 
     private final Firestore firestore;
+    private final FirestoreCatalog catalog;
+    private final SymptomPointGraph symptomPointGraph;
+    private final FirestoreTombstoneRepository tombstoneRepository;
+    private final SingleFlight singleFlight;
     private static final String COLLECTION_NAME = "symptoms";
+    // Contadores quentes ficam fora do documento do sintoma para não movimentar o catálogo
+    private static final String STATS_COLLECTION = "symptomStats";
+    private static final String USE_COUNT_FIELD = "useCount";
 
     public Optional<FirestoreSymptom> findById(String id) {
+        if (catalog.isSymptomsReady()) {
+            return catalog.findSymptomById(id);
+        }
+
         if (firestore == null) {
             log.warn("Firestore não inicializado");
             return Optional.empty();
@@ -43,12 +63,18 @@ public class FirestoreSymptomRepository {
             
         } catch (InterruptedException | ExecutionException e) {
             log.error("Erro ao buscar sintoma por ID {}: {}", id, e.getMessage());
-            Thread.currentThread().interrupt();
-            return Optional.empty();
+            if (e instanceof InterruptedException) {
+                Thread.currentThread().interrupt();
+            }
+            throw new DataSourceUnavailableException("Erro ao buscar sintoma por ID " + id, e);
         }
     }
 
     public Optional<FirestoreSymptom> findByName(String name) {
+        if (catalog.isSymptomsReady()) {
+            return catalog.findSymptomByName(name);
+        }
+
         if (firestore == null) {
             log.warn("Firestore não inicializado");
             return Optional.empty();
@@ -69,8 +95,10 @@ public class FirestoreSymptomRepository {
             
         } catch (InterruptedException | ExecutionException e) {
             log.error("Erro ao buscar sintoma por nome {}: {}", name, e.getMessage());
-            Thread.currentThread().interrupt();
-            return Optional.empty();
+            if (e instanceof InterruptedException) {
+                Thread.currentThread().interrupt();
+            }
+            throw new DataSourceUnavailableException("Erro ao buscar sintoma por nome " + name, e);
         }
     }
 
@@ -92,14 +120,17 @@ public class FirestoreSymptomRepository {
             ApiFuture<WriteResult> future = firestore.collection(COLLECTION_NAME)
                     .document(symptom.getId()).set(symptom);
             future.get();
+            catalog.upsertSymptom(symptom);
             
             log.debug("Sintoma salvo com sucesso: {}", symptom.getId());
             return symptom;
             
         } catch (InterruptedException | ExecutionException e) {
             log.error("Erro ao salvar sintoma: {}", e.getMessage());
-            Thread.currentThread().interrupt();
-            throw new RuntimeException("Falha ao salvar sintoma", e);
+            if (e instanceof InterruptedException) {
+                Thread.currentThread().interrupt();
+            }
+            throw new DataSourceUnavailableException("Erro ao salvar sintoma", e);
         }
     }
 
@@ -110,27 +141,46 @@ public class FirestoreSymptomRepository {
         }
         
         try {
-            ApiFuture<WriteResult> future = firestore.collection(COLLECTION_NAME)
-                    .document(id).delete();
-            future.get();
+            WriteBatch batch = firestore.batch();
+            batch.delete(firestore.collection(COLLECTION_NAME).document(id));
+            batch.delete(firestore.collection(STATS_COLLECTION).document(id));
+            tombstoneRepository.stage(batch, COLLECTION_NAME, id);
+            batch.commit().get();
+            catalog.removeSymptom(id);
             
             log.debug("Sintoma deletado com sucesso: {}", id);
             
         } catch (InterruptedException | ExecutionException e) {
             log.error("Erro ao deletar sintoma {}: {}", id, e.getMessage());
-            Thread.currentThread().interrupt();
-            throw new RuntimeException("Falha ao deletar sintoma", e);
+            if (e instanceof InterruptedException) {
+                Thread.currentThread().interrupt();
+            }
+            throw new DataSourceUnavailableException("Erro ao deletar sintoma " + id, e);
         }
     }
 
     public List<FirestoreSymptom> findAll() {
+        return findAll(FieldProjection.ALL);
+    }
+
+    public List<FirestoreSymptom> findAll(FieldProjection projection) {
+        if (catalog.isSymptomsReady()) {
+            return catalog.allSymptoms();
+        }
+
+        // A lista do líder é compartilhada com as chamadas agrupadas; cada uma recebe sua cópia
+        return FirestoreCatalog.copyOfSymptoms(
+                singleFlight.execute("symptoms.findAll", () -> queryAll(projection), projection));
+    }
+
+    private List<FirestoreSymptom> queryAll(FieldProjection projection) {
         if (firestore == null) {
             log.warn("Firestore não inicializado");
             return List.of();
         }
         
         try {
-            ApiFuture<QuerySnapshot> future = firestore.collection(COLLECTION_NAME).get();
+            ApiFuture<QuerySnapshot> future = projection.applyTo(firestore.collection(COLLECTION_NAME)).get();
             List<QueryDocumentSnapshot> documents = future.get().getDocuments();
             
             return documents.stream()
@@ -143,12 +193,104 @@ public class FirestoreSymptomRepository {
                     
         } catch (InterruptedException | ExecutionException e) {
             log.error("Erro ao listar sintomas: {}", e.getMessage());
-            Thread.currentThread().interrupt();
+            if (e instanceof InterruptedException) {
+                Thread.currentThread().interrupt();
+            }
+            throw new DataSourceUnavailableException("Erro ao listar sintomas", e);
+        }
+    }
+
+    public List<FirestoreSymptom> findPage(String afterId, int limit) {
+        return findPage(afterId, limit, FieldProjection.ALL);
+    }
+
+    /**
+     * Página ordenada por ID de documento, começando logo após {@code afterId} ({@code startAfter}).
+     * Fora do catálogo, a projeção vira um {@code select} na consulta.
+     */
+    public List<FirestoreSymptom> findPage(String afterId, int limit, FieldProjection projection) {
+        if (catalog.isSymptomsReady()) {
+            return catalog.symptomsAfter(afterId, limit);
+        }
+
+        if (firestore == null) {
+            log.warn("Firestore não inicializado");
             return List.of();
         }
+
+        try {
+            Query query = projection.applyTo(firestore.collection(COLLECTION_NAME))
+                    .orderBy(FieldPath.documentId())
+                    .limit(limit);
+            if (afterId != null) {
+                query = query.startAfter(afterId);
+            }
+            return query.get().get().getDocuments().stream()
+                    .map(doc -> {
+                        FirestoreSymptom symptom = doc.toObject(FirestoreSymptom.class);
+                        symptom.setId(doc.getId());
+                        return symptom;
+                    })
+                    .collect(Collectors.toList());
+
+        } catch (InterruptedException | ExecutionException e) {
+            log.error("Erro ao paginar sintomas: {}", e.getMessage());
+            if (e instanceof InterruptedException) {
+                Thread.currentThread().interrupt();
+            }
+            throw new DataSourceUnavailableException("Erro ao paginar sintomas", e);
+        }
+    }
+
+    /**
+     * Documentos alterados depois da posição ({@code updatedAt}, ID), em ordem de
+     * {@code updatedAt} e ID; sem {@code afterId}, começa do início.
+     */
+    public List<FirestoreSymptom> findChangedAfter(LocalDateTime updatedAt, String afterId, int limit) {
+        if (catalog.isSymptomsReady()) {
+            return catalog.symptomsChangedAfter(updatedAt, afterId, limit);
+        }
+
+        if (firestore == null) {
+            log.warn("Firestore não inicializado");
+            return List.of();
+        }
+
+        try {
+            // Sem o catálogo, documentos sem updatedAt ficam fora da ordenação do Firestore
+            Query query = firestore.collection(COLLECTION_NAME)
+                    .orderBy("updatedAt")
+                    .orderBy(FieldPath.documentId())
+                    .limit(limit);
+            if (afterId != null) {
+                query = query.startAfter(FirestoreTimestamps.toTimestamp(updatedAt), afterId);
+            }
+            return query.get().get().getDocuments().stream()
+                    .map(doc -> {
+                        FirestoreSymptom symptom = doc.toObject(FirestoreSymptom.class);
+                        symptom.setId(doc.getId());
+                        return symptom;
+                    })
+                    .collect(Collectors.toList());
+
+        } catch (InterruptedException | ExecutionException e) {
+            log.error("Erro ao listar sintomas alterados: {}", e.getMessage());
+            if (e instanceof InterruptedException) {
+                Thread.currentThread().interrupt();
+            }
+            throw new DataSourceUnavailableException("Erro ao listar sintomas alterados", e);
+        }
     }
 
     public List<FirestoreSymptom> findByCategory(String category) {
+        return findByCategory(category, FieldProjection.ALL);
+    }
+
+    public List<FirestoreSymptom> findByCategory(String category, FieldProjection projection) {
+        if (catalog.isSymptomsReady()) {
+            return catalog.symptomsByCategory(category);
+        }
+
         if (firestore == null) {
             log.warn("Firestore não inicializado");
             return List.of();
@@ -156,7 +298,7 @@ public class FirestoreSymptomRepository {
         
         try {
             CollectionReference symptoms = firestore.collection(COLLECTION_NAME);
-            Query query = symptoms.whereEqualTo("category", category);
+            Query query = projection.applyTo(symptoms.whereEqualTo("category", category));
             ApiFuture<QuerySnapshot> querySnapshot = query.get();
             
             List<QueryDocumentSnapshot> documents = querySnapshot.get().getDocuments();
@@ -170,12 +312,27 @@ public class FirestoreSymptomRepository {
                     
         } catch (InterruptedException | ExecutionException e) {
             log.error("Erro ao buscar sintomas por categoria {}: {}", category, e.getMessage());
-            Thread.currentThread().interrupt();
-            return List.of();
+            if (e instanceof InterruptedException) {
+                Thread.currentThread().interrupt();
+            }
+            throw new DataSourceUnavailableException("Erro ao buscar sintomas por categoria " + category, e);
         }
     }
 
     public List<FirestoreSymptom> findByPointId(String pointId) {
+        return findByPointId(pointId, FieldProjection.ALL);
+    }
+
+    public List<FirestoreSymptom> findByPointId(String pointId, FieldProjection projection) {
+        if (catalog.isSymptomsReady()) {
+            return symptomPointGraph.symptomsByPointId(pointId);
+        }
+
+        return FirestoreCatalog.copyOfSymptoms(
+                singleFlight.execute("symptoms.findByPointId", () -> queryByPointId(pointId, projection), pointId, projection));
+    }
+
+    private List<FirestoreSymptom> queryByPointId(String pointId, FieldProjection projection) {
         if (firestore == null) {
             log.warn("Firestore não inicializado");
             return List.of();
@@ -183,7 +340,7 @@ public class FirestoreSymptomRepository {
         
         try {
             CollectionReference symptoms = firestore.collection(COLLECTION_NAME);
-            Query query = symptoms.whereArrayContains("pointIds", pointId);
+            Query query = projection.applyTo(symptoms.whereArrayContains("pointIds", pointId));
             ApiFuture<QuerySnapshot> querySnapshot = query.get();
             
             List<QueryDocumentSnapshot> documents = querySnapshot.get().getDocuments();
@@ -197,8 +354,10 @@ public class FirestoreSymptomRepository {
                     
         } catch (InterruptedException | ExecutionException e) {
             log.error("Erro ao buscar sintomas por ponto {}: {}", pointId, e.getMessage());
-            Thread.currentThread().interrupt();
-            return List.of();
+            if (e instanceof InterruptedException) {
+                Thread.currentThread().interrupt();
+            }
+            throw new DataSourceUnavailableException("Erro ao buscar sintomas por ponto " + pointId, e);
         }
     }
 
@@ -208,20 +367,18 @@ public class FirestoreSymptomRepository {
             return List.of();
         }
         
-        try {
-            // Firestore não suporta LIKE, fazendo busca client-side
-            List<FirestoreSymptom> allSymptoms = findAll();
-            return allSymptoms.stream()
-                    .filter(symptom -> symptom.getName().toLowerCase().contains(name.toLowerCase()))
-                    .collect(Collectors.toList());
-                    
-        } catch (Exception e) {
-            log.error("Erro ao buscar sintomas por nome {}: {}", name, e.getMessage());
-            return List.of();
-        }
+        // Firestore não suporta LIKE, fazendo busca client-side
+        List<FirestoreSymptom> allSymptoms = findAll();
+        return allSymptoms.stream()
+                .filter(symptom -> symptom.getName().toLowerCase().contains(name.toLowerCase()))
+                .collect(Collectors.toList());
     }
 
     public List<FirestoreSymptom> findByTag(String tag) {
+        if (catalog.isSymptomsReady()) {
+            return catalog.symptomsByTag(tag);
+        }
+
         if (firestore == null) {
             log.warn("Firestore não inicializado");
             return List.of();
@@ -243,61 +400,75 @@ public class FirestoreSymptomRepository {
                     
         } catch (InterruptedException | ExecutionException e) {
             log.error("Erro ao buscar sintomas por tag {}: {}", tag, e.getMessage());
-            Thread.currentThread().interrupt();
-            return List.of();
+            if (e instanceof InterruptedException) {
+                Thread.currentThread().interrupt();
+            }
+            throw new DataSourceUnavailableException("Erro ao buscar sintomas por tag " + tag, e);
         }
     }
 
-    public void incrementUseCount(String symptomId) {
+    /**
+     * IDs de {@code ids} cujo sintoma existe. O catálogo responde pelos que conhece; os demais são
+     * conferidos no Firestore.
+     */
+    public Set<String> existingIds(Collection<String> ids) {
         if (firestore == null) {
             log.warn("Firestore não inicializado");
-            return;
+            return Set.of();
         }
-        
-        try {
-            DocumentReference docRef = firestore.collection(COLLECTION_NAME).document(symptomId);
-            ApiFuture<Void> future = firestore.runTransaction(transaction -> {
-                DocumentSnapshot snapshot = transaction.get(docRef).get();
-                if (snapshot.exists()) {
-                    FirestoreSymptom symptom = snapshot.toObject(FirestoreSymptom.class);
-                    Integer currentCount = symptom.getUseCount();
-                    int newCount = (currentCount != null ? currentCount : 0) + 1;
-                    transaction.update(docRef, "useCount", newCount);
-                }
-                return null;
-            });
-            future.get();
-            
-        } catch (InterruptedException | ExecutionException e) {
-            log.error("Erro ao incrementar contador de uso para sintoma {}: {}", symptomId, e.getMessage());
-            Thread.currentThread().interrupt();
+        Set<String> existing = new HashSet<>();
+        List<String> unknown = new ArrayList<>();
+        for (String id : ids) {
+            if (catalog.isSymptomsReady() && catalog.containsSymptom(id)) {
+                existing.add(id);
+            } else {
+                unknown.add(id);
+            }
+        }
+        if (!unknown.isEmpty()) {
+            existing.addAll(CounterWrites.existingIds(firestore, firestore.collection(COLLECTION_NAME), unknown));
         }
+        return existing;
     }
 
-    public List<FirestoreSymptom> findTopUsed(int limit) {
+    /**
+     * Grava em lote deltas de uso acumulados com {@code FieldValue.increment} no campo useCount
+     * de symptomStats/{id}, sem transação. O documento do sintoma não é alterado;
+     * deltas de sintomas removidos são descartados.
+     */
+    public CounterWriteResult applyUseCountDeltas(Map<String, Long> deltas) {
         if (firestore == null) {
             log.warn("Firestore não inicializado");
-            return List.of();
+            return CounterWriteResult.EMPTY;
         }
-        
+        return CounterWrites.apply(firestore, firestore.collection(STATS_COLLECTION), deltas, this::existingIds, (batch, statsRef, delta) ->
+                batch.set(statsRef, Map.of(USE_COUNT_FIELD, FieldValue.increment(delta)), SetOptions.merge()));
+    }
+
+    /**
+     * Usos gravados por sintoma no campo useCount de symptomStats.
+     */
+    public Map<String, Long> sumUseCounts() {
+        if (firestore == null) {
+            log.warn("Firestore não inicializado");
+            return Map.of();
+        }
+
         try {
-            CollectionReference symptoms = firestore.collection(COLLECTION_NAME);
-            Query query = symptoms.orderBy("useCount", Query.Direction.DESCENDING).limit(limit);
-            ApiFuture<QuerySnapshot> querySnapshot = query.get();
-            
-            List<QueryDocumentSnapshot> documents = querySnapshot.get().getDocuments();
-            return documents.stream()
-                    .map(doc -> {
-                        FirestoreSymptom symptom = doc.toObject(FirestoreSymptom.class);
-                        symptom.setId(doc.getId());
-                        return symptom;
-                    })
-                    .collect(Collectors.toList());
-                    
+            Map<String, Long> totals = new HashMap<>();
+            for (QueryDocumentSnapshot stats : firestore.collection(STATS_COLLECTION).select(USE_COUNT_FIELD).get().get().getDocuments()) {
+                Long count = stats.getLong(USE_COUNT_FIELD);
+                if (count != null) {
+                    totals.put(stats.getId(), count);
+                }
+            }
+            return totals;
         } catch (InterruptedException | ExecutionException e) {
-            log.error("Erro ao buscar sintomas mais usados: {}", e.getMessage());
-            Thread.currentThread().interrupt();
-            return List.of();
+            log.error("Erro ao somar usos gravados de sintomas: {}", e.getMessage());
+            if (e instanceof InterruptedException) {
+                Thread.currentThread().interrupt();
+            }
+            throw new DataSourceUnavailableException("Erro ao somar usos gravados de sintomas", e);
         }
     }
 
@@ -305,7 +476,18 @@ public class FirestoreSymptomRepository {
         return findByName(name).isPresent();
     }
 
+    /**
+     * Total de documentos: tamanho do catálogo em memória quando carregado; senão uma consulta de
+     * agregação {@code count()}, que não baixa os documentos.
+     */
     public long count() {
-        return findAll().size();
+        if (catalog.isSymptomsReady()) {
+            return catalog.symptomCount();
+        }
+        if (firestore == null) {
+            log.warn("Firestore não inicializado");
+            return 0;
+        }
+        return AggregateCounts.count(firestore.collection(COLLECTION_NAME), "sintomas");
     }
 }
\ No newline at end of file
@@ -0,0 +1,149 @@
+package com.appunture.backend.repository.firestore;
+
+import com.appunture.backend.exception.DataSourceUnavailableException;
+import com.appunture.backend.model.firestore.FirestoreTimestamps;
+import com.appunture.backend.model.firestore.FirestoreTombstone;
+import com.google.cloud.firestore.FieldPath;
+import com.google.cloud.firestore.Firestore;
+import com.google.cloud.firestore.Query;
+import com.google.cloud.firestore.QueryDocumentSnapshot;
+import com.google.cloud.firestore.WriteBatch;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ExecutionException;
+import java.util.stream.Collectors;
+
+/**
+ * Tombstones das exclusões de pontos e sintomas. São gravados no mesmo lote da exclusão, então
+ * nenhum documento some sem deixar registro para a sincronização.
+ */
+@Repository
+@RequiredArgsConstructor
+@Slf4j
+public class FirestoreTombstoneRepository {
+
+    private final Firestore firestore;
+    private static final String COLLECTION_NAME = "tombstones";
+    private static final String DELETED_AT_FIELD = "deletedAt";
+    private static final int MAX_BATCH_WRITES = 500;
+
+    /**
+     * Adiciona ao lote a gravação do tombstone de {@code documentId} em {@code collection}.
+     */
+    void stage(WriteBatch batch, String collection, String documentId) {
+        String id = collection + "_" + documentId;
+        batch.set(firestore.collection(COLLECTION_NAME).document(id), FirestoreTombstone.builder()
+                .id(id)
+                .collection(collection)
+                .documentId(documentId)
+                .deletedAt(LocalDateTime.now())
+                .build());
+    }
+
+    /**
+     * Até {@code limit} tombstones com ({@code deletedAt}, ID) maior que a posição informada,
+     * nessa ordem; sem {@code afterId}, começa do início.
+     */
+    public List<FirestoreTombstone> findChangedAfter(LocalDateTime deletedAt, String afterId, int limit) {
+        if (firestore == null) {
+            log.warn("Firestore não inicializado");
+            return List.of();
+        }
+
+        try {
+            Query query = firestore.collection(COLLECTION_NAME)
+                    .orderBy(DELETED_AT_FIELD)
+                    .orderBy(FieldPath.documentId())
+                    .limit(limit);
+            if (afterId != null) {
+                query = query.startAfter(FirestoreTimestamps.toTimestamp(deletedAt), afterId);
+            }
+            return query.get().get().getDocuments().stream()
+                    .map(doc -> {
+                        FirestoreTombstone tombstone = doc.toObject(FirestoreTombstone.class);
+                        tombstone.setId(doc.getId());
+                        return tombstone;
+                    })
+                    .collect(Collectors.toList());
+
+        } catch (InterruptedException | ExecutionException e) {
+            log.error("Erro ao listar exclusões: {}", e.getMessage());
+            if (e instanceof InterruptedException) {
+                Thread.currentThread().interrupt();
+            }
+            throw new DataSourceUnavailableException("Erro ao listar exclusões", e);
+        }
+    }
+
+    /**
+     * Tombstone mais recente com {@code deletedAt} até {@code until}, inclusive.
+     */
+    public Optional<FirestoreTombstone> findLatestUntil(LocalDateTime until) {
+        if (firestore == null) {
+            log.warn("Firestore não inicializado");
+            return Optional.empty();
+        }
+
+        try {
+            List<QueryDocumentSnapshot> documents = firestore.collection(COLLECTION_NAME)
+                    .whereLessThanOrEqualTo(DELETED_AT_FIELD, FirestoreTimestamps.toTimestamp(until))
+                    .orderBy(DELETED_AT_FIELD, Query.Direction.DESCENDING)
+                    .orderBy(FieldPath.documentId(), Query.Direction.DESCENDING)
+                    .limit(1)
+                    .get().get().getDocuments();
+            return documents.stream().findFirst().map(doc -> {
+                FirestoreTombstone tombstone = doc.toObject(FirestoreTombstone.class);
+                tombstone.setId(doc.getId());
+                return tombstone;
+            });
+
+        } catch (InterruptedException | ExecutionException e) {
+            log.error("Erro ao buscar última exclusão: {}", e.getMessage());
+            if (e instanceof InterruptedException) {
+                Thread.currentThread().interrupt();
+            }
+            throw new DataSourceUnavailableException("Erro ao buscar última exclusão", e);
+        }
+    }
+
+    /**
+     * Remove os tombstones anteriores a {@code cutoff}; retorna quantos foram apagados.
+     */
+    public int deleteOlderThan(LocalDateTime cutoff) {
+        if (firestore == null) {
+            log.warn("Firestore não inicializado");
+            return 0;
+        }
+
+        try {
+            int deleted = 0;
+            List<QueryDocumentSnapshot> expired;
+            do {
+                expired = firestore.collection(COLLECTION_NAME)
+                        .whereLessThan(DELETED_AT_FIELD, FirestoreTimestamps.toTimestamp(cutoff))
+                        .limit(MAX_BATCH_WRITES)
+                        .get().get().getDocuments();
+                if (expired.isEmpty()) {
+                    break;
+                }
+                WriteBatch batch = firestore.batch();
+                expired.forEach(doc -> batch.delete(doc.getReference()));
+                batch.commit().get();
+                deleted += expired.size();
+            } while (expired.size() == MAX_BATCH_WRITES);
+            return deleted;
+
+        } catch (InterruptedException | ExecutionException e) {
+            log.error("Erro ao remover exclusões antigas: {}", e.getMessage());
+            if (e instanceof InterruptedException) {
+                Thread.currentThread().interrupt();
+            }
+            throw new DataSourceUnavailableException("Erro ao remover exclusões antigas", e);
+        }
+    }
+}
@@ -1,5 +1,6 @@
 package com.appunture.backend.repository.firestore;
 
+import com.appunture.backend.exception.DataSourceUnavailableException;
 import com.appunture.backend.model.firestore.FirestoreUser;
 import com.google.api.core.ApiFuture;
 import com.google.cloud.firestore.*;
@@ -8,6 +9,7 @@ import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDateTime;
+import java.util.Comparator;
 import java.util.List;
 import java.util.Optional;
 import java.util.concurrent.ExecutionException;
@@ -43,8 +45,10 @@ public class FirestoreUserRepository {
             
         } catch (InterruptedException | ExecutionException e) {
             log.error("Erro ao buscar usuário por ID {}: {}", id, e.getMessage());
-            Thread.currentThread().interrupt();
-            return Optional.empty();
+            if (e instanceof InterruptedException) {
+                Thread.currentThread().interrupt();
+            }
+            throw new DataSourceUnavailableException("Erro ao buscar usuário por ID " + id, e);
         }
     }
 
@@ -69,8 +73,10 @@ public class FirestoreUserRepository {
             
         } catch (InterruptedException | ExecutionException e) {
             log.error("Erro ao buscar usuário por Firebase UID {}: {}", firebaseUid, e.getMessage());
-            Thread.currentThread().interrupt();
-            return Optional.empty();
+            if (e instanceof InterruptedException) {
+                Thread.currentThread().interrupt();
+            }
+            throw new DataSourceUnavailableException("Erro ao buscar usuário por Firebase UID " + firebaseUid, e);
         }
     }
 
@@ -95,8 +101,10 @@ public class FirestoreUserRepository {
             
         } catch (InterruptedException | ExecutionException e) {
             log.error("Erro ao buscar usuário por email {}: {}", email, e.getMessage());
-            Thread.currentThread().interrupt();
-            return Optional.empty();
+            if (e instanceof InterruptedException) {
+                Thread.currentThread().interrupt();
+            }
+            throw new DataSourceUnavailableException("Erro ao buscar usuário por email " + email, e);
         }
     }
 
@@ -124,8 +132,10 @@ public class FirestoreUserRepository {
             
         } catch (InterruptedException | ExecutionException e) {
             log.error("Erro ao salvar usuário: {}", e.getMessage());
-            Thread.currentThread().interrupt();
-            throw new RuntimeException("Falha ao salvar usuário", e);
+            if (e instanceof InterruptedException) {
+                Thread.currentThread().interrupt();
+            }
+            throw new DataSourceUnavailableException("Erro ao salvar usuário", e);
         }
     }
 
@@ -144,8 +154,10 @@ public class FirestoreUserRepository {
             
         } catch (InterruptedException | ExecutionException e) {
             log.error("Erro ao deletar usuário {}: {}", id, e.getMessage());
-            Thread.currentThread().interrupt();
-            throw new RuntimeException("Falha ao deletar usuário", e);
+            if (e instanceof InterruptedException) {
+                Thread.currentThread().interrupt();
+            }
+            throw new DataSourceUnavailableException("Erro ao deletar usuário " + id, e);
         }
     }
 
@@ -169,8 +181,10 @@ public class FirestoreUserRepository {
                     
         } catch (InterruptedException | ExecutionException e) {
             log.error("Erro ao listar usuários: {}", e.getMessage());
-            Thread.currentThread().interrupt();
-            return List.of();
+            if (e instanceof InterruptedException) {
+                Thread.currentThread().interrupt();
+            }
+            throw new DataSourceUnavailableException("Erro ao listar usuários", e);
         }
     }
 
@@ -204,12 +218,43 @@ public class FirestoreUserRepository {
                     
         } catch (InterruptedException | ExecutionException e) {
             log.error("Erro ao buscar usuários por role {}: {}", role, e.getMessage());
-            Thread.currentThread().interrupt();
-            return List.of();
+            if (e instanceof InterruptedException) {
+                Thread.currentThread().interrupt();
+            }
+            throw new DataSourceUnavailableException("Erro ao buscar usuários por role " + role, e);
         }
     }
 
+    /**
+     * Usuários mais recentes, ordenados em memória: {@code createdAt} dos usuários ainda é gravado
+     * como {@code LocalDateTime} (um mapa no Firestore), então {@code orderBy} não ordenaria por
+     * instante e omitiria quem não tem o campo.
+     */
+    public List<FirestoreUser> findMostRecent(int limit) {
+        return findAll().stream()
+                .sorted(Comparator.comparing(FirestoreUser::getCreatedAt,
+                        Comparator.nullsLast(Comparator.reverseOrder())))
+                .limit(limit)
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Total de usuários por consulta de agregação {@code count()}, sem baixar os documentos.
+     */
     public long count() {
-        return findAll().size();
+        if (firestore == null) {
+            log.warn("Firestore não inicializado");
+            return 0;
+        }
+        return AggregateCounts.count(firestore.collection(COLLECTION_NAME), "usuários");
+    }
+
+    public long countByRole(String role) {
+        if (firestore == null) {
+            log.warn("Firestore não inicializado");
+            return 0;
+        }
+        return AggregateCounts.count(firestore.collection(COLLECTION_NAME).whereEqualTo("role", role),
+                "usuários com role " + role);
     }
 }
\ No newline at end of file
@@ -0,0 +1,341 @@
+package com.appunture.backend.repository.firestore;
+
+import com.appunture.backend.model.firestore.FirestorePoint;
+import com.appunture.backend.model.firestore.FirestoreSymptom;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.function.ToLongFunction;
+
+/**
+ * Grafo bipartido sintoma↔ponto derivado do catálogo, com IDs densos e adjacência em CSR.
+ *
+ * <p>Cada direção respeita o lado que o Firestore consultaria: pontos de um sintoma vêm de
+ * {@code FirestorePoint.symptomIds} e sintomas de um ponto vêm de {@code FirestoreSymptom.pointIds}.
+ * As divergências entre os dois lados são contadas a cada reconstrução e expostas como métricas.
+ * O grafo referencia os documentos do catálogo, então as consultas retornam cópias.</p>
+ */
+@Component
+@Slf4j
+public class SymptomPointGraph {
+
+    private final FirestoreCatalog catalog;
+    private final MeterRegistry meterRegistry;
+    private final VersionedIndex<Graph> graph;
+
+    public SymptomPointGraph(FirestoreCatalog catalog, MeterRegistry meterRegistry) {
+        this.catalog = catalog;
+        this.meterRegistry = meterRegistry;
+        // As versões só crescem, então a soma muda sempre que qualquer coleção muda
+        this.graph = new VersionedIndex<>(() -> catalog.pointsVersion() + catalog.symptomsVersion(),
+                () -> Graph.build(catalog.residentPoints(), catalog.residentSymptoms()));
+    }
+
+    @PostConstruct
+    void registerMetrics() {
+        registerInconsistencyGauge("point_only_edge", inconsistencies -> inconsistencies.pointOnlyEdges);
+        registerInconsistencyGauge("symptom_only_edge", inconsistencies -> inconsistencies.symptomOnlyEdges);
+        registerInconsistencyGauge("dangling_symptom_ref", inconsistencies -> inconsistencies.danglingSymptomRefs);
+        registerInconsistencyGauge("dangling_point_ref", inconsistencies -> inconsistencies.danglingPointRefs);
+    }
+
+    private void registerInconsistencyGauge(String kind, ToLongFunction<Inconsistencies> value) {
+        Gauge.builder("app_catalog_graph_inconsistencies", this, owner -> value.applyAsLong(owner.inconsistencies()))
+                .description("Relações sintoma↔ponto presentes em apenas um dos lados")
+                .tag("kind", kind)
+                .register(meterRegistry);
+    }
+
+    public List<FirestorePoint> pointsBySymptomId(String symptomId) {
+        Graph current = graph.get();
+        Integer symptom = current.symptomIndex.get(symptomId);
+        return symptom == null ? List.of() : FirestoreCatalog.copyOfPoints(current.pointsOf(symptom));
+    }
+
+    public List<FirestoreSymptom> symptomsByPointId(String pointId) {
+        Graph current = graph.get();
+        Integer point = current.pointIndex.get(pointId);
+        return point == null ? List.of() : FirestoreCatalog.copyOfSymptoms(current.symptomsOf(point));
+    }
+
+    /**
+     * Indica se o ranqueamento pode usar o grafo. Exige os dois lados carregados: sem os
+     * sintomas, a cobertura perderia severidade e prioridade e os empates seriam resolvidos
+     * por zero.
+     */
+    public boolean isAvailable() {
+        return catalog.isPointsReady() && catalog.isSymptomsReady();
+    }
+
+    /**
+     * Pontos que cobrem ao menos um dos sintomas, com os sintomas cobertos por cada um.
+     *
+     * <p>Faz o OR dos bitsets dos sintomas pedidos e, para cada ponto candidato, testa o bit em
+     * cada bitset; o custo não depende do tamanho do catálogo além das palavras do bitset.</p>
+     */
+    public List<Coverage> coverage(Collection<String> symptomIds) {
+        Graph current = graph.get();
+        List<String> requested = new ArrayList<>();
+        List<long[]> bitsets = new ArrayList<>();
+        for (String symptomId : new LinkedHashSet<>(symptomIds)) {
+            Integer symptom = current.symptomIndex.get(symptomId);
+            if (symptom != null) {
+                requested.add(symptomId);
+                bitsets.add(current.symptomBits[symptom]);
+            }
+        }
+        if (bitsets.isEmpty()) {
+            return List.of();
+        }
+
+        long[] union = new long[current.points.length / Long.SIZE + 1];
+        for (long[] bits : bitsets) {
+            for (int word = 0; word < bits.length; word++) {
+                union[word] |= bits[word];
+            }
+        }
+
+        List<Coverage> result = new ArrayList<>();
+        for (int word = 0; word < union.length; word++) {
+            long remaining = union[word];
+            while (remaining != 0) {
+                int point = word * Long.SIZE + Long.numberOfTrailingZeros(remaining);
+                remaining &= remaining - 1;
+                List<String> matchedIds = new ArrayList<>();
+                List<FirestoreSymptom> matched = new ArrayList<>();
+                for (int i = 0; i < bitsets.size(); i++) {
+                    if ((bitsets.get(i)[word] & (1L << point)) != 0) {
+                        matchedIds.add(requested.get(i));
+                        FirestoreSymptom symptom = current.symptomDocument(requested.get(i));
+                        if (symptom != null) {
+                            matched.add(symptom);
+                        }
+                    }
+                }
+                result.add(new Coverage(FirestoreCatalog.copyOf(current.points[point]),
+                        List.copyOf(matchedIds), FirestoreCatalog.copyOfSymptoms(matched)));
+            }
+        }
+        return result;
+    }
+
+    public Inconsistencies inconsistencies() {
+        if (!catalog.isPointsReady() || !catalog.isSymptomsReady()) {
+            return Inconsistencies.NONE;
+        }
+        return graph.get().inconsistencies;
+    }
+
+    /**
+     * Ponto candidato e os sintomas pedidos que ele cobre; {@code symptoms} omite IDs sem documento.
+     */
+    public record Coverage(FirestorePoint point, List<String> symptomIds, List<FirestoreSymptom> symptoms) {
+    }
+
+    /**
+     * Contagem de divergências entre {@code symptomIds} dos pontos e {@code pointIds} dos sintomas.
+     */
+    public record Inconsistencies(long pointOnlyEdges, long symptomOnlyEdges,
+                                  long danglingSymptomRefs, long danglingPointRefs) {
+        static final Inconsistencies NONE = new Inconsistencies(0, 0, 0, 0);
+
+        public long total() {
+            return pointOnlyEdges + symptomOnlyEdges + danglingSymptomRefs + danglingPointRefs;
+        }
+    }
+
+    private static final class Graph {
+        final Map<String, Integer> pointIndex;
+        final Map<String, Integer> symptomIndex;
+        final FirestorePoint[] points;
+        final FirestoreSymptom[] symptoms;
+        // Bitset por sintoma sobre os IDs densos dos pontos existentes
+        final long[][] symptomBits;
+        // CSR: vizinhos do nó n ficam em [offsets[n], offsets[n + 1])
+        final int[] symptomOffsets;
+        final FirestorePoint[] symptomNeighbours;
+        final int[] pointOffsets;
+        final FirestoreSymptom[] pointNeighbours;
+        final Inconsistencies inconsistencies;
+
+        private Graph(Map<String, Integer> pointIndex, Map<String, Integer> symptomIndex,
+                      FirestorePoint[] points, FirestoreSymptom[] symptoms, long[][] symptomBits,
+                      int[] symptomOffsets, FirestorePoint[] symptomNeighbours,
+                      int[] pointOffsets, FirestoreSymptom[] pointNeighbours,
+                      Inconsistencies inconsistencies) {
+            this.pointIndex = pointIndex;
+            this.symptomIndex = symptomIndex;
+            this.points = points;
+            this.symptoms = symptoms;
+            this.symptomBits = symptomBits;
+            this.symptomOffsets = symptomOffsets;
+            this.symptomNeighbours = symptomNeighbours;
+            this.pointOffsets = pointOffsets;
+            this.pointNeighbours = pointNeighbours;
+            this.inconsistencies = inconsistencies;
+        }
+
+        FirestoreSymptom symptomDocument(String symptomId) {
+            Integer symptom = symptomIndex.get(symptomId);
+            return symptom != null && symptom < symptoms.length ? symptoms[symptom] : null;
+        }
+
+        List<FirestorePoint> pointsOf(int symptom) {
+            return view(symptomNeighbours, symptomOffsets[symptom], symptomOffsets[symptom + 1]);
+        }
+
+        List<FirestoreSymptom> symptomsOf(int point) {
+            return view(pointNeighbours, pointOffsets[point], pointOffsets[point + 1]);
+        }
+
+        private static <T> List<T> view(T[] neighbours, int from, int to) {
+            return from == to ? List.of() : Collections.unmodifiableList(Arrays.asList(neighbours).subList(from, to));
+        }
+
+        static Graph build(List<FirestorePoint> points, List<FirestoreSymptom> symptoms) {
+            // IDs densos: documentos existentes primeiro, depois IDs só referenciados pelo outro lado
+            Map<String, Integer> pointIndex = new HashMap<>(points.size() * 2);
+            Map<String, Integer> symptomIndex = new HashMap<>(symptoms.size() * 2);
+            points.forEach(point -> pointIndex.putIfAbsent(point.getId(), pointIndex.size()));
+            symptoms.forEach(symptom -> symptomIndex.putIfAbsent(symptom.getId(), symptomIndex.size()));
+            int knownPoints = pointIndex.size();
+            int knownSymptoms = symptomIndex.size();
+
+            int[][] pointToSymptom = new int[points.size()][];
+            long danglingSymptomRefs = 0;
+            for (int p = 0; p < points.size(); p++) {
+                List<String> ids = distinct(points.get(p).getSymptomIds());
+                pointToSymptom[p] = new int[ids.size()];
+                for (int i = 0; i < ids.size(); i++) {
+                    Integer symptom = symptomIndex.putIfAbsent(ids.get(i), symptomIndex.size());
+                    if (symptom == null) {
+                        symptom = symptomIndex.get(ids.get(i));
+                    }
+                    if (symptom >= knownSymptoms) {
+                        danglingSymptomRefs++;
+                    }
+                    pointToSymptom[p][i] = symptom;
+                }
+            }
+
+            int[][] symptomToPoint = new int[symptoms.size()][];
+            long danglingPointRefs = 0;
+            for (int s = 0; s < symptoms.size(); s++) {
+                List<String> ids = distinct(symptoms.get(s).getPointIds());
+                symptomToPoint[s] = new int[ids.size()];
+                for (int i = 0; i < ids.size(); i++) {
+                    Integer point = pointIndex.putIfAbsent(ids.get(i), pointIndex.size());
+                    if (point == null) {
+                        point = pointIndex.get(ids.get(i));
+                    }
+                    if (point >= knownPoints) {
+                        danglingPointRefs++;
+                    }
+                    symptomToPoint[s][i] = point;
+                }
+            }
+
+            // Sintoma -> pontos a partir de FirestorePoint.symptomIds (inverte pointToSymptom)
+            int[] symptomOffsets = new int[symptomIndex.size() + 1];
+            for (int[] targets : pointToSymptom) {
+                for (int symptom : targets) {
+                    symptomOffsets[symptom + 1]++;
+                }
+            }
+            prefixSum(symptomOffsets);
+            FirestorePoint[] symptomNeighbours = new FirestorePoint[symptomOffsets[symptomOffsets.length - 1]];
+            int[] cursor = Arrays.copyOf(symptomOffsets, symptomOffsets.length - 1);
+            for (int p = 0; p < pointToSymptom.length; p++) {
+                for (int symptom : pointToSymptom[p]) {
+                    symptomNeighbours[cursor[symptom]++] = points.get(p);
+                }
+            }
+
+            long[][] symptomBits = new long[symptomIndex.size()][points.size() / Long.SIZE + 1];
+            for (int p = 0; p < pointToSymptom.length; p++) {
+                for (int symptom : pointToSymptom[p]) {
+                    symptomBits[symptom][p / Long.SIZE] |= 1L << p;
+                }
+            }
+
+            // Ponto -> sintomas a partir de FirestoreSymptom.pointIds
+            int[] pointOffsets = new int[pointIndex.size() + 1];
+            for (int[] targets : symptomToPoint) {
+                for (int point : targets) {
+                    pointOffsets[point + 1]++;
+                }
+            }
+            prefixSum(pointOffsets);
+            FirestoreSymptom[] pointNeighbours = new FirestoreSymptom[pointOffsets[pointOffsets.length - 1]];
+            cursor = Arrays.copyOf(pointOffsets, pointOffsets.length - 1);
+            for (int s = 0; s < symptomToPoint.length; s++) {
+                for (int point : symptomToPoint[s]) {
+                    pointNeighbours[cursor[point]++] = symptoms.get(s);
+                }
+            }
+
+            // Arestas declaradas só de um lado (entre documentos existentes)
+            long pointOnlyEdges = 0;
+            for (int p = 0; p < pointToSymptom.length; p++) {
+                for (int symptom : pointToSymptom[p]) {
+                    if (symptom < knownSymptoms && !contains(symptomToPoint[symptom], p)) {
+                        pointOnlyEdges++;
+                    }
+                }
+            }
+            long symptomOnlyEdges = 0;
+            for (int s = 0; s < symptomToPoint.length; s++) {
+                for (int point : symptomToPoint[s]) {
+                    if (point < knownPoints && !contains(pointToSymptom[point], s)) {
+                        symptomOnlyEdges++;
+                    }
+                }
+            }
+
+            Inconsistencies inconsistencies = new Inconsistencies(
+                    pointOnlyEdges, symptomOnlyEdges, danglingSymptomRefs, danglingPointRefs);
+            if (inconsistencies.total() > 0) {
+                log.debug("Grafo sintoma↔ponto com divergências: {}", inconsistencies);
+            }
+            return new Graph(pointIndex, symptomIndex,
+                    points.toArray(new FirestorePoint[0]), symptoms.toArray(new FirestoreSymptom[0]), symptomBits,
+                    symptomOffsets, symptomNeighbours,
+                    pointOffsets, pointNeighbours, inconsistencies);
+        }
+
+        private static List<String> distinct(List<String> ids) {
+            if (ids == null || ids.isEmpty()) {
+                return List.of();
+            }
+            LinkedHashSet<String> unique = new LinkedHashSet<>(ids);
+            unique.remove(null);
+            return List.copyOf(unique);
+        }
+
+        private static void prefixSum(int[] offsets) {
+            for (int i = 1; i < offsets.length; i++) {
+                offsets[i] += offsets[i - 1];
+            }
+        }
+
+        private static boolean contains(int[] values, int target) {
+            for (int value : values) {
+                if (value == target) {
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+}
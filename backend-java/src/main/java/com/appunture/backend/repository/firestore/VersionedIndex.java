@@ -0,0 +1,41 @@
+package com.appunture.backend.repository.firestore;
+
+import java.util.function.LongSupplier;
+import java.util.function.Supplier;
+
+/**
+ * Estrutura derivada do catálogo, reconstruída sob demanda quando a versão de origem muda.
+ *
+ * <p>Leituras concorrentes usam a última estrutura publicada; só a primeira leitura após
+ * uma alteração paga o custo da reconstrução.</p>
+ */
+public final class VersionedIndex<T> {
+
+    private final LongSupplier versionSource;
+    private final Supplier<T> builder;
+    private volatile Entry<T> current;
+
+    public VersionedIndex(LongSupplier versionSource, Supplier<T> builder) {
+        this.versionSource = versionSource;
+        this.builder = builder;
+    }
+
+    public T get() {
+        long version = versionSource.getAsLong();
+        Entry<T> entry = current;
+        if (entry != null && entry.version() == version) {
+            return entry.value();
+        }
+        synchronized (this) {
+            entry = current;
+            if (entry == null || entry.version() != version) {
+                entry = new Entry<>(version, builder.get());
+                current = entry;
+            }
+            return entry.value();
+        }
+    }
+
+    private record Entry<T>(long version, T value) {
+    }
+}
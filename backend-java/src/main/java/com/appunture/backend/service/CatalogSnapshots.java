@@ -0,0 +1,124 @@
+package com.appunture.backend.service;
+
+import com.appunture.backend.repository.firestore.FirestoreCatalog;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.List;
+import java.util.Optional;
+import java.util.zip.Deflater;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Listas completas de pontos e sintomas já serializadas em JSON e comprimidas em gzip, uma vez
+ * por versão do catálogo. As requisições seguintes só copiam os bytes para a resposta. O resumo
+ * SHA-256 do JSON identifica o conteúdo e é a base do ETag do catálogo.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class CatalogSnapshots {
+
+    // 96 bits do SHA-256: colisões entre versões do catálogo são desprezíveis
+    private static final int DIGEST_BYTES = 12;
+
+    private final FirestoreCatalog catalog;
+    private final ObjectMapper objectMapper;
+    private final Object pointsLock = new Object();
+    private final Object symptomsLock = new Object();
+    private volatile Snapshot points;
+    private volatile Snapshot symptoms;
+
+    public enum Kind { POINTS, SYMPTOMS }
+
+    /**
+     * Snapshot da versão atual; vazio enquanto o catálogo não estiver carregado.
+     */
+    public Optional<Snapshot> current(Kind kind) {
+        return switch (kind) {
+            case POINTS -> catalog.isPointsReady() ? Optional.of(pointsSnapshot()) : Optional.empty();
+            case SYMPTOMS -> catalog.isSymptomsReady() ? Optional.of(symptomsSnapshot()) : Optional.empty();
+        };
+    }
+
+    // A versão é lida antes da lista, então o conteúdo nunca é mais antigo que o rótulo
+
+    private Snapshot pointsSnapshot() {
+        long version = catalog.pointsVersion();
+        Snapshot cached = points;
+        if (cached != null && cached.version() >= version) {
+            return cached;
+        }
+        synchronized (pointsLock) {
+            cached = points;
+            if (cached == null || cached.version() < version) {
+                cached = render(version, catalog.allPoints());
+                points = cached;
+            }
+            return cached;
+        }
+    }
+
+    private Snapshot symptomsSnapshot() {
+        long version = catalog.symptomsVersion();
+        Snapshot cached = symptoms;
+        if (cached != null && cached.version() >= version) {
+            return cached;
+        }
+        synchronized (symptomsLock) {
+            cached = symptoms;
+            if (cached == null || cached.version() < version) {
+                cached = render(version, catalog.allSymptoms());
+                symptoms = cached;
+            }
+            return cached;
+        }
+    }
+
+    private Snapshot render(long version, List<?> documents) {
+        try {
+            byte[] json = objectMapper.writeValueAsBytes(documents);
+            byte[] gzip = gzip(json);
+            log.debug("Snapshot do catálogo v{} gerado: {} bytes JSON, {} bytes gzip", version, json.length, gzip.length);
+            return new Snapshot(version, json, gzip, digest(json));
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Falha ao serializar snapshot do catálogo", e);
+        }
+    }
+
+    private static byte[] gzip(byte[] raw) {
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream(raw.length / 4 + 64);
+        // Nível máximo: a compressão roda uma vez por versão, não por requisição
+        try (GZIPOutputStream out = new GZIPOutputStream(buffer) {{ def.setLevel(Deflater.BEST_COMPRESSION); }}) {
+            out.write(raw);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return buffer.toByteArray();
+    }
+
+    private static String digest(byte[] raw) {
+        try {
+            byte[] hash = MessageDigest.getInstance("SHA-256").digest(raw);
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(Arrays.copyOf(hash, DIGEST_BYTES));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 indisponível", e);
+        }
+    }
+
+    /**
+     * @param digest resumo do JSON em base64url; igual em qualquer instância com o mesmo conteúdo
+     */
+    public record Snapshot(long version, byte[] json, byte[] gzip, String digest) {
+    }
+}
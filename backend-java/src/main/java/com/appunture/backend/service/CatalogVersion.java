@@ -0,0 +1,31 @@
+package com.appunture.backend.service;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.util.Optional;
+
+/**
+ * ETag forte do catálogo de pontos e sintomas, derivado do conteúdo.
+ *
+ * <p>Combina os resumos dos snapshots serializados pelo {@link CatalogSnapshots}: instâncias com
+ * o mesmo catálogo emitem o mesmo ETag, e um reinício não invalida os caches dos clientes. As
+ * escritas desta instância passam pelo catálogo em memória, então o ETag muda junto com o
+ * conteúdo servido. Só existe ETag com o catálogo carregado: sem os listeners, alterações remotas
+ * passariam despercebidas.</p>
+ */
+@Component
+@RequiredArgsConstructor
+public class CatalogVersion {
+
+    private final CatalogSnapshots catalogSnapshots;
+
+    public Optional<String> etag() {
+        Optional<CatalogSnapshots.Snapshot> points = catalogSnapshots.current(CatalogSnapshots.Kind.POINTS);
+        Optional<CatalogSnapshots.Snapshot> symptoms = catalogSnapshots.current(CatalogSnapshots.Kind.SYMPTOMS);
+        if (points.isEmpty() || symptoms.isEmpty()) {
+            return Optional.empty();
+        }
+        return Optional.of("\"" + points.get().digest() + "." + symptoms.get().digest() + "\"");
+    }
+}
@@ -1,23 +1,37 @@
 package com.appunture.backend.service;
 
 import com.appunture.backend.config.CacheConfig;
+import com.appunture.backend.dto.common.CursorPage;
+import com.appunture.backend.dto.point.PointCoverageResponse;
+import com.appunture.backend.dto.point.PointSuggestion;
 import com.appunture.backend.model.firestore.FirestorePoint;
 import com.appunture.backend.model.firestore.FirestorePoint.ImageAuditEntry;
+import com.appunture.backend.model.firestore.FirestoreSymptom;
+import com.appunture.backend.repository.firestore.FieldProjection;
 import com.appunture.backend.repository.firestore.FirestorePointRepository;
+import com.appunture.backend.repository.firestore.FirestoreSymptomRepository;
+import com.appunture.backend.repository.firestore.SymptomPointGraph;
+import com.appunture.backend.service.cache.PointCacheCoordinator;
+import com.appunture.backend.service.counter.FavoriteCounter;
+import com.appunture.backend.service.search.PointAutocompleteIndex;
+import com.appunture.backend.service.search.PointSearchIndex;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.cache.annotation.CacheEvict;
 import org.springframework.cache.annotation.Cacheable;
-import org.springframework.cache.annotation.Caching;
 import org.springframework.stereotype.Service;
 
 import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.Comparator;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
 import java.util.Set;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
 
 @Service
@@ -26,48 +40,130 @@ import java.util.stream.Collectors;
 public class FirestorePointService {
 
     private final FirestorePointRepository pointRepository;
+    private final FirestoreSymptomRepository symptomRepository;
     private final ThumbnailGenerationService thumbnailGenerationService;
+    private final PointSearchIndex pointSearchIndex;
+    private final PointAutocompleteIndex pointAutocompleteIndex;
+    private final SymptomPointGraph symptomPointGraph;
+    private final FavoriteCounter favoriteCounter;
+    private final PointCacheCoordinator pointCacheCoordinator;
     private static final int MAX_AUDIT_ENTRIES = 50;
+    private static final int DEFAULT_SYMPTOM_SEVERITY = 5;
+    public static final int MAX_PAGE_SIZE = 100;
+    public static final List<String> SUMMARY_FIELDS = List.of("code", "name", "meridian", "coordinates");
+    private static final int STREAM_BATCH_SIZE = 200;
+    private static final String CATALOG_NOT_READY = "!@firestoreCatalog.isPointsReady()";
 
     public Optional<FirestorePoint> findById(String id) {
         log.debug("Buscando ponto por ID: {}", id);
         return pointRepository.findById(id);
     }
 
-    @Cacheable(value = CacheConfig.CACHE_POINT_BY_CODE, key = "#code")
+    @Cacheable(value = CacheConfig.CACHE_POINT_BY_CODE, key = "#code", sync = true)
     public Optional<FirestorePoint> findByCode(String code) {
         log.debug("Buscando ponto por código: {}", code);
         return pointRepository.findByCode(code);
     }
 
-    @Cacheable(value = CacheConfig.CACHE_POINTS)
+    /**
+     * Com o catálogo carregado lê direto dele, sem o cache: as listagens com ETag do catálogo
+     * precisam vir da mesma versão que o rótulo. O cache só atende enquanto o catálogo carrega.
+     */
+    @Cacheable(value = CacheConfig.CACHE_POINTS, sync = true, condition = CATALOG_NOT_READY)
     public List<FirestorePoint> findAll() {
         log.debug("Listando todos os pontos");
         return pointRepository.findAll();
     }
 
-    @Cacheable(value = CacheConfig.CACHE_POINTS_BY_MERIDIAN, key = "#meridian")
+    public List<FirestorePoint> findAll(FieldProjection projection) {
+        log.debug("Listando pontos com campos {}", projection.fields());
+        return pointRepository.findAll(projection);
+    }
+
+    /**
+     * Página de pontos ordenada por ID. O cursor é o {@code nextCursor} da página anterior e
+     * o tamanho fica entre 1 e {@value #MAX_PAGE_SIZE}.
+     */
+    public CursorPage<FirestorePoint> findPage(String cursor, int limit) {
+        return findPage(cursor, limit, FieldProjection.ALL);
+    }
+
+    /**
+     * Como {@link #findPage(String, int)}, lendo do Firestore só os campos da projeção.
+     */
+    public CursorPage<FirestorePoint> findPage(String cursor, int limit, FieldProjection projection) {
+        String afterId = CursorPage.decodeCursor(cursor);
+        int pageSize = Math.max(1, Math.min(limit, MAX_PAGE_SIZE));
+        log.debug("Listando página de pontos após {} (limite {})", afterId, pageSize);
+
+        // Um item a mais indica se existe próxima página
+        List<FirestorePoint> fetched = pointRepository.findPage(afterId, pageSize + 1, projection);
+        boolean hasMore = fetched.size() > pageSize;
+        List<FirestorePoint> items = hasMore ? fetched.subList(0, pageSize) : fetched;
+        return CursorPage.<FirestorePoint>builder()
+                .items(items)
+                .nextCursor(hasMore ? CursorPage.encodeCursor(items.get(items.size() - 1).getId()) : null)
+                .build();
+    }
+
+    /**
+     * Percorre todos os pontos em lotes de {@value #STREAM_BATCH_SIZE} por ID, entregando cada lote
+     * assim que é lido; só um lote fica em memória por vez.
+     */
+    public void forEachBatch(Consumer<List<FirestorePoint>> consumer) {
+        String afterId = null;
+        while (true) {
+            List<FirestorePoint> batch = pointRepository.findPage(afterId, STREAM_BATCH_SIZE);
+            if (batch.isEmpty()) {
+                return;
+            }
+            consumer.accept(batch);
+            if (batch.size() < STREAM_BATCH_SIZE) {
+                return;
+            }
+            afterId = batch.get(batch.size() - 1).getId();
+        }
+    }
+
+    @Cacheable(value = CacheConfig.CACHE_POINTS_BY_MERIDIAN, key = "#meridian", sync = true, condition = CATALOG_NOT_READY)
     public List<FirestorePoint> findByMeridian(String meridian) {
         log.debug("Buscando pontos por meridiano: {}", meridian);
         return pointRepository.findByMeridian(meridian);
     }
 
+    public List<FirestorePoint> findByMeridian(String meridian, FieldProjection projection) {
+        return pointRepository.findByMeridian(meridian, projection);
+    }
+
     public List<FirestorePoint> findBySymptomId(String symptomId) {
         log.debug("Buscando pontos por sintoma: {}", symptomId);
         return pointRepository.findBySymptomId(symptomId);
     }
 
+    public List<FirestorePoint> findBySymptomId(String symptomId, FieldProjection projection) {
+        return pointRepository.findBySymptomId(symptomId, projection);
+    }
+
     public List<FirestorePoint> findByNameContaining(String name) {
         log.debug("Buscando pontos por nome: {}", name);
+        if (pointSearchIndex.isAvailable()) {
+            return pointSearchIndex.search(name);
+        }
         return pointRepository.findByNameContaining(name);
     }
 
-    @Caching(evict = {
-        @CacheEvict(value = CacheConfig.CACHE_POINTS, allEntries = true),
-        @CacheEvict(value = CacheConfig.CACHE_POINTS_BY_MERIDIAN, allEntries = true),
-        @CacheEvict(value = CacheConfig.CACHE_POPULAR_POINTS, allEntries = true),
-        @CacheEvict(value = CacheConfig.CACHE_POINTS_COUNT, allEntries = true)
-    })
+    public List<PointSuggestion> autocomplete(String prefix, int limit) {
+        if (pointAutocompleteIndex.isAvailable()) {
+            return pointAutocompleteIndex.suggest(prefix, limit);
+        }
+        int size = Math.min(limit, PointAutocompleteIndex.MAX_SUGGESTIONS);
+        return pointRepository.findByNameContaining(prefix).stream()
+                .sorted(PointAutocompleteIndex.popularityOrder())
+                .limit(Math.max(size, 0))
+                .map(PointAutocompleteIndex::toSuggestion)
+                .toList();
+    }
+
     public FirestorePoint createPoint(FirestorePoint point) {
         log.debug("Criando novo ponto: {}", point.getCode());
         
@@ -85,15 +181,11 @@ public class FirestorePointService {
             point.setViewCount(0);
         }
 
-        return pointRepository.save(point);
+        FirestorePoint saved = pointRepository.save(point);
+        pointCacheCoordinator.pointCreated(saved);
+        return saved;
     }
 
-    @Caching(evict = {
-        @CacheEvict(value = CacheConfig.CACHE_POINTS, allEntries = true),
-        @CacheEvict(value = CacheConfig.CACHE_POINTS_BY_MERIDIAN, allEntries = true),
-        @CacheEvict(value = CacheConfig.CACHE_POINT_BY_CODE, allEntries = true),
-        @CacheEvict(value = CacheConfig.CACHE_POPULAR_POINTS, allEntries = true)
-    })
     public FirestorePoint updatePoint(String id, FirestorePoint updates) {
         log.debug("Atualizando ponto: {}", id);
         
@@ -103,6 +195,8 @@ public class FirestorePointService {
         }
 
         FirestorePoint point = existing.get();
+        String previousCode = point.getCode();
+        String previousMeridian = point.getMeridian();
         
         // Atualizar apenas campos não nulos
         if (updates.getCode() != null && !updates.getCode().equals(point.getCode())) {
@@ -150,16 +244,11 @@ public class FirestorePointService {
         
         point.setUpdatedAt(LocalDateTime.now());
 
-        return pointRepository.save(point);
+        FirestorePoint saved = pointRepository.save(point);
+        pointCacheCoordinator.pointUpdated(previousCode, previousMeridian, saved);
+        return saved;
     }
 
-    @Caching(evict = {
-        @CacheEvict(value = CacheConfig.CACHE_POINTS, allEntries = true),
-        @CacheEvict(value = CacheConfig.CACHE_POINTS_BY_MERIDIAN, allEntries = true),
-        @CacheEvict(value = CacheConfig.CACHE_POINT_BY_CODE, allEntries = true),
-        @CacheEvict(value = CacheConfig.CACHE_POPULAR_POINTS, allEntries = true),
-        @CacheEvict(value = CacheConfig.CACHE_POINTS_COUNT, allEntries = true)
-    })
     public void deletePoint(String id) {
         log.debug("Deletando ponto: {}", id);
         
@@ -169,6 +258,7 @@ public class FirestorePointService {
         }
 
         pointRepository.deleteById(id);
+        pointCacheCoordinator.pointDeleted(point.get());
         log.info("Ponto deletado com sucesso: {}", id);
     }
 
@@ -184,7 +274,8 @@ public class FirestorePointService {
         point.addSymptomId(symptomId);
         point.setUpdatedAt(LocalDateTime.now());
 
-        pointRepository.save(point);
+        FirestorePoint saved = pointRepository.save(point);
+        pointCacheCoordinator.pointUpdated(point.getCode(), point.getMeridian(), saved);
         log.debug("Sintoma adicionado ao ponto com sucesso");
     }
 
@@ -200,7 +291,8 @@ public class FirestorePointService {
         point.removeSymptomId(symptomId);
         point.setUpdatedAt(LocalDateTime.now());
 
-        pointRepository.save(point);
+        FirestorePoint saved = pointRepository.save(point);
+        pointCacheCoordinator.pointUpdated(point.getCode(), point.getMeridian(), saved);
         log.debug("Sintoma removido do ponto com sucesso");
     }
 
@@ -233,6 +325,7 @@ public class FirestorePointService {
         point.setUpdatedAt(LocalDateTime.now());
 
         FirestorePoint saved = pointRepository.save(point);
+        pointCacheCoordinator.pointUpdated(point.getCode(), point.getMeridian(), saved);
         log.info("Imagem {} adicionada ao ponto {} por {}", imageUrl, pointId, performedBy);
         return saved;
     }
@@ -262,6 +355,7 @@ public class FirestorePointService {
         point.setUpdatedAt(LocalDateTime.now());
 
         FirestorePoint saved = pointRepository.save(point);
+        pointCacheCoordinator.pointUpdated(point.getCode(), point.getMeridian(), saved);
         log.info("Imagem {} removida do ponto {} por {}", imageUrl, pointId, performedBy);
         return saved;
     }
@@ -313,40 +407,99 @@ public class FirestorePointService {
         point.setCoordinates(Map.of("x", x, "y", y));
         point.setUpdatedAt(LocalDateTime.now());
 
-        pointRepository.save(point);
+        FirestorePoint saved = pointRepository.save(point);
+        pointCacheCoordinator.pointUpdated(point.getCode(), point.getMeridian(), saved);
         log.debug("Coordenadas do ponto atualizadas com sucesso");
     }
 
     public void incrementFavoriteCount(String pointId) {
         log.debug("Incrementando contador de favoritos do ponto: {}", pointId);
-        pointRepository.incrementFavoriteCount(pointId);
+        favoriteCounter.increment(pointId);
     }
 
     public void decrementFavoriteCount(String pointId) {
         log.debug("Decrementando contador de favoritos do ponto: {}", pointId);
-        pointRepository.decrementFavoriteCount(pointId);
+        favoriteCounter.decrement(pointId);
     }
 
     public boolean existsByCode(String code) {
         return pointRepository.existsByCode(code);
     }
 
-    @Cacheable(value = CacheConfig.CACHE_POINTS_COUNT)
+    @Cacheable(value = CacheConfig.CACHE_POINTS_COUNT, sync = true)
     public long count() {
         return pointRepository.count();
     }
 
-    @Cacheable(value = CacheConfig.CACHE_POPULAR_POINTS, key = "#limit")
-    public List<FirestorePoint> findPopularPoints(int limit) {
-        List<FirestorePoint> allPoints = pointRepository.findAll();
-        
-        return allPoints.stream()
-                .sorted((p1, p2) -> {
-                    Integer count1 = p1.getFavoriteCount() != null ? p1.getFavoriteCount() : 0;
-                    Integer count2 = p2.getFavoriteCount() != null ? p2.getFavoriteCount() : 0;
-                    return count2.compareTo(count1); // Ordem decrescente
+    /**
+     * Ranqueia pontos pela quantidade de sintomas selecionados que cobrem; empates são resolvidos
+     * pela soma de severidade + prioridade dos sintomas cobertos e depois por favoritos.
+     */
+    public List<PointCoverageResponse> rankBySymptoms(List<String> symptomIds, int limit) {
+        log.debug("Ranqueando pontos para {} sintomas", symptomIds.size());
+        List<SymptomPointGraph.Coverage> coverage = symptomPointGraph.isAvailable()
+                ? symptomPointGraph.coverage(symptomIds)
+                : coverageFromRepository(symptomIds);
+
+        return coverage.stream()
+                .map(candidate -> PointCoverageResponse.builder()
+                        .point(candidate.point())
+                        .matchedSymptoms(candidate.symptomIds().size())
+                        .matchedSymptomIds(candidate.symptomIds())
+                        .symptomWeight(candidate.symptoms().stream().mapToInt(this::symptomWeight).sum())
+                        .build())
+                .sorted(Comparator.comparingInt(PointCoverageResponse::getMatchedSymptoms)
+                        .thenComparingInt(PointCoverageResponse::getSymptomWeight)
+                        .thenComparingInt(response -> favoriteCounter.currentCount(response.getPoint()))
+                        .reversed()
+                        .thenComparing(response -> response.getPoint().getCode(),
+                                Comparator.nullsLast(Comparator.naturalOrder())))
+                .limit(limit)
+                .toList();
+    }
+
+    private List<SymptomPointGraph.Coverage> coverageFromRepository(List<String> symptomIds) {
+        Map<String, FirestorePoint> points = new LinkedHashMap<>();
+        Map<String, List<String>> matched = new HashMap<>();
+        // Cada sintoma pedido é lido uma vez para manter o desempate por severidade + prioridade
+        Map<String, FirestoreSymptom> symptoms = new HashMap<>();
+        for (String symptomId : new LinkedHashSet<>(symptomIds)) {
+            symptomRepository.findById(symptomId).ifPresent(symptom -> symptoms.put(symptomId, symptom));
+            for (FirestorePoint point : pointRepository.findBySymptomId(symptomId)) {
+                points.putIfAbsent(point.getId(), point);
+                matched.computeIfAbsent(point.getId(), key -> new ArrayList<>()).add(symptomId);
+            }
+        }
+        return points.values().stream()
+                .map(point -> {
+                    List<String> ids = matched.get(point.getId());
+                    return new SymptomPointGraph.Coverage(point, ids,
+                            ids.stream().map(symptoms::get).filter(Objects::nonNull).toList());
                 })
+                .toList();
+    }
+
+    private int symptomWeight(FirestoreSymptom symptom) {
+        int severity = symptom.getSeverity() != null ? symptom.getSeverity() : DEFAULT_SYMPTOM_SEVERITY;
+        int priority = symptom.getPriority() != null ? symptom.getPriority() : 0;
+        return severity + priority;
+    }
+
+    /**
+     * Servido pelo ranking incremental do {@link FavoriteCounter}; sem catálogo carregado (ou
+     * para limites acima do máximo configurado) ordena a coleção inteira.
+     */
+    public List<FirestorePoint> findPopularPoints(int limit) {
+        Optional<List<FirestorePoint>> ranked = favoriteCounter.topPoints(limit);
+        if (ranked.isPresent()) {
+            return ranked.get();
+        }
+
+        return pointRepository.findAll().stream()
+                .map(point -> Map.entry(point, favoriteCounter.currentCount(point)))
+                .sorted(Map.Entry.<FirestorePoint, Integer>comparingByValue().reversed()) // Ordem decrescente
                 .limit(limit)
+                .map(entry -> favoriteCounter.withCurrentCount(entry.getKey()))
                 .toList();
     }
 
@@ -1,14 +1,20 @@
 package com.appunture.backend.service;
 
+import com.appunture.backend.dto.common.CursorPage;
 import com.appunture.backend.model.firestore.FirestoreSymptom;
+import com.appunture.backend.repository.firestore.FieldProjection;
 import com.appunture.backend.repository.firestore.FirestoreSymptomRepository;
+import com.appunture.backend.service.counter.SymptomUseRecorder;
+import com.appunture.backend.service.search.SymptomFuzzyIndex;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 
 import java.time.LocalDateTime;
+import java.util.Comparator;
 import java.util.List;
 import java.util.Optional;
+import java.util.function.Consumer;
 
 @Service
 @RequiredArgsConstructor
@@ -16,6 +22,11 @@ import java.util.Optional;
 public class FirestoreSymptomService {
 
     private final FirestoreSymptomRepository symptomRepository;
+    private final SymptomFuzzyIndex symptomFuzzyIndex;
+    private final SymptomUseRecorder symptomUseRecorder;
+    public static final int MAX_PAGE_SIZE = 100;
+    public static final List<String> SUMMARY_FIELDS = List.of("name", "category", "severity");
+    private static final int STREAM_BATCH_SIZE = 200;
 
     public Optional<FirestoreSymptom> findById(String id) {
         log.debug("Buscando sintoma por ID: {}", id);
@@ -32,18 +43,79 @@ public class FirestoreSymptomService {
         return symptomRepository.findAll();
     }
 
+    public List<FirestoreSymptom> findAll(FieldProjection projection) {
+        log.debug("Listando sintomas com campos {}", projection.fields());
+        return symptomRepository.findAll(projection);
+    }
+
+    /**
+     * Página de sintomas ordenada por ID. O cursor é o {@code nextCursor} da página anterior e
+     * o tamanho fica entre 1 e {@value #MAX_PAGE_SIZE}.
+     */
+    public CursorPage<FirestoreSymptom> findPage(String cursor, int limit) {
+        return findPage(cursor, limit, FieldProjection.ALL);
+    }
+
+    /**
+     * Como {@link #findPage(String, int)}, lendo do Firestore só os campos da projeção.
+     */
+    public CursorPage<FirestoreSymptom> findPage(String cursor, int limit, FieldProjection projection) {
+        String afterId = CursorPage.decodeCursor(cursor);
+        int pageSize = Math.max(1, Math.min(limit, MAX_PAGE_SIZE));
+        log.debug("Listando página de sintomas após {} (limite {})", afterId, pageSize);
+
+        // Um item a mais indica se existe próxima página
+        List<FirestoreSymptom> fetched = symptomRepository.findPage(afterId, pageSize + 1, projection);
+        boolean hasMore = fetched.size() > pageSize;
+        List<FirestoreSymptom> items = hasMore ? fetched.subList(0, pageSize) : fetched;
+        return CursorPage.<FirestoreSymptom>builder()
+                .items(items)
+                .nextCursor(hasMore ? CursorPage.encodeCursor(items.get(items.size() - 1).getId()) : null)
+                .build();
+    }
+
+    /**
+     * Percorre todos os sintomas em lotes de {@value #STREAM_BATCH_SIZE} por ID, entregando cada lote
+     * assim que é lido; só um lote fica em memória por vez.
+     */
+    public void forEachBatch(Consumer<List<FirestoreSymptom>> consumer) {
+        String afterId = null;
+        while (true) {
+            List<FirestoreSymptom> batch = symptomRepository.findPage(afterId, STREAM_BATCH_SIZE);
+            if (batch.isEmpty()) {
+                return;
+            }
+            consumer.accept(batch);
+            if (batch.size() < STREAM_BATCH_SIZE) {
+                return;
+            }
+            afterId = batch.get(batch.size() - 1).getId();
+        }
+    }
+
     public List<FirestoreSymptom> findByCategory(String category) {
         log.debug("Buscando sintomas por categoria: {}", category);
         return symptomRepository.findByCategory(category);
     }
 
+    public List<FirestoreSymptom> findByCategory(String category, FieldProjection projection) {
+        return symptomRepository.findByCategory(category, projection);
+    }
+
     public List<FirestoreSymptom> findByPointId(String pointId) {
         log.debug("Buscando sintomas por ponto: {}", pointId);
         return symptomRepository.findByPointId(pointId);
     }
 
+    public List<FirestoreSymptom> findByPointId(String pointId, FieldProjection projection) {
+        return symptomRepository.findByPointId(pointId, projection);
+    }
+
     public List<FirestoreSymptom> findByNameContaining(String name) {
         log.debug("Buscando sintomas por nome: {}", name);
+        if (symptomFuzzyIndex.isAvailable()) {
+            return symptomFuzzyIndex.search(name);
+        }
         return symptomRepository.findByNameContaining(name);
     }
 
@@ -75,7 +147,8 @@ public class FirestoreSymptomService {
             symptom.setPriority(0);
         }
 
-        return symptomRepository.save(symptom);
+        FirestoreSymptom saved = symptomRepository.save(symptom);
+        return saved;
     }
 
     public FirestoreSymptom updateSymptom(String id, FirestoreSymptom updates) {
@@ -116,7 +189,8 @@ public class FirestoreSymptomService {
         
         symptom.setUpdatedAt(LocalDateTime.now());
 
-        return symptomRepository.save(symptom);
+        FirestoreSymptom saved = symptomRepository.save(symptom);
+        return saved;
     }
 
     public void deleteSymptom(String id) {
@@ -212,12 +286,21 @@ public class FirestoreSymptomService {
 
     public void incrementUseCount(String symptomId) {
         log.debug("Incrementando contador de uso do sintoma: {}", symptomId);
-        symptomRepository.incrementUseCount(symptomId);
+        symptomUseRecorder.record(symptomId);
     }
 
+    /**
+     * Ranking pelo uso corrente. Os usos vivem em symptomStats, fora do documento do sintoma,
+     * então o ranking percorre todos os sintomas com o valor legado + gravado + pendente.
+     */
     public List<FirestoreSymptom> findTopUsed(int limit) {
         log.debug("Buscando {} sintomas mais usados", limit);
-        return symptomRepository.findTopUsed(limit);
+        return symptomRepository.findAll().stream()
+                .map(symptomUseRecorder::withLiveCount)
+                .filter(symptom -> symptom.getUseCount() != null && symptom.getUseCount() > 0)
+                .sorted(Comparator.comparing((FirestoreSymptom symptom) -> symptom.getUseCount()).reversed())
+                .limit(limit)
+                .toList();
     }
 
     public List<FirestoreSymptom> findBySeverity(int minSeverity, int maxSeverity) {
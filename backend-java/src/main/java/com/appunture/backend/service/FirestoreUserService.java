@@ -201,6 +201,14 @@ public class FirestoreUserService {
         return userRepository.count();
     }
 
+    public List<FirestoreUser> findMostRecent(int limit) {
+        return userRepository.findMostRecent(limit);
+    }
+
+    public long countByRole(String role) {
+        return userRepository.countByRole(role);
+    }
+
     public FirestoreUser updateUserRole(String userId, String newRole) {
         log.debug("Atualizando role do usuário {} para {}", userId, newRole);
         
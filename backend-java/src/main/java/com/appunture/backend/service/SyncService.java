@@ -0,0 +1,187 @@
+package com.appunture.backend.service;
+
+import com.appunture.backend.config.SyncProperties;
+import com.appunture.backend.dto.sync.SyncChangesResponse;
+import com.appunture.backend.dto.sync.SyncToken;
+import com.appunture.backend.dto.sync.SyncToken.Position;
+import com.appunture.backend.exception.DataSourceUnavailableException;
+import com.appunture.backend.model.firestore.FirestorePoint;
+import com.appunture.backend.model.firestore.FirestoreSymptom;
+import com.appunture.backend.model.firestore.FirestoreTombstone;
+import com.appunture.backend.repository.firestore.FirestoreCatalog;
+import com.appunture.backend.repository.firestore.FirestorePointRepository;
+import com.appunture.backend.repository.firestore.FirestoreSymptomRepository;
+import com.appunture.backend.repository.firestore.FirestoreTombstoneRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Sincronização incremental para clientes offline.
+ *
+ * <p>Pontos e sintomas são lidos em ordem de {@code updatedAt} e as exclusões vêm dos
+ * tombstones. Cada fonte avança seu próprio cursor, e uma página junta as alterações mais
+ * antigas das três até o limite pedido.</p>
+ *
+ * <p>Enquanto o catálogo em memória não termina de carregar, as alterações não são servidas: a
+ * consulta direta ao Firestore deixaria de fora documentos antigos sem {@code updatedAt}, e o
+ * cliente avançaria o token sobre um feed incompleto.</p>
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class SyncService {
+
+    private final FirestorePointRepository pointRepository;
+    private final FirestoreSymptomRepository symptomRepository;
+    private final FirestoreTombstoneRepository tombstoneRepository;
+    private final FirestoreCatalog catalog;
+    private final SyncProperties syncProperties;
+    public static final int MAX_PAGE_SIZE = 500;
+    private static final Comparator<LocalDateTime> CHANGE_ORDER = Comparator.nullsFirst(Comparator.naturalOrder());
+
+    /**
+     * Até {@code limit} alterações (entre 1 e {@value #MAX_PAGE_SIZE}) posteriores ao token.
+     *
+     * @throws IllegalArgumentException se o token for inválido
+     * @throws DataSourceUnavailableException se o catálogo ainda não estiver carregado
+     */
+    public SyncChangesResponse changesSince(String token, int limit) {
+        SyncToken since = SyncToken.decode(token);
+        int pageSize = Math.max(1, Math.min(limit, MAX_PAGE_SIZE));
+        LocalDateTime now = LocalDateTime.now();
+
+        if (since.getSyncedAt() != null && since.getSyncedAt().isBefore(now.minus(syncProperties.getTombstoneRetention()))) {
+            log.debug("Token de sincronização de {} anterior à retenção de exclusões", since.getSyncedAt());
+            return SyncChangesResponse.builder()
+                    .points(List.of())
+                    .symptoms(List.of())
+                    .deleted(List.of())
+                    .resetRequired(true)
+                    .build();
+        }
+
+        if (!catalog.isPointsReady() || !catalog.isSymptomsReady()) {
+            throw new DataSourceUnavailableException("Catálogo ainda não carregado para sincronização");
+        }
+
+        LocalDateTime settledUntil = now.minus(syncProperties.getSettleWindow());
+        List<Change> changes = new ArrayList<>();
+        collect(changes, Source.POINTS, settledUntil, FirestorePoint::getUpdatedAt, FirestorePoint::getId,
+                pointRepository.findChangedAfter(since.getPoints().getUpdatedAt(), since.getPoints().getId(), pageSize + 1));
+        collect(changes, Source.SYMPTOMS, settledUntil, FirestoreSymptom::getUpdatedAt, FirestoreSymptom::getId,
+                symptomRepository.findChangedAfter(since.getSymptoms().getUpdatedAt(), since.getSymptoms().getId(), pageSize + 1));
+        collect(changes, Source.TOMBSTONES, settledUntil, FirestoreTombstone::getDeletedAt, FirestoreTombstone::getId,
+                tombstoneRepository.findChangedAfter(since.getTombstones().getUpdatedAt(), since.getTombstones().getId(), pageSize + 1));
+        changes.sort(Comparator.comparing(Change::changedAt, CHANGE_ORDER));
+
+        boolean hasMore = changes.size() > pageSize;
+        List<Change> page = hasMore ? changes.subList(0, pageSize) : changes;
+
+        List<FirestorePoint> points = new ArrayList<>();
+        List<FirestoreSymptom> symptoms = new ArrayList<>();
+        List<FirestoreTombstone> deleted = new ArrayList<>();
+        Position pointsPosition = since.getPoints();
+        Position symptomsPosition = since.getSymptoms();
+        Position tombstonesPosition = since.getTombstones();
+        for (Change change : page) {
+            Position position = new Position(change.changedAt(), change.id());
+            switch (change.source()) {
+                case POINTS -> {
+                    points.add((FirestorePoint) change.document());
+                    pointsPosition = position;
+                }
+                case SYMPTOMS -> {
+                    symptoms.add((FirestoreSymptom) change.document());
+                    symptomsPosition = position;
+                }
+                case TOMBSTONES -> {
+                    deleted.add((FirestoreTombstone) change.document());
+                    tombstonesPosition = position;
+                }
+            }
+        }
+
+        // Só a última página deixa o cliente completo até settledUntil
+        LocalDateTime syncedAt = hasMore ? since.getSyncedAt() : settledUntil;
+        SyncToken next = new SyncToken(pointsPosition, symptomsPosition, tombstonesPosition, syncedAt);
+        log.debug("Sincronização: {} pontos, {} sintomas, {} exclusões (mais: {})",
+                points.size(), symptoms.size(), deleted.size(), hasMore);
+
+        return SyncChangesResponse.builder()
+                .points(points)
+                .symptoms(symptoms)
+                .deleted(deleted)
+                .nextToken(next.encode())
+                .hasMore(hasMore)
+                .build();
+    }
+
+    /**
+     * Token para retomar a sincronização a partir de um retrato do catálogo lido em
+     * {@code readAt} (ex.: o pacote offline). Cada cursor para no último documento já assentado;
+     * o que ainda estava em voo volta pelo {@code /sync/changes} e é aplicado de novo como upsert.
+     */
+    public SyncToken resumeToken(List<FirestorePoint> points, List<FirestoreSymptom> symptoms, LocalDateTime readAt) {
+        LocalDateTime settledUntil = readAt.minus(syncProperties.getSettleWindow());
+        Position tombstones = tombstoneRepository.findLatestUntil(settledUntil)
+                .map(tombstone -> new Position(tombstone.getDeletedAt(), tombstone.getId()))
+                .orElse(Position.START);
+        return new SyncToken(
+                lastSettled(points, FirestorePoint::getUpdatedAt, FirestorePoint::getId, settledUntil),
+                lastSettled(symptoms, FirestoreSymptom::getUpdatedAt, FirestoreSymptom::getId, settledUntil),
+                tombstones,
+                settledUntil);
+    }
+
+    @Scheduled(fixedDelayString = "${app.sync.tombstone-prune-interval:PT6H}")
+    public void pruneTombstones() {
+        LocalDateTime cutoff = LocalDateTime.now().minus(syncProperties.getTombstoneRetention());
+        int removed = tombstoneRepository.deleteOlderThan(cutoff);
+        if (removed > 0) {
+            log.info("{} registros de exclusão anteriores a {} removidos", removed, cutoff);
+        }
+    }
+
+    /**
+     * Adiciona as alterações já assentadas; as listas vêm ordenadas, então para na primeira recente.
+     */
+    private static <T> void collect(List<Change> changes,
+                                    Source source,
+                                    LocalDateTime settledUntil,
+                                    Function<T, LocalDateTime> changedAt,
+                                    Function<T, String> id,
+                                    List<T> documents) {
+        for (T document : documents) {
+            LocalDateTime at = changedAt.apply(document);
+            if (at != null && at.isAfter(settledUntil)) {
+                break;
+            }
+            changes.add(new Change(source, at, id.apply(document), document));
+        }
+    }
+
+    private static <T> Position lastSettled(List<T> documents,
+                                            Function<T, LocalDateTime> changedAt,
+                                            Function<T, String> id,
+                                            LocalDateTime settledUntil) {
+        Comparator<T> order = Comparator.comparing(changedAt, CHANGE_ORDER).thenComparing(id);
+        return documents.stream()
+                .filter(document -> changedAt.apply(document) == null || !changedAt.apply(document).isAfter(settledUntil))
+                .max(order)
+                .map(document -> new Position(changedAt.apply(document), id.apply(document)))
+                .orElse(Position.START);
+    }
+
+    private enum Source { POINTS, SYMPTOMS, TOMBSTONES }
+
+    private record Change(Source source, LocalDateTime changedAt, String id, Object document) {
+    }
+}
@@ -0,0 +1,171 @@
+package com.appunture.backend.service.cache;
+
+import com.github.benmanes.caffeine.cache.Weigher;
+
+import java.lang.reflect.Array;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.temporal.Temporal;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Peso de uma entrada de cache em bytes estimados de heap (JVM 64 bits com compressed oops).
+ *
+ * <p>Percorre strings, números, coleções, mapas, arrays e, por reflexão, os campos dos modelos.
+ * A estimativa erra por poucos por cento, mas distingue uma entrada com o catálogo inteiro de
+ * uma com um único ponto, que é o necessário para limitar os caches por memória.</p>
+ */
+public class CacheEntryWeigher implements Weigher<Object, Object> {
+
+    private static final int MAX_DEPTH = 8;
+    private static final int HEADER = 12;
+    private static final int REFERENCE = 4;
+    private static final int OPAQUE_OBJECT = 16;
+
+    private static final ClassValue<List<Field>> INSTANCE_FIELDS = new ClassValue<>() {
+        @Override
+        protected List<Field> computeValue(Class<?> type) {
+            List<Field> fields = new ArrayList<>();
+            for (Class<?> current = type; current != null && current != Object.class; current = current.getSuperclass()) {
+                for (Field field : current.getDeclaredFields()) {
+                    if (Modifier.isStatic(field.getModifiers())) {
+                        continue;
+                    }
+                    try {
+                        field.setAccessible(true);
+                        fields.add(field);
+                    } catch (RuntimeException e) {
+                        // Campo inacessível (módulo fechado): conta só a referência
+                    }
+                }
+            }
+            return List.copyOf(fields);
+        }
+    };
+
+    @Override
+    public int weigh(Object key, Object value) {
+        long bytes = estimate(key) + estimate(value);
+        return (int) Math.max(1, Math.min(Integer.MAX_VALUE, bytes));
+    }
+
+    public static long estimate(Object value) {
+        return estimate(value, 0);
+    }
+
+    private static long estimate(Object value, int depth) {
+        if (value == null || value instanceof Enum<?> || value instanceof Boolean) {
+            return 0;
+        }
+        if (value instanceof CharSequence text) {
+            return stringSize(text);
+        }
+        if (value instanceof Long || value instanceof Double) {
+            return 24;
+        }
+        if (value instanceof Number || value instanceof Character) {
+            return 16;
+        }
+        if (value instanceof LocalDateTime) {
+            return 72;
+        }
+        if (value instanceof LocalDate || value instanceof LocalTime) {
+            return 24;
+        }
+        if (value instanceof Temporal) {
+            return 32;
+        }
+        if (value instanceof Optional<?> optional) {
+            return 16 + estimate(optional.orElse(null), depth + 1);
+        }
+        if (depth >= MAX_DEPTH) {
+            return OPAQUE_OBJECT;
+        }
+        if (value instanceof Collection<?> collection) {
+            long total = 40 + align(16 + (long) REFERENCE * collection.size());
+            for (Object element : collection) {
+                total += estimate(element, depth + 1);
+            }
+            return total;
+        }
+        if (value instanceof Map<?, ?> map) {
+            long total = 48 + align(16 + (long) REFERENCE * map.size() * 4 / 3) + 32L * map.size();
+            for (Map.Entry<?, ?> entry : map.entrySet()) {
+                total += estimate(entry.getKey(), depth + 1) + estimate(entry.getValue(), depth + 1);
+            }
+            return total;
+        }
+        Class<?> type = value.getClass();
+        if (type.isArray()) {
+            return arraySize(value, depth);
+        }
+        if (type.getName().startsWith("java.")) {
+            return OPAQUE_OBJECT;
+        }
+        return objectSize(value, depth);
+    }
+
+    private static long stringSize(CharSequence text) {
+        boolean latin1 = true;
+        for (int i = 0; i < text.length() && latin1; i++) {
+            latin1 = text.charAt(i) < 256;
+        }
+        return 24 + align(16 + (long) text.length() * (latin1 ? 1 : 2));
+    }
+
+    private static long arraySize(Object array, int depth) {
+        int length = Array.getLength(array);
+        Class<?> component = array.getClass().getComponentType();
+        if (component.isPrimitive()) {
+            return align(16 + (long) length * primitiveSize(component));
+        }
+        long total = align(16 + (long) REFERENCE * length);
+        for (int i = 0; i < length; i++) {
+            total += estimate(Array.get(array, i), depth + 1);
+        }
+        return total;
+    }
+
+    private static long objectSize(Object value, int depth) {
+        long shallow = HEADER;
+        long referenced = 0;
+        for (Field field : INSTANCE_FIELDS.get(value.getClass())) {
+            Class<?> type = field.getType();
+            if (type.isPrimitive()) {
+                shallow += primitiveSize(type);
+                continue;
+            }
+            shallow += REFERENCE;
+            try {
+                referenced += estimate(field.get(value), depth + 1);
+            } catch (IllegalAccessException e) {
+                referenced += OPAQUE_OBJECT;
+            }
+        }
+        return align(shallow) + referenced;
+    }
+
+    private static int primitiveSize(Class<?> type) {
+        if (type == long.class || type == double.class) {
+            return 8;
+        }
+        if (type == int.class || type == float.class) {
+            return 4;
+        }
+        if (type == short.class || type == char.class) {
+            return 2;
+        }
+        return 1;
+    }
+
+    private static long align(long bytes) {
+        return (bytes + 7) & ~7L;
+    }
+}
@@ -0,0 +1,90 @@
+package com.appunture.backend.service.cache;
+
+import com.appunture.backend.dto.cache.CacheReport;
+import com.github.benmanes.caffeine.cache.Policy;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import lombok.RequiredArgsConstructor;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.caffeine.CaffeineCache;
+import org.springframework.cache.interceptor.SimpleKey;
+import org.springframework.cache.support.NullValue;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Fotografia dos caches para a administração: estatísticas, memória estimada e as maiores
+ * entradas de cada cache.
+ */
+@Component
+@RequiredArgsConstructor
+public class CacheInspector {
+
+    private final CacheManager cacheManager;
+
+    public List<CacheReport> report(int largestEntries) {
+        return cacheManager.getCacheNames().stream()
+                .sorted()
+                .map(cacheManager::getCache)
+                .filter(CaffeineCache.class::isInstance)
+                .map(cache -> report((CaffeineCache) cache, largestEntries))
+                .toList();
+    }
+
+    private CacheReport report(CaffeineCache cache, int largestEntries) {
+        com.github.benmanes.caffeine.cache.Cache<Object, Object> nativeCache = cache.getNativeCache();
+        CacheStats stats = nativeCache.stats();
+        Optional<Policy.Eviction<Object, Object>> eviction = nativeCache.policy().eviction();
+        boolean weighted = eviction.map(Policy.Eviction::isWeighted).orElse(false);
+
+        List<CacheReport.Entry> entries = nativeCache.asMap().entrySet().stream()
+                .map(entry -> CacheReport.Entry.builder()
+                        .key(describeKey(entry.getKey()))
+                        .type(describeValue(entry.getValue()))
+                        .weightBytes(weighted
+                                ? eviction.get().weightOf(entry.getKey()).orElse(0)
+                                : CacheEntryWeigher.estimate(entry.getKey()) + CacheEntryWeigher.estimate(entry.getValue()))
+                        .build())
+                .sorted(Comparator.comparingLong(CacheReport.Entry::getWeightBytes).reversed())
+                .toList();
+
+        return CacheReport.builder()
+                .name(cache.getName())
+                .entries(entries.size())
+                .weightBytes(entries.stream().mapToLong(CacheReport.Entry::getWeightBytes).sum())
+                .weightLimitBytes(weighted ? eviction.get().getMaximum() : null)
+                .hits(stats.hitCount())
+                .misses(stats.missCount())
+                .hitRate(stats.hitRate())
+                .loads(stats.loadCount())
+                .loadFailures(stats.loadFailureCount())
+                .averageLoadMillis(stats.averageLoadPenalty() / 1_000_000.0)
+                .evictions(stats.evictionCount())
+                .largestEntries(entries.subList(0, Math.min(Math.max(0, largestEntries), entries.size())))
+                .build();
+    }
+
+    private static String describeKey(Object key) {
+        return SimpleKey.EMPTY.equals(key) ? "*" : String.valueOf(key);
+    }
+
+    private static String describeValue(Object value) {
+        if (value == null || value instanceof NullValue) {
+            return "null";
+        }
+        if (value instanceof List<?> list) {
+            return "List[" + list.size() + "]";
+        }
+        if (value instanceof Collection<?> collection) {
+            return "Collection[" + collection.size() + "]";
+        }
+        if (value instanceof Map<?, ?> map) {
+            return "Map[" + map.size() + "]";
+        }
+        return value.getClass().getSimpleName();
+    }
+}
@@ -0,0 +1,34 @@
+package com.appunture.backend.service.cache;
+
+import java.time.LocalDateTime;
+
+/**
+ * Escrita de ponto feita por uma instância, com as chaves de cache que ela afeta.
+ *
+ * @param origin   instância que fez a escrita
+ * @param sequence ordem da escrita dentro da instância de origem
+ * @param version  {@code updatedAt} do ponto salvo, usado para saber quando o catálogo local
+ *                 já recebeu a alteração
+ */
+public record CacheInvalidation(String origin,
+                                long sequence,
+                                Type type,
+                                String pointId,
+                                String code,
+                                String meridian,
+                                String previousCode,
+                                String previousMeridian,
+                                LocalDateTime version) {
+
+    public enum Type {
+        CREATED,
+        UPDATED,
+        DELETED,
+        /** O transporte perdeu eventos; todas as entradas de pontos devem ser descartadas. */
+        RESET
+    }
+
+    public static CacheInvalidation reset() {
+        return new CacheInvalidation(null, 0, Type.RESET, null, null, null, null, null, null);
+    }
+}
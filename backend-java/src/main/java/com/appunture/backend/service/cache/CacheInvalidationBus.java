@@ -0,0 +1,14 @@
+package com.appunture.backend.service.cache;
+
+import java.util.function.Consumer;
+
+/**
+ * Transporte das invalidações de cache entre instâncias. Cada instância publica as próprias
+ * escritas e recebe as de todas, inclusive as suas, que o assinante deve ignorar pela origem.
+ */
+public interface CacheInvalidationBus {
+
+    void publish(CacheInvalidation invalidation);
+
+    void subscribe(Consumer<CacheInvalidation> subscriber);
+}
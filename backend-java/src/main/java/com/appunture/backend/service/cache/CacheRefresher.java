@@ -0,0 +1,129 @@
+package com.appunture.backend.service.cache;
+
+import com.appunture.backend.config.CacheProperties;
+import com.github.benmanes.caffeine.cache.CacheLoader;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cache.support.NullValue;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+/**
+ * Recarga antecipada (stale-while-revalidate) dos caches.
+ *
+ * <p>Depois de {@code app.cache.refresh-after}, a próxima leitura de uma entrada ainda devolve o
+ * valor em cache e agenda a recarga num pool pequeno e limitado. Se a recarga falha, o Caffeine
+ * mantém o valor anterior até o {@code time-to-live}; se o pool está cheio, a recarga é tentada
+ * de novo na leitura seguinte. Caches sem recarregador registrado apenas expiram.</p>
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class CacheRefresher {
+
+    private final CacheProperties cacheProperties;
+    private final MeterRegistry meterRegistry;
+
+    private final Map<String, Function<Object, Object>> reloaders = new ConcurrentHashMap<>();
+    private ThreadPoolExecutor executor;
+
+    @PostConstruct
+    void start() {
+        AtomicInteger threads = new AtomicInteger();
+        executor = new ThreadPoolExecutor(
+                cacheProperties.getRefreshThreads(),
+                cacheProperties.getRefreshThreads(),
+                30, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(cacheProperties.getRefreshQueueCapacity()),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "cache-refresh-" + threads.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+        executor.allowCoreThreadTimeOut(true);
+    }
+
+    @PreDestroy
+    void stop() {
+        executor.shutdownNow();
+    }
+
+    /**
+     * Registra como recalcular as entradas de {@code cacheName}. A função recebe a chave do cache
+     * e devolve o valor como o {@code @Cacheable} o guardaria; {@code null} vira "não encontrado".
+     */
+    public void register(String cacheName, Function<Object, Object> reloader) {
+        reloaders.put(cacheName, reloader);
+    }
+
+    public CacheLoader<Object, Object> loaderFor(String cacheName) {
+        return new RefreshingLoader(cacheName);
+    }
+
+    private final class RefreshingLoader implements CacheLoader<Object, Object> {
+
+        private final String cacheName;
+        private final Timer succeeded;
+        private final Timer failed;
+
+        private RefreshingLoader(String cacheName) {
+            this.cacheName = cacheName;
+            this.succeeded = refreshTimer(cacheName, "success");
+            this.failed = refreshTimer(cacheName, "failure");
+        }
+
+        /**
+         * As cargas iniciais vêm do {@code @Cacheable}; consultas diretas ao cache não carregam.
+         */
+        @Override
+        public Object load(Object key) {
+            return null;
+        }
+
+        @Override
+        public Object reload(Object key, Object oldValue) {
+            Function<Object, Object> reloader = reloaders.get(cacheName);
+            if (reloader == null) {
+                return oldValue;
+            }
+            long start = System.nanoTime();
+            try {
+                Object value = reloader.apply(key);
+                succeeded.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+                return value == null ? NullValue.INSTANCE : value;
+            } catch (RuntimeException e) {
+                failed.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+                log.warn("Recarga do cache {} falhou para {} - mantendo o valor anterior: {}",
+                        cacheName, key, e.getMessage());
+                throw e;
+            }
+        }
+
+        @Override
+        public CompletableFuture<Object> asyncReload(Object key, Object oldValue, Executor ignored) {
+            // Pool próprio e limitado; uma rejeição aqui só adia a recarga para a próxima leitura
+            return CompletableFuture.supplyAsync(() -> reload(key, oldValue), executor);
+        }
+    }
+
+    private Timer refreshTimer(String cacheName, String result) {
+        return Timer.builder("app_cache_refresh")
+                .description("Recargas antecipadas das entradas de cache")
+                .tag("cache", cacheName)
+                .tag("result", result)
+                .register(meterRegistry);
+    }
+}
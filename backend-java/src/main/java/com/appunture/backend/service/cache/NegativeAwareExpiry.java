@@ -0,0 +1,46 @@
+package com.appunture.backend.service.cache;
+
+import com.github.benmanes.caffeine.cache.Expiry;
+import org.springframework.cache.support.NullValue;
+
+import java.time.Duration;
+import java.util.Collection;
+
+/**
+ * Validade por entrada: resultados "não encontrado" (o {@code null} que o {@code @Cacheable}
+ * guarda para um {@code Optional} vazio, ou uma lista vazia) vivem só {@code negativeTtl}, o
+ * suficiente para absorver consultas repetidas a um código inexistente sem segurar por horas
+ * uma ausência que pode deixar de ser verdade. Falhas de leitura nunca chegam aqui: viram
+ * exceção e não são guardadas.
+ */
+public class NegativeAwareExpiry implements Expiry<Object, Object> {
+
+    private final long timeToLiveNanos;
+    private final long negativeTimeToLiveNanos;
+
+    public NegativeAwareExpiry(Duration timeToLive, Duration negativeTimeToLive) {
+        this.timeToLiveNanos = timeToLive.toNanos();
+        this.negativeTimeToLiveNanos = Math.min(negativeTimeToLive.toNanos(), timeToLiveNanos);
+    }
+
+    public static boolean isNegative(Object value) {
+        return value == null
+                || value instanceof NullValue
+                || (value instanceof Collection<?> collection && collection.isEmpty());
+    }
+
+    @Override
+    public long expireAfterCreate(Object key, Object value, long currentTime) {
+        return isNegative(value) ? negativeTimeToLiveNanos : timeToLiveNanos;
+    }
+
+    @Override
+    public long expireAfterUpdate(Object key, Object value, long currentTime, long currentDuration) {
+        return expireAfterCreate(key, value, currentTime);
+    }
+
+    @Override
+    public long expireAfterRead(Object key, Object value, long currentTime, long currentDuration) {
+        return currentDuration;
+    }
+}
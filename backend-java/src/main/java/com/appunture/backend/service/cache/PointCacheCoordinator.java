@@ -0,0 +1,277 @@
+package com.appunture.backend.service.cache;
+
+import com.appunture.backend.config.CacheConfig;
+import com.appunture.backend.model.firestore.FirestorePoint;
+import com.appunture.backend.repository.firestore.FirestoreCatalog;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.interceptor.SimpleKey;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Aplica cada escrita de ponto diretamente nas entradas de cache afetadas, em vez de esvaziar
+ * os caches inteiros.
+ *
+ * <p>A lista completa e as listas dos meridianos antigo e novo recebem o ponto atualizado no
+ * lugar, sempre em ordem de ID como o Firestore e o catálogo retornam. O código antigo é
+ * removido e o novo aponta para o ponto salvo. O total só muda em criações e exclusões. Só
+ * entradas já presentes são alteradas; chaves ausentes continuam sendo carregadas sob demanda.
+ * Pontos populares não passam por aqui: o ranking em memória acompanha o catálogo.</p>
+ *
+ * <p>Cada escrita também é publicada no {@link CacheInvalidationBus}. As demais instâncias
+ * removem exatamente as mesmas chaves; como o catálogo delas pode ainda não ter recebido a
+ * alteração, a invalidação fica pendente e as chaves são removidas de novo quando o catálogo
+ * entrega uma versão igual ou mais nova do ponto.</p>
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class PointCacheCoordinator {
+
+    private static final Comparator<FirestorePoint> BY_ID = Comparator.comparing(FirestorePoint::getId);
+
+    private final CacheManager cacheManager;
+    private final CacheInvalidationBus invalidationBus;
+    private final FirestoreCatalog catalog;
+
+    private final String instanceId = UUID.randomUUID().toString();
+    private final Map<String, Long> lastSequenceByOrigin = new HashMap<>();
+    private final Map<String, CacheInvalidation> awaitingCatalog = new ConcurrentHashMap<>();
+    private long sequence;
+
+    @PostConstruct
+    void start() {
+        invalidationBus.subscribe(this::applyRemote);
+        catalog.addPointListener(this::catalogPointChanged);
+    }
+
+    public synchronized void pointCreated(FirestorePoint saved) {
+        upsert(saved, null, null);
+        adjustCount(1);
+        publish(CacheInvalidation.Type.CREATED, saved, null, null);
+    }
+
+    /**
+     * @param previousCode     código antes da escrita
+     * @param previousMeridian meridiano antes da escrita
+     */
+    public synchronized void pointUpdated(String previousCode, String previousMeridian, FirestorePoint saved) {
+        upsert(saved, previousCode, previousMeridian);
+        publish(CacheInvalidation.Type.UPDATED, saved, previousCode, previousMeridian);
+    }
+
+    public synchronized void pointDeleted(FirestorePoint deleted) {
+        if (deleted == null || deleted.getId() == null) {
+            return;
+        }
+        Cache all = cacheManager.getCache(CacheConfig.CACHE_POINTS);
+        if (all != null) {
+            replaceList(all, SimpleKey.EMPTY, deleted.getId(), null);
+        }
+        Cache byMeridian = cacheManager.getCache(CacheConfig.CACHE_POINTS_BY_MERIDIAN);
+        if (byMeridian != null && deleted.getMeridian() != null) {
+            replaceList(byMeridian, deleted.getMeridian(), deleted.getId(), null);
+        }
+        Cache byCode = cacheManager.getCache(CacheConfig.CACHE_POINT_BY_CODE);
+        if (byCode != null && deleted.getCode() != null) {
+            byCode.evict(deleted.getCode());
+        }
+        adjustCount(-1);
+        publish(CacheInvalidation.Type.DELETED, deleted, null, null);
+    }
+
+    /**
+     * Aplica a escrita de outra instância. Eventos repetidos ou fora de ordem da mesma origem
+     * são descartados pela sequência.
+     */
+    synchronized void applyRemote(CacheInvalidation invalidation) {
+        if (invalidation.type() == CacheInvalidation.Type.RESET) {
+            log.warn("Eventos de invalidação perdidos - descartando caches de pontos");
+            clearAll();
+            return;
+        }
+        if (instanceId.equals(invalidation.origin())) {
+            return;
+        }
+        Long last = lastSequenceByOrigin.get(invalidation.origin());
+        if (last != null && invalidation.sequence() <= last) {
+            return;
+        }
+        lastSequenceByOrigin.put(invalidation.origin(), invalidation.sequence());
+
+        evict(invalidation);
+        if (catalog.isPointsReady() && invalidation.pointId() != null) {
+            // Registra antes de consultar: ou o listener do catálogo vê a pendência, ou a
+            // consulta abaixo já vê a versão nova
+            awaitingCatalog.put(invalidation.pointId(), invalidation);
+            if (caughtUp(invalidation, catalog.findPointById(invalidation.pointId()).orElse(null))) {
+                awaitingCatalog.remove(invalidation.pointId(), invalidation);
+            }
+        }
+    }
+
+    /**
+     * Chamado pelo catálogo (sob o lock dele) a cada ponto recebido do Firestore.
+     */
+    private void catalogPointChanged(String id, FirestorePoint point) {
+        if (awaitingCatalog.isEmpty()) {
+            return;
+        }
+        CacheInvalidation pending = awaitingCatalog.get(id);
+        if (pending == null || !caughtUp(pending, point)) {
+            return;
+        }
+        if (awaitingCatalog.remove(id, pending)) {
+            evict(pending);
+        }
+    }
+
+    private static boolean caughtUp(CacheInvalidation pending, FirestorePoint point) {
+        if (pending.type() == CacheInvalidation.Type.DELETED) {
+            return point == null;
+        }
+        return point != null && (pending.version() == null
+                || (point.getUpdatedAt() != null && !point.getUpdatedAt().isBefore(pending.version())));
+    }
+
+    private void publish(CacheInvalidation.Type type, FirestorePoint point,
+                         String previousCode, String previousMeridian) {
+        if (point == null || point.getId() == null) {
+            return;
+        }
+        invalidationBus.publish(new CacheInvalidation(instanceId, ++sequence, type, point.getId(),
+                point.getCode(), point.getMeridian(), previousCode, previousMeridian, point.getUpdatedAt()));
+    }
+
+    private void evict(CacheInvalidation invalidation) {
+        Cache all = cacheManager.getCache(CacheConfig.CACHE_POINTS);
+        if (all != null) {
+            all.evict(SimpleKey.EMPTY);
+        }
+        Cache byMeridian = cacheManager.getCache(CacheConfig.CACHE_POINTS_BY_MERIDIAN);
+        if (byMeridian != null) {
+            evictIfPresent(byMeridian, invalidation.meridian());
+            evictIfPresent(byMeridian, invalidation.previousMeridian());
+        }
+        Cache byCode = cacheManager.getCache(CacheConfig.CACHE_POINT_BY_CODE);
+        if (byCode != null) {
+            evictIfPresent(byCode, invalidation.code());
+            evictIfPresent(byCode, invalidation.previousCode());
+        }
+        if (invalidation.type() != CacheInvalidation.Type.UPDATED) {
+            Cache count = cacheManager.getCache(CacheConfig.CACHE_POINTS_COUNT);
+            if (count != null) {
+                count.evict(SimpleKey.EMPTY);
+            }
+        }
+    }
+
+    private static void evictIfPresent(Cache cache, String key) {
+        if (key != null) {
+            cache.evict(key);
+        }
+    }
+
+    private void clearAll() {
+        awaitingCatalog.clear();
+        for (String name : CacheConfig.POINT_CACHES) {
+            Cache cache = cacheManager.getCache(name);
+            if (cache != null) {
+                cache.clear();
+            }
+        }
+    }
+
+    private void upsert(FirestorePoint saved, String previousCode, String previousMeridian) {
+        if (saved == null || saved.getId() == null) {
+            return;
+        }
+        FirestorePoint copy = FirestoreCatalog.copyOf(saved);
+
+        Cache all = cacheManager.getCache(CacheConfig.CACHE_POINTS);
+        if (all != null) {
+            replaceList(all, SimpleKey.EMPTY, copy.getId(), copy);
+        }
+
+        Cache byMeridian = cacheManager.getCache(CacheConfig.CACHE_POINTS_BY_MERIDIAN);
+        if (byMeridian != null) {
+            if (previousMeridian != null && !previousMeridian.equals(copy.getMeridian())) {
+                replaceList(byMeridian, previousMeridian, copy.getId(), null);
+            }
+            if (copy.getMeridian() != null) {
+                replaceList(byMeridian, copy.getMeridian(), copy.getId(), copy);
+            }
+        }
+
+        Cache byCode = cacheManager.getCache(CacheConfig.CACHE_POINT_BY_CODE);
+        if (byCode != null) {
+            if (previousCode != null && !previousCode.equals(copy.getCode())) {
+                byCode.evict(previousCode);
+            }
+            if (copy.getCode() != null) {
+                // O @Cacheable guarda o conteúdo do Optional; isso também substitui um "não
+                // encontrado" guardado antes da criação
+                byCode.put(copy.getCode(), copy);
+            }
+        }
+    }
+
+    /**
+     * Troca (ou remove, com {@code replacement} nulo) o ponto {@code id} na lista em cache, se a
+     * chave estiver presente. A lista em cache nunca é alterada: uma nova substitui a antiga.
+     */
+    @SuppressWarnings("unchecked")
+    private static void replaceList(Cache cache, Object key, String id, FirestorePoint replacement) {
+        if (!(peek(cache, key) instanceof List<?> cached)) {
+            return;
+        }
+        List<FirestorePoint> updated = new ArrayList<>(cached.size() + 1);
+        for (FirestorePoint point : (List<FirestorePoint>) cached) {
+            if (!Objects.equals(point.getId(), id)) {
+                updated.add(point);
+            }
+        }
+        if (replacement != null) {
+            int index = -(Collections.binarySearch(updated, replacement, BY_ID) + 1);
+            updated.add(Math.max(index, 0), replacement);
+        }
+        cache.put(key, List.copyOf(updated));
+    }
+
+    private void adjustCount(long delta) {
+        Cache count = cacheManager.getCache(CacheConfig.CACHE_POINTS_COUNT);
+        if (count == null) {
+            return;
+        }
+        if (peek(count, SimpleKey.EMPTY) instanceof Long total) {
+            count.put(SimpleKey.EMPTY, Math.max(0, total + delta));
+        }
+    }
+
+    /**
+     * Valor presente em cache, sem disparar a carga de um cache de recarga antecipada.
+     */
+    private static Object peek(Cache cache, Object key) {
+        if (cache.getNativeCache() instanceof com.github.benmanes.caffeine.cache.Cache<?, ?> caffeine) {
+            @SuppressWarnings("unchecked")
+            com.github.benmanes.caffeine.cache.Cache<Object, Object> nativeCache =
+                    (com.github.benmanes.caffeine.cache.Cache<Object, Object>) caffeine;
+            return nativeCache.getIfPresent(key);
+        }
+        Cache.ValueWrapper wrapper = cache.get(key);
+        return wrapper == null ? null : wrapper.get();
+    }
+}
@@ -0,0 +1,29 @@
+package com.appunture.backend.service.cache;
+
+import com.appunture.backend.config.CacheConfig;
+import com.appunture.backend.repository.firestore.FirestorePointRepository;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+/**
+ * Recarregadores dos caches de pontos, com as mesmas leituras dos métodos {@code @Cacheable} de
+ * {@code FirestorePointService}, feitas direto no repositório para não passar pelo próprio cache.
+ */
+@Component
+@RequiredArgsConstructor
+public class PointCacheReloaders {
+
+    private final CacheRefresher cacheRefresher;
+    private final FirestorePointRepository pointRepository;
+
+    @PostConstruct
+    void register() {
+        cacheRefresher.register(CacheConfig.CACHE_POINTS, key -> pointRepository.findAll());
+        cacheRefresher.register(CacheConfig.CACHE_POINTS_BY_MERIDIAN,
+                key -> pointRepository.findByMeridian((String) key));
+        cacheRefresher.register(CacheConfig.CACHE_POINT_BY_CODE,
+                key -> pointRepository.findByCode((String) key).orElse(null));
+        cacheRefresher.register(CacheConfig.CACHE_POINTS_COUNT, key -> pointRepository.count());
+    }
+}
@@ -0,0 +1,87 @@
+package com.appunture.backend.service.cache;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * Agrupa chamadas idênticas simultâneas: enquanto uma leitura de {@code operation} com a mesma
+ * chave está em andamento, as demais esperam por ela e recebem o mesmo resultado (ou a mesma
+ * exceção), em vez de repetir a consulta ao Firestore.
+ *
+ * <p>Nada fica guardado depois que a chamada termina; quem chega depois dispara uma nova
+ * leitura. O resultado é compartilhado entre os chamadores e deve ser tratado como somente
+ * leitura.</p>
+ */
+@Component
+@RequiredArgsConstructor
+public class SingleFlight {
+
+    private final MeterRegistry meterRegistry;
+
+    private final Map<List<Object>, CompletableFuture<Object>> inFlight = new ConcurrentHashMap<>();
+    private final Map<String, Calls> counters = new ConcurrentHashMap<>();
+
+    @SuppressWarnings("unchecked")
+    public <T> T execute(String operation, Supplier<T> loader, Object... key) {
+        List<Object> flightKey = Arrays.asList(operation, Arrays.asList(key));
+        CompletableFuture<Object> flight = new CompletableFuture<>();
+        CompletableFuture<Object> existing = inFlight.putIfAbsent(flightKey, flight);
+        Calls calls = counters.computeIfAbsent(operation, this::registerCounters);
+
+        if (existing != null) {
+            calls.shared().increment();
+            return (T) await(existing);
+        }
+
+        calls.leader().increment();
+        try {
+            T value = loader.get();
+            flight.complete(value);
+            return value;
+        } catch (RuntimeException | Error e) {
+            flight.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(flightKey, flight);
+        }
+    }
+
+    private static Object await(CompletableFuture<Object> flight) {
+        try {
+            return flight.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException runtime) {
+                throw runtime;
+            }
+            if (e.getCause() instanceof Error error) {
+                throw error;
+            }
+            throw e;
+        }
+    }
+
+    private Calls registerCounters(String operation) {
+        return new Calls(counter(operation, "leader"), counter(operation, "shared"));
+    }
+
+    private Counter counter(String operation, String role) {
+        return Counter.builder("app_singleflight_calls")
+                .description("Leituras executadas (leader) ou atendidas por uma igual já em andamento (shared)")
+                .tag("operation", operation)
+                .tag("role", role)
+                .register(meterRegistry);
+    }
+
+    private record Calls(Counter leader, Counter shared) {
+    }
+}
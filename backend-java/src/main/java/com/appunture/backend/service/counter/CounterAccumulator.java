@@ -0,0 +1,62 @@
+package com.appunture.backend.service.counter;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Acumula deltas de contadores por chave entre dois flushes.
+ *
+ * <p>Incrementos concorrentes caem em {@link LongAdder}s e não disputam lock; o flush drena cada
+ * chave com {@code sumThenReset}, de modo que um incremento concorrente entra neste ou no
+ * próximo flush, nunca se perde.</p>
+ */
+public final class CounterAccumulator {
+
+    private final ConcurrentHashMap<String, LongAdder> pending = new ConcurrentHashMap<>();
+
+    public void add(String key, long delta) {
+        pending.computeIfAbsent(key, k -> new LongAdder()).add(delta);
+    }
+
+    public long pending(String key) {
+        LongAdder adder = pending.get(key);
+        return adder != null ? adder.sum() : 0L;
+    }
+
+    /**
+     * Cópia dos saldos pendentes sem retirá-los, omitindo chaves cujo saldo é zero.
+     */
+    public Map<String, Long> snapshot() {
+        Map<String, Long> snapshot = new HashMap<>();
+        pending.forEach((key, adder) -> {
+            long delta = adder.sum();
+            if (delta != 0) {
+                snapshot.put(key, delta);
+            }
+        });
+        return snapshot;
+    }
+
+    /**
+     * Retira os deltas acumulados, omitindo chaves cujo saldo é zero.
+     */
+    public Map<String, Long> drain() {
+        Map<String, Long> drained = new HashMap<>();
+        pending.forEach((key, adder) -> {
+            long delta = adder.sumThenReset();
+            if (delta != 0) {
+                drained.put(key, delta);
+            }
+        });
+        return drained;
+    }
+
+    /**
+     * Devolve deltas de um flush que falhou para serem regravados no próximo.
+     */
+    public void restore(Map<String, Long> deltas) {
+        deltas.forEach(this::add);
+    }
+}
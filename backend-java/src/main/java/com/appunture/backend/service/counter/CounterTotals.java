@@ -0,0 +1,92 @@
+package com.appunture.backend.service.counter;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.Supplier;
+
+/**
+ * Totais de um contador já gravados nos documentos de estatísticas, carregados de uma vez e
+ * mantidos em memória por {@code app.counters.totals-ttl}.
+ *
+ * <p>A leitura corrente de um contador é o valor legado do documento do catálogo + este total
+ * + o saldo pendente. Depois de um flush, os deltas gravados entram aqui para sair do saldo
+ * pendente sem sumir da leitura até a próxima recarga.</p>
+ */
+@Slf4j
+final class CounterTotals {
+
+    private final String name;
+    private final Supplier<Map<String, Long>> loader;
+    private final Supplier<Duration> ttl;
+
+    private volatile Snapshot snapshot;
+
+    CounterTotals(String name, Supplier<Map<String, Long>> loader, Supplier<Duration> ttl) {
+        this.name = name;
+        this.loader = loader;
+        this.ttl = ttl;
+    }
+
+    long get(String key) {
+        return current().byKey().getOrDefault(key, 0L);
+    }
+
+    /**
+     * Valor já carregado, sem consultar o Firestore; 0 antes da primeira carga. Para quem roda
+     * sob o lock do catálogo.
+     */
+    long cached(String key) {
+        Snapshot current = snapshot;
+        return current != null ? current.byKey().getOrDefault(key, 0L) : 0L;
+    }
+
+    Map<String, Long> all() {
+        return current().byKey();
+    }
+
+    private Snapshot current() {
+        Snapshot current = snapshot;
+        long ttlNanos = ttl.get().toNanos();
+        if (current == null || System.nanoTime() - current.loadedAt() > ttlNanos) {
+            current = reload(ttlNanos);
+        }
+        return current;
+    }
+
+    private synchronized Snapshot reload(long ttlNanos) {
+        Snapshot current = snapshot;
+        if (current != null && System.nanoTime() - current.loadedAt() <= ttlNanos) {
+            return current;
+        }
+        try {
+            current = new Snapshot(Map.copyOf(loader.get()), System.nanoTime());
+        } catch (RuntimeException e) {
+            log.warn("Mantendo totais anteriores de {}: {}", name, e.getMessage());
+            current = new Snapshot(current != null ? current.byKey() : Map.of(), System.nanoTime());
+        }
+        snapshot = current;
+        return current;
+    }
+
+    /**
+     * Soma os deltas recém-gravados aos totais em memória.
+     *
+     * @param flushStarted {@code System.nanoTime()} do início do flush; uma carga posterior já
+     *                     inclui esses deltas e não é alterada
+     */
+    synchronized void merge(Map<String, Long> written, long flushStarted) {
+        Snapshot current = snapshot;
+        if (current == null || current.loadedAt() - flushStarted > 0 || written.isEmpty()) {
+            return;
+        }
+        Map<String, Long> merged = new HashMap<>(current.byKey());
+        written.forEach((key, delta) -> merged.merge(key, delta, Long::sum));
+        snapshot = new Snapshot(Map.copyOf(merged), current.loadedAt());
+    }
+
+    private record Snapshot(Map<String, Long> byKey, long loadedAt) {
+    }
+}
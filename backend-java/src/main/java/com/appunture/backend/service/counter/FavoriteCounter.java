@@ -0,0 +1,231 @@
+package com.appunture.backend.service.counter;
+
+import com.appunture.backend.config.CounterProperties;
+import com.appunture.backend.model.firestore.FirestorePoint;
+import com.appunture.backend.repository.firestore.FirestoreCatalog;
+import com.appunture.backend.repository.firestore.FirestorePointRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Contador de favoritos por ponto com escrita agregada.
+ *
+ * <p>Cliques de favoritar só incrementam um acumulador em memória; a cada
+ * {@code app.counters.flush-interval} os saldos viram uma escrita {@code FieldValue.increment}
+ * por ponto em {@code pointStats/{id}}, sem transação nem leitura. O documento do ponto não é
+ * tocado, então favoritar não muda a versão do catálogo nem os índices, ETags e pacotes
+ * derivados dela. Com {@code app.counters.favorite-shards > 0} a escrita vai para um shard
+ * aleatório. A leitura soma o campo legado do ponto + os totais gravados (em cache) + o saldo
+ * ainda não gravado.</p>
+ *
+ * <p>Como o antigo {@code Math.max(0, atual - 1)}, um saldo negativo nunca leva o valor gravado
+ * abaixo de zero: o flush limita o delta ao total já gravado. Instâncias que desfavoritam o mesmo
+ * ponto no mesmo ciclo ainda podem, juntas, passar de zero; a leitura limita a zero e o próximo
+ * favorito volta a contar a partir do valor gravado.</p>
+ *
+ * <p>Também mantém o ranking de pontos por favoritos: alterações do catálogo e cada clique
+ * reposicionam só o ponto afetado, e uma reconciliação periódica absorve os totais gravados e os
+ * incrementos de outras instâncias.</p>
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class FavoriteCounter {
+
+    private final FirestorePointRepository pointRepository;
+    private final CounterProperties counterProperties;
+    private final FirestoreCatalog catalog;
+    private final CounterAccumulator accumulator = new CounterAccumulator();
+    private final PopularityRanking ranking = new PopularityRanking();
+    private final CounterTotals storedTotals = new CounterTotals("favoritos", this::loadStoredTotals, this::totalsTtl);
+
+    @PostConstruct
+    void trackCatalog() {
+        catalog.addPointListener(this::pointChanged);
+    }
+
+    public void increment(String pointId) {
+        add(pointId, 1);
+    }
+
+    public void decrement(String pointId) {
+        add(pointId, -1);
+    }
+
+    /**
+     * Ignora IDs ausentes do catálogo carregado; sem catálogo, o flush descarta os inexistentes.
+     */
+    private void add(String pointId, long delta) {
+        if (pointId == null) {
+            return;
+        }
+        if (catalog.isPointsReady() && !catalog.containsPoint(pointId)) {
+            log.debug("Ignorando favorito do ponto desconhecido {}", pointId);
+            return;
+        }
+        // O lock do ranking mantém saldo pendente e posição coerentes com pointChanged
+        synchronized (ranking) {
+            accumulator.add(pointId, delta);
+            ranking.adjust(pointId, delta);
+        }
+    }
+
+    public int currentCount(FirestorePoint point) {
+        return liveCount(point, storedTotals.get(point.getId()));
+    }
+
+    private int liveCount(FirestorePoint point, long stored) {
+        long legacy = point.getFavoriteCount() != null ? point.getFavoriteCount() : 0;
+        long total = legacy + stored + accumulator.pending(point.getId());
+        return (int) Math.max(0, Math.min(Integer.MAX_VALUE, total));
+    }
+
+    /**
+     * Pontos mais favoritados a partir do ranking mantido em memória. Vazio quando o catálogo
+     * não está carregado ou o limite passa de {@code app.counters.popular-max-limit}.
+     */
+    public Optional<List<FirestorePoint>> topPoints(int limit) {
+        if (!catalog.isPointsReady() || limit > counterProperties.getPopularMaxLimit()) {
+            return Optional.empty();
+        }
+        List<FirestorePoint> points = new ArrayList<>(Math.max(limit, 0));
+        for (String pointId : ranking.top(limit)) {
+            catalog.findPointById(pointId).ifPresent(point -> {
+                point.setFavoriteCount((int) Math.min(Integer.MAX_VALUE, ranking.score(pointId)));
+                points.add(point);
+            });
+        }
+        return Optional.of(points);
+    }
+
+    @Scheduled(fixedDelayString = "${app.counters.ranking-reconcile-interval:PT1M}")
+    public void reconcileRanking() {
+        if (!catalog.isPointsReady()) {
+            return;
+        }
+        for (FirestorePoint point : catalog.allPoints()) {
+            long stored = storedTotals.get(point.getId());
+            synchronized (ranking) {
+                ranking.update(point.getId(), liveCount(point, stored));
+            }
+        }
+        ranking.retainIf(catalog::containsPoint);
+    }
+
+    private void pointChanged(String pointId, FirestorePoint point) {
+        synchronized (ranking) {
+            if (point == null) {
+                ranking.remove(pointId);
+            } else {
+                // Chamado sob o lock do catálogo: usa os totais já carregados, sem consultar
+                ranking.update(pointId, liveCount(point, storedTotals.cached(pointId)));
+            }
+        }
+    }
+
+    /**
+     * O próprio ponto quando o campo já está atualizado; senão uma cópia com o valor corrente.
+     */
+    public FirestorePoint withCurrentCount(FirestorePoint point) {
+        int current = currentCount(point);
+        if (point.getFavoriteCount() != null && point.getFavoriteCount() == current) {
+            return point;
+        }
+        FirestorePoint copy = FirestoreCatalog.copyOf(point);
+        copy.setFavoriteCount(current);
+        return copy;
+    }
+
+    @Scheduled(fixedDelayString = "${app.counters.flush-interval:PT2S}")
+    public void flush() {
+        Map<String, Long> drained = accumulator.drain();
+        if (drained.isEmpty()) {
+            return;
+        }
+        Map<String, Long> deltas;
+        try {
+            deltas = floorAtZero(drained);
+        } catch (RuntimeException e) {
+            log.warn("Falha ao ler favoritos gravados, tentando no próximo ciclo: {}", e.getMessage());
+            accumulator.restore(drained);
+            return;
+        }
+        if (deltas.isEmpty()) {
+            return;
+        }
+        int shards = counterProperties.getFavoriteShards();
+        Map<String, Long> written = new HashMap<>(deltas);
+        long flushStarted = System.nanoTime();
+        try {
+            Map<String, Long> failed = pointRepository.applyFavoriteDeltas(deltas, shards).failed();
+            accumulator.restore(failed);
+            written.keySet().removeAll(failed.keySet());
+        } catch (RuntimeException e) {
+            log.warn("Falha ao gravar {} contadores de favoritos, tentando no próximo ciclo: {}", deltas.size(), e.getMessage());
+            accumulator.restore(deltas);
+            return;
+        }
+        storedTotals.merge(written, flushStarted);
+        log.debug("Gravados favoritos de {} pontos", written.size());
+    }
+
+    @PreDestroy
+    void flushOnShutdown() {
+        flush();
+    }
+
+    /**
+     * Limita cada saldo negativo ao total já gravado do ponto; o excedente é descartado, como
+     * desfavoritar um ponto que já está em zero. Os valores legados dos pontos com saldo negativo
+     * vêm de uma única leitura.
+     */
+    private Map<String, Long> floorAtZero(Map<String, Long> deltas) {
+        List<String> negative = deltas.entrySet().stream()
+                .filter(entry -> entry.getValue() < 0)
+                .map(Map.Entry::getKey)
+                .toList();
+        if (negative.isEmpty()) {
+            return deltas;
+        }
+        Map<String, Integer> legacyCounts = new HashMap<>();
+        for (FirestorePoint point : pointRepository.findAllById(negative)) {
+            legacyCounts.put(point.getId(), point.getFavoriteCount() != null ? point.getFavoriteCount() : 0);
+        }
+        Map<String, Long> floored = new HashMap<>(deltas);
+        deltas.forEach((pointId, delta) -> {
+            if (delta >= 0) {
+                return;
+            }
+            long stored = Math.max(0, legacyCounts.getOrDefault(pointId, 0) + storedTotals.get(pointId));
+            if (stored + delta >= 0) {
+                return;
+            }
+            log.debug("Descartando {} desfavoritos do ponto {} já em zero", -(stored + delta), pointId);
+            if (stored > 0) {
+                floored.put(pointId, -stored);
+            } else {
+                floored.remove(pointId);
+            }
+        });
+        return floored;
+    }
+
+    private Map<String, Long> loadStoredTotals() {
+        return pointRepository.sumFavoriteCounts(counterProperties.getFavoriteShards() > 0);
+    }
+
+    private Duration totalsTtl() {
+        return counterProperties.getTotalsTtl();
+    }
+}
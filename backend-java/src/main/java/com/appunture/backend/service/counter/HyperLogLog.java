@@ -0,0 +1,112 @@
+package com.appunture.backend.service.counter;
+
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+/**
+ * Sketch HyperLogLog para contar valores distintos (ex.: usuários que viram um ponto) em
+ * memória constante.
+ *
+ * <p>Usa 2^{@value #PRECISION} registradores de 1 byte, empacotados 4 por {@code int} e
+ * atualizados por CAS, então {@link #offer} pode ser chamado de várias threads sem lock. O erro
+ * padrão da estimativa é ~1,6%. {@link #toBytes()} e {@link #merge(byte[])} permitem persistir
+ * e combinar sketches de várias instâncias (máximo por registrador).</p>
+ */
+public final class HyperLogLog {
+
+    public static final int PRECISION = 12;
+    public static final int REGISTERS = 1 << PRECISION;
+
+    private static final int MAX_RANK = Long.SIZE - PRECISION + 1;
+    private static final double ALPHA = 0.7213 / (1 + 1.079 / REGISTERS);
+
+    private final AtomicIntegerArray packed = new AtomicIntegerArray(REGISTERS / 4);
+
+    public void offer(String value) {
+        long hash = hash64(value);
+        int register = (int) (hash >>> (Long.SIZE - PRECISION));
+        long remaining = hash << PRECISION;
+        int rank = remaining == 0 ? MAX_RANK : Math.min(MAX_RANK, Long.numberOfLeadingZeros(remaining) + 1);
+        raise(register, rank);
+    }
+
+    public long estimate() {
+        double sum = 0;
+        int zeros = 0;
+        for (int register = 0; register < REGISTERS; register++) {
+            int rank = get(register);
+            sum += 1.0 / (1L << rank);
+            if (rank == 0) {
+                zeros++;
+            }
+        }
+        double estimate = ALPHA * REGISTERS * REGISTERS / sum;
+        if (estimate <= 2.5 * REGISTERS && zeros > 0) {
+            // Correção para cardinalidades pequenas (linear counting)
+            estimate = REGISTERS * Math.log((double) REGISTERS / zeros);
+        }
+        return Math.round(estimate);
+    }
+
+    public byte[] toBytes() {
+        byte[] registers = new byte[REGISTERS];
+        for (int register = 0; register < REGISTERS; register++) {
+            registers[register] = (byte) get(register);
+        }
+        return registers;
+    }
+
+    public void merge(byte[] registers) {
+        if (registers == null || registers.length != REGISTERS) {
+            return;
+        }
+        for (int register = 0; register < REGISTERS; register++) {
+            raise(register, registers[register]);
+        }
+    }
+
+    public static byte[] mergeBytes(byte[] left, byte[] right) {
+        byte[] merged = new byte[REGISTERS];
+        for (int register = 0; register < REGISTERS; register++) {
+            byte a = left != null && left.length == REGISTERS ? left[register] : 0;
+            byte b = right != null && right.length == REGISTERS ? right[register] : 0;
+            merged[register] = (byte) Math.max(a, b);
+        }
+        return merged;
+    }
+
+    private int get(int register) {
+        return (packed.get(register >> 2) >>> ((register & 3) * 8)) & 0xFF;
+    }
+
+    private void raise(int register, int rank) {
+        int slot = register >> 2;
+        int shift = (register & 3) * 8;
+        while (true) {
+            int word = packed.get(slot);
+            if (((word >>> shift) & 0xFF) >= rank) {
+                return;
+            }
+            int updated = (word & ~(0xFF << shift)) | (rank << shift);
+            if (packed.compareAndSet(slot, word, updated)) {
+                return;
+            }
+        }
+    }
+
+    /**
+     * FNV-1a de 64 bits seguido do finalizador do MurmurHash3, para espalhar bem os bits altos.
+     */
+    static long hash64(String value) {
+        long hash = 0xcbf29ce484222325L;
+        for (int i = 0; i < value.length(); i++) {
+            hash ^= value.charAt(i);
+            hash *= 0x100000001b3L;
+        }
+        hash ^= hash >>> 33;
+        hash *= 0xff51afd7ed558ccdL;
+        hash ^= hash >>> 33;
+        hash *= 0xc4ceb9fe1a85ec53L;
+        hash ^= hash >>> 33;
+        return hash;
+    }
+}
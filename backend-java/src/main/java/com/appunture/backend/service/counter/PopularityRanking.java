@@ -0,0 +1,88 @@
+package com.appunture.backend.service.counter;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.function.Predicate;
+
+/**
+ * Ranking de chaves por pontuação mantido incrementalmente.
+ *
+ * <p>Uma skip list ordenada por (pontuação desc, chave asc) mais um índice chave → entrada: cada
+ * alteração remove e reinsere só a entrada afetada em O(log n), e os K primeiros são lidos sem
+ * lock e sem ordenar a coleção inteira.</p>
+ */
+public final class PopularityRanking {
+
+    private static final Comparator<Entry> ORDER = Comparator.comparingLong(Entry::score).reversed()
+            .thenComparing(Entry::key);
+
+    private final NavigableSet<Entry> ordered = new ConcurrentSkipListSet<>(ORDER);
+    private final Map<String, Entry> byKey = new ConcurrentHashMap<>();
+
+    public synchronized void update(String key, long score) {
+        Entry previous = byKey.get(key);
+        if (previous != null && previous.score() == score) {
+            return;
+        }
+        Entry entry = new Entry(key, score);
+        if (previous != null) {
+            ordered.remove(previous);
+        }
+        ordered.add(entry);
+        byKey.put(key, entry);
+    }
+
+    /**
+     * Soma {@code delta} à pontuação de uma chave já presente; chaves desconhecidas são ignoradas.
+     */
+    public synchronized void adjust(String key, long delta) {
+        Entry previous = byKey.get(key);
+        if (previous != null) {
+            update(key, previous.score() + delta);
+        }
+    }
+
+    public synchronized void remove(String key) {
+        Entry previous = byKey.remove(key);
+        if (previous != null) {
+            ordered.remove(previous);
+        }
+    }
+
+    /**
+     * Remove as chaves que não satisfazem {@code keep}.
+     */
+    public synchronized void retainIf(Predicate<String> keep) {
+        new ArrayList<>(byKey.keySet()).stream()
+                .filter(keep.negate())
+                .forEach(this::remove);
+    }
+
+    public List<String> top(int limit) {
+        List<String> keys = new ArrayList<>(Math.min(Math.max(limit, 0), byKey.size()));
+        for (Entry entry : ordered) {
+            if (keys.size() >= limit) {
+                break;
+            }
+            keys.add(entry.key());
+        }
+        return keys;
+    }
+
+    public long score(String key) {
+        Entry entry = byKey.get(key);
+        return entry != null ? entry.score() : 0;
+    }
+
+    public int size() {
+        return byKey.size();
+    }
+
+    private record Entry(String key, long score) {
+    }
+}
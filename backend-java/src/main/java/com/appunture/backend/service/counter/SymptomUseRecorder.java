@@ -0,0 +1,147 @@
+package com.appunture.backend.service.counter;
+
+import com.appunture.backend.config.CounterProperties;
+import com.appunture.backend.model.firestore.FirestoreSymptom;
+import com.appunture.backend.repository.firestore.CounterWriteResult;
+import com.appunture.backend.repository.firestore.FirestoreCatalog;
+import com.appunture.backend.repository.firestore.FirestoreSymptomRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Registro assíncrono do uso de sintomas.
+ *
+ * <p>Cada seleção de sintoma só incrementa o acumulador em memória; o flush agendado grava os
+ * saldos com {@code FieldValue.increment} em lote em {@code symptomStats/{id}}, sem transação nem
+ * leitura e sem tocar o documento do sintoma (a versão do catálogo não muda). A leitura soma o
+ * campo legado do sintoma + os totais gravados (em cache) + o saldo pendente. O atraso do saldo
+ * mais antigo ainda não gravado e os incrementos descartados (sintoma removido antes do flush ou
+ * falha no desligamento) são expostos no Micrometer.</p>
+ */
+@Service
+@Slf4j
+public class SymptomUseRecorder {
+
+    private static final String COUNTER_TAG = "symptom_use";
+
+    private final FirestoreSymptomRepository symptomRepository;
+    private final FirestoreCatalog catalog;
+    private final CounterAccumulator accumulator = new CounterAccumulator();
+    private final CounterTotals storedTotals;
+    /** Instante (nanoTime) do incremento pendente mais antigo; 0 quando não há pendências. */
+    private final AtomicLong oldestPending = new AtomicLong();
+    private final Counter flushedCounter;
+    private final Counter droppedCounter;
+
+    public SymptomUseRecorder(FirestoreSymptomRepository symptomRepository, FirestoreCatalog catalog,
+                              CounterProperties counterProperties, MeterRegistry meterRegistry) {
+        this.symptomRepository = symptomRepository;
+        this.catalog = catalog;
+        this.storedTotals = new CounterTotals("usos de sintomas", symptomRepository::sumUseCounts, counterProperties::getTotalsTtl);
+        Gauge.builder("app_counter_flush_lag_seconds", this, SymptomUseRecorder::flushLagSeconds)
+                .description("Idade do incremento mais antigo ainda não gravado")
+                .tag("counter", COUNTER_TAG)
+                .register(meterRegistry);
+        this.flushedCounter = Counter.builder("app_counter_flushed_total")
+                .description("Incrementos gravados no Firestore")
+                .tag("counter", COUNTER_TAG)
+                .register(meterRegistry);
+        this.droppedCounter = Counter.builder("app_counter_dropped_total")
+                .description("Incrementos descartados (documento removido ou falha no desligamento)")
+                .tag("counter", COUNTER_TAG)
+                .register(meterRegistry);
+    }
+
+    /**
+     * Ignora IDs ausentes do catálogo carregado; sem catálogo, o flush descarta os inexistentes.
+     */
+    public void record(String symptomId) {
+        if (symptomId == null) {
+            return;
+        }
+        if (catalog.isSymptomsReady() && !catalog.containsSymptom(symptomId)) {
+            log.debug("Ignorando uso do sintoma desconhecido {}", symptomId);
+            return;
+        }
+        accumulator.add(symptomId, 1);
+        oldestPending.compareAndSet(0, System.nanoTime());
+    }
+
+    public long pending(String symptomId) {
+        return accumulator.pending(symptomId);
+    }
+
+    /**
+     * O próprio sintoma quando não há usos gravados nem pendentes; senão uma cópia com o valor
+     * corrente.
+     */
+    public FirestoreSymptom withLiveCount(FirestoreSymptom symptom) {
+        long recorded = storedTotals.get(symptom.getId()) + accumulator.pending(symptom.getId());
+        if (recorded == 0) {
+            return symptom;
+        }
+        long legacy = symptom.getUseCount() != null ? symptom.getUseCount() : 0;
+        FirestoreSymptom copy = FirestoreCatalog.copyOf(symptom);
+        copy.setUseCount((int) Math.max(0, Math.min(Integer.MAX_VALUE, legacy + recorded)));
+        return copy;
+    }
+
+    @Scheduled(fixedDelayString = "${app.counters.flush-interval:PT2S}")
+    public void flush() {
+        flush(false);
+    }
+
+    @PreDestroy
+    void flushOnShutdown() {
+        flush(true);
+    }
+
+    private void flush(boolean shuttingDown) {
+        long oldest = oldestPending.getAndSet(0);
+        Map<String, Long> deltas = accumulator.drain();
+        if (deltas.isEmpty()) {
+            return;
+        }
+        Map<String, Long> failed;
+        long flushStarted = System.nanoTime();
+        try {
+            CounterWriteResult result = symptomRepository.applyUseCountDeltas(deltas);
+            failed = result.failed();
+            droppedCounter.increment(result.dropped());
+        } catch (RuntimeException e) {
+            log.warn("Falha ao gravar uso de {} sintomas: {}", deltas.size(), e.getMessage());
+            failed = deltas;
+        }
+        long failedTotal = failed.values().stream().mapToLong(Long::longValue).sum();
+        flushedCounter.increment(deltas.values().stream().mapToLong(Long::longValue).sum() - failedTotal);
+        Map<String, Long> written = new HashMap<>(deltas);
+        written.keySet().removeAll(failed.keySet());
+        storedTotals.merge(written, flushStarted);
+        if (failed.isEmpty()) {
+            return;
+        }
+        if (shuttingDown) {
+            log.error("Descartando uso de {} sintomas não gravado no desligamento", failed.size());
+            droppedCounter.increment(failedTotal);
+            return;
+        }
+        accumulator.restore(failed);
+        // Mantém a idade original dos saldos devolvidos
+        oldestPending.accumulateAndGet(oldest, (current, restored) ->
+                current == 0 || (restored != 0 && restored - current < 0) ? restored : current);
+    }
+
+    private double flushLagSeconds() {
+        long oldest = oldestPending.get();
+        return oldest == 0 ? 0 : (System.nanoTime() - oldest) / 1e9;
+    }
+}
@@ -0,0 +1,156 @@
+package com.appunture.backend.service.counter;
+
+import com.appunture.backend.config.CounterProperties;
+import com.appunture.backend.model.firestore.FirestorePoint;
+import com.appunture.backend.repository.firestore.FirestorePointRepository;
+import com.appunture.backend.security.FirebaseAuthenticationFilter.FirebaseAuthDetails;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import jakarta.annotation.PreDestroy;
+import jakarta.servlet.http.HttpServletRequest;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Service;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Registro de visualizações de pontos fora do caminho de leitura.
+ *
+ * <p>Cada visualização só incrementa o acumulador em memória e o sketch HyperLogLog de
+ * visitantes ainda não gravados do ponto. O flush agendado grava os saldos de {@code viewCount}
+ * em lote em {@code pointStats/{id}}, sem tocar o documento do ponto, e combina todos os sketches
+ * alterados com os persistidos em uma transação por lote. Assim o alcance (visitantes distintos)
+ * é estimado sem guardar listas de usuários.</p>
+ *
+ * <p>Os registradores persistidos ficam em um cache limitado a {@code app.counters.viewer-sketches}
+ * pontos e são relidos depois de {@code app.counters.viewer-sketch-ttl}, para que o alcance
+ * inclua visitantes vistos por outras instâncias mesmo quando este ponto não recebe visitas
+ * locais.</p>
+ */
+@Service
+@Slf4j
+public class ViewTracker {
+
+    private static final byte[] NO_REGISTERS = new byte[0];
+
+    private final FirestorePointRepository pointRepository;
+    private final CounterAccumulator views = new CounterAccumulator();
+    private final CounterTotals storedViews;
+    private final ConcurrentHashMap<String, HyperLogLog> unflushedViewers = new ConcurrentHashMap<>();
+    private final Cache<String, byte[]> persistedViewers;
+
+    public ViewTracker(FirestorePointRepository pointRepository, CounterProperties counterProperties) {
+        this.pointRepository = pointRepository;
+        this.storedViews = new CounterTotals("visualizações", pointRepository::sumViewCounts, counterProperties::getTotalsTtl);
+        this.persistedViewers = Caffeine.newBuilder()
+                .maximumSize(counterProperties.getViewerSketches())
+                .expireAfterWrite(counterProperties.getViewerSketchTtl())
+                .build();
+    }
+
+    public void recordView(String pointId) {
+        if (pointId == null) {
+            return;
+        }
+        views.add(pointId, 1);
+        String viewer = currentViewer();
+        // compute é atômico por chave: o flush nunca serializa um sketch que ainda recebe visitas
+        unflushedViewers.compute(pointId, (id, sketch) -> offer(sketch, viewer));
+    }
+
+    public long viewCount(FirestorePoint point) {
+        long legacy = point.getViewCount() != null ? point.getViewCount() : 0;
+        return legacy + storedViews.get(point.getId()) + views.pending(point.getId());
+    }
+
+    public long uniqueViewers(String pointId) {
+        HyperLogLog sketch = new HyperLogLog();
+        sketch.merge(persistedViewers.get(pointId, id ->
+                Objects.requireNonNullElse(pointRepository.findViewerRegisters(id), NO_REGISTERS)));
+        HyperLogLog unflushed = unflushedViewers.get(pointId);
+        if (unflushed != null) {
+            sketch.merge(unflushed.toBytes());
+        }
+        return sketch.estimate();
+    }
+
+    @Scheduled(fixedDelayString = "${app.counters.flush-interval:PT2S}")
+    public void flush() {
+        Map<String, Long> deltas = views.drain();
+        if (!deltas.isEmpty()) {
+            long flushStarted = System.nanoTime();
+            Map<String, Long> written = new HashMap<>(deltas);
+            try {
+                Map<String, Long> failed = pointRepository.applyViewDeltas(deltas).failed();
+                views.restore(failed);
+                written.keySet().removeAll(failed.keySet());
+                storedViews.merge(written, flushStarted);
+            } catch (RuntimeException e) {
+                log.warn("Falha ao gravar {} contadores de visualização: {}", deltas.size(), e.getMessage());
+                views.restore(deltas);
+            }
+        }
+
+        Map<String, byte[]> changed = new HashMap<>();
+        for (String pointId : List.copyOf(unflushedViewers.keySet())) {
+            HyperLogLog sketch = unflushedViewers.remove(pointId);
+            if (sketch != null) {
+                changed.put(pointId, sketch.toBytes());
+            }
+        }
+        if (changed.isEmpty()) {
+            return;
+        }
+        try {
+            // O resultado inclui visitantes vistos por outras instâncias
+            persistedViewers.putAll(pointRepository.mergeViewerRegisters(changed, HyperLogLog::mergeBytes));
+        } catch (RuntimeException e) {
+            log.warn("Falha ao gravar visitantes únicos de {} pontos: {}", changed.size(), e.getMessage());
+            changed.forEach((pointId, registers) ->
+                    unflushedViewers.compute(pointId, (id, sketch) -> restore(sketch, registers)));
+        }
+    }
+
+    @PreDestroy
+    void flushOnShutdown() {
+        flush();
+    }
+
+    private static HyperLogLog offer(HyperLogLog sketch, String viewer) {
+        HyperLogLog target = sketch != null ? sketch : new HyperLogLog();
+        target.offer(viewer);
+        return target;
+    }
+
+    private static HyperLogLog restore(HyperLogLog sketch, byte[] registers) {
+        HyperLogLog target = sketch != null ? sketch : new HyperLogLog();
+        target.merge(registers);
+        return target;
+    }
+
+    /**
+     * Usuário autenticado quando houver; senão IP + User-Agent, que só entram no hash do sketch.
+     */
+    private static String currentViewer() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication != null && authentication.getDetails() instanceof FirebaseAuthDetails details
+                && details.getUid() != null) {
+            return "uid:" + details.getUid();
+        }
+        if (RequestContextHolder.getRequestAttributes() instanceof ServletRequestAttributes attributes) {
+            HttpServletRequest request = attributes.getRequest();
+            // Atrás de proxy, server.forward-headers-strategy resolve o IP só a partir de proxies confiáveis
+            return "ip:" + request.getRemoteAddr() + "|" + request.getHeader("User-Agent");
+        }
+        return "anonymous";
+    }
+}
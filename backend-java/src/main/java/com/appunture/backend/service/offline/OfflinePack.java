@@ -0,0 +1,17 @@
+package com.appunture.backend.service.offline;
+
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+
+/**
+ * Pacote offline gerado: arquivo SQLite comprimido em gzip, com o SHA-256 do arquivo
+ * comprimido (usado como ETag) e o token para continuar pelo {@code /sync/changes}.
+ */
+public record OfflinePack(long pointsVersion,
+                          long symptomsVersion,
+                          Path file,
+                          long size,
+                          String sha256,
+                          String syncToken,
+                          LocalDateTime generatedAt) {
+}
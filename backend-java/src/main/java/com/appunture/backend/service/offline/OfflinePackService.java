@@ -0,0 +1,154 @@
+package com.appunture.backend.service.offline;
+
+import com.appunture.backend.exception.DataSourceUnavailableException;
+import com.appunture.backend.model.firestore.FirestorePoint;
+import com.appunture.backend.model.firestore.FirestoreSymptom;
+import com.appunture.backend.repository.firestore.FirestoreCatalog;
+import com.appunture.backend.service.SyncService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.DigestOutputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.zip.Deflater;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Mantém o pacote SQLite offline do catálogo. Uma verificação periódica reconstrói o arquivo
+ * quando as versões do catálogo mudam; o pacote anterior continua no disco até a próxima troca,
+ * para não cortar downloads em andamento.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class OfflinePackService {
+
+    static final String SCHEMA_VERSION = "1";
+
+    private final FirestoreCatalog catalog;
+    private final SyncService syncService;
+    private final ObjectMapper objectMapper;
+    private final Object buildLock = new Object();
+    private volatile OfflinePack current;
+    private OfflinePack previous;
+    private Path directory;
+
+    /**
+     * Pacote da versão atual do catálogo, gerado na hora se ainda não existir; vazio enquanto o
+     * catálogo não estiver carregado.
+     */
+    public Optional<OfflinePack> current() {
+        if (current == null) {
+            rebuildIfStale();
+        }
+        return Optional.ofNullable(current);
+    }
+
+    @Scheduled(fixedDelayString = "${app.sync.pack-check-interval:PT30S}")
+    public void rebuildIfStale() {
+        if (!catalog.isPointsReady() || !catalog.isSymptomsReady()) {
+            return;
+        }
+        synchronized (buildLock) {
+            long pointsVersion = catalog.pointsVersion();
+            long symptomsVersion = catalog.symptomsVersion();
+            OfflinePack pack = current;
+            if (pack != null && pack.pointsVersion() == pointsVersion && pack.symptomsVersion() == symptomsVersion) {
+                return;
+            }
+            try {
+                OfflinePack built = build(pointsVersion, symptomsVersion);
+                if (previous != null) {
+                    Files.deleteIfExists(previous.file());
+                }
+                previous = current;
+                current = built;
+                log.info("Pacote offline gerado: {} bytes (pontos v{}, sintomas v{})", built.size(), pointsVersion, symptomsVersion);
+            } catch (IOException | SQLException e) {
+                log.error("Falha ao gerar pacote offline: {}", e.getMessage(), e);
+            } catch (DataSourceUnavailableException e) {
+                // Mantém o pacote atual; a próxima verificação tenta de novo
+                log.warn("Pacote offline adiado: {}", e.getMessage());
+            }
+        }
+    }
+
+    @PreDestroy
+    void deletePacks() {
+        synchronized (buildLock) {
+            for (OfflinePack pack : new OfflinePack[] {previous, current}) {
+                if (pack != null) {
+                    try {
+                        Files.deleteIfExists(pack.file());
+                    } catch (IOException e) {
+                        log.debug("Não foi possível remover {}: {}", pack.file(), e.getMessage());
+                    }
+                }
+            }
+        }
+    }
+
+    private OfflinePack build(long pointsVersion, long symptomsVersion) throws IOException, SQLException {
+        // Versões lidas antes das listas: o conteúdo nunca é mais antigo que o rótulo
+        LocalDateTime generatedAt = LocalDateTime.now();
+        List<FirestorePoint> points = catalog.allPoints();
+        List<FirestoreSymptom> symptoms = catalog.allSymptoms();
+        String syncToken = syncService.resumeToken(points, symptoms, generatedAt).encode();
+
+        Map<String, String> meta = new LinkedHashMap<>();
+        meta.put("schema_version", SCHEMA_VERSION);
+        meta.put("catalog_version", "p" + pointsVersion + "-s" + symptomsVersion);
+        meta.put("generated_at", generatedAt.toString());
+        meta.put("sync_token", syncToken);
+
+        Path sqlite = Files.createTempFile(directory(), "catalog-", ".sqlite");
+        try {
+            OfflinePackWriter.write(sqlite, points, symptoms, meta, objectMapper);
+            Path compressed = Files.createTempFile(directory(), "catalog-", ".sqlite.gz");
+            String sha256 = gzip(sqlite, compressed);
+            return new OfflinePack(pointsVersion, symptomsVersion, compressed, Files.size(compressed), sha256, syncToken, generatedAt);
+        } finally {
+            Files.deleteIfExists(sqlite);
+        }
+    }
+
+    private Path directory() throws IOException {
+        if (directory == null) {
+            directory = Files.createTempDirectory("offline-pack");
+        }
+        return directory;
+    }
+
+    private static String gzip(Path source, Path target) throws IOException {
+        MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+        try (InputStream in = Files.newInputStream(source);
+             OutputStream out = new GZIPOutputStream(new DigestOutputStream(Files.newOutputStream(target), digest)) {{
+                 def.setLevel(Deflater.BEST_COMPRESSION);
+             }}) {
+            in.transferTo(out);
+        }
+        return HexFormat.of().formatHex(digest.digest());
+    }
+}
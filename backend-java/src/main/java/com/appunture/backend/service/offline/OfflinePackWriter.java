@@ -0,0 +1,190 @@
+package com.appunture.backend.service.offline;
+
+import com.appunture.backend.model.firestore.FirestorePoint;
+import com.appunture.backend.model.firestore.FirestoreSymptom;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Types;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Gera o arquivo SQLite do pacote offline com o mesmo esquema das tabelas de catálogo do app
+ * ({@code points}, {@code symptoms}, {@code symptom_points}), além de tabelas FTS5 para busca e
+ * de {@code pack_meta} com versão e token de sincronização.
+ */
+final class OfflinePackWriter {
+
+    private static final String[] SCHEMA = {
+        "PRAGMA journal_mode = OFF",
+        "PRAGMA synchronous = OFF",
+        """
+        CREATE TABLE points (
+          id TEXT PRIMARY KEY,
+          code TEXT,
+          name TEXT NOT NULL,
+          chinese_name TEXT,
+          meridian TEXT NOT NULL,
+          location TEXT NOT NULL,
+          functions TEXT,
+          indications TEXT,
+          contraindications TEXT,
+          image_path TEXT,
+          coordinates TEXT,
+          favorite_count INTEGER,
+          synced INTEGER DEFAULT 1,
+          last_sync DATETIME
+        )""",
+        """
+        CREATE TABLE symptoms (
+          id TEXT PRIMARY KEY,
+          name TEXT NOT NULL,
+          synonyms TEXT,
+          category TEXT,
+          use_count INTEGER,
+          synced INTEGER DEFAULT 1,
+          last_sync DATETIME
+        )""",
+        """
+        CREATE TABLE symptom_points (
+          symptom_id TEXT NOT NULL,
+          point_id TEXT NOT NULL,
+          efficacy_score REAL DEFAULT 1.0,
+          PRIMARY KEY(symptom_id, point_id)
+        )""",
+        "CREATE TABLE pack_meta (key TEXT PRIMARY KEY, value TEXT NOT NULL)",
+        "CREATE INDEX idx_points_meridian ON points(meridian)",
+        "CREATE INDEX idx_points_name ON points(name)",
+        "CREATE INDEX idx_symptoms_category ON symptoms(category)",
+        "CREATE INDEX idx_symptom_points_symptom ON symptom_points(symptom_id)",
+        "CREATE INDEX idx_symptom_points_point ON symptom_points(point_id)",
+        """
+        CREATE VIRTUAL TABLE points_fts USING fts5(
+          code, name, meridian, location, indications,
+          content = 'points', tokenize = 'unicode61 remove_diacritics 2'
+        )""",
+        """
+        CREATE VIRTUAL TABLE symptoms_fts USING fts5(
+          name, synonyms, category,
+          content = 'symptoms', tokenize = 'unicode61 remove_diacritics 2'
+        )"""
+    };
+
+    private OfflinePackWriter() {
+    }
+
+    /**
+     * Cria {@code target} (que não deve existir) com o catálogo informado.
+     */
+    static void write(Path target,
+                      List<FirestorePoint> points,
+                      List<FirestoreSymptom> symptoms,
+                      Map<String, String> meta,
+                      ObjectMapper objectMapper) throws SQLException {
+        String lastSync = meta.get("generated_at");
+        try (Connection connection = DriverManager.getConnection("jdbc:sqlite:" + target.toAbsolutePath())) {
+            try (Statement statement = connection.createStatement()) {
+                for (String ddl : SCHEMA) {
+                    statement.execute(ddl);
+                }
+            }
+            connection.setAutoCommit(false);
+
+            Set<List<String>> links = new LinkedHashSet<>();
+            try (PreparedStatement insert = connection.prepareStatement(
+                    "INSERT INTO points (id, code, name, meridian, location, indications, image_path, coordinates, favorite_count, synced, last_sync) "
+                            + "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, 1, ?)")) {
+                for (FirestorePoint point : points) {
+                    insert.setString(1, point.getId());
+                    insert.setString(2, point.getCode());
+                    insert.setString(3, orEmpty(point.getName()));
+                    insert.setString(4, orEmpty(point.getMeridian()));
+                    insert.setString(5, orEmpty(point.getLocation()));
+                    insert.setString(6, point.getIndication());
+                    insert.setString(7, point.getImageUrls() == null || point.getImageUrls().isEmpty() ? null : point.getImageUrls().get(0));
+                    insert.setString(8, point.getCoordinates() == null ? null : json(objectMapper, point.getCoordinates()));
+                    setInteger(insert, 9, point.getFavoriteCount());
+                    insert.setString(10, lastSync);
+                    insert.addBatch();
+                    if (point.getSymptomIds() != null) {
+                        point.getSymptomIds().forEach(symptomId -> links.add(List.of(symptomId, point.getId())));
+                    }
+                }
+                insert.executeBatch();
+            }
+
+            try (PreparedStatement insert = connection.prepareStatement(
+                    "INSERT INTO symptoms (id, name, synonyms, category, use_count, synced, last_sync) VALUES (?, ?, ?, ?, ?, 1, ?)")) {
+                for (FirestoreSymptom symptom : symptoms) {
+                    insert.setString(1, symptom.getId());
+                    insert.setString(2, orEmpty(symptom.getName()));
+                    insert.setString(3, symptom.getTags() == null ? null : json(objectMapper, symptom.getTags()));
+                    insert.setString(4, symptom.getCategory());
+                    setInteger(insert, 5, symptom.getUseCount());
+                    insert.setString(6, lastSync);
+                    insert.addBatch();
+                    if (symptom.getPointIds() != null) {
+                        symptom.getPointIds().forEach(pointId -> links.add(List.of(symptom.getId(), pointId)));
+                    }
+                }
+                insert.executeBatch();
+            }
+
+            // As duas pontas da relação podem divergir; o pacote usa a união, como o grafo em memória
+            try (PreparedStatement insert = connection.prepareStatement(
+                    "INSERT INTO symptom_points (symptom_id, point_id, efficacy_score) VALUES (?, ?, 1.0)")) {
+                for (List<String> link : links) {
+                    insert.setString(1, link.get(0));
+                    insert.setString(2, link.get(1));
+                    insert.addBatch();
+                }
+                insert.executeBatch();
+            }
+
+            try (PreparedStatement insert = connection.prepareStatement("INSERT INTO pack_meta (key, value) VALUES (?, ?)")) {
+                for (Map.Entry<String, String> entry : meta.entrySet()) {
+                    insert.setString(1, entry.getKey());
+                    insert.setString(2, entry.getValue());
+                    insert.addBatch();
+                }
+                insert.executeBatch();
+            }
+
+            try (Statement statement = connection.createStatement()) {
+                statement.execute("INSERT INTO points_fts(points_fts) VALUES('rebuild')");
+                statement.execute("INSERT INTO symptoms_fts(symptoms_fts) VALUES('rebuild')");
+                statement.execute("ANALYZE");
+            }
+            connection.commit();
+        }
+    }
+
+    private static void setInteger(PreparedStatement statement, int index, Integer value) throws SQLException {
+        if (value == null) {
+            statement.setNull(index, Types.INTEGER);
+        } else {
+            statement.setInt(index, value);
+        }
+    }
+
+    private static String orEmpty(String value) {
+        return value == null ? "" : value;
+    }
+
+    private static String json(ObjectMapper objectMapper, Object value) {
+        try {
+            return objectMapper.writeValueAsString(value);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Falha ao serializar campo do pacote offline", e);
+        }
+    }
+}
@@ -0,0 +1,291 @@
+package com.appunture.backend.service.search;
+
+import com.appunture.backend.dto.point.PointSuggestion;
+import com.appunture.backend.model.firestore.FirestorePoint;
+import com.appunture.backend.repository.firestore.FirestoreCatalog;
+import com.appunture.backend.repository.firestore.VersionedIndex;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Trie compacta para autocompletar pontos por código, nome e tags.
+ *
+ * <p>Cada nó guarda as {@value #MAX_SUGGESTIONS} melhores sugestões da sua subárvore, ordenadas
+ * por {@code favoriteCount}, calculadas na construção. A consulta só percorre arrays
+ * primitivos e devolve uma view da lista pré-montada, sem acessar o Firestore.</p>
+ */
+@Component
+public class PointAutocompleteIndex {
+
+    public static final int MAX_SUGGESTIONS = 10;
+
+    private static final char SKIP = '\0';
+    private static final char SEPARATOR = ' ';
+    private static final char[] FOLD_TABLE = buildFoldTable(0x0370);
+
+    private final FirestoreCatalog catalog;
+    private final VersionedIndex<Trie> trie;
+
+    public PointAutocompleteIndex(FirestoreCatalog catalog) {
+        this.catalog = catalog;
+        this.trie = new VersionedIndex<>(catalog::pointsVersion, () -> Trie.build(catalog.allPoints()));
+    }
+
+    public boolean isAvailable() {
+        return catalog.isPointsReady();
+    }
+
+    public List<PointSuggestion> suggest(String prefix, int limit) {
+        if (prefix == null || limit <= 0) {
+            return List.of();
+        }
+        return trie.get().suggest(prefix, Math.min(limit, MAX_SUGGESTIONS));
+    }
+
+    public static PointSuggestion toSuggestion(FirestorePoint point) {
+        return PointSuggestion.builder()
+                .id(point.getId())
+                .code(point.getCode())
+                .name(point.getName())
+                .meridian(point.getMeridian())
+                .favoriteCount(favoriteCount(point))
+                .build();
+    }
+
+    public static Comparator<FirestorePoint> popularityOrder() {
+        return Comparator.comparingInt(PointAutocompleteIndex::favoriteCount).reversed()
+                .thenComparing(FirestorePoint::getCode, Comparator.nullsLast(Comparator.naturalOrder()));
+    }
+
+    private static int favoriteCount(FirestorePoint point) {
+        return point.getFavoriteCount() != null ? point.getFavoriteCount() : 0;
+    }
+
+    /**
+     * Dobra um caractere para a forma usada nas chaves: minúsculo e sem acento, {@link #SKIP} para
+     * marcas combinantes e {@link #SEPARATOR} para pontuação e espaços.
+     */
+    private static char fold(char c) {
+        if (c < FOLD_TABLE.length) {
+            return FOLD_TABLE[c];
+        }
+        return Character.isLetterOrDigit(c) ? Character.toLowerCase(c) : SEPARATOR;
+    }
+
+    private static char[] buildFoldTable(int size) {
+        char[] table = new char[size];
+        for (char c = 0; c < size; c++) {
+            String folded = TextNormalizer.fold(String.valueOf(c));
+            if (folded.isEmpty()) {
+                table[c] = SKIP;
+            } else if (!Character.isLetterOrDigit(folded.charAt(0))) {
+                table[c] = SEPARATOR;
+            } else {
+                table[c] = folded.length() == 1 ? folded.charAt(0) : Character.toLowerCase(c);
+            }
+        }
+        return table;
+    }
+
+    private static String normalizeKey(String text) {
+        StringBuilder key = new StringBuilder(text.length());
+        for (int i = 0; i < text.length(); i++) {
+            char c = fold(text.charAt(i));
+            if (c == SKIP || (c == SEPARATOR && (key.isEmpty() || key.charAt(key.length() - 1) == SEPARATOR))) {
+                continue;
+            }
+            key.append(c);
+        }
+        int end = key.length();
+        while (end > 0 && key.charAt(end - 1) == SEPARATOR) {
+            end--;
+        }
+        return key.substring(0, end);
+    }
+
+    private static final class Trie {
+        final char[] labels;
+        final int[] childStart;
+        final int[] childEnd;
+        final int[] topStart;
+        final int[] topEnd;
+        final List<PointSuggestion> suggestions;
+
+        private Trie(char[] labels, int[] childStart, int[] childEnd, int[] topStart, int[] topEnd,
+                     List<PointSuggestion> suggestions) {
+            this.labels = labels;
+            this.childStart = childStart;
+            this.childEnd = childEnd;
+            this.topStart = topStart;
+            this.topEnd = topEnd;
+            this.suggestions = suggestions;
+        }
+
+        static Trie build(List<FirestorePoint> source) {
+            // Ranking global: rank menor = mais favoritado; as listas por nó guardam só ranks
+            FirestorePoint[] ranked = source.toArray(new FirestorePoint[0]);
+            Arrays.sort(ranked, popularityOrder());
+
+            BuildNode root = new BuildNode(SKIP);
+            for (int rank = 0; rank < ranked.length; rank++) {
+                FirestorePoint point = ranked[rank];
+                insert(root, point.getCode(), rank, false);
+                insert(root, point.getName(), rank, true);
+                if (point.getTags() != null) {
+                    for (String tag : point.getTags()) {
+                        insert(root, tag, rank, true);
+                    }
+                }
+            }
+            int nodeCount = root.computeTop();
+
+            char[] labels = new char[nodeCount];
+            int[] childStart = new int[nodeCount];
+            int[] childEnd = new int[nodeCount];
+            int[] topStart = new int[nodeCount];
+            int[] topEnd = new int[nodeCount];
+            int topTotal = 0;
+
+            // Numeração em largura: os filhos de cada nó ficam contíguos e ordenados por rótulo
+            ArrayDeque<BuildNode> queue = new ArrayDeque<>();
+            queue.add(root);
+            int index = 0;
+            int next = 1;
+            BuildNode[] order = new BuildNode[nodeCount];
+            while (!queue.isEmpty()) {
+                BuildNode node = queue.poll();
+                order[index] = node;
+                labels[index] = node.label;
+                childStart[index] = next;
+                next += node.children.size();
+                childEnd[index] = next;
+                topStart[index] = topTotal;
+                topTotal += node.top.length;
+                topEnd[index] = topTotal;
+                queue.addAll(node.children.values());
+                index++;
+            }
+
+            PointSuggestion[] bySuggestionRank = new PointSuggestion[ranked.length];
+            for (int rank = 0; rank < ranked.length; rank++) {
+                bySuggestionRank[rank] = toSuggestion(ranked[rank]);
+            }
+            PointSuggestion[] flat = new PointSuggestion[topTotal];
+            for (int i = 0; i < nodeCount; i++) {
+                int[] top = order[i].top;
+                for (int j = 0; j < top.length; j++) {
+                    flat[topStart[i] + j] = bySuggestionRank[top[j]];
+                }
+            }
+            return new Trie(labels, childStart, childEnd, topStart, topEnd, List.of(flat));
+        }
+
+        private static void insert(BuildNode root, String text, int rank, boolean wordSuffixes) {
+            if (text == null || text.isBlank()) {
+                return;
+            }
+            String key = normalizeKey(text);
+            root.insert(key, rank);
+            if (wordSuffixes) {
+                // "Touwei - Cabeça" também deve completar a partir de "cab"
+                for (int i = key.indexOf(SEPARATOR); i >= 0; i = key.indexOf(SEPARATOR, i + 1)) {
+                    root.insert(key.substring(i + 1), rank);
+                }
+            }
+        }
+
+        List<PointSuggestion> suggest(String prefix, int limit) {
+            int node = 0;
+            boolean started = false;
+            boolean pendingSeparator = false;
+            for (int i = 0; i < prefix.length(); i++) {
+                char c = fold(prefix.charAt(i));
+                if (c == SKIP) {
+                    continue;
+                }
+                if (c == SEPARATOR) {
+                    pendingSeparator = started;
+                    continue;
+                }
+                if (pendingSeparator) {
+                    node = child(node, SEPARATOR);
+                    if (node < 0) {
+                        return List.of();
+                    }
+                    pendingSeparator = false;
+                }
+                node = child(node, c);
+                if (node < 0) {
+                    return List.of();
+                }
+                started = true;
+            }
+            if (!started) {
+                return List.of();
+            }
+            int from = topStart[node];
+            return suggestions.subList(from, Math.min(topEnd[node], from + limit));
+        }
+
+        private int child(int node, char label) {
+            int low = childStart[node];
+            int high = childEnd[node] - 1;
+            while (low <= high) {
+                int mid = (low + high) >>> 1;
+                char candidate = labels[mid];
+                if (candidate < label) {
+                    low = mid + 1;
+                } else if (candidate > label) {
+                    high = mid - 1;
+                } else {
+                    return mid;
+                }
+            }
+            return -1;
+        }
+    }
+
+    private static final class BuildNode {
+        final char label;
+        final Map<Character, BuildNode> children = new TreeMap<>();
+        int[] own = new int[0];
+        int[] top;
+
+        BuildNode(char label) {
+            this.label = label;
+        }
+
+        void insert(String key, int rank) {
+            BuildNode node = this;
+            for (int i = 0; i < key.length(); i++) {
+                char c = key.charAt(i);
+                node = node.children.computeIfAbsent(c, BuildNode::new);
+            }
+            node.own = Arrays.copyOf(node.own, node.own.length + 1);
+            node.own[node.own.length - 1] = rank;
+        }
+
+        /**
+         * Calcula em pós-ordem os melhores ranks de cada subárvore e devolve o total de nós.
+         */
+        int computeTop() {
+            int count = 1;
+            int[] candidates = own;
+            for (BuildNode child : children.values()) {
+                count += child.computeTop();
+                int offset = candidates.length;
+                candidates = Arrays.copyOf(candidates, offset + child.top.length);
+                System.arraycopy(child.top, 0, candidates, offset, child.top.length);
+            }
+            top = Arrays.stream(candidates).sorted().distinct().limit(MAX_SUGGESTIONS).toArray();
+            own = null;
+            return count;
+        }
+    }
+}
@@ -0,0 +1,193 @@
+package com.appunture.backend.service.search;
+
+import com.appunture.backend.model.firestore.FirestorePoint;
+import com.appunture.backend.repository.firestore.FirestoreCatalog;
+import com.appunture.backend.repository.firestore.VersionedIndex;
+import org.springframework.stereotype.Component;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.IntStream;
+
+/**
+ * Índice invertido dos pontos do catálogo com ranking BM25.
+ *
+ * <p>Indexa código, nome, tags, indicação, localização e descrição com pesos por campo e
+ * dobra acentos via {@link TextNormalizer}. Documentos que casam mais termos da consulta vêm
+ * primeiro; o último critério é o BM25. Termos da consulta também casam por prefixo
+ * ("cab" -> "cabeca") com peso reduzido, preservando o comportamento de busca parcial.</p>
+ */
+@Component
+public class PointSearchIndex {
+
+    private static final float K1 = 1.2f;
+    private static final float B = 0.75f;
+
+    private static final float CODE_WEIGHT = 4f;
+    private static final float NAME_WEIGHT = 3f;
+    private static final float TAG_WEIGHT = 2f;
+    private static final float INDICATION_WEIGHT = 1.5f;
+    private static final float LOCATION_WEIGHT = 1f;
+    private static final float DESCRIPTION_WEIGHT = 1f;
+
+    private static final float PREFIX_MATCH_WEIGHT = 0.5f;
+    private static final int MIN_PREFIX_LENGTH = 2;
+    private static final int MAX_PREFIX_EXPANSIONS = 64;
+
+    private final FirestoreCatalog catalog;
+    private final VersionedIndex<Index> index;
+
+    public PointSearchIndex(FirestoreCatalog catalog) {
+        this.catalog = catalog;
+        this.index = new VersionedIndex<>(catalog::pointsVersion, () -> Index.build(catalog.allPoints()));
+    }
+
+    public boolean isAvailable() {
+        return catalog.isPointsReady();
+    }
+
+    public List<FirestorePoint> search(String query) {
+        List<String> tokens = TextNormalizer.queryTokens(query).stream().distinct().toList();
+        if (tokens.isEmpty()) {
+            return List.of();
+        }
+        return index.get().search(tokens);
+    }
+
+    private static final class Index {
+        final FirestorePoint[] points;
+        final float[] docLengths;
+        final float avgDocLength;
+        final String[] terms;
+        final int[][] postingDocs;
+        final float[][] postingFrequencies;
+
+        private Index(FirestorePoint[] points, float[] docLengths, String[] terms,
+                      int[][] postingDocs, float[][] postingFrequencies) {
+            this.points = points;
+            this.docLengths = docLengths;
+            this.terms = terms;
+            this.postingDocs = postingDocs;
+            this.postingFrequencies = postingFrequencies;
+            float total = 0f;
+            for (float length : docLengths) {
+                total += length;
+            }
+            this.avgDocLength = docLengths.length == 0 ? 1f : Math.max(1f, total / docLengths.length);
+        }
+
+        static Index build(List<FirestorePoint> source) {
+            FirestorePoint[] points = source.toArray(new FirestorePoint[0]);
+            float[] lengths = new float[points.length];
+            Map<String, Postings> postings = new HashMap<>();
+
+            for (int doc = 0; doc < points.length; doc++) {
+                FirestorePoint point = points[doc];
+                Map<String, Float> frequencies = new HashMap<>();
+                float length = addField(frequencies, point.getCode(), CODE_WEIGHT)
+                        + addField(frequencies, point.getName(), NAME_WEIGHT)
+                        + addField(frequencies, point.getIndication(), INDICATION_WEIGHT)
+                        + addField(frequencies, point.getLocation(), LOCATION_WEIGHT)
+                        + addField(frequencies, point.getDescription(), DESCRIPTION_WEIGHT);
+                if (point.getTags() != null) {
+                    for (String tag : point.getTags()) {
+                        length += addField(frequencies, tag, TAG_WEIGHT);
+                    }
+                }
+                lengths[doc] = length;
+                for (Map.Entry<String, Float> entry : frequencies.entrySet()) {
+                    postings.computeIfAbsent(entry.getKey(), key -> new Postings()).add(doc, entry.getValue());
+                }
+            }
+
+            String[] terms = postings.keySet().toArray(new String[0]);
+            Arrays.sort(terms);
+            int[][] docs = new int[terms.length][];
+            float[][] frequencies = new float[terms.length][];
+            for (int t = 0; t < terms.length; t++) {
+                Postings list = postings.get(terms[t]);
+                docs[t] = Arrays.copyOf(list.docs, list.size);
+                frequencies[t] = Arrays.copyOf(list.frequencies, list.size);
+            }
+            return new Index(points, lengths, terms, docs, frequencies);
+        }
+
+        private static float addField(Map<String, Float> frequencies, String text, float weight) {
+            if (text == null || text.isBlank()) {
+                return 0f;
+            }
+            List<String> tokens = TextNormalizer.tokenize(text);
+            for (String token : tokens) {
+                frequencies.merge(token, weight, Float::sum);
+            }
+            return tokens.size() * weight;
+        }
+
+        List<FirestorePoint> search(List<String> queryTokens) {
+            int size = points.length;
+            float[] scores = new float[size];
+            int[] matchedTokens = new int[size];
+            int[] lastToken = new int[size];
+
+            for (int q = 0; q < queryTokens.size(); q++) {
+                String token = queryTokens.get(q);
+                int marker = q + 1;
+                int exact = Arrays.binarySearch(terms, token);
+                int from = exact >= 0 ? exact : -exact - 1;
+                int expansions = 0;
+                // O termo exato e suas expansões por prefixo ficam contíguos no dicionário ordenado
+                for (int t = from; t < terms.length && terms[t].startsWith(token); t++) {
+                    boolean isExact = t == exact;
+                    if (!isExact && (token.length() < MIN_PREFIX_LENGTH || ++expansions > MAX_PREFIX_EXPANSIONS)) {
+                        break;
+                    }
+                    scoreTerm(t, isExact ? 1f : PREFIX_MATCH_WEIGHT, marker, scores, matchedTokens, lastToken);
+                }
+            }
+
+            return IntStream.range(0, size)
+                    .filter(doc -> matchedTokens[doc] > 0)
+                    .boxed()
+                    .sorted(Comparator.<Integer>comparingInt(doc -> matchedTokens[doc]).reversed()
+                            .thenComparing(doc -> scores[doc], Comparator.reverseOrder()))
+                    .map(doc -> points[doc])
+                    .toList();
+        }
+
+        private void scoreTerm(int term, float weight, int marker,
+                               float[] scores, int[] matchedTokens, int[] lastToken) {
+            int[] docs = postingDocs[term];
+            float[] frequencies = postingFrequencies[term];
+            double idf = Math.log(1 + (points.length - docs.length + 0.5) / (docs.length + 0.5));
+            for (int i = 0; i < docs.length; i++) {
+                int doc = docs[i];
+                float tf = frequencies[i];
+                double norm = tf + K1 * (1 - B + B * docLengths[doc] / avgDocLength);
+                scores[doc] += (float) (weight * idf * tf * (K1 + 1) / norm);
+                if (lastToken[doc] != marker) {
+                    lastToken[doc] = marker;
+                    matchedTokens[doc]++;
+                }
+            }
+        }
+    }
+
+    private static final class Postings {
+        int[] docs = new int[4];
+        float[] frequencies = new float[4];
+        int size;
+
+        void add(int doc, float frequency) {
+            if (size == docs.length) {
+                docs = Arrays.copyOf(docs, size * 2);
+                frequencies = Arrays.copyOf(frequencies, size * 2);
+            }
+            docs[size] = doc;
+            frequencies[size] = frequency;
+            size++;
+        }
+    }
+}
@@ -0,0 +1,239 @@
+package com.appunture.backend.service.search;
+
+import com.appunture.backend.model.firestore.FirestoreSymptom;
+import com.appunture.backend.repository.firestore.FirestoreCatalog;
+import com.appunture.backend.repository.firestore.VersionedIndex;
+import org.springframework.stereotype.Component;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.stream.IntStream;
+
+/**
+ * Busca de sintomas tolerante a erros de digitação ("cabesa" -> "cabeça").
+ *
+ * <p>O vocabulário de nomes e tags é indexado por trigramas quando o conjunto de sintomas muda.
+ * Na consulta, os trigramas selecionam poucos termos candidatos e só eles passam pela distância
+ * de Levenshtein limitada; termos curtos aceitam apenas correspondência exata ou por prefixo.</p>
+ */
+@Component
+public class SymptomFuzzyIndex {
+
+    private static final float NAME_WEIGHT = 2f;
+    private static final float TAG_WEIGHT = 1f;
+
+    private static final float PREFIX_MATCH = 0.8f;
+    private static final float EDIT_PENALTY = 0.3f;
+    private static final int MIN_PREFIX_LENGTH = 2;
+
+    private final FirestoreCatalog catalog;
+    private final VersionedIndex<Index> index;
+
+    public SymptomFuzzyIndex(FirestoreCatalog catalog) {
+        this.catalog = catalog;
+        this.index = new VersionedIndex<>(catalog::symptomsVersion, () -> Index.build(catalog.allSymptoms()));
+    }
+
+    public boolean isAvailable() {
+        return catalog.isSymptomsReady();
+    }
+
+    public List<FirestoreSymptom> search(String query) {
+        List<String> tokens = TextNormalizer.queryTokens(query).stream().distinct().toList();
+        if (tokens.isEmpty()) {
+            return List.of();
+        }
+        return index.get().search(tokens);
+    }
+
+    static int maxEdits(int length) {
+        if (length <= 3) {
+            return 0;
+        }
+        return length <= 7 ? 1 : 2;
+    }
+
+    /**
+     * Distância de Levenshtein com corte: devolve {@code limit + 1} assim que ela certamente
+     * ultrapassar o limite.
+     */
+    static int boundedDistance(String a, String b, int limit) {
+        if (Math.abs(a.length() - b.length()) > limit) {
+            return limit + 1;
+        }
+        int[] previous = new int[b.length() + 1];
+        int[] current = new int[b.length() + 1];
+        for (int j = 0; j <= b.length(); j++) {
+            previous[j] = j;
+        }
+        for (int i = 1; i <= a.length(); i++) {
+            current[0] = i;
+            int rowMin = current[0];
+            for (int j = 1; j <= b.length(); j++) {
+                int cost = a.charAt(i - 1) == b.charAt(j - 1) ? 0 : 1;
+                current[j] = Math.min(Math.min(current[j - 1] + 1, previous[j] + 1), previous[j - 1] + cost);
+                rowMin = Math.min(rowMin, current[j]);
+            }
+            if (rowMin > limit) {
+                return limit + 1;
+            }
+            int[] swap = previous;
+            previous = current;
+            current = swap;
+        }
+        return Math.min(previous[b.length()], limit + 1);
+    }
+
+    private static String[] trigrams(String term) {
+        String padded = "$" + term + "$";
+        String[] grams = new String[Math.max(0, padded.length() - 2)];
+        for (int i = 0; i < grams.length; i++) {
+            grams[i] = padded.substring(i, i + 3);
+        }
+        return grams;
+    }
+
+    private static final class Index {
+        final FirestoreSymptom[] symptoms;
+        final String[] terms;
+        final int[][] termDocs;
+        final float[][] termWeights;
+        final Map<String, int[]> trigramTerms;
+
+        private Index(FirestoreSymptom[] symptoms, String[] terms, int[][] termDocs, float[][] termWeights,
+                      Map<String, int[]> trigramTerms) {
+            this.symptoms = symptoms;
+            this.terms = terms;
+            this.termDocs = termDocs;
+            this.termWeights = termWeights;
+            this.trigramTerms = trigramTerms;
+        }
+
+        static Index build(List<FirestoreSymptom> source) {
+            FirestoreSymptom[] symptoms = source.toArray(new FirestoreSymptom[0]);
+            Map<String, Map<Integer, Float>> postings = new TreeMap<>();
+            for (int doc = 0; doc < symptoms.length; doc++) {
+                addField(postings, symptoms[doc].getName(), doc, NAME_WEIGHT);
+                if (symptoms[doc].getTags() != null) {
+                    for (String tag : symptoms[doc].getTags()) {
+                        addField(postings, tag, doc, TAG_WEIGHT);
+                    }
+                }
+            }
+
+            String[] terms = postings.keySet().toArray(new String[0]);
+            int[][] termDocs = new int[terms.length][];
+            float[][] termWeights = new float[terms.length][];
+            Map<String, int[]> trigramTerms = new HashMap<>();
+            for (int t = 0; t < terms.length; t++) {
+                Map<Integer, Float> docs = postings.get(terms[t]);
+                termDocs[t] = docs.keySet().stream().mapToInt(Integer::intValue).toArray();
+                termWeights[t] = new float[termDocs[t].length];
+                for (int i = 0; i < termDocs[t].length; i++) {
+                    termWeights[t][i] = docs.get(termDocs[t][i]);
+                }
+                for (String gram : new LinkedHashSet<>(Arrays.asList(trigrams(terms[t])))) {
+                    int[] list = trigramTerms.getOrDefault(gram, new int[0]);
+                    list = Arrays.copyOf(list, list.length + 1);
+                    list[list.length - 1] = t;
+                    trigramTerms.put(gram, list);
+                }
+            }
+            return new Index(symptoms, terms, termDocs, termWeights, trigramTerms);
+        }
+
+        private static void addField(Map<String, Map<Integer, Float>> postings, String text, int doc, float weight) {
+            if (text == null || text.isBlank()) {
+                return;
+            }
+            for (String token : TextNormalizer.tokenize(text)) {
+                postings.computeIfAbsent(token, key -> new TreeMap<>()).merge(doc, weight, Math::max);
+            }
+        }
+
+        List<FirestoreSymptom> search(List<String> queryTokens) {
+            int size = symptoms.length;
+            float[] scores = new float[size];
+            int[] matchedTokens = new int[size];
+            float[] tokenBest = new float[size];
+
+            for (String token : queryTokens) {
+                Arrays.fill(tokenBest, 0f);
+                float[] termQuality = matchTerms(token);
+                for (int t = 0; t < terms.length; t++) {
+                    if (termQuality[t] <= 0f) {
+                        continue;
+                    }
+                    for (int i = 0; i < termDocs[t].length; i++) {
+                        int doc = termDocs[t][i];
+                        tokenBest[doc] = Math.max(tokenBest[doc], termQuality[t] * termWeights[t][i]);
+                    }
+                }
+                for (int doc = 0; doc < size; doc++) {
+                    if (tokenBest[doc] > 0f) {
+                        scores[doc] += tokenBest[doc];
+                        matchedTokens[doc]++;
+                    }
+                }
+            }
+
+            return IntStream.range(0, size)
+                    .filter(doc -> matchedTokens[doc] > 0)
+                    .boxed()
+                    .sorted(Comparator.<Integer>comparingInt(doc -> matchedTokens[doc]).reversed()
+                            .thenComparing(doc -> scores[doc], Comparator.reverseOrder()))
+                    .map(doc -> symptoms[doc])
+                    .toList();
+        }
+
+        /**
+         * Qualidade de cada termo do vocabulário para um token: 1 exato, menor para prefixo ou
+         * para cada edição, 0 quando não casa.
+         */
+        private float[] matchTerms(String token) {
+            float[] quality = new float[terms.length];
+
+            int exact = Arrays.binarySearch(terms, token);
+            int from = exact >= 0 ? exact : -exact - 1;
+            for (int t = from; t < terms.length && terms[t].startsWith(token); t++) {
+                if (t == exact) {
+                    quality[t] = 1f;
+                } else if (token.length() >= MIN_PREFIX_LENGTH) {
+                    quality[t] = PREFIX_MATCH;
+                }
+            }
+
+            int limit = maxEdits(token.length());
+            if (limit == 0) {
+                return quality;
+            }
+            // Cada edição destrói no máximo 3 trigramas; abaixo disso o termo não pode estar no limite
+            String[] grams = trigrams(token);
+            int[] shared = new int[terms.length];
+            for (String gram : new LinkedHashSet<>(Arrays.asList(grams))) {
+                for (int t : trigramTerms.getOrDefault(gram, new int[0])) {
+                    shared[t]++;
+                }
+            }
+            for (int t = 0; t < terms.length; t++) {
+                if (shared[t] == 0 || quality[t] >= PREFIX_MATCH) {
+                    continue;
+                }
+                int required = Math.max(grams.length, terms[t].length()) - 3 * limit;
+                if (shared[t] < required) {
+                    continue;
+                }
+                int distance = boundedDistance(token, terms[t], limit);
+                if (distance <= limit) {
+                    quality[t] = Math.max(quality[t], 1f - EDIT_PENALTY * distance);
+                }
+            }
+            return quality;
+        }
+    }
+}
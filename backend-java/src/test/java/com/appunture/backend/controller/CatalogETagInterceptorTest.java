@@ -0,0 +1,153 @@
+package com.appunture.backend.controller;
+
+import com.appunture.backend.model.firestore.FirestorePoint;
+import com.appunture.backend.model.firestore.FirestoreSymptom;
+import com.appunture.backend.repository.firestore.FirestoreCatalog;
+import com.appunture.backend.service.CatalogSnapshots;
+import com.appunture.backend.service.CatalogVersion;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.method.HandlerMethod;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class CatalogETagInterceptorTest {
+
+    @Mock
+    private FirestoreCatalog catalog;
+
+    private CatalogVersion catalogVersion;
+    private CatalogETagInterceptor interceptor;
+    private MockHttpServletResponse response;
+
+    @BeforeEach
+    void setUp() {
+        catalogVersion = versionOf(catalog);
+        interceptor = new CatalogETagInterceptor(catalogVersion);
+        response = new MockHttpServletResponse();
+        lenient().when(catalog.isPointsReady()).thenReturn(true);
+        lenient().when(catalog.isSymptomsReady()).thenReturn(true);
+        lenient().when(catalog.pointsVersion()).thenReturn(3L);
+        lenient().when(catalog.symptomsVersion()).thenReturn(4L);
+        lenient().when(catalog.allPoints()).thenReturn(List.of(FirestorePoint.builder().id("a").code("VG20").build()));
+        lenient().when(catalog.allSymptoms()).thenReturn(List.of(FirestoreSymptom.builder().id("s1").name("Cefaleia").build()));
+    }
+
+    @Test
+    void preHandle_ShouldSetETagAndContinueWithoutIfNoneMatch() throws Exception {
+        boolean proceed = interceptor.preHandle(get(), response, handler("cached"));
+
+        assertThat(proceed).isTrue();
+        assertThat(response.getHeader(HttpHeaders.ETAG)).isEqualTo(catalogVersion.etag().orElseThrow());
+    }
+
+    @Test
+    void preHandle_ShouldReturnNotModifiedWhenETagMatches() throws Exception {
+        MockHttpServletRequest request = get();
+        request.addHeader(HttpHeaders.IF_NONE_MATCH, "\"other\", W/" + catalogVersion.etag().orElseThrow());
+
+        boolean proceed = interceptor.preHandle(request, response, handler("cached"));
+
+        assertThat(proceed).isFalse();
+        assertThat(response.getStatus()).isEqualTo(304);
+    }
+
+    @Test
+    void etag_ShouldBeDerivedFromCatalogContent() {
+        FirestoreCatalog otherInstance = mock(FirestoreCatalog.class);
+        when(otherInstance.isPointsReady()).thenReturn(true);
+        when(otherInstance.isSymptomsReady()).thenReturn(true);
+        when(otherInstance.pointsVersion()).thenReturn(40L);
+        when(otherInstance.symptomsVersion()).thenReturn(2L);
+        when(otherInstance.allPoints()).thenReturn(List.of(FirestorePoint.builder().id("a").code("VG20").build()));
+        when(otherInstance.allSymptoms()).thenReturn(List.of(FirestoreSymptom.builder().id("s1").name("Cefaleia").build()));
+
+        assertThat(versionOf(otherInstance).etag()).isEqualTo(catalogVersion.etag());
+    }
+
+    @Test
+    void preHandle_ShouldProceedAfterContentChange() throws Exception {
+        MockHttpServletRequest request = get();
+        request.addHeader(HttpHeaders.IF_NONE_MATCH, catalogVersion.etag().orElseThrow());
+
+        when(catalog.pointsVersion()).thenReturn(5L);
+        when(catalog.allPoints()).thenReturn(List.of(FirestorePoint.builder().id("a").code("VG20").name("Baihui").build()));
+        boolean proceed = interceptor.preHandle(request, response, handler("cached"));
+
+        assertThat(proceed).isTrue();
+        assertThat(response.getStatus()).isEqualTo(200);
+    }
+
+    @Test
+    void preHandle_ShouldUseDistinctETagForBinaryRepresentations() throws Exception {
+        MockHttpServletRequest request = get();
+        request.addHeader(HttpHeaders.ACCEPT, "application/cbor");
+        request.addHeader(HttpHeaders.IF_NONE_MATCH, catalogVersion.etag().orElseThrow());
+
+        boolean proceed = interceptor.preHandle(request, response, handler("cached"));
+
+        assertThat(proceed).isTrue();
+        assertThat(response.getHeader(HttpHeaders.ETAG)).endsWith("-cbor\"");
+        assertThat(response.getHeaders(HttpHeaders.VARY)).contains(HttpHeaders.ACCEPT);
+    }
+
+    @Test
+    void preHandle_ShouldIgnoreHandlersWithoutAnnotation() throws Exception {
+        MockHttpServletRequest request = get();
+        request.addHeader(HttpHeaders.IF_NONE_MATCH, "*");
+
+        boolean proceed = interceptor.preHandle(request, response, handler("live"));
+
+        assertThat(proceed).isTrue();
+        assertThat(response.getHeader(HttpHeaders.ETAG)).isNull();
+    }
+
+    @Test
+    void preHandle_ShouldSkipWhenCatalogNotLoaded() throws Exception {
+        when(catalog.isSymptomsReady()).thenReturn(false);
+        MockHttpServletRequest request = get();
+        request.addHeader(HttpHeaders.IF_NONE_MATCH, "*");
+
+        boolean proceed = interceptor.preHandle(request, response, handler("cached"));
+
+        assertThat(proceed).isTrue();
+        assertThat(response.getHeader(HttpHeaders.ETAG)).isNull();
+    }
+
+    private static CatalogVersion versionOf(FirestoreCatalog catalog) {
+        return new CatalogVersion(new CatalogSnapshots(catalog, new ObjectMapper()));
+    }
+
+    private static MockHttpServletRequest get() {
+        return new MockHttpServletRequest("GET", "/points");
+    }
+
+    private static HandlerMethod handler(String name) throws NoSuchMethodException {
+        return new HandlerMethod(new Endpoints(), Endpoints.class.getMethod(name));
+    }
+
+    static class Endpoints {
+
+        @CatalogETag
+        public String cached() {
+            return "cached";
+        }
+
+        public String live() {
+            return "live";
+        }
+    }
+}
@@ -0,0 +1,102 @@
+package com.appunture.backend.controller;
+
+import com.appunture.backend.model.firestore.FirestorePoint;
+import com.appunture.backend.repository.firestore.FirestoreCatalog;
+import com.appunture.backend.service.CatalogSnapshots;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.method.HandlerMethod;
+
+import java.io.ByteArrayInputStream;
+import java.util.Collections;
+import java.util.List;
+import java.util.zip.GZIPInputStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class CatalogSnapshotInterceptorTest {
+
+    @Mock
+    private FirestoreCatalog catalog;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private CatalogSnapshotInterceptor interceptor;
+
+    @BeforeEach
+    void setUp() {
+        interceptor = new CatalogSnapshotInterceptor(new CatalogSnapshots(catalog, objectMapper));
+        lenient().when(catalog.isPointsReady()).thenReturn(true);
+        lenient().when(catalog.pointsVersion()).thenReturn(1L);
+        lenient().when(catalog.allPoints()).thenReturn(List.of(FirestorePoint.builder().id("a").code("VG20").build()));
+    }
+
+    @Test
+    void preHandle_ShouldServeGzipVariantWhenAccepted() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/points");
+        request.addHeader(HttpHeaders.ACCEPT_ENCODING, "br, gzip;q=0.8");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        boolean proceed = interceptor.preHandle(request, response, handler("points"));
+
+        assertThat(proceed).isFalse();
+        assertThat(response.getHeader(HttpHeaders.CONTENT_ENCODING)).isEqualTo("gzip");
+        try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(response.getContentAsByteArray()))) {
+            assertThat(objectMapper.readTree(in).get(0).get("code").asText()).isEqualTo("VG20");
+        }
+    }
+
+    @Test
+    void preHandle_ShouldServePlainJsonAndRenderOncePerVersion() throws Exception {
+        MockHttpServletResponse first = new MockHttpServletResponse();
+        MockHttpServletResponse second = new MockHttpServletResponse();
+
+        interceptor.preHandle(new MockHttpServletRequest("GET", "/points"), first, handler("points"));
+        interceptor.preHandle(new MockHttpServletRequest("GET", "/points"), second, handler("points"));
+
+        assertThat(first.getHeader(HttpHeaders.CONTENT_ENCODING)).isNull();
+        assertThat(objectMapper.readTree(second.getContentAsByteArray()).get(0).get("id").asText()).isEqualTo("a");
+        verify(catalog, times(1)).allPoints();
+    }
+
+    @Test
+    void preHandle_ShouldFallBackToHandlerWhenCatalogNotLoaded() throws Exception {
+        when(catalog.isPointsReady()).thenReturn(false);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        boolean proceed = interceptor.preHandle(new MockHttpServletRequest("GET", "/points"), response, handler("points"));
+
+        assertThat(proceed).isTrue();
+        assertThat(response.getContentAsByteArray()).isEmpty();
+    }
+
+    @Test
+    void acceptsGzip_ShouldHonourZeroQuality() {
+        assertThat(CatalogSnapshotInterceptor.acceptsGzip(Collections.enumeration(List.of("gzip;q=0, deflate")))).isFalse();
+        assertThat(CatalogSnapshotInterceptor.acceptsGzip(Collections.enumeration(List.of("*")))).isTrue();
+        assertThat(CatalogSnapshotInterceptor.acceptsGzip(Collections.enumeration(List.of("identity")))).isFalse();
+    }
+
+    private static HandlerMethod handler(String name) throws NoSuchMethodException {
+        return new HandlerMethod(new Endpoints(), Endpoints.class.getMethod(name));
+    }
+
+    static class Endpoints {
+
+        @SnapshotBody(CatalogSnapshots.Kind.POINTS)
+        public List<FirestorePoint> points() {
+            return List.of();
+        }
+    }
+}
@@ -28,6 +28,8 @@ import java.util.Optional;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.ArgumentMatchers.anyInt;
 import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 @SpringBootTest
@@ -79,7 +81,7 @@ class FirestoreAdminControllerTest {
                 .id("user-1")
                 .createdAt(LocalDateTime.now())
                 .build();
-        when(userService.findAll()).thenReturn(List.of(user));
+        when(userService.findMostRecent(5)).thenReturn(List.of(user));
         when(pointService.findPopularPoints(anyInt())).thenReturn(List.of());
         when(symptomService.findTopUsed(anyInt())).thenReturn(List.of());
 
@@ -204,8 +206,8 @@ class FirestoreAdminControllerTest {
         when(userService.count()).thenReturn(10L);
         when(pointService.count()).thenReturn(361L);
         when(symptomService.count()).thenReturn(100L);
-        when(userService.findByRole("ADMIN")).thenReturn(List.of());
-        when(userService.findByRole("USER")).thenReturn(List.of());
+        when(userService.countByRole("ADMIN")).thenReturn(2L);
+        when(userService.countByRole("USER")).thenReturn(8L);
         when(symptomService.findUniqueCategories()).thenReturn(List.of("Pain", "Digestive"));
         when(symptomService.findUniqueTags()).thenReturn(List.of("acute", "chronic"));
         when(pointService.findPopularPoints(anyInt())).thenReturn(List.of());
@@ -217,5 +219,7 @@ class FirestoreAdminControllerTest {
         // Then
         assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
         assertThat(response.getBody()).containsKeys("users", "points", "symptoms", "categories", "tags");
+        assertThat(response.getBody().get("users")).isEqualTo(Map.of("total", 10L, "admins", 2L, "regular", 8L));
+        verify(userService, never()).findByRole(anyString());
     }
 }
@@ -1,6 +1,8 @@
 package com.appunture.backend.controller;
 
+import com.appunture.backend.dto.common.CursorPage;
 import com.appunture.backend.model.firestore.FirestorePoint;
+import com.appunture.backend.repository.firestore.FieldProjection;
 import com.appunture.backend.service.FirestorePointService;
 import com.google.cloud.firestore.Firestore;
 import com.google.firebase.auth.FirebaseAuth;
@@ -12,16 +14,23 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.test.context.support.WithMockUser;
 import org.springframework.test.context.ActiveProfiles;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.function.Consumer;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
@@ -62,6 +71,63 @@ class FirestorePointControllerTest {
         verify(pointService).findAll();
     }
 
+    @Test
+    void streamPointsWritesOneJsonDocumentPerLine() throws Exception {
+        FirestorePoint vg20 = FirestorePoint.builder().id("a").code("VG20").build();
+        FirestorePoint e36 = FirestorePoint.builder().id("b").code("E36").build();
+        doAnswer(invocation -> {
+            Consumer<List<FirestorePoint>> consumer = invocation.getArgument(0);
+            consumer.accept(List.of(vg20));
+            consumer.accept(List.of(e36));
+            return null;
+        }).when(pointService).forEachBatch(any());
+
+        ResponseEntity<StreamingResponseBody> response = controller.streamPoints();
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        response.getBody().writeTo(output);
+
+        assertThat(response.getHeaders().getContentType()).isEqualTo(MediaType.APPLICATION_NDJSON);
+        String[] lines = output.toString(StandardCharsets.UTF_8).split("\n");
+        assertThat(lines).hasSize(2);
+        assertThat(lines[0]).contains("\"code\":\"VG20\"");
+        assertThat(lines[1]).contains("\"code\":\"E36\"");
+    }
+
+    @Test
+    void projectedListReturnsOnlyRequestedFields() {
+        FirestorePoint point = FirestorePoint.builder().id("a").code("VG20").name("Baihui")
+                .description("No ápice da cabeça").build();
+        when(pointService.findByMeridian(eq("Du Mai"), any(FieldProjection.class))).thenReturn(List.of(point));
+
+        ResponseEntity<List<Map<String, Object>>> response = controller.getPointsByMeridianProjected("Du Mai", "summary");
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(response.getBody()).singleElement()
+                .satisfies(json -> assertThat(json).containsOnlyKeys("id", "code", "name", "meridian", "coordinates"));
+    }
+
+    @Test
+    void projectedPageKeepsCursorAndProjectsItems() {
+        FirestorePoint point = FirestorePoint.builder().id("a").code("VG20").name("Baihui")
+                .description("No ápice da cabeça").build();
+        when(pointService.findPage(null, 1))
+                .thenReturn(CursorPage.<FirestorePoint>builder().items(List.of(point)).nextCursor("next").build());
+
+        ResponseEntity<CursorPage<Map<String, Object>>> response = controller.getPointsPageProjected(1, null, "code");
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(response.getBody().getNextCursor()).isEqualTo("next");
+        assertThat(response.getBody().getItems()).singleElement()
+                .satisfies(json -> assertThat(json).containsOnlyKeys("id", "code"));
+    }
+
+    @Test
+    void projectedListRejectsUnknownFields() {
+        ResponseEntity<List<Map<String, Object>>> response = controller.getAllPointsProjected("code,secret");
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.BAD_REQUEST);
+    }
+
     @Test
     void getPointByIdReturnsNotFoundWhenMissing() {
         when(pointService.findById("missing")).thenReturn(Optional.empty());
@@ -1,5 +1,6 @@
 package com.appunture.backend.controller;
 
+import com.appunture.backend.exception.DataSourceUnavailableException;
 import com.appunture.backend.model.firestore.FirestoreSymptom;
 import com.appunture.backend.service.FirestoreSymptomService;
 import com.google.cloud.firestore.Firestore;
@@ -20,6 +21,7 @@ import java.util.List;
 import java.util.Optional;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyInt;
 import static org.mockito.ArgumentMatchers.anyString;
@@ -76,6 +78,17 @@ class FirestoreSymptomControllerTest {
         assertThat(response.getStatusCode()).isEqualTo(HttpStatus.NOT_FOUND);
     }
 
+    @Test
+    void getSymptomById_ShouldPropagateUnavailableDataSource() {
+        // Given
+        when(symptomService.findById("sym-1"))
+                .thenThrow(new DataSourceUnavailableException("Erro ao buscar sintoma por ID sym-1", null));
+
+        // When / Then: o GlobalExceptionHandler responde 503 em vez de 500
+        assertThatThrownBy(() -> controller.getSymptomById("sym-1"))
+                .isInstanceOf(DataSourceUnavailableException.class);
+    }
+
     @Test
     void getSymptomById_ShouldReturnSymptomWhenFound() {
         // Given
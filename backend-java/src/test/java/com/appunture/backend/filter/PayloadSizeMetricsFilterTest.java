@@ -0,0 +1,57 @@
+package com.appunture.backend.filter;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.FilterChain;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.servlet.HandlerMapping;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Testes unitários para PayloadSizeMetricsFilter
+ */
+class PayloadSizeMetricsFilterTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private PayloadSizeMetricsFilter filter;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        filter = new PayloadSizeMetricsFilter(meterRegistry);
+    }
+
+    @Test
+    void shouldRecordBytesByFormatAndRoute() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/points/meridian/Du");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        FilterChain chain = (req, res) -> {
+            req.setAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE, "/points/meridian/{meridian}");
+            res.setContentType("application/cbor");
+            res.getOutputStream().write(new byte[42]);
+        };
+
+        filter.doFilter(request, response, chain);
+
+        DistributionSummary summary = meterRegistry.find("app_response_payload_bytes")
+                .tags("uri", "/points/meridian/{meridian}", "format", "cbor", "encoding", "identity")
+                .summary();
+        assertThat(summary).isNotNull();
+        assertThat(summary.totalAmount()).isEqualTo(42);
+        assertThat(response.getContentAsByteArray()).hasSize(42);
+    }
+
+    @Test
+    void shouldIgnoreRoutesOutsideTheCatalog() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/admin/dashboard");
+        FilterChain chain = (req, res) -> res.getOutputStream().write(new byte[10]);
+
+        filter.doFilter(request, new MockHttpServletResponse(), chain);
+
+        assertThat(meterRegistry.find("app_response_payload_bytes").summary()).isNull();
+    }
+}
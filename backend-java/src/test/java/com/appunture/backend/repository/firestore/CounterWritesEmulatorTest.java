@@ -0,0 +1,69 @@
+package com.appunture.backend.repository.firestore;
+
+import com.appunture.backend.model.firestore.FirestorePoint;
+import com.appunture.backend.model.firestore.FirestoreSymptom;
+import com.appunture.backend.service.cache.SingleFlight;
+import com.google.cloud.firestore.Firestore;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfEnvironmentVariable;
+
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+
+/**
+ * Deltas de contadores para documentos removidos no Firestore real; só roda com o emulador.
+ */
+@EnabledIfEnvironmentVariable(named = FirestoreEmulator.HOST_VARIABLE, matches = ".+")
+class CounterWritesEmulatorTest {
+
+    private Firestore firestore;
+    private FirestorePointRepository pointRepository;
+    private FirestoreSymptomRepository symptomRepository;
+
+    @BeforeEach
+    void setUp() {
+        firestore = FirestoreEmulator.connect();
+        FirestoreTombstoneRepository tombstoneRepository = new FirestoreTombstoneRepository(firestore);
+        SingleFlight singleFlight = new SingleFlight(new SimpleMeterRegistry());
+        pointRepository = new FirestorePointRepository(firestore, mock(FirestoreCatalog.class),
+                mock(SymptomPointGraph.class), tombstoneRepository, singleFlight);
+        symptomRepository = new FirestoreSymptomRepository(firestore, mock(FirestoreCatalog.class),
+                mock(SymptomPointGraph.class), tombstoneRepository, singleFlight);
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        firestore.close();
+    }
+
+    @Test
+    void deltasForMissingSymptomsAreDroppedWithoutCreatingStats() throws Exception {
+        firestore.collection("symptoms").document("s1").set(FirestoreSymptom.builder().name("Dor").build()).get();
+
+        CounterWriteResult result = symptomRepository.applyUseCountDeltas(Map.of("s1", 2L, "gone", 3L));
+
+        assertThat(result.dropped()).isEqualTo(3);
+        assertThat(result.failed()).isEmpty();
+        assertThat(symptomRepository.sumUseCounts()).containsExactly(Map.entry("s1", 2L));
+        assertThat(firestore.collection("symptomStats").document("gone").get().get().exists()).isFalse();
+    }
+
+    @Test
+    void deletedPointLosesItsShardsAndPendingDeltas() throws Exception {
+        firestore.collection("points").document("vg20").set(FirestorePoint.builder().code("VG20").build()).get();
+        pointRepository.applyFavoriteDeltas(Map.of("vg20", 4L), 2);
+        assertThat(pointRepository.sumFavoriteCounts(true)).containsEntry("vg20", 4L);
+
+        pointRepository.deleteById("vg20");
+        CounterWriteResult result = pointRepository.applyFavoriteDeltas(Map.of("vg20", 1L), 2);
+
+        assertThat(result.dropped()).isEqualTo(1);
+        assertThat(pointRepository.sumFavoriteCounts(true)).doesNotContainKey("vg20");
+        assertThat(firestore.collection("pointStats").document("vg20").get().get().exists()).isFalse();
+    }
+}
@@ -0,0 +1,63 @@
+package com.appunture.backend.repository.firestore;
+
+import com.appunture.backend.model.firestore.FirestorePoint;
+import com.google.cloud.firestore.Query;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+class FieldProjectionTest {
+
+    private static final List<String> SUMMARY = List.of("code", "name");
+
+    @Test
+    void blankSpecMeansAllFields() {
+        assertThat(FieldProjection.parse(null, FirestorePoint.class, SUMMARY).isAll()).isTrue();
+        assertThat(FieldProjection.parse(" ", FirestorePoint.class, SUMMARY)).isSameAs(FieldProjection.ALL);
+    }
+
+    @Test
+    void summaryViewAndExplicitFieldsAlwaysIncludeId() {
+        assertThat(FieldProjection.parse("summary", FirestorePoint.class, SUMMARY).fields())
+                .containsExactly("id", "code", "name");
+        assertThat(FieldProjection.parse("meridian, coordinates", FirestorePoint.class, SUMMARY).fields())
+                .containsExactly("id", "meridian", "coordinates");
+    }
+
+    @Test
+    void unknownFieldsAreRejected() {
+        assertThatThrownBy(() -> FieldProjection.parse("code,password", FirestorePoint.class, SUMMARY))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void selectIsPushedDownWithoutTheDocumentId() {
+        Query query = mock(Query.class);
+        Query selected = mock(Query.class);
+        when(query.select("code", "name")).thenReturn(selected);
+
+        assertThat(FieldProjection.parse("summary", FirestorePoint.class, SUMMARY).applyTo(query)).isSameAs(selected);
+        verify(query).select("code", "name");
+
+        Query untouched = mock(Query.class);
+        assertThat(FieldProjection.ALL.applyTo(untouched)).isSameAs(untouched);
+        verifyNoInteractions(untouched);
+    }
+
+    @Test
+    void retainDropsFieldsOutsideTheProjection() {
+        Map<String, Object> json = new HashMap<>(Map.of("id", "a", "code", "VG20", "description", "longa"));
+
+        assertThat(FieldProjection.parse("code", FirestorePoint.class, SUMMARY).retain(json))
+                .containsOnlyKeys("id", "code");
+    }
+}
@@ -0,0 +1,91 @@
+package com.appunture.backend.repository.firestore;
+
+import com.appunture.backend.config.CacheProperties;
+import com.appunture.backend.service.cache.CacheInvalidation;
+import com.google.cloud.Timestamp;
+import com.google.cloud.firestore.Firestore;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfEnvironmentVariable;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Carimbo e filtros de {@code publishedAt} do barramento no Firestore real; só roda com o emulador.
+ */
+@EnabledIfEnvironmentVariable(named = FirestoreEmulator.HOST_VARIABLE, matches = ".+")
+class FirestoreCacheEventBusEmulatorTest {
+
+    private static final LocalDateTime VERSION = LocalDateTime.of(2025, 3, 1, 9, 0);
+
+    private Firestore firestore;
+    private CacheProperties cacheProperties;
+    private FirestoreCacheEventBus publisher;
+    private FirestoreCacheEventBus listener;
+    private final BlockingQueue<CacheInvalidation> received = new LinkedBlockingQueue<>();
+
+    @BeforeEach
+    void setUp() {
+        firestore = FirestoreEmulator.connect();
+        cacheProperties = new CacheProperties();
+        publisher = new FirestoreCacheEventBus(firestore, cacheProperties);
+        listener = new FirestoreCacheEventBus(firestore, cacheProperties);
+        listener.subscribe(received::add);
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        listener.stop();
+        firestore.close();
+    }
+
+    @Test
+    void publishedAtIsStampedByTheServer() throws Exception {
+        publisher.publish(updated("a", 1));
+
+        Object stored = firestore.collection(FirestoreCacheEventBus.COLLECTION_NAME).get().get()
+                .getDocuments().get(0).get("publishedAt");
+
+        assertThat(stored).isInstanceOf(Timestamp.class);
+    }
+
+    @Test
+    void listenerDeliversOnlyEventsPublishedAfterItOpened() throws Exception {
+        publisher.publish(updated("before", 1));
+        listener.start();
+
+        publisher.publish(updated("after", 2));
+
+        CacheInvalidation invalidation = received.poll(10, TimeUnit.SECONDS);
+        assertThat(invalidation).isNotNull();
+        assertThat(invalidation.pointId()).isEqualTo("after");
+        assertThat(invalidation.version()).isEqualTo(VERSION);
+        assertThat(received.poll(1, TimeUnit.SECONDS)).isNull();
+    }
+
+    @Test
+    void pruneRemovesEventsOlderThanTheRetention() throws Exception {
+        publisher.publish(updated("a", 1));
+        publisher.publish(updated("b", 2));
+
+        cacheProperties.setEventRetention(Duration.ofHours(1));
+        publisher.pruneEvents();
+        assertThat(firestore.collection(FirestoreCacheEventBus.COLLECTION_NAME).get().get().size()).isEqualTo(2);
+
+        cacheProperties.setEventRetention(Duration.ZERO);
+        publisher.pruneEvents();
+        assertThat(firestore.collection(FirestoreCacheEventBus.COLLECTION_NAME).get().get().isEmpty()).isTrue();
+    }
+
+    private static CacheInvalidation updated(String pointId, long sequence) {
+        return new CacheInvalidation("instance-a", sequence, CacheInvalidation.Type.UPDATED,
+                pointId, pointId.toUpperCase(), "VG", null, null, VERSION);
+    }
+}
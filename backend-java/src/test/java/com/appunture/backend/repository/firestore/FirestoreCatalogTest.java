@@ -0,0 +1,189 @@
+package com.appunture.backend.repository.firestore;
+
+import com.appunture.backend.config.CatalogProperties;
+import com.appunture.backend.model.firestore.FirestorePoint;
+import com.appunture.backend.model.firestore.FirestoreSymptom;
+import com.google.cloud.firestore.CollectionReference;
+import com.google.cloud.firestore.DocumentChange;
+import com.google.cloud.firestore.EventListener;
+import com.google.cloud.firestore.Firestore;
+import com.google.cloud.firestore.ListenerRegistration;
+import com.google.cloud.firestore.QueryDocumentSnapshot;
+import com.google.cloud.firestore.QuerySnapshot;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class FirestoreCatalogTest {
+
+    @Mock
+    private Firestore firestore;
+
+    @Mock
+    private CollectionReference pointsCollection;
+
+    @Mock
+    private CollectionReference symptomsCollection;
+
+    @Mock
+    private ListenerRegistration registration;
+
+    private FirestoreCatalog catalog;
+    private EventListener<QuerySnapshot> pointsListener;
+    private EventListener<QuerySnapshot> symptomsListener;
+
+    @BeforeEach
+    void setUp() {
+        when(firestore.collection("points")).thenReturn(pointsCollection);
+        when(firestore.collection("symptoms")).thenReturn(symptomsCollection);
+        when(pointsCollection.addSnapshotListener(any())).thenAnswer(invocation -> {
+            pointsListener = invocation.getArgument(0);
+            return registration;
+        });
+        when(symptomsCollection.addSnapshotListener(any())).thenAnswer(invocation -> {
+            symptomsListener = invocation.getArgument(0);
+            return registration;
+        });
+
+        catalog = new FirestoreCatalog(firestore, new CatalogProperties(), new SimpleMeterRegistry());
+        catalog.start();
+    }
+
+    @Test
+    void initialSnapshotServesIndexedReads() {
+        FirestorePoint vg20 = FirestorePoint.builder().code("VG20").meridian("Du Mai")
+                .symptomIds(new ArrayList<>(List.of("insomnia"))).build();
+        FirestorePoint e36 = FirestorePoint.builder().code("E36").meridian("Estômago")
+                .symptomIds(new ArrayList<>(List.of("insomnia", "fadiga"))).build();
+
+        pointsListener.onEvent(snapshotOf(pointDocument("b", e36), pointDocument("a", vg20)), null);
+
+        assertThat(catalog.isPointsReady()).isTrue();
+        assertThat(catalog.allPoints()).extracting(FirestorePoint::getCode).containsExactly("VG20", "E36");
+        assertThat(catalog.findPointByCode("E36")).map(FirestorePoint::getId).contains("b");
+        assertThat(catalog.pointsByMeridian("Du Mai")).extracting(FirestorePoint::getId).containsExactly("a");
+    }
+
+    @Test
+    void lookupsReturnCopiesSoCallersCannotCorruptTheCatalog() {
+        FirestorePoint vg20 = FirestorePoint.builder().code("VG20")
+                .symptomIds(new ArrayList<>(List.of("insomnia"))).build();
+        pointsListener.onEvent(snapshotOf(pointDocument("a", vg20)), null);
+
+        FirestorePoint copy = catalog.findPointById("a").orElseThrow();
+        copy.setName("Alterado");
+        copy.addSymptomId("stress");
+
+        FirestorePoint stored = catalog.findPointById("a").orElseThrow();
+        assertThat(stored.getName()).isNull();
+        assertThat(stored.getSymptomIds()).containsExactly("insomnia");
+    }
+
+    @Test
+    void listReadsReturnCopiesInUnmodifiableLists() {
+        FirestorePoint vg20 = FirestorePoint.builder().code("VG20").meridian("Du Mai").build();
+        pointsListener.onEvent(snapshotOf(pointDocument("a", vg20)), null);
+
+        List<FirestorePoint> listed = catalog.pointsByMeridian("Du Mai");
+        listed.get(0).setMeridian("Estômago");
+        catalog.allPoints().get(0).setName("Alterado");
+
+        assertThatThrownBy(() -> listed.add(vg20)).isInstanceOf(UnsupportedOperationException.class);
+        assertThat(catalog.pointsByMeridian("Du Mai")).extracting(FirestorePoint::getMeridian).containsExactly("Du Mai");
+        assertThat(catalog.allPoints()).extracting(FirestorePoint::getName).containsOnlyNulls();
+    }
+
+    @Test
+    void documentChangesAreAppliedAfterInitialLoad() {
+        QueryDocumentSnapshot first = pointDocument("a", FirestorePoint.builder().code("VG20").build());
+        QueryDocumentSnapshot second = pointDocument("b", FirestorePoint.builder().code("E36").build());
+        pointsListener.onEvent(snapshotOf(first, second), null);
+
+        DocumentChange removal = mock(DocumentChange.class);
+        when(removal.getType()).thenReturn(DocumentChange.Type.REMOVED);
+        when(removal.getDocument()).thenReturn(first);
+        QuerySnapshot changes = mock(QuerySnapshot.class);
+        when(changes.getDocumentChanges()).thenReturn(List.of(removal));
+
+        pointsListener.onEvent(changes, null);
+
+        assertThat(catalog.findPointById("a")).isEmpty();
+        assertThat(catalog.allPoints()).extracting(FirestorePoint::getId).containsExactly("b");
+    }
+
+    @Test
+    void symptomsAreIndexedByNameAndCategory() {
+        FirestoreSymptom hiccups = FirestoreSymptom.builder().name("Soluço").category("Digestivo").build();
+        FirestoreSymptom headache = FirestoreSymptom.builder().name("Cefaleia").category("Dor").build();
+        FirestoreSymptom insomnia = FirestoreSymptom.builder().name("Insônia").build();
+
+        symptomsListener.onEvent(snapshotOf(
+                symptomDocument("s1", hiccups), symptomDocument("s2", headache), symptomDocument("s3", insomnia)), null);
+
+        assertThat(catalog.symptomsByCategory("Dor")).extracting(FirestoreSymptom::getId).containsExactly("s2");
+        assertThat(catalog.findSymptomByName("Insônia")).map(FirestoreSymptom::getId).contains("s3");
+    }
+
+    @Test
+    void pointsAfterSlicesByDocumentIdFromTheCursor() {
+        pointsListener.onEvent(snapshotOf(
+                pointDocument("c", FirestorePoint.builder().code("IG4").build()),
+                pointDocument("a", FirestorePoint.builder().code("VG20").build()),
+                pointDocument("b", FirestorePoint.builder().code("E36").build())), null);
+
+        assertThat(catalog.pointsAfter(null, 2)).extracting(FirestorePoint::getId).containsExactly("a", "b");
+        assertThat(catalog.pointsAfter("b", 2)).extracting(FirestorePoint::getId).containsExactly("c");
+        assertThat(catalog.pointsAfter("aa", 5)).extracting(FirestorePoint::getId).containsExactly("b", "c");
+        assertThat(catalog.pointsAfter("c", 5)).isEmpty();
+    }
+
+    @Test
+    void pointsChangedAfterOrdersByUpdatedAtThenId() {
+        LocalDateTime t1 = LocalDateTime.of(2025, 3, 1, 9, 0);
+        LocalDateTime t2 = t1.plusMinutes(5);
+        pointsListener.onEvent(snapshotOf(
+                pointDocument("a", FirestorePoint.builder().code("VG20").updatedAt(t2).build()),
+                pointDocument("b", FirestorePoint.builder().code("E36").updatedAt(t1).build()),
+                pointDocument("c", FirestorePoint.builder().code("IG4").updatedAt(t1).build()),
+                pointDocument("d", FirestorePoint.builder().code("F3").build())), null);
+
+        assertThat(catalog.pointsChangedAfter(null, null, 10)).extracting(FirestorePoint::getId).containsExactly("d", "b", "c", "a");
+        assertThat(catalog.pointsChangedAfter(t1, "b", 10)).extracting(FirestorePoint::getId).containsExactly("c", "a");
+        assertThat(catalog.pointsChangedAfter(null, "d", 1)).extracting(FirestorePoint::getId).containsExactly("b");
+        assertThat(catalog.pointsChangedAfter(t2, "a", 10)).isEmpty();
+    }
+
+    private static QueryDocumentSnapshot pointDocument(String id, FirestorePoint point) {
+        QueryDocumentSnapshot document = mock(QueryDocumentSnapshot.class);
+        when(document.getId()).thenReturn(id);
+        when(document.toObject(FirestorePoint.class)).thenReturn(point);
+        return document;
+    }
+
+    private static QueryDocumentSnapshot symptomDocument(String id, FirestoreSymptom symptom) {
+        QueryDocumentSnapshot document = mock(QueryDocumentSnapshot.class);
+        when(document.getId()).thenReturn(id);
+        when(document.toObject(FirestoreSymptom.class)).thenReturn(symptom);
+        return document;
+    }
+
+    private static QuerySnapshot snapshotOf(QueryDocumentSnapshot... documents) {
+        QuerySnapshot snapshot = mock(QuerySnapshot.class);
+        when(snapshot.getDocuments()).thenReturn(List.of(documents));
+        return snapshot;
+    }
+}
@@ -0,0 +1,29 @@
+package com.appunture.backend.repository.firestore;
+
+import com.google.cloud.NoCredentials;
+import com.google.cloud.firestore.Firestore;
+import com.google.cloud.firestore.FirestoreOptions;
+
+import java.util.UUID;
+
+/**
+ * Conexão com o emulador do Firestore apontado por {@code FIRESTORE_EMULATOR_HOST}
+ * ({@code firebase emulators:start --only firestore}). Cada chamada usa um projeto novo, então os
+ * testes não compartilham dados.
+ */
+final class FirestoreEmulator {
+
+    static final String HOST_VARIABLE = "FIRESTORE_EMULATOR_HOST";
+
+    private FirestoreEmulator() {
+    }
+
+    static Firestore connect() {
+        return FirestoreOptions.newBuilder()
+                .setProjectId("demo-appunture-" + UUID.randomUUID().toString().substring(0, 8))
+                .setEmulatorHost(System.getenv(HOST_VARIABLE))
+                .setCredentials(NoCredentials.getInstance())
+                .build()
+                .getService();
+    }
+}
@@ -0,0 +1,78 @@
+package com.appunture.backend.repository.firestore;
+
+import com.appunture.backend.model.firestore.FirestoreSymptom;
+import com.appunture.backend.service.FirestoreSymptomService;
+import com.appunture.backend.service.cache.SingleFlight;
+import com.google.api.core.ApiFutures;
+import com.google.cloud.firestore.CollectionReference;
+import com.google.cloud.firestore.FieldPath;
+import com.google.cloud.firestore.Firestore;
+import com.google.cloud.firestore.Query;
+import com.google.cloud.firestore.QuerySnapshot;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class FirestoreSymptomRepositoryTest {
+
+    @Mock
+    private Firestore firestore;
+
+    @Mock
+    private FirestoreCatalog catalog;
+
+    @Mock
+    private SymptomPointGraph symptomPointGraph;
+
+    @Mock
+    private FirestoreTombstoneRepository tombstoneRepository;
+
+    @Mock
+    private SingleFlight singleFlight;
+
+    @InjectMocks
+    private FirestoreSymptomRepository symptomRepository;
+
+    @Test
+    void findPageSelectsOnlyTheProjectedFields() {
+        CollectionReference symptoms = mock(CollectionReference.class);
+        Query selected = mock(Query.class);
+        Query ordered = mock(Query.class);
+        Query limited = mock(Query.class);
+        Query resumed = mock(Query.class);
+        QuerySnapshot snapshot = mock(QuerySnapshot.class);
+        when(firestore.collection("symptoms")).thenReturn(symptoms);
+        when(symptoms.select("name", "category", "severity")).thenReturn(selected);
+        when(selected.orderBy(any(FieldPath.class))).thenReturn(ordered);
+        when(ordered.limit(3)).thenReturn(limited);
+        when(limited.startAfter("s1")).thenReturn(resumed);
+        when(resumed.get()).thenReturn(ApiFutures.immediateFuture(snapshot));
+        when(snapshot.getDocuments()).thenReturn(List.of());
+
+        FieldProjection projection = FieldProjection.parse("summary", FirestoreSymptom.class, FirestoreSymptomService.SUMMARY_FIELDS);
+        assertThat(symptomRepository.findPage("s1", 3, projection)).isEmpty();
+
+        verify(symptoms).select("name", "category", "severity");
+    }
+
+    @Test
+    void findPageServesTheCatalogWhenReady() {
+        FirestoreSymptom symptom = FirestoreSymptom.builder().id("s2").build();
+        when(catalog.isSymptomsReady()).thenReturn(true);
+        when(catalog.symptomsAfter("s1", 3)).thenReturn(List.of(symptom));
+
+        FieldProjection projection = FieldProjection.parse("summary", FirestoreSymptom.class, FirestoreSymptomService.SUMMARY_FIELDS);
+        assertThat(symptomRepository.findPage("s1", 3, projection)).containsExactly(symptom);
+    }
+}
@@ -0,0 +1,99 @@
+package com.appunture.backend.repository.firestore;
+
+import com.appunture.backend.model.firestore.FirestorePoint;
+import com.appunture.backend.model.firestore.FirestoreTombstone;
+import com.appunture.backend.service.cache.SingleFlight;
+import com.google.cloud.Timestamp;
+import com.google.cloud.firestore.Firestore;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfEnvironmentVariable;
+
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Ordenação por {@code updatedAt}/{@code deletedAt} no Firestore real; só roda com o emulador.
+ */
+@EnabledIfEnvironmentVariable(named = FirestoreEmulator.HOST_VARIABLE, matches = ".+")
+class FirestoreTimestampOrderingEmulatorTest {
+
+    private static final LocalDateTime T1 = LocalDateTime.of(2025, 3, 1, 9, 0);
+    private static final LocalDateTime T2 = T1.plusMinutes(5);
+
+    private Firestore firestore;
+    private FirestoreTombstoneRepository tombstoneRepository;
+
+    @BeforeEach
+    void setUp() {
+        firestore = FirestoreEmulator.connect();
+        tombstoneRepository = new FirestoreTombstoneRepository(firestore);
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        firestore.close();
+    }
+
+    @Test
+    void datesAreStoredAsTimestamps() throws Exception {
+        savePoint("a", T1);
+
+        Object stored = firestore.collection("points").document("a").get().get().get("updatedAt");
+
+        assertThat(stored).isInstanceOf(Timestamp.class);
+        assertThat(firestore.collection("points").document("a").get().get().toObject(FirestorePoint.class).getUpdatedAt())
+                .isEqualTo(T1);
+    }
+
+    @Test
+    void changedPointsAreOrderedByUpdatedAtThenId() throws Exception {
+        savePoint("a", T2);
+        savePoint("b", T1);
+        savePoint("c", T1);
+        FirestoreCatalog catalog = mock(FirestoreCatalog.class);
+        when(catalog.isPointsReady()).thenReturn(false);
+        FirestorePointRepository pointRepository = new FirestorePointRepository(firestore, catalog,
+                mock(SymptomPointGraph.class), tombstoneRepository, new SingleFlight(new SimpleMeterRegistry()));
+
+        assertThat(pointRepository.findChangedAfter(null, null, 10)).extracting(FirestorePoint::getId).containsExactly("b", "c", "a");
+        assertThat(pointRepository.findChangedAfter(T1, "b", 10)).extracting(FirestorePoint::getId).containsExactly("c", "a");
+        assertThat(pointRepository.findChangedAfter(T2, "a", 10)).isEmpty();
+    }
+
+    @Test
+    void tombstonesAreOrderedAndPrunedByDeletedAt() throws Exception {
+        saveTombstone("points_x", T2);
+        saveTombstone("points_y", T1);
+        saveTombstone("symptoms_z", T1.minusDays(30));
+
+        assertThat(tombstoneRepository.findChangedAfter(null, null, 10)).extracting(FirestoreTombstone::getId)
+                .containsExactly("symptoms_z", "points_y", "points_x");
+        assertThat(tombstoneRepository.findChangedAfter(T1, "points_y", 10)).extracting(FirestoreTombstone::getId)
+                .containsExactly("points_x");
+        assertThat(tombstoneRepository.findLatestUntil(T1.plusMinutes(1))).map(FirestoreTombstone::getId).contains("points_y");
+
+        assertThat(tombstoneRepository.deleteOlderThan(T1.minusDays(1))).isEqualTo(1);
+        assertThat(tombstoneRepository.findChangedAfter(null, null, 10)).extracting(FirestoreTombstone::getId)
+                .containsExactly("points_y", "points_x");
+    }
+
+    private void savePoint(String id, LocalDateTime updatedAt) throws Exception {
+        firestore.collection("points").document(id)
+                .set(FirestorePoint.builder().code(id.toUpperCase()).updatedAt(updatedAt).build()).get();
+    }
+
+    private void saveTombstone(String id, LocalDateTime deletedAt) throws Exception {
+        String[] parts = id.split("_", 2);
+        firestore.collection("tombstones").document(id).set(FirestoreTombstone.builder()
+                .collection(parts[0])
+                .documentId(parts[1])
+                .deletedAt(deletedAt)
+                .build()).get();
+    }
+}
@@ -0,0 +1,90 @@
+package com.appunture.backend.repository.firestore;
+
+import com.appunture.backend.model.firestore.FirestorePoint;
+import com.appunture.backend.model.firestore.FirestoreSymptom;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class SymptomPointGraphTest {
+
+    @Mock
+    private FirestoreCatalog catalog;
+
+    private SimpleMeterRegistry meterRegistry;
+    private SymptomPointGraph graph;
+
+    private final FirestorePoint vg20 = FirestorePoint.builder().id("vg20")
+            .symptomIds(List.of("insomnia", "headache")).build();
+    private final FirestorePoint e36 = FirestorePoint.builder().id("e36")
+            .symptomIds(List.of("insomnia", "ghost")).build();
+    private final FirestoreSymptom insomnia = FirestoreSymptom.builder().id("insomnia")
+            .pointIds(List.of("vg20", "e36")).build();
+    private final FirestoreSymptom headache = FirestoreSymptom.builder().id("headache")
+            .pointIds(List.of("missing")).build();
+
+    @BeforeEach
+    void setUp() {
+        lenient().when(catalog.pointsVersion()).thenReturn(1L);
+        lenient().when(catalog.symptomsVersion()).thenReturn(1L);
+        lenient().when(catalog.isPointsReady()).thenReturn(true);
+        lenient().when(catalog.isSymptomsReady()).thenReturn(true);
+        lenient().when(catalog.residentPoints()).thenReturn(List.of(e36, vg20));
+        lenient().when(catalog.residentSymptoms()).thenReturn(List.of(headache, insomnia));
+        meterRegistry = new SimpleMeterRegistry();
+        graph = new SymptomPointGraph(catalog, meterRegistry);
+        graph.registerMetrics();
+    }
+
+    @Test
+    void resolvesBothDirectionsFromTheirOwnSide() {
+        assertThat(graph.pointsBySymptomId("insomnia")).containsExactly(e36, vg20);
+        assertThat(graph.pointsBySymptomId("headache")).containsExactly(vg20);
+        assertThat(graph.symptomsByPointId("vg20")).containsExactly(insomnia);
+        assertThat(graph.symptomsByPointId("missing")).containsExactly(headache);
+        assertThat(graph.pointsBySymptomId("unknown")).isEmpty();
+        assertThat(graph.symptomsByPointId("e99")).isEmpty();
+    }
+
+    @Test
+    void countsEdgesDeclaredOnOnlyOneSide() {
+        SymptomPointGraph.Inconsistencies inconsistencies = graph.inconsistencies();
+
+        assertThat(inconsistencies.pointOnlyEdges()).isEqualTo(1);
+        assertThat(inconsistencies.symptomOnlyEdges()).isZero();
+        assertThat(inconsistencies.danglingSymptomRefs()).isEqualTo(1);
+        assertThat(inconsistencies.danglingPointRefs()).isEqualTo(1);
+        assertThat(meterRegistry.get("app_catalog_graph_inconsistencies").tag("kind", "point_only_edge")
+                .gauge().value()).isEqualTo(1.0);
+    }
+
+    @Test
+    void coverageIntersectsSymptomBitsets() {
+        List<SymptomPointGraph.Coverage> coverage = graph.coverage(List.of("insomnia", "headache", "unknown"));
+
+        assertThat(coverage).extracting(SymptomPointGraph.Coverage::point).containsExactly(e36, vg20);
+        assertThat(coverage.get(0).symptomIds()).containsExactly("insomnia");
+        assertThat(coverage.get(1).symptomIds()).containsExactly("insomnia", "headache");
+        assertThat(coverage.get(1).symptoms()).containsExactly(insomnia, headache);
+        assertThat(graph.coverage(List.of("ghost")).get(0).symptoms()).isEmpty();
+    }
+
+    @Test
+    void isUnavailableUntilSymptomsAreLoaded() {
+        assertThat(graph.isAvailable()).isTrue();
+
+        when(catalog.isSymptomsReady()).thenReturn(false);
+
+        assertThat(graph.isAvailable()).isFalse();
+    }
+}
@@ -1,7 +1,18 @@
 package com.appunture.backend.service;
 
+import com.appunture.backend.dto.common.CursorPage;
+import com.appunture.backend.dto.point.PointCoverageResponse;
+import com.appunture.backend.dto.point.PointSuggestion;
 import com.appunture.backend.model.firestore.FirestorePoint;
+import com.appunture.backend.model.firestore.FirestoreSymptom;
+import com.appunture.backend.repository.firestore.FieldProjection;
 import com.appunture.backend.repository.firestore.FirestorePointRepository;
+import com.appunture.backend.repository.firestore.FirestoreSymptomRepository;
+import com.appunture.backend.repository.firestore.SymptomPointGraph;
+import com.appunture.backend.service.cache.PointCacheCoordinator;
+import com.appunture.backend.service.counter.FavoriteCounter;
+import com.appunture.backend.service.search.PointAutocompleteIndex;
+import com.appunture.backend.service.search.PointSearchIndex;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -14,10 +25,13 @@ import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.stream.IntStream;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
@@ -27,6 +41,24 @@ class FirestorePointServiceTest {
     @Mock
     private FirestorePointRepository pointRepository;
 
+    @Mock
+    private FirestoreSymptomRepository symptomRepository;
+
+    @Mock
+    private PointSearchIndex pointSearchIndex;
+
+    @Mock
+    private PointAutocompleteIndex pointAutocompleteIndex;
+
+    @Mock
+    private SymptomPointGraph symptomPointGraph;
+
+    @Mock
+    private FavoriteCounter favoriteCounter;
+
+    @Mock
+    private PointCacheCoordinator pointCacheCoordinator;
+
     @InjectMocks
     private FirestorePointService pointService;
 
@@ -55,6 +87,7 @@ class FirestorePointServiceTest {
         assertThat(result.getFavoriteCount()).isZero();
         assertThat(result.getViewCount()).isZero();
         verify(pointRepository).save(result);
+        verify(pointCacheCoordinator).pointCreated(result);
     }
 
     @Test
@@ -97,6 +130,7 @@ class FirestorePointServiceTest {
         assertThat(result.getCoordinates()).containsEntry("x", 10.0);
         assertThat(result.getUpdatedAt()).isAfterOrEqualTo(beforeUpdate);
         verify(pointRepository).save(existing);
+        verify(pointCacheCoordinator).pointUpdated("OLD", null, existing);
     }
 
     @Test
@@ -116,11 +150,13 @@ class FirestorePointServiceTest {
                 .build();
 
         when(pointRepository.findById("point-1")).thenReturn(Optional.of(existing));
+        when(pointRepository.save(existing)).thenReturn(existing);
 
         pointService.addSymptomToPoint("point-1", "symptom-2");
 
         assertThat(existing.getSymptomIds()).containsExactlyInAnyOrder("symptom-1", "symptom-2");
         verify(pointRepository).save(existing);
+        verify(pointCacheCoordinator).pointUpdated(null, null, existing);
     }
 
     @Test
@@ -130,6 +166,9 @@ class FirestorePointServiceTest {
         FirestorePoint high = FirestorePoint.builder().favoriteCount(10).build();
 
         when(pointRepository.findAll()).thenReturn(List.of(low, mid, high));
+        when(favoriteCounter.currentCount(any())).thenAnswer(invocation ->
+                invocation.<FirestorePoint>getArgument(0).getFavoriteCount());
+        when(favoriteCounter.withCurrentCount(any())).thenAnswer(invocation -> invocation.getArgument(0));
 
         List<FirestorePoint> result = pointService.findPopularPoints(2);
 
@@ -137,4 +176,141 @@ class FirestorePointServiceTest {
         assertThat(result.get(0)).isEqualTo(high);
         assertThat(result.get(1)).isEqualTo(mid);
     }
+
+    @Test
+    void findPage_ShouldReturnCursorToResumeAfterLastItem() {
+        FirestorePoint a = FirestorePoint.builder().id("a").build();
+        FirestorePoint b = FirestorePoint.builder().id("b").build();
+        FirestorePoint c = FirestorePoint.builder().id("c").build();
+        when(pointRepository.findPage(null, 3, FieldProjection.ALL)).thenReturn(List.of(a, b, c));
+        when(pointRepository.findPage("b", 3, FieldProjection.ALL)).thenReturn(List.of(c));
+
+        CursorPage<FirestorePoint> first = pointService.findPage(null, 2);
+        assertThat(first.getItems()).containsExactly(a, b);
+        assertThat(first.getNextCursor()).isNotNull();
+
+        CursorPage<FirestorePoint> last = pointService.findPage(first.getNextCursor(), 2);
+        assertThat(last.getItems()).containsExactly(c);
+        assertThat(last.getNextCursor()).isNull();
+    }
+
+    @Test
+    void forEachBatch_ShouldResumeAfterLastIdUntilShortBatch() {
+        List<FirestorePoint> full = IntStream.range(0, 200)
+                .mapToObj(i -> FirestorePoint.builder().id(String.format("p%03d", i)).build())
+                .toList();
+        FirestorePoint tail = FirestorePoint.builder().id("z").build();
+        when(pointRepository.findPage(null, 200)).thenReturn(full);
+        when(pointRepository.findPage("p199", 200)).thenReturn(List.of(tail));
+
+        List<Integer> batchSizes = new ArrayList<>();
+        pointService.forEachBatch(batch -> batchSizes.add(batch.size()));
+
+        assertThat(batchSizes).containsExactly(200, 1);
+    }
+
+    @Test
+    void findPage_ShouldRejectForeignCursors() {
+        assertThatThrownBy(() -> pointService.findPage("not-a-cursor", 10))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void findPopularPoints_ShouldUseLiveRankingWhenAvailable() {
+        when(favoriteCounter.topPoints(5)).thenReturn(Optional.of(List.of(basePoint)));
+
+        assertThat(pointService.findPopularPoints(5)).containsExactly(basePoint);
+        verify(pointRepository, never()).findAll();
+    }
+
+    @Test
+    void findByNameContaining_ShouldUseSearchIndexWhenAvailable() {
+        when(pointSearchIndex.isAvailable()).thenReturn(true);
+        when(pointSearchIndex.search("cabeca")).thenReturn(List.of(basePoint));
+
+        List<FirestorePoint> result = pointService.findByNameContaining("cabeca");
+
+        assertThat(result).containsExactly(basePoint);
+        verify(pointRepository, never()).findByNameContaining(any());
+    }
+
+    @Test
+    void findByNameContaining_ShouldFallBackToRepositoryScan() {
+        when(pointSearchIndex.isAvailable()).thenReturn(false);
+        when(pointRepository.findByNameContaining("Test")).thenReturn(List.of(basePoint));
+
+        assertThat(pointService.findByNameContaining("Test")).containsExactly(basePoint);
+    }
+
+    @Test
+    void autocomplete_ShouldFallBackToRepositoryRankedByFavorites() {
+        FirestorePoint popular = FirestorePoint.builder().id("point-2").code("P2").name("Test Popular").favoriteCount(7).build();
+        when(pointAutocompleteIndex.isAvailable()).thenReturn(false);
+        when(pointRepository.findByNameContaining("Test")).thenReturn(List.of(basePoint, popular));
+
+        List<PointSuggestion> result = pointService.autocomplete("Test", 1);
+
+        assertThat(result).extracting(PointSuggestion::getCode).containsExactly("P2");
+    }
+
+    @Test
+    void rankBySymptoms_ShouldOrderByCoverageThenSymptomWeightThenFavorites() {
+        FirestoreSymptom insomnia = FirestoreSymptom.builder().id("insomnia").severity(8).priority(1).build();
+        FirestoreSymptom anxiety = FirestoreSymptom.builder().id("anxiety").severity(3).build();
+        FirestorePoint both = FirestorePoint.builder().id("p2").code("P2").build();
+        FirestorePoint severe = FirestorePoint.builder().id("p3").code("P3").favoriteCount(0).build();
+        FirestorePoint mild = FirestorePoint.builder().id("p4").code("P4").favoriteCount(50).build();
+        when(symptomPointGraph.isAvailable()).thenReturn(true);
+        when(symptomPointGraph.coverage(List.of("insomnia", "anxiety"))).thenReturn(List.of(
+                new SymptomPointGraph.Coverage(mild, List.of("anxiety"), List.of(anxiety)),
+                new SymptomPointGraph.Coverage(severe, List.of("insomnia"), List.of(insomnia)),
+                new SymptomPointGraph.Coverage(both, List.of("insomnia", "anxiety"), List.of(insomnia, anxiety))));
+
+        List<PointCoverageResponse> result = pointService.rankBySymptoms(List.of("insomnia", "anxiety"), 10);
+
+        assertThat(result).extracting(PointCoverageResponse::getPoint).containsExactly(both, severe, mild);
+        assertThat(result.get(0).getSymptomWeight()).isEqualTo(12);
+        verify(pointRepository, never()).findBySymptomId(any());
+    }
+
+    @Test
+    void rankBySymptoms_ShouldFallBackToPerSymptomQueries() {
+        FirestorePoint other = FirestorePoint.builder().id("point-2").code("P2").build();
+        when(symptomPointGraph.isAvailable()).thenReturn(false);
+        when(pointRepository.findBySymptomId("s1")).thenReturn(List.of(other, basePoint));
+        when(pointRepository.findBySymptomId("s2")).thenReturn(List.of(basePoint));
+
+        List<PointCoverageResponse> result = pointService.rankBySymptoms(List.of("s1", "s2"), 1);
+
+        assertThat(result).hasSize(1);
+        assertThat(result.get(0).getPoint()).isEqualTo(basePoint);
+        assertThat(result.get(0).getMatchedSymptomIds()).containsExactly("s1", "s2");
+    }
+
+    @Test
+    void rankBySymptoms_ShouldKeepSymptomWeightOnFallback() {
+        FirestoreSymptom insomnia = FirestoreSymptom.builder().id("insomnia").severity(8).priority(1).build();
+        FirestoreSymptom anxiety = FirestoreSymptom.builder().id("anxiety").severity(3).build();
+        FirestorePoint severe = FirestorePoint.builder().id("p9").code("P9").build();
+        FirestorePoint mild = FirestorePoint.builder().id("p4").code("P4").build();
+        when(symptomPointGraph.isAvailable()).thenReturn(false);
+        when(symptomRepository.findById("anxiety")).thenReturn(Optional.of(anxiety));
+        when(symptomRepository.findById("insomnia")).thenReturn(Optional.of(insomnia));
+        when(pointRepository.findBySymptomId("anxiety")).thenReturn(List.of(mild));
+        when(pointRepository.findBySymptomId("insomnia")).thenReturn(List.of(severe));
+
+        List<PointCoverageResponse> result = pointService.rankBySymptoms(List.of("anxiety", "insomnia", "anxiety"), 10);
+
+        assertThat(result).extracting(PointCoverageResponse::getPoint).containsExactly(severe, mild);
+        assertThat(result).extracting(PointCoverageResponse::getSymptomWeight).containsExactly(9, 3);
+        verify(symptomRepository).findById("anxiety");
+    }
+
+    @Test
+    void incrementFavoriteCount_ShouldOnlyAccumulate() {
+        pointService.incrementFavoriteCount("point-1");
+
+        verify(favoriteCounter).increment("point-1");
+        verify(pointRepository, never()).applyFavoriteDeltas(any(), anyInt());
+    }
 }
@@ -2,6 +2,8 @@ package com.appunture.backend.service;
 
 import com.appunture.backend.model.firestore.FirestoreSymptom;
 import com.appunture.backend.repository.firestore.FirestoreSymptomRepository;
+import com.appunture.backend.service.counter.SymptomUseRecorder;
+import com.appunture.backend.service.search.SymptomFuzzyIndex;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -17,6 +19,7 @@ import java.util.Optional;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
@@ -26,6 +29,12 @@ class FirestoreSymptomServiceTest {
     @Mock
     private FirestoreSymptomRepository symptomRepository;
 
+    @Mock
+    private SymptomFuzzyIndex symptomFuzzyIndex;
+
+    @Mock
+    private SymptomUseRecorder symptomUseRecorder;
+
     @InjectMocks
     private FirestoreSymptomService symptomService;
 
@@ -243,9 +252,33 @@ class FirestoreSymptomServiceTest {
     }
 
     @Test
-    void incrementUseCount_ShouldDelegateToRepository() {
+    void incrementUseCount_ShouldRecordWithoutWritingToRepository() {
         symptomService.incrementUseCount("symptom-1");
 
-        verify(symptomRepository).incrementUseCount("symptom-1");
+        verify(symptomUseRecorder).record("symptom-1");
+        verify(symptomRepository, never()).applyUseCountDeltas(any());
+    }
+
+    @Test
+    void findTopUsed_ShouldRankByLiveUseCount() {
+        baseSymptom.setUseCount(10);
+        FirestoreSymptom rising = FirestoreSymptom.builder().id("symptom-2").name("Insônia").useCount(8).build();
+        FirestoreSymptom risingLive = FirestoreSymptom.builder().id("symptom-2").name("Insônia").useCount(12).build();
+        FirestoreSymptom unused = FirestoreSymptom.builder().id("symptom-3").name("Soluço").build();
+        when(symptomRepository.findAll()).thenReturn(List.of(baseSymptom, rising, unused));
+        when(symptomUseRecorder.withLiveCount(baseSymptom)).thenReturn(baseSymptom);
+        when(symptomUseRecorder.withLiveCount(rising)).thenReturn(risingLive);
+        when(symptomUseRecorder.withLiveCount(unused)).thenReturn(unused);
+
+        assertThat(symptomService.findTopUsed(5)).containsExactly(risingLive, baseSymptom);
+    }
+
+    @Test
+    void findByNameContaining_ShouldUseFuzzyIndexWhenAvailable() {
+        when(symptomFuzzyIndex.isAvailable()).thenReturn(true);
+        when(symptomFuzzyIndex.search("cefaleai")).thenReturn(List.of(baseSymptom));
+
+        assertThat(symptomService.findByNameContaining("cefaleai")).containsExactly(baseSymptom);
+        verify(symptomRepository, never()).findByNameContaining(any());
     }
 }
@@ -0,0 +1,147 @@
+package com.appunture.backend.service;
+
+import com.appunture.backend.config.SyncProperties;
+import com.appunture.backend.dto.sync.SyncChangesResponse;
+import com.appunture.backend.dto.sync.SyncToken;
+import com.appunture.backend.exception.DataSourceUnavailableException;
+import com.appunture.backend.model.firestore.FirestorePoint;
+import com.appunture.backend.model.firestore.FirestoreSymptom;
+import com.appunture.backend.model.firestore.FirestoreTombstone;
+import com.appunture.backend.repository.firestore.FirestoreCatalog;
+import com.appunture.backend.repository.firestore.FirestorePointRepository;
+import com.appunture.backend.repository.firestore.FirestoreSymptomRepository;
+import com.appunture.backend.repository.firestore.FirestoreTombstoneRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class SyncServiceTest {
+
+    @Mock
+    private FirestorePointRepository pointRepository;
+
+    @Mock
+    private FirestoreSymptomRepository symptomRepository;
+
+    @Mock
+    private FirestoreTombstoneRepository tombstoneRepository;
+
+    @Mock
+    private FirestoreCatalog catalog;
+
+    private SyncService syncService;
+    private LocalDateTime base;
+
+    @BeforeEach
+    void setUp() {
+        syncService = new SyncService(pointRepository, symptomRepository, tombstoneRepository, catalog, new SyncProperties());
+        lenient().when(catalog.isPointsReady()).thenReturn(true);
+        lenient().when(catalog.isSymptomsReady()).thenReturn(true);
+        base = LocalDateTime.now().minusHours(1);
+    }
+
+    @Test
+    void changesSince_ShouldMergeSourcesInTimeOrderAndAdvanceEachCursor() {
+        FirestorePoint p1 = FirestorePoint.builder().id("p1").updatedAt(base).build();
+        FirestorePoint p2 = FirestorePoint.builder().id("p2").updatedAt(base.plusMinutes(3)).build();
+        FirestoreSymptom s1 = FirestoreSymptom.builder().id("s1").updatedAt(base.plusMinutes(1)).build();
+        FirestoreTombstone t1 = FirestoreTombstone.builder().id("points_p9").documentId("p9").deletedAt(base.plusMinutes(2)).build();
+        when(pointRepository.findChangedAfter(isNull(), isNull(), eq(4))).thenReturn(List.of(p1, p2));
+        when(symptomRepository.findChangedAfter(isNull(), isNull(), eq(4))).thenReturn(List.of(s1));
+        when(tombstoneRepository.findChangedAfter(isNull(), isNull(), eq(4))).thenReturn(List.of(t1));
+
+        SyncChangesResponse response = syncService.changesSince(null, 3);
+
+        assertThat(response.getPoints()).containsExactly(p1);
+        assertThat(response.getSymptoms()).containsExactly(s1);
+        assertThat(response.getDeleted()).containsExactly(t1);
+        assertThat(response.isHasMore()).isTrue();
+
+        SyncToken next = SyncToken.decode(response.getNextToken());
+        assertThat(next.getPoints()).isEqualTo(new SyncToken.Position(base, "p1"));
+        assertThat(next.getSymptoms()).isEqualTo(new SyncToken.Position(base.plusMinutes(1), "s1"));
+        assertThat(next.getTombstones()).isEqualTo(new SyncToken.Position(base.plusMinutes(2), "points_p9"));
+        assertThat(next.getSyncedAt()).isNull();
+    }
+
+    @Test
+    void changesSince_ShouldHoldBackUnsettledChangesAndMarkLastPageSynced() {
+        FirestorePoint settled = FirestorePoint.builder().id("p1").updatedAt(base).build();
+        FirestorePoint inFlight = FirestorePoint.builder().id("p2").updatedAt(LocalDateTime.now().plusSeconds(5)).build();
+        SyncToken token = new SyncToken(new SyncToken.Position(base.minusMinutes(1), "p0"),
+                SyncToken.Position.START, SyncToken.Position.START, base.minusMinutes(1));
+        when(pointRepository.findChangedAfter(base.minusMinutes(1), "p0", 11)).thenReturn(List.of(settled, inFlight));
+        when(symptomRepository.findChangedAfter(any(), any(), anyInt())).thenReturn(List.of());
+        when(tombstoneRepository.findChangedAfter(any(), any(), anyInt())).thenReturn(List.of());
+
+        SyncChangesResponse response = syncService.changesSince(token.encode(), 10);
+
+        assertThat(response.getPoints()).containsExactly(settled);
+        assertThat(response.isHasMore()).isFalse();
+        SyncToken next = SyncToken.decode(response.getNextToken());
+        assertThat(next.getPoints().getId()).isEqualTo("p1");
+        assertThat(next.getSyncedAt()).isBefore(LocalDateTime.now()).isAfter(base);
+    }
+
+    @Test
+    void changesSince_ShouldRequireResetWhenTokenIsOlderThanRetention() {
+        SyncToken token = new SyncToken(SyncToken.Position.START, SyncToken.Position.START,
+                SyncToken.Position.START, LocalDateTime.now().minusDays(120));
+
+        SyncChangesResponse response = syncService.changesSince(token.encode(), 10);
+
+        assertThat(response.isResetRequired()).isTrue();
+        verify(pointRepository, never()).findChangedAfter(any(), any(), anyInt());
+    }
+
+    @Test
+    void resumeToken_ShouldStopEachCursorAtLastSettledDocument() {
+        LocalDateTime readAt = base.plusMinutes(10);
+        List<FirestorePoint> points = List.of(
+                FirestorePoint.builder().id("p1").updatedAt(base).build(),
+                FirestorePoint.builder().id("p2").updatedAt(readAt).build());
+        FirestoreTombstone latest = FirestoreTombstone.builder().id("symptoms_s9").deletedAt(base.plusMinutes(1)).build();
+        when(tombstoneRepository.findLatestUntil(any())).thenReturn(Optional.of(latest));
+
+        SyncToken token = syncService.resumeToken(points, List.of(), readAt);
+
+        assertThat(token.getPoints()).isEqualTo(new SyncToken.Position(base, "p1"));
+        assertThat(token.getSymptoms()).isEqualTo(SyncToken.Position.START);
+        assertThat(token.getTombstones()).isEqualTo(new SyncToken.Position(base.plusMinutes(1), "symptoms_s9"));
+        assertThat(token.getSyncedAt()).isBefore(readAt);
+    }
+
+    @Test
+    void changesSince_ShouldBeUnavailableUntilCatalogIsLoaded() {
+        when(catalog.isSymptomsReady()).thenReturn(false);
+
+        assertThatThrownBy(() -> syncService.changesSince(null, 10))
+                .isInstanceOf(DataSourceUnavailableException.class);
+        verify(pointRepository, never()).findChangedAfter(any(), any(), anyInt());
+        verify(symptomRepository, never()).findChangedAfter(any(), any(), anyInt());
+    }
+
+    @Test
+    void changesSince_ShouldRejectMalformedToken() {
+        assertThatThrownBy(() -> syncService.changesSince("não-é-token", 10))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+}
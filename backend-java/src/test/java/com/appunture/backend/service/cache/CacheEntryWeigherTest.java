@@ -0,0 +1,60 @@
+package com.appunture.backend.service.cache;
+
+import com.appunture.backend.model.firestore.FirestorePoint;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.interceptor.SimpleKey;
+
+import java.util.List;
+import java.util.Map;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CacheEntryWeigherTest {
+
+    private final CacheEntryWeigher weigher = new CacheEntryWeigher();
+
+    @Test
+    void catalogListWeighsRoughlyItsPointsCombined() {
+        List<FirestorePoint> catalog = IntStream.range(0, 300).mapToObj(this::point).toList();
+
+        int single = weigher.weigh("LI4", point(0));
+        int all = weigher.weigh(SimpleKey.EMPTY, catalog);
+
+        assertThat(all).isBetween(single * 250, single * 350);
+    }
+
+    @Test
+    void longerTextWeighsMore() {
+        FirestorePoint shortDescription = point(1);
+        FirestorePoint longDescription = point(1);
+        longDescription.setDescription("x".repeat(10_000));
+
+        assertThat(CacheEntryWeigher.estimate(longDescription) - CacheEntryWeigher.estimate(shortDescription))
+                .isBetween(9_000L, 11_000L);
+    }
+
+    @Test
+    void nonLatinTextUsesTwoBytesPerChar() {
+        assertThat(CacheEntryWeigher.estimate("头".repeat(1000))).isGreaterThan(2000);
+        assertThat(CacheEntryWeigher.estimate("a".repeat(1000))).isLessThan(1100);
+    }
+
+    @Test
+    void emptyEntriesStillWeighAtLeastOne() {
+        assertThat(weigher.weigh("LI4", null)).isPositive();
+        assertThat(weigher.weigh(SimpleKey.EMPTY, 0L)).isPositive();
+    }
+
+    private FirestorePoint point(int index) {
+        return FirestorePoint.builder()
+                .id("point-" + index)
+                .code("LI" + index)
+                .name("Hegu " + index)
+                .meridian("LI")
+                .description("Ponto localizado no dorso da mão, entre o primeiro e o segundo metacarpo")
+                .coordinates(Map.of("x", 0.5, "y", 0.25))
+                .symptomIds(List.of("s1", "s2", "s3"))
+                .build();
+    }
+}
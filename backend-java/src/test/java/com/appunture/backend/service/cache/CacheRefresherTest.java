@@ -0,0 +1,111 @@
+package com.appunture.backend.service.cache;
+
+import com.appunture.backend.config.CacheProperties;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.LoadingCache;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.support.NullValue;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BooleanSupplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class CacheRefresherTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final AtomicLong nanos = new AtomicLong();
+    private CacheRefresher refresher;
+    private LoadingCache<Object, Object> cache;
+
+    @BeforeEach
+    void setUp() {
+        refresher = new CacheRefresher(new CacheProperties(), meterRegistry);
+        refresher.start();
+        cache = Caffeine.newBuilder()
+                .expireAfterWrite(Duration.ofHours(2))
+                .refreshAfterWrite(Duration.ofMinutes(10))
+                .ticker(nanos::get)
+                .build(refresher.loaderFor("points"));
+    }
+
+    @AfterEach
+    void tearDown() {
+        refresher.stop();
+    }
+
+    @Test
+    void staleEntryIsServedWhileItReloadsInBackground() {
+        refresher.register("points", key -> "new");
+        cache.put("LI", "old");
+
+        nanos.addAndGet(Duration.ofMinutes(11).toNanos());
+
+        assertThat(cache.getIfPresent("LI")).isEqualTo("old");
+        waitUntil(() -> "new".equals(cache.getIfPresent("LI")));
+        assertThat(refreshes("success")).isEqualTo(1);
+    }
+
+    @Test
+    void failedReloadKeepsLastGoodValue() {
+        refresher.register("points", key -> {
+            throw new IllegalStateException("Firestore indisponível");
+        });
+        cache.put("LI", "old");
+
+        nanos.addAndGet(Duration.ofMinutes(11).toNanos());
+
+        assertThat(cache.getIfPresent("LI")).isEqualTo("old");
+        waitUntil(() -> refreshes("failure") == 1);
+        assertThat(cache.getIfPresent("LI")).isEqualTo("old");
+    }
+
+    @Test
+    void reloadStoresMissingResultAsCachedNull() throws Exception {
+        refresher.register("points", key -> null);
+
+        assertThat(refresher.loaderFor("points").reload("LI", "old")).isSameAs(NullValue.INSTANCE);
+    }
+
+    @Test
+    void cacheWithoutReloaderKeepsItsValueAndDirectLookupsDoNotLoad() throws Exception {
+        assertThat(refresher.loaderFor("pointsCount").reload("*", 42L)).isEqualTo(42L);
+        assertThat(cache.get("missing")).isNull();
+        assertThat(cache.asMap()).isEmpty();
+    }
+
+    @Test
+    void reloadFailurePropagatesSoCaffeineKeepsTheEntry() {
+        refresher.register("points", key -> {
+            throw new IllegalStateException("Firestore indisponível");
+        });
+
+        assertThatThrownBy(() -> refresher.loaderFor("points").reload("LI", "old"))
+                .isInstanceOf(IllegalStateException.class);
+    }
+
+    private long refreshes(String result) {
+        return meterRegistry.find("app_cache_refresh").tag("result", result).timers().stream()
+                .mapToLong(timer -> timer.count())
+                .sum();
+    }
+
+    private static void waitUntil(BooleanSupplier condition) {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (!condition.getAsBoolean() && System.nanoTime() < deadline) {
+            try {
+                Thread.sleep(5);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+        assertThat(condition.getAsBoolean()).isTrue();
+    }
+}
@@ -0,0 +1,35 @@
+package com.appunture.backend.service.cache;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+
+/**
+ * Barramento síncrono para testes: entrega cada evento a todos os assinantes, como várias
+ * instâncias ligadas à mesma coleção {@code _cache_events}.
+ */
+class InMemoryCacheInvalidationBus implements CacheInvalidationBus {
+
+    private final List<Consumer<CacheInvalidation>> subscribers = new CopyOnWriteArrayList<>();
+    private final List<CacheInvalidation> published = new ArrayList<>();
+
+    @Override
+    public void publish(CacheInvalidation invalidation) {
+        published.add(invalidation);
+        subscribers.forEach(subscriber -> subscriber.accept(invalidation));
+    }
+
+    @Override
+    public void subscribe(Consumer<CacheInvalidation> subscriber) {
+        subscribers.add(subscriber);
+    }
+
+    List<CacheInvalidation> published() {
+        return published;
+    }
+
+    void replay(CacheInvalidation invalidation) {
+        subscribers.forEach(subscriber -> subscriber.accept(invalidation));
+    }
+}
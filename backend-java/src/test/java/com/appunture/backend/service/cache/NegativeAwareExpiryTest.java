@@ -0,0 +1,62 @@
+package com.appunture.backend.service.cache;
+
+import com.appunture.backend.exception.DataSourceUnavailableException;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.support.NullValue;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class NegativeAwareExpiryTest {
+
+    private final AtomicLong nanos = new AtomicLong();
+    private Cache<Object, Object> cache;
+
+    @BeforeEach
+    void setUp() {
+        cache = Caffeine.newBuilder()
+                .expireAfter(new NegativeAwareExpiry(Duration.ofHours(2), Duration.ofMinutes(1)))
+                .ticker(nanos::get)
+                .build();
+    }
+
+    @Test
+    void notFoundResultsExpireAfterTheShortTtl() {
+        cache.put("XX99", NullValue.INSTANCE);
+        cache.put("GV", List.of());
+        cache.put("LI", List.of("LI4"));
+
+        nanos.addAndGet(Duration.ofMinutes(2).toNanos());
+
+        assertThat(cache.getIfPresent("XX99")).isNull();
+        assertThat(cache.getIfPresent("GV")).isNull();
+        assertThat(cache.getIfPresent("LI")).isEqualTo(List.of("LI4"));
+    }
+
+    @Test
+    void replacingANegativeEntryRestoresTheFullTtl() {
+        cache.put("GV20", NullValue.INSTANCE);
+        cache.put("GV20", "point");
+
+        nanos.addAndGet(Duration.ofMinutes(30).toNanos());
+
+        assertThat(cache.getIfPresent("GV20")).isEqualTo("point");
+    }
+
+    @Test
+    void readFailuresAreNeverStored() {
+        assertThatThrownBy(() -> cache.get("LI4", key -> {
+            throw new DataSourceUnavailableException("Erro ao buscar ponto por código LI4", null);
+        })).isInstanceOf(DataSourceUnavailableException.class);
+
+        assertThat(cache.getIfPresent("LI4")).isNull();
+        assertThat(cache.get("LI4", key -> "point")).isEqualTo("point");
+    }
+}
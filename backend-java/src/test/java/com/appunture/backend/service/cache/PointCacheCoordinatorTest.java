@@ -0,0 +1,194 @@
+package com.appunture.backend.service.cache;
+
+import com.appunture.backend.config.CacheConfig;
+import com.appunture.backend.model.firestore.FirestorePoint;
+import com.appunture.backend.repository.firestore.FirestoreCatalog;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.cache.Cache;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.cache.interceptor.SimpleKey;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class PointCacheCoordinatorTest {
+
+    private final InMemoryCacheInvalidationBus bus = new InMemoryCacheInvalidationBus();
+
+    private ConcurrentMapCacheManager cacheManager;
+    private PointCacheCoordinator coordinator;
+
+    private ConcurrentMapCacheManager remoteCacheManager;
+    private FirestoreCatalog remoteCatalog;
+    private FirestoreCatalog.PointListener remoteCatalogListener;
+
+    @BeforeEach
+    void setUp() {
+        cacheManager = newCacheManager();
+        coordinator = new PointCacheCoordinator(cacheManager, bus, mock(FirestoreCatalog.class));
+        coordinator.start();
+
+        remoteCacheManager = newCacheManager();
+        remoteCatalog = mock(FirestoreCatalog.class);
+        PointCacheCoordinator remote = new PointCacheCoordinator(remoteCacheManager, bus, remoteCatalog);
+        remote.start();
+        ArgumentCaptor<FirestoreCatalog.PointListener> listener =
+                ArgumentCaptor.forClass(FirestoreCatalog.PointListener.class);
+        verify(remoteCatalog).addPointListener(listener.capture());
+        remoteCatalogListener = listener.getValue();
+    }
+
+    @Test
+    void pointUpdatedMovesPointBetweenMeridiansAndCodes() {
+        FirestorePoint a = point("a", "LI4", "LI");
+        FirestorePoint b = point("b", "LI11", "LI");
+        FirestorePoint c = point("c", "ST36", "ST");
+        cache(CacheConfig.CACHE_POINTS).put(SimpleKey.EMPTY, List.of(a, b, c));
+        cache(CacheConfig.CACHE_POINTS_BY_MERIDIAN).put("LI", List.of(a, b));
+        cache(CacheConfig.CACHE_POINTS_BY_MERIDIAN).put("ST", List.of(c));
+        cache(CacheConfig.CACHE_POINT_BY_CODE).put("LI11", b);
+        cache(CacheConfig.CACHE_POINT_BY_CODE).put("LI4", a);
+
+        FirestorePoint moved = point("b", "ST35", "ST");
+        coordinator.pointUpdated("LI11", "LI", moved);
+
+        assertThat(ids(CacheConfig.CACHE_POINTS, SimpleKey.EMPTY)).containsExactly("a", "b", "c");
+        assertThat(ids(CacheConfig.CACHE_POINTS_BY_MERIDIAN, "LI")).containsExactly("a");
+        assertThat(ids(CacheConfig.CACHE_POINTS_BY_MERIDIAN, "ST")).containsExactly("b", "c");
+        assertThat(cache(CacheConfig.CACHE_POINT_BY_CODE).get("LI11")).isNull();
+        assertThat(cache(CacheConfig.CACHE_POINT_BY_CODE).get("ST35").get())
+                .isEqualTo(moved);
+        assertThat(cache(CacheConfig.CACHE_POINT_BY_CODE).get("LI4").get()).isEqualTo(a);
+    }
+
+    @Test
+    void pointUpdatedLeavesAbsentKeysUnloaded() {
+        coordinator.pointUpdated("LI4", "LI", point("a", "LI4", "LI"));
+
+        assertThat(cache(CacheConfig.CACHE_POINTS).get(SimpleKey.EMPTY)).isNull();
+        assertThat(cache(CacheConfig.CACHE_POINTS_BY_MERIDIAN).get("LI")).isNull();
+    }
+
+    @Test
+    void pointCreatedReplacesCachedMissAndAdjustsCount() {
+        cache(CacheConfig.CACHE_POINT_BY_CODE).put("GV20", null);
+        cache(CacheConfig.CACHE_POINTS_COUNT).put(SimpleKey.EMPTY, 2L);
+        cache(CacheConfig.CACHE_POINTS).put(SimpleKey.EMPTY, List.of(point("a", "LI4", "LI")));
+
+        coordinator.pointCreated(point("0", "GV20", "GV"));
+
+        assertThat(cache(CacheConfig.CACHE_POINT_BY_CODE).get("GV20").get()).isNotNull();
+        assertThat(cache(CacheConfig.CACHE_POINTS_COUNT).get(SimpleKey.EMPTY).get()).isEqualTo(3L);
+        assertThat(ids(CacheConfig.CACHE_POINTS, SimpleKey.EMPTY)).containsExactly("0", "a");
+    }
+
+    @Test
+    void pointDeletedRemovesFromEveryAffectedKey() {
+        FirestorePoint a = point("a", "LI4", "LI");
+        FirestorePoint b = point("b", "LI11", "LI");
+        cache(CacheConfig.CACHE_POINTS).put(SimpleKey.EMPTY, List.of(a, b));
+        cache(CacheConfig.CACHE_POINTS_BY_MERIDIAN).put("LI", List.of(a, b));
+        cache(CacheConfig.CACHE_POINT_BY_CODE).put("LI4", a);
+        cache(CacheConfig.CACHE_POINTS_COUNT).put(SimpleKey.EMPTY, 2L);
+
+        coordinator.pointDeleted(a);
+
+        assertThat(ids(CacheConfig.CACHE_POINTS, SimpleKey.EMPTY)).containsExactly("b");
+        assertThat(ids(CacheConfig.CACHE_POINTS_BY_MERIDIAN, "LI")).containsExactly("b");
+        assertThat(cache(CacheConfig.CACHE_POINT_BY_CODE).get("LI4")).isNull();
+        assertThat(cache(CacheConfig.CACHE_POINTS_COUNT).get(SimpleKey.EMPTY).get()).isEqualTo(1L);
+    }
+
+    @Test
+    void remoteInstanceEvictsOnlyTheAffectedKeys() {
+        Cache remoteByMeridian = remoteCacheManager.getCache(CacheConfig.CACHE_POINTS_BY_MERIDIAN);
+        Cache remoteByCode = remoteCacheManager.getCache(CacheConfig.CACHE_POINT_BY_CODE);
+        remoteByMeridian.put("LI", List.of());
+        remoteByMeridian.put("ST", List.of());
+        remoteByMeridian.put("GV", List.of());
+        remoteByCode.put("LI11", null);
+        remoteByCode.put("GV20", null);
+        remoteCacheManager.getCache(CacheConfig.CACHE_POINTS).put(SimpleKey.EMPTY, List.of());
+        remoteCacheManager.getCache(CacheConfig.CACHE_POINTS_COUNT).put(SimpleKey.EMPTY, 3L);
+
+        coordinator.pointUpdated("LI11", "LI", point("b", "ST35", "ST"));
+
+        assertThat(remoteByMeridian.get("LI")).isNull();
+        assertThat(remoteByMeridian.get("ST")).isNull();
+        assertThat(remoteByMeridian.get("GV")).isNotNull();
+        assertThat(remoteByCode.get("LI11")).isNull();
+        assertThat(remoteByCode.get("GV20")).isNotNull();
+        assertThat(remoteCacheManager.getCache(CacheConfig.CACHE_POINTS).get(SimpleKey.EMPTY)).isNull();
+        assertThat(remoteCacheManager.getCache(CacheConfig.CACHE_POINTS_COUNT).get(SimpleKey.EMPTY)).isNotNull();
+    }
+
+    @Test
+    void replayedEventIsIgnored() {
+        coordinator.pointUpdated("LI4", "LI", point("a", "LI4", "LI"));
+        Cache remoteByCode = remoteCacheManager.getCache(CacheConfig.CACHE_POINT_BY_CODE);
+        remoteByCode.put("LI4", null);
+
+        bus.replay(bus.published().get(0));
+
+        assertThat(remoteByCode.get("LI4")).isNotNull();
+    }
+
+    @Test
+    void remoteInstanceEvictsAgainWhenItsCatalogCatchesUp() {
+        LocalDateTime version = LocalDateTime.now();
+        when(remoteCatalog.isPointsReady()).thenReturn(true);
+        when(remoteCatalog.findPointById("a")).thenReturn(Optional.of(point("a", "LI4", "LI")));
+        FirestorePoint saved = point("a", "LI4", "LI");
+        saved.setUpdatedAt(version);
+
+        coordinator.pointUpdated("LI4", "LI", saved);
+        // Leitura feita antes de o catálogo local receber a alteração
+        Cache remoteByCode = remoteCacheManager.getCache(CacheConfig.CACHE_POINT_BY_CODE);
+        remoteByCode.put("LI4", point("a", "LI4", "LI"));
+
+        remoteCatalogListener.pointChanged("a", saved);
+
+        assertThat(remoteByCode.get("LI4")).isNull();
+    }
+
+    @Test
+    void resetClearsEveryPointCache() {
+        Cache remoteByCode = remoteCacheManager.getCache(CacheConfig.CACHE_POINT_BY_CODE);
+        remoteByCode.put("LI4", null);
+
+        bus.replay(CacheInvalidation.reset());
+
+        assertThat(remoteByCode.get("LI4")).isNull();
+    }
+
+    private Cache cache(String name) {
+        return cacheManager.getCache(name);
+    }
+
+    private static ConcurrentMapCacheManager newCacheManager() {
+        return new ConcurrentMapCacheManager(
+                CacheConfig.CACHE_POINTS,
+                CacheConfig.CACHE_POINTS_BY_MERIDIAN,
+                CacheConfig.CACHE_POINT_BY_CODE,
+                CacheConfig.CACHE_POINTS_COUNT);
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<String> ids(String cacheName, Object key) {
+        return ((List<FirestorePoint>) cache(cacheName).get(key).get()).stream()
+                .map(FirestorePoint::getId)
+                .toList();
+    }
+
+    private static FirestorePoint point(String id, String code, String meridian) {
+        return FirestorePoint.builder().id(id).code(code).meridian(meridian).build();
+    }
+}
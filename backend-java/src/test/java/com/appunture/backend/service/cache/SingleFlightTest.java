@@ -0,0 +1,115 @@
+package com.appunture.backend.service.cache;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class SingleFlightTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final SingleFlight singleFlight = new SingleFlight(meterRegistry);
+    private final ExecutorService executor = Executors.newFixedThreadPool(4);
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    void concurrentCallsForTheSameKeyShareOneLoad() throws Exception {
+        CountDownLatch loading = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicInteger loads = new AtomicInteger();
+
+        Future<List<String>> leader = executor.submit(() -> singleFlight.execute("points.findAll", () -> {
+            loads.incrementAndGet();
+            loading.countDown();
+            await(release);
+            return List.of("LI4");
+        }, "all"));
+        assertThat(loading.await(5, TimeUnit.SECONDS)).isTrue();
+
+        Future<List<String>> follower = executor.submit(() -> singleFlight.execute("points.findAll", () -> {
+            loads.incrementAndGet();
+            return List.of("other");
+        }, "all"));
+        waitForShared(1);
+        release.countDown();
+
+        assertThat(leader.get(5, TimeUnit.SECONDS)).containsExactly("LI4");
+        assertThat(follower.get(5, TimeUnit.SECONDS)).isSameAs(leader.get());
+        assertThat(loads).hasValue(1);
+        assertThat(count("leader")).isEqualTo(1);
+    }
+
+    @Test
+    void differentKeysLoadIndependently() {
+        assertThat(singleFlight.execute("points.findByMeridian", () -> "LI", "LI")).isEqualTo("LI");
+        assertThat(singleFlight.execute("points.findByMeridian", () -> "ST", "ST")).isEqualTo("ST");
+        assertThat(singleFlight.execute("points.findByMeridian", () -> "none", (Object) null)).isEqualTo("none");
+    }
+
+    @Test
+    void nothingIsRememberedAfterTheCallCompletes() {
+        singleFlight.execute("symptoms.findByPointId", () -> "first", "p1");
+
+        assertThat(singleFlight.execute("symptoms.findByPointId", () -> "second", "p1")).isEqualTo("second");
+    }
+
+    @Test
+    void followersReceiveTheLeadersException() throws Exception {
+        CountDownLatch loading = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+
+        Future<Object> leader = executor.submit(() -> singleFlight.execute("points.findBySymptomId", () -> {
+            loading.countDown();
+            await(release);
+            throw new IllegalStateException("Firestore indisponível");
+        }, "s1"));
+        assertThat(loading.await(5, TimeUnit.SECONDS)).isTrue();
+        Future<Object> follower = executor.submit(() -> singleFlight.execute("points.findBySymptomId", () -> "ok", "s1"));
+        waitForShared(1);
+        release.countDown();
+
+        assertThatThrownBy(() -> leader.get(5, TimeUnit.SECONDS))
+                .isInstanceOf(ExecutionException.class)
+                .hasCauseInstanceOf(IllegalStateException.class);
+        assertThatThrownBy(() -> follower.get(5, TimeUnit.SECONDS))
+                .isInstanceOf(ExecutionException.class)
+                .hasCauseInstanceOf(IllegalStateException.class);
+    }
+
+    private double count(String role) {
+        return meterRegistry.find("app_singleflight_calls").tag("role", role).counters().stream()
+                .mapToDouble(counter -> counter.count())
+                .sum();
+    }
+
+    private void waitForShared(int expected) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (count("shared") < expected && System.nanoTime() < deadline) {
+            Thread.sleep(5);
+        }
+        assertThat(count("shared")).isEqualTo(expected);
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,202 @@
+package com.appunture.backend.service.counter;
+
+import com.appunture.backend.config.CounterProperties;
+import com.appunture.backend.model.firestore.FirestorePoint;
+import com.appunture.backend.repository.firestore.CounterWriteResult;
+import com.appunture.backend.repository.firestore.FirestoreCatalog;
+import com.appunture.backend.repository.firestore.FirestorePointRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class FavoriteCounterTest {
+
+    @Mock
+    private FirestorePointRepository pointRepository;
+
+    @Mock
+    private FirestoreCatalog catalog;
+
+    private CounterProperties properties;
+    private FavoriteCounter counter;
+
+    private final FirestorePoint point = FirestorePoint.builder().id("vg20").favoriteCount(10).build();
+
+    @BeforeEach
+    void setUp() {
+        properties = new CounterProperties();
+        counter = new FavoriteCounter(pointRepository, properties, catalog);
+    }
+
+    @Test
+    void coalescesClicksIntoOneDeltaPerPoint() {
+        counter.increment("vg20");
+        counter.increment("vg20");
+        counter.decrement("vg20");
+        counter.increment("e36");
+        counter.decrement("e36");
+        when(pointRepository.sumFavoriteCounts(false)).thenReturn(Map.of());
+        when(pointRepository.applyFavoriteDeltas(any(), anyInt())).thenReturn(CounterWriteResult.EMPTY);
+
+        assertThat(counter.currentCount(point)).isEqualTo(11);
+        counter.flush();
+        counter.flush();
+
+        verify(pointRepository, times(1)).applyFavoriteDeltas(Map.of("vg20", 1L), 0);
+    }
+
+    @Test
+    void failedDeltasAreRetriedOnNextFlush() {
+        counter.increment("vg20");
+        when(pointRepository.sumFavoriteCounts(false)).thenReturn(Map.of());
+        when(pointRepository.applyFavoriteDeltas(Map.of("vg20", 1L), 0))
+                .thenThrow(new RuntimeException("unavailable"))
+                .thenReturn(CounterWriteResult.EMPTY);
+
+        counter.flush();
+        assertThat(counter.currentCount(point)).isEqualTo(11);
+        counter.flush();
+
+        verify(pointRepository, times(2)).applyFavoriteDeltas(Map.of("vg20", 1L), 0);
+    }
+
+    @Test
+    void decrementsNeverTakeTheStoredCountBelowZero() {
+        when(pointRepository.findAllById(argThat(ids -> Set.copyOf(ids).equals(Set.of("e36", "lu1"))))).thenReturn(List.of(
+                FirestorePoint.builder().id("e36").favoriteCount(1).build(),
+                FirestorePoint.builder().id("lu1").favoriteCount(0).build()));
+        when(pointRepository.sumFavoriteCounts(false)).thenReturn(Map.of("e36", 1L));
+        when(pointRepository.applyFavoriteDeltas(Map.of("e36", -2L, "vg20", 1L), 0)).thenReturn(CounterWriteResult.EMPTY);
+
+        counter.decrement("e36");
+        counter.decrement("e36");
+        counter.decrement("e36");
+        counter.decrement("lu1");
+        counter.increment("vg20");
+        counter.flush();
+
+        verify(pointRepository).applyFavoriteDeltas(Map.of("e36", -2L, "vg20", 1L), 0);
+        verify(pointRepository, never()).findById(any());
+    }
+
+    @Test
+    void clicksOnPointsMissingFromTheCatalogAreIgnored() {
+        when(catalog.isPointsReady()).thenReturn(true);
+        when(catalog.containsPoint("vg20")).thenReturn(true);
+        when(catalog.containsPoint("gone")).thenReturn(false);
+        when(pointRepository.applyFavoriteDeltas(Map.of("vg20", 1L), 0)).thenReturn(CounterWriteResult.EMPTY);
+
+        counter.increment("gone");
+        counter.increment("vg20");
+        counter.flush();
+
+        verify(pointRepository).applyFavoriteDeltas(Map.of("vg20", 1L), 0);
+    }
+
+    @Test
+    void shardedModeReadsFieldPlusCachedStoredTotals() {
+        properties.setFavoriteShards(8);
+        when(pointRepository.sumFavoriteCounts(true)).thenReturn(Map.of("vg20", 5L));
+        when(pointRepository.applyFavoriteDeltas(Map.of("vg20", 2L), 8)).thenReturn(CounterWriteResult.EMPTY);
+
+        assertThat(counter.currentCount(point)).isEqualTo(15);
+        counter.increment("vg20");
+        counter.increment("vg20");
+        counter.flush();
+
+        assertThat(counter.currentCount(point)).isEqualTo(17);
+        assertThat(counter.withCurrentCount(point).getFavoriteCount()).isEqualTo(17);
+        assertThat(point.getFavoriteCount()).isEqualTo(10);
+        verify(pointRepository, times(1)).sumFavoriteCounts(true);
+    }
+
+    @Test
+    void directModeReadsStatsWithoutQueryingShards() {
+        when(pointRepository.sumFavoriteCounts(false)).thenReturn(Map.of());
+
+        assertThat(counter.currentCount(point)).isEqualTo(10);
+        assertThat(counter.withCurrentCount(point)).isSameAs(point);
+        verify(pointRepository, never()).sumFavoriteCounts(true);
+    }
+
+    @Test
+    void rankingFollowsCatalogAndClicks() {
+        FirestoreCatalog.PointListener listener = attachedListener();
+        FirestorePoint e36 = FirestorePoint.builder().id("e36").favoriteCount(12).build();
+        listener.pointChanged("vg20", point);
+        listener.pointChanged("e36", e36);
+        when(catalog.isPointsReady()).thenReturn(true);
+        when(catalog.findPointById("vg20")).thenAnswer(invocation -> Optional.of(FirestoreCatalog.copyOf(point)));
+        when(catalog.findPointById("e36")).thenAnswer(invocation -> Optional.of(FirestoreCatalog.copyOf(e36)));
+        when(catalog.containsPoint("vg20")).thenReturn(true);
+
+        assertThat(ids(counter.topPoints(2))).containsExactly("e36", "vg20");
+
+        counter.increment("vg20");
+        counter.increment("vg20");
+        counter.increment("vg20");
+
+        List<FirestorePoint> top = counter.topPoints(2).orElseThrow();
+        assertThat(top).extracting(FirestorePoint::getId).containsExactly("vg20", "e36");
+        assertThat(top.get(0).getFavoriteCount()).isEqualTo(13);
+
+        listener.pointChanged("vg20", null);
+        assertThat(ids(counter.topPoints(2))).containsExactly("e36");
+    }
+
+    @Test
+    void rankingIsUnavailableBeyondMaxLimitOrWithoutCatalog() {
+        when(catalog.isPointsReady()).thenReturn(false, true);
+
+        assertThat(counter.topPoints(5)).isEmpty();
+        assertThat(counter.topPoints(properties.getPopularMaxLimit() + 1)).isEmpty();
+    }
+
+    @Test
+    void reconcileAbsorbsStoredTotalsAndDropsRemovedPoints() {
+        FirestoreCatalog.PointListener listener = attachedListener();
+        listener.pointChanged("gone", FirestorePoint.builder().id("gone").favoriteCount(50).build());
+        properties.setFavoriteShards(4);
+        when(catalog.isPointsReady()).thenReturn(true);
+        when(catalog.allPoints()).thenReturn(List.of(point));
+        when(catalog.containsPoint("vg20")).thenReturn(true);
+        when(catalog.containsPoint("gone")).thenReturn(false);
+        when(pointRepository.sumFavoriteCounts(true)).thenReturn(Map.of("vg20", 7L));
+        when(catalog.findPointById("vg20")).thenAnswer(invocation -> Optional.of(FirestoreCatalog.copyOf(point)));
+
+        counter.reconcileRanking();
+
+        List<FirestorePoint> top = counter.topPoints(5).orElseThrow();
+        assertThat(top).extracting(FirestorePoint::getId).containsExactly("vg20");
+        assertThat(top.get(0).getFavoriteCount()).isEqualTo(17);
+    }
+
+    private FirestoreCatalog.PointListener attachedListener() {
+        counter.trackCatalog();
+        ArgumentCaptor<FirestoreCatalog.PointListener> captor = ArgumentCaptor.forClass(FirestoreCatalog.PointListener.class);
+        verify(catalog).addPointListener(captor.capture());
+        return captor.getValue();
+    }
+
+    private static List<String> ids(Optional<List<FirestorePoint>> points) {
+        return points.orElseThrow().stream().map(FirestorePoint::getId).toList();
+    }
+}
@@ -0,0 +1,45 @@
+package com.appunture.backend.service.counter;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+class HyperLogLogTest {
+
+    @Test
+    void estimatesDistinctValuesWithinExpectedError() {
+        HyperLogLog sketch = new HyperLogLog();
+        for (int i = 0; i < 50_000; i++) {
+            sketch.offer("user-" + i);
+            sketch.offer("user-" + i);
+        }
+
+        assertThat((double) sketch.estimate()).isCloseTo(50_000, within(50_000 * 0.05));
+    }
+
+    @Test
+    void smallCardinalitiesAreNearlyExact() {
+        HyperLogLog sketch = new HyperLogLog();
+        for (int i = 0; i < 20; i++) {
+            sketch.offer("viewer-" + (i % 10));
+        }
+
+        assertThat(sketch.estimate()).isBetween(9L, 11L);
+    }
+
+    @Test
+    void mergedSketchesCountTheUnion() {
+        HyperLogLog left = new HyperLogLog();
+        HyperLogLog right = new HyperLogLog();
+        for (int i = 0; i < 1_000; i++) {
+            left.offer("user-" + i);
+            right.offer("user-" + (i + 500));
+        }
+
+        HyperLogLog union = new HyperLogLog();
+        union.merge(HyperLogLog.mergeBytes(left.toBytes(), right.toBytes()));
+
+        assertThat((double) union.estimate()).isCloseTo(1_500, within(1_500 * 0.05));
+    }
+}
@@ -0,0 +1,46 @@
+package com.appunture.backend.service.counter;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class PopularityRankingTest {
+
+    @Test
+    void ordersByScoreThenKey() {
+        PopularityRanking ranking = new PopularityRanking();
+        ranking.update("b", 5);
+        ranking.update("a", 5);
+        ranking.update("c", 9);
+
+        assertThat(ranking.top(10)).containsExactly("c", "a", "b");
+        assertThat(ranking.top(2)).containsExactly("c", "a");
+    }
+
+    @Test
+    void adjustRepositionsOnlyKnownKeys() {
+        PopularityRanking ranking = new PopularityRanking();
+        ranking.update("a", 1);
+        ranking.update("b", 2);
+
+        ranking.adjust("a", 5);
+        ranking.adjust("unknown", 100);
+
+        assertThat(ranking.top(10)).containsExactly("a", "b");
+        assertThat(ranking.score("a")).isEqualTo(6);
+        assertThat(ranking.size()).isEqualTo(2);
+    }
+
+    @Test
+    void removeAndRetainDropEntries() {
+        PopularityRanking ranking = new PopularityRanking();
+        ranking.update("a", 1);
+        ranking.update("b", 2);
+        ranking.update("c", 3);
+
+        ranking.remove("c");
+        ranking.retainIf(key -> !key.equals("b"));
+
+        assertThat(ranking.top(10)).containsExactly("a");
+    }
+}
@@ -0,0 +1,131 @@
+package com.appunture.backend.service.counter;
+
+import com.appunture.backend.config.CounterProperties;
+import com.appunture.backend.model.firestore.FirestoreSymptom;
+import com.appunture.backend.repository.firestore.CounterWriteResult;
+import com.appunture.backend.repository.firestore.FirestoreCatalog;
+import com.appunture.backend.repository.firestore.FirestoreSymptomRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class SymptomUseRecorderTest {
+
+    @Mock
+    private FirestoreSymptomRepository symptomRepository;
+
+    @Mock
+    private FirestoreCatalog catalog;
+
+    private SimpleMeterRegistry meterRegistry;
+    private SymptomUseRecorder recorder;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        recorder = new SymptomUseRecorder(symptomRepository, catalog, new CounterProperties(), meterRegistry);
+    }
+
+    @Test
+    void usesAreCoalescedIntoOneDelta() {
+        recorder.record("s1");
+        recorder.record("s1");
+        when(symptomRepository.applyUseCountDeltas(Map.of("s1", 2L))).thenReturn(CounterWriteResult.EMPTY);
+
+        recorder.flush();
+        recorder.flush();
+
+        verify(symptomRepository).applyUseCountDeltas(Map.of("s1", 2L));
+        assertThat(recorder.pending("s1")).isZero();
+        assertThat(meterRegistry.get("app_counter_flushed_total").counter().count()).isEqualTo(2.0);
+    }
+
+    @Test
+    void liveCountAddsStoredAndPendingUsesToTheLegacyField() {
+        FirestoreSymptom symptom = FirestoreSymptom.builder().id("s1").useCount(5).build();
+        when(symptomRepository.sumUseCounts()).thenReturn(Map.of("s1", 3L));
+        recorder.record("s1");
+
+        assertThat(recorder.withLiveCount(symptom).getUseCount()).isEqualTo(9);
+        assertThat(symptom.getUseCount()).isEqualTo(5);
+    }
+
+    @Test
+    void flushedUsesStayVisibleUntilTheNextReload() {
+        FirestoreSymptom symptom = FirestoreSymptom.builder().id("s1").useCount(5).build();
+        when(symptomRepository.sumUseCounts()).thenReturn(Map.of());
+        when(symptomRepository.applyUseCountDeltas(Map.of("s1", 2L))).thenReturn(CounterWriteResult.EMPTY);
+
+        assertThat(recorder.withLiveCount(symptom)).isSameAs(symptom);
+        recorder.record("s1");
+        recorder.record("s1");
+        recorder.flush();
+
+        assertThat(recorder.withLiveCount(symptom).getUseCount()).isEqualTo(7);
+        verify(symptomRepository, times(1)).sumUseCounts();
+    }
+
+    @Test
+    void failedDeltasAreRetriedAndKeepLag() {
+        recorder.record("s1");
+        when(symptomRepository.applyUseCountDeltas(Map.of("s1", 1L)))
+                .thenReturn(new CounterWriteResult(Map.of("s1", 1L), 0));
+
+        recorder.flush();
+
+        assertThat(recorder.pending("s1")).isEqualTo(1);
+        assertThat(meterRegistry.get("app_counter_flush_lag_seconds").gauge().value()).isPositive();
+    }
+
+    @Test
+    void dropsAreCounted() {
+        recorder.record("gone");
+        when(symptomRepository.applyUseCountDeltas(any())).thenReturn(new CounterWriteResult(Map.of(), 1));
+
+        recorder.flush();
+
+        assertThat(meterRegistry.get("app_counter_dropped_total").counter().count()).isEqualTo(1.0);
+        assertThat(meterRegistry.get("app_counter_flush_lag_seconds").gauge().value()).isZero();
+    }
+
+    @Test
+    void failuresOnShutdownAreDropped() {
+        recorder.record("s1");
+        when(symptomRepository.applyUseCountDeltas(any())).thenThrow(new RuntimeException("unavailable"));
+
+        recorder.flushOnShutdown();
+
+        assertThat(recorder.pending("s1")).isZero();
+        assertThat(meterRegistry.get("app_counter_dropped_total").counter().count()).isEqualTo(1.0);
+    }
+
+    @Test
+    void usesOfSymptomsMissingFromTheCatalogAreIgnored() {
+        when(catalog.isSymptomsReady()).thenReturn(true);
+        when(catalog.containsSymptom("gone")).thenReturn(false);
+
+        recorder.record("gone");
+
+        assertThat(recorder.pending("gone")).isZero();
+    }
+
+    @Test
+    void emptyFlushSkipsRepository() {
+        recorder.flush();
+
+        verify(symptomRepository, never()).applyUseCountDeltas(any());
+    }
+}
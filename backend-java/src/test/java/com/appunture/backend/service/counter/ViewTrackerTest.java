@@ -0,0 +1,119 @@
+package com.appunture.backend.service.counter;
+
+import com.appunture.backend.config.CounterProperties;
+import com.appunture.backend.model.firestore.FirestorePoint;
+import com.appunture.backend.repository.firestore.CounterWriteResult;
+import com.appunture.backend.repository.firestore.FirestorePointRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import java.util.Map;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class ViewTrackerTest {
+
+    @Mock
+    private FirestorePointRepository pointRepository;
+
+    private ViewTracker viewTracker;
+
+    @BeforeEach
+    void setUp() {
+        viewTracker = new ViewTracker(pointRepository, new CounterProperties());
+    }
+
+    @AfterEach
+    void tearDown() {
+        RequestContextHolder.resetRequestAttributes();
+    }
+
+    @Test
+    void viewsAreBufferedAndFlushedAsOneDelta() {
+        FirestorePoint point = FirestorePoint.builder().id("vg20").viewCount(4).build();
+        when(pointRepository.sumViewCounts()).thenReturn(Map.of("vg20", 2L));
+        viewTracker.recordView("vg20");
+        viewTracker.recordView("vg20");
+        viewTracker.recordView("vg20");
+
+        assertThat(viewTracker.viewCount(point)).isEqualTo(9);
+        verify(pointRepository, never()).applyViewDeltas(any());
+
+        when(pointRepository.applyViewDeltas(Map.of("vg20", 3L))).thenReturn(CounterWriteResult.EMPTY);
+        when(pointRepository.mergeViewerRegisters(any(), any())).thenAnswer(invocation -> invocation.getArgument(0));
+        viewTracker.flush();
+
+        verify(pointRepository).applyViewDeltas(Map.of("vg20", 3L));
+        assertThat(viewTracker.viewCount(point)).isEqualTo(9);
+        assertThat(viewTracker.uniqueViewers("vg20")).isEqualTo(1);
+        verify(pointRepository, never()).findViewerRegisters(any());
+    }
+
+    @Test
+    void sketchesOfAllChangedPointsAreMergedInOneCall() {
+        viewTracker.recordView("vg20");
+        viewTracker.recordView("e36");
+        when(pointRepository.applyViewDeltas(any())).thenReturn(CounterWriteResult.EMPTY);
+        when(pointRepository.mergeViewerRegisters(any(), any())).thenAnswer(invocation -> invocation.getArgument(0));
+
+        viewTracker.flush();
+
+        verify(pointRepository, times(1)).mergeViewerRegisters(argThat(changed -> changed.keySet().equals(Set.of("vg20", "e36"))), any());
+    }
+
+    @Test
+    void failedSketchMergesAreRetriedOnNextFlush() {
+        viewTracker.recordView("vg20");
+        when(pointRepository.applyViewDeltas(any())).thenReturn(CounterWriteResult.EMPTY);
+        when(pointRepository.mergeViewerRegisters(any(), any()))
+                .thenThrow(new RuntimeException("unavailable"))
+                .thenAnswer(invocation -> invocation.getArgument(0));
+
+        viewTracker.flush();
+        viewTracker.flush();
+
+        verify(pointRepository, times(2)).mergeViewerRegisters(argThat(changed -> changed.containsKey("vg20")), any());
+        assertThat(viewTracker.uniqueViewers("vg20")).isEqualTo(1);
+    }
+
+    @Test
+    void uniqueViewersLoadPersistedSketchForUnseenPoints() {
+        HyperLogLog persisted = new HyperLogLog();
+        persisted.offer("uid:a");
+        persisted.offer("uid:b");
+        when(pointRepository.findViewerRegisters("e36")).thenReturn(persisted.toBytes());
+
+        assertThat(viewTracker.uniqueViewers("e36")).isEqualTo(2);
+        assertThat(viewTracker.uniqueViewers("e36")).isEqualTo(2);
+        verify(pointRepository).findViewerRegisters("e36");
+    }
+
+    @Test
+    void anonymousViewersAreKeyedByRemoteAddressNotForwardedHeader() {
+        for (String spoofed : new String[] {"203.0.113.1", "203.0.113.2", "203.0.113.3"}) {
+            MockHttpServletRequest request = new MockHttpServletRequest();
+            request.setRemoteAddr("198.51.100.7");
+            request.addHeader("X-Forwarded-For", spoofed);
+            request.addHeader("User-Agent", "curl/8.0");
+            RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(request));
+            viewTracker.recordView("vg20");
+        }
+
+        assertThat(viewTracker.uniqueViewers("vg20")).isEqualTo(1);
+    }
+}
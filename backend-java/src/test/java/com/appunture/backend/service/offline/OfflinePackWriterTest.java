@@ -0,0 +1,64 @@
+package com.appunture.backend.service.offline;
+
+import com.appunture.backend.model.firestore.FirestorePoint;
+import com.appunture.backend.model.firestore.FirestoreSymptom;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class OfflinePackWriterTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void writeProducesAppSchemaWithSearchAndMetadata() throws Exception {
+        FirestorePoint point = FirestorePoint.builder()
+                .id("p1").code("VG20").name("Baihui").meridian("Du Mai").location("Topo da cabeça")
+                .indication("Cefaleia, tontura").coordinates(Map.of("x", 0.5, "y", 0.1))
+                .symptomIds(new ArrayList<>(List.of("s1")))
+                .build();
+        FirestoreSymptom symptom = FirestoreSymptom.builder()
+                .id("s1").name("Cefaleia").category("Dor").tags(List.of("dor de cabeça"))
+                .pointIds(new ArrayList<>(List.of("p1")))
+                .build();
+        Path target = tempDir.resolve("catalog.sqlite");
+
+        OfflinePackWriter.write(target, List.of(point), List.of(symptom),
+                Map.of("generated_at", "2025-03-01T09:00", "sync_token", "abc"), new ObjectMapper());
+
+        try (Connection connection = DriverManager.getConnection("jdbc:sqlite:" + target);
+             Statement statement = connection.createStatement()) {
+            try (ResultSet rows = statement.executeQuery("SELECT id, indications, coordinates FROM points")) {
+                assertThat(rows.next()).isTrue();
+                assertThat(rows.getString("id")).isEqualTo("p1");
+                assertThat(rows.getString("indications")).isEqualTo("Cefaleia, tontura");
+                assertThat(rows.getString("coordinates")).contains("\"x\":0.5");
+            }
+            try (ResultSet rows = statement.executeQuery("SELECT COUNT(*) FROM symptom_points")) {
+                rows.next();
+                assertThat(rows.getInt(1)).isEqualTo(1);
+            }
+            try (ResultSet rows = statement.executeQuery(
+                    "SELECT p.code FROM points_fts JOIN points p ON p.rowid = points_fts.rowid WHERE points_fts MATCH 'cabeca'")) {
+                assertThat(rows.next()).isTrue();
+                assertThat(rows.getString(1)).isEqualTo("VG20");
+            }
+            try (ResultSet rows = statement.executeQuery("SELECT value FROM pack_meta WHERE key = 'sync_token'")) {
+                assertThat(rows.next()).isTrue();
+                assertThat(rows.getString(1)).isEqualTo("abc");
+            }
+        }
+    }
+}
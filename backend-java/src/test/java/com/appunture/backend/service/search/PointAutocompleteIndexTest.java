@@ -0,0 +1,62 @@
+package com.appunture.backend.service.search;
+
+import com.appunture.backend.dto.point.PointSuggestion;
+import com.appunture.backend.model.firestore.FirestorePoint;
+import com.appunture.backend.repository.firestore.FirestoreCatalog;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class PointAutocompleteIndexTest {
+
+    @Mock
+    private FirestoreCatalog catalog;
+
+    private PointAutocompleteIndex autocompleteIndex;
+
+    @BeforeEach
+    void setUp() {
+        when(catalog.pointsVersion()).thenReturn(1L);
+        when(catalog.allPoints()).thenReturn(List.of(
+                FirestorePoint.builder().id("VG20").code("VG20").name("Baihui").favoriteCount(3)
+                        .tags(List.of("Calmante")).build(),
+                FirestorePoint.builder().id("E8").code("E8").name("Touwei - Cabeça").favoriteCount(1).build(),
+                FirestorePoint.builder().id("E36").code("E36").name("Zusanli").favoriteCount(9).build(),
+                FirestorePoint.builder().id("VB20").code("VB20").name("Fengchi").build()
+        ));
+        autocompleteIndex = new PointAutocompleteIndex(catalog);
+    }
+
+    @Test
+    void completesCodesRankedByFavorites() {
+        assertThat(codes(autocompleteIndex.suggest("v", 10))).containsExactly("VG20", "VB20");
+        assertThat(codes(autocompleteIndex.suggest("E", 10))).containsExactly("E36", "E8");
+        assertThat(codes(autocompleteIndex.suggest("e3", 10))).containsExactly("E36");
+    }
+
+    @Test
+    void completesNameWordsAndTagsIgnoringAccents() {
+        assertThat(codes(autocompleteIndex.suggest("cabé", 10))).containsExactly("E8");
+        assertThat(codes(autocompleteIndex.suggest("touwei cab", 10))).containsExactly("E8");
+        assertThat(codes(autocompleteIndex.suggest("calm", 10))).containsExactly("VG20");
+    }
+
+    @Test
+    void respectsLimitAndUnknownPrefixes() {
+        assertThat(codes(autocompleteIndex.suggest("e", 1))).containsExactly("E36");
+        assertThat(autocompleteIndex.suggest("xyz", 10)).isEmpty();
+        assertThat(autocompleteIndex.suggest("  ", 10)).isEmpty();
+    }
+
+    private static List<String> codes(List<PointSuggestion> suggestions) {
+        return suggestions.stream().map(PointSuggestion::getCode).toList();
+    }
+}
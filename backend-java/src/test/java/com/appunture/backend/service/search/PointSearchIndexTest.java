@@ -0,0 +1,77 @@
+package com.appunture.backend.service.search;
+
+import com.appunture.backend.model.firestore.FirestorePoint;
+import com.appunture.backend.repository.firestore.FirestoreCatalog;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class PointSearchIndexTest {
+
+    @Mock
+    private FirestoreCatalog catalog;
+
+    private PointSearchIndex searchIndex;
+
+    private final FirestorePoint baihui = FirestorePoint.builder()
+            .id("VG20").code("VG20").name("Baihui")
+            .indication("Dor de cabeça, insônia e tontura")
+            .tags(List.of("calmante"))
+            .build();
+    private final FirestorePoint touwei = FirestorePoint.builder()
+            .id("E8").code("E8").name("Touwei - Cabeça")
+            .location("Canto da testa")
+            .build();
+    private final FirestorePoint zusanli = FirestorePoint.builder()
+            .id("E36").code("E36").name("Zusanli")
+            .description("Ponto tônico geral, usado para dor abdominal")
+            .build();
+
+    @BeforeEach
+    void setUp() {
+        when(catalog.pointsVersion()).thenReturn(1L);
+        when(catalog.allPoints()).thenReturn(List.of(baihui, touwei, zusanli));
+        searchIndex = new PointSearchIndex(catalog);
+    }
+
+    @Test
+    void searchIgnoresAccentsAndCase() {
+        assertThat(searchIndex.search("CABECA")).contains(baihui, touwei);
+        assertThat(searchIndex.search("insonia")).containsExactly(baihui);
+    }
+
+    @Test
+    void searchCoversTagsDescriptionAndCode() {
+        assertThat(searchIndex.search("calmante")).containsExactly(baihui);
+        assertThat(searchIndex.search("abdominal")).containsExactly(zusanli);
+        assertThat(searchIndex.search("e36")).containsExactly(zusanli);
+    }
+
+    @Test
+    void documentsMatchingMoreQueryTermsRankFirst() {
+        List<FirestorePoint> result = searchIndex.search("dor de cabeça");
+
+        assertThat(result).containsExactly(baihui, touwei, zusanli);
+    }
+
+    @Test
+    void nameMatchesOutrankLongerFieldMatches() {
+        List<FirestorePoint> result = searchIndex.search("cabeça");
+
+        assertThat(result).containsExactly(touwei, baihui);
+    }
+
+    @Test
+    void prefixesMatchLongerTerms() {
+        assertThat(searchIndex.search("zusan")).containsExactly(zusanli);
+        assertThat(searchIndex.search("xyz")).isEmpty();
+    }
+}
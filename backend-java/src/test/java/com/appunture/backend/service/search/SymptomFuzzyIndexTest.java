@@ -0,0 +1,57 @@
+package com.appunture.backend.service.search;
+
+import com.appunture.backend.model.firestore.FirestoreSymptom;
+import com.appunture.backend.repository.firestore.FirestoreCatalog;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.lenient;
+
+@ExtendWith(MockitoExtension.class)
+class SymptomFuzzyIndexTest {
+
+    @Mock
+    private FirestoreCatalog catalog;
+
+    private SymptomFuzzyIndex fuzzyIndex;
+
+    private final FirestoreSymptom headache = FirestoreSymptom.builder()
+            .id("s1").name("Dor de cabeça").tags(List.of("cefaleia")).build();
+    private final FirestoreSymptom backPain = FirestoreSymptom.builder()
+            .id("s2").name("Dor nas costas").build();
+    private final FirestoreSymptom insomnia = FirestoreSymptom.builder()
+            .id("s3").name("Insônia").tags(List.of("sono")).build();
+
+    @BeforeEach
+    void setUp() {
+        lenient().when(catalog.symptomsVersion()).thenReturn(1L);
+        lenient().when(catalog.allSymptoms()).thenReturn(List.of(headache, backPain, insomnia));
+        fuzzyIndex = new SymptomFuzzyIndex(catalog);
+    }
+
+    @Test
+    void toleratesMissingAccentsAndMisspellings() {
+        assertThat(fuzzyIndex.search("insonia")).containsExactly(insomnia);
+        assertThat(fuzzyIndex.search("dor de cabesa")).containsExactly(headache, backPain);
+        assertThat(fuzzyIndex.search("cefalea")).containsExactly(headache);
+    }
+
+    @Test
+    void keepsPrefixMatchesAndRejectsDistantTerms() {
+        assertThat(fuzzyIndex.search("cost")).containsExactly(backPain);
+        assertThat(fuzzyIndex.search("xyzw")).isEmpty();
+    }
+
+    @Test
+    void boundedDistanceStopsAtTheLimit() {
+        assertThat(SymptomFuzzyIndex.boundedDistance("cabesa", "cabeca", 1)).isEqualTo(1);
+        assertThat(SymptomFuzzyIndex.boundedDistance("costas", "cabeca", 2)).isEqualTo(3);
+        assertThat(SymptomFuzzyIndex.boundedDistance("sono", "insonia", 1)).isEqualTo(2);
+    }
+}